@@ -19,10 +19,16 @@ package com.sun.jsft.event;
 
 import com.sun.jsft.util.Util;
 
+import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Locale;
 import jakarta.el.ELContext;
+import jakarta.el.ELResolver;
 import jakarta.el.ExpressionFactory;
+import jakarta.el.FunctionMapper;
+import jakarta.el.ImportHandler;
 import jakarta.el.ValueExpression;
+import jakarta.el.VariableMapper;
 import jakarta.faces.context.FacesContext;
 import jakarta.faces.event.AbortProcessingException;
 
@@ -71,20 +77,31 @@ public class ELCommand extends Command {
 	// their child Commands.
 	ctx.getExternalContext().getRequestMap().put(COMMAND_KEY, this);
 
-	// Create expression
-	ExpressionFactory fact = ctx.getApplication().getExpressionFactory();
+	// Get the expression (it is only parsed once if it can be shared)
 	ValueExpression ve = null;
 	Object result = null;
 	if (this.el.length() > 0) {
-	    ve = fact.createValueExpression(
-		    elCtx, "#{" + this.el + "}", Object.class);
+	    ve = this.expression;
+	    if (ve == null) {
+		ParseContext parseCtx = new ParseContext(elCtx);
+		ve = createValueExpression(ctx, parseCtx, this.el);
+		if (!parseCtx.mapped) {
+		    this.expression = ve;
+		}
+	    }
 	    // Execute expression
 	    result = ve.getValue(elCtx);
 
 	    // If we should store the result... do it.
 	    if (this.resultVar != null) {
-		ve = fact.createValueExpression(
-			elCtx, "#{" + this.resultVar + "}", Object.class);
+		ve = this.resultExpression;
+		if (ve == null) {
+		    ParseContext parseCtx = new ParseContext(elCtx);
+		    ve = createValueExpression(ctx, parseCtx, this.resultVar);
+		    if (!parseCtx.mapped) {
+			this.resultExpression = ve;
+		    }
+		}
 		ve.setValue(elCtx, result);
 	    }
 	} else {
@@ -95,6 +112,24 @@ public class ELCommand extends Command {
 	return result;
     }
 
+    /**
+     *	<p> This method parses the given expression (without the
+     *	    <code>#{}</code>).  The parser binds the functions and variables
+     *	    it finds in the <code>FunctionMapper</code> and
+     *	    <code>VariableMapper</code> of the <code>ELContext</code> (e.g.
+     *	    <code>ui:param</code> values) into the
+     *	    <code>ValueExpression</code>.  If it did not use either (see
+     *	    {@link ParseContext}), the <code>ValueExpression</code> does not
+     *	    depend on the <code>ELContext</code> and it is kept for the life
+     *	    of this <code>ELCommand</code> (it is transient, so it is parsed
+     *	    again after deserialization).  Otherwise it is parsed again for
+     *	    each invocation.</p>
+     */
+    private static ValueExpression createValueExpression(FacesContext ctx, ParseContext parseCtx, String exp) {
+	ExpressionFactory fact = ctx.getApplication().getExpressionFactory();
+	return fact.createValueExpression(parseCtx, "#{" + exp + "}", Object.class);
+    }
+
     /**
      *	<p> Print out the <code>ELCommand</code>.</p>
      */
@@ -138,8 +173,87 @@ public class ELCommand extends Command {
 	return hash;
     }
 
+    /**
+     *	<p> This <code>ELContext</code> delegates to the
+     *	    <code>ELContext</code> of the request.  It records whether the
+     *	    parser resolved a function or variable through it.</p>
+     */
+    private static class ParseContext extends ELContext {
+	ParseContext(ELContext elCtx) {
+	    this.elCtx = elCtx;
+	    final FunctionMapper fnMapper = elCtx.getFunctionMapper();
+	    if (fnMapper != null) {
+		this.fnMapper = new FunctionMapper() {
+		    @Override
+		    public Method resolveFunction(String prefix, String localName) {
+			Method method = fnMapper.resolveFunction(prefix, localName);
+			if (method != null) {
+			    mapped = true;
+			}
+			return method;
+		    }
+		};
+	    }
+	    final VariableMapper varMapper = elCtx.getVariableMapper();
+	    if (varMapper != null) {
+		this.varMapper = new VariableMapper() {
+		    @Override
+		    public ValueExpression resolveVariable(String variable) {
+			ValueExpression value = varMapper.resolveVariable(variable);
+			if (value != null) {
+			    mapped = true;
+			}
+			return value;
+		    }
+
+		    @Override
+		    public ValueExpression setVariable(String variable, ValueExpression expression) {
+			return varMapper.setVariable(variable, expression);
+		    }
+		};
+	    }
+	}
+
+	@Override
+	public ELResolver getELResolver() {
+	    return elCtx.getELResolver();
+	}
+
+	@Override
+	public FunctionMapper getFunctionMapper() {
+	    return fnMapper;
+	}
+
+	@Override
+	public VariableMapper getVariableMapper() {
+	    return varMapper;
+	}
+
+	@Override
+	public ImportHandler getImportHandler() {
+	    return elCtx.getImportHandler();
+	}
+
+	@Override
+	public Object getContext(Class<?> key) {
+	    return elCtx.getContext(key);
+	}
+
+	@Override
+	public Locale getLocale() {
+	    return elCtx.getLocale();
+	}
+
+	private final ELContext elCtx;
+	private FunctionMapper fnMapper = null;
+	private VariableMapper varMapper = null;
+	private boolean mapped = false;
+    }
+
     private String resultVar = null;
     private String el = null;
     private transient int hash = -1;
+    private transient volatile ValueExpression expression = null;
+    private transient volatile ValueExpression resultExpression = null;
     private static final long serialVersionUID = 6201115935174238909L;
 }
@@ -24,10 +24,14 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.faces.context.FacesContext;
+
 
 /**
  *  <p>	This class is responsible for reading in all the commands for the
@@ -55,6 +59,75 @@ public class CommandReader {
 	_parser = new CommandParser(stream);
     }
 
+    /**
+     *	<p> This method returns the {@link Command}s for the given
+     *	    <code>String</code> (see {@link #CommandReader(String)}).  The
+     *	    result is remembered per application, so the same
+     *	    <code>String</code> (e.g. the same <code>jsft:event</code> body in
+     *	    another Facelets compilation) is only parsed once.  The returned
+     *	    <code>List</code> is shared, it may not be modified.</p>
+     *
+     *	@param	ctx	The <code>FacesContext</code>, if <code>null</code>
+     *			the <code>String</code> is always parsed.
+     *	@param	str	The {@link Command}s to read.
+     *
+     *	@throws	IOException
+     */
+    public static List<Command> readCommands(FacesContext ctx, String str) throws IOException {
+	Map<String, List<Command>> cache = getCommandsCache(ctx);
+	if (cache == null) {
+	    return Collections.unmodifiableList(new CommandReader(str).read());
+	}
+	List<Command> commands;
+	synchronized (cache) {
+	    commands = cache.get(str);
+	}
+	if (commands == null) {
+	    // Parse outside the lock, at worst 2 threads parse the same String
+	    commands = Collections.unmodifiableList(new CommandReader(str).read());
+	    synchronized (cache) {
+		cache.put(str, commands);
+	    }
+	}
+	return commands;
+    }
+
+    /**
+     *	<p> Provides access to the application-scoped <code>Map</code> of
+     *	    {@link Command}s remembered by
+     *	    {@link #readCommands(FacesContext, String)}.  It holds at most
+     *	    {@link #MAX_CACHED_COMMANDS} entries, the least recently used
+     *	    entry is removed first.  Access to it must be synchronized on
+     *	    the <code>Map</code>.</p>
+     */
+    private static Map<String, List<Command>> getCommandsCache(FacesContext ctx) {
+	if (ctx == null) {
+	    ctx = FacesContext.getCurrentInstance();
+	    if (ctx == null) {
+		return null;
+	    }
+	}
+	Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+	Map<String, List<Command>> cache = (Map<String, List<Command>>) appMap.get(COMMANDS_CACHE);
+	if (cache == null) {
+	    // 1st time... initialize it
+	    cache = new LinkedHashMap<String, List<Command>>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, List<Command>> eldest) {
+		    return size() > MAX_CACHED_COMMANDS;
+		}
+
+		private static final long serialVersionUID = 1L;
+	    };
+	    // Another thread may have done the same, use its Map
+	    Object existing = appMap.putIfAbsent(COMMANDS_CACHE, cache);
+	    if (existing != null) {
+		cache = (Map<String, List<Command>>) existing;
+	    }
+	}
+	return cache;
+    }
+
     /**
      *	<p> The read method uses the {@link CommandParser} to parses the
      *	    template.  It populates a {@link LayoutDefinition} structure, which
@@ -294,5 +367,17 @@ public class CommandReader {
     private static final String	    OPEN_CDATA	    = "<![CDATA[";
     private static final String	    CLOSE_CDATA	    = "]]>";
 
+    /**
+     *	<p> The maximum number of parsed <code>String</code>s remembered by
+     *	    {@link #readCommands(FacesContext, String)} per application.</p>
+     */
+    private static final int MAX_CACHED_COMMANDS = 1000;
+
+    /**
+     *	<p> Application scope key for the {@link Command}s remembered by
+     *	    {@link #readCommands(FacesContext, String)}.</p>
+     */
+    private static final String COMMANDS_CACHE = "__jsft_CommandsCache";
+
     private CommandParser  _parser    = null;
 }
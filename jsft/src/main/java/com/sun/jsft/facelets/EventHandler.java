@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import jakarta.faces.FacesException;
 import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
 import jakarta.faces.event.PostAddToViewEvent;
 import jakarta.faces.event.PostConstructViewMapEvent;
 import jakarta.faces.event.PostRestoreStateEvent;
@@ -67,12 +68,10 @@ public class EventHandler extends TagHandler {
 	    return;
 	}
 
-	// Create a CommandReader
-	CommandReader reader = new CommandReader(config.getNextHandler().toString());
-
-	// Read the Commands
+	// Read the Commands (identical bodies share the Commands)
 	try {
-	    commands = reader.read();
+	    commands = CommandReader.readCommands(
+		    FacesContext.getCurrentInstance(), config.getNextHandler().toString());
 	} catch (IOException ex) {
 	    throw new RuntimeException(
 		    "Unable to parse Commands for event type '" + type + "'.",
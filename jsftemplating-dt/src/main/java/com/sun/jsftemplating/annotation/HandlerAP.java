@@ -20,11 +20,16 @@ package com.sun.jsftemplating.annotation;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,19 +42,33 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.SimpleElementVisitor6;
 import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
 import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
 
 /**
  * A JSR 169 compliant annotation processor for Handler annotation
  * This is required for JDK8+, since APT has been deprecated.
+ * <p>
+ * Besides the <code>Handler.map</code> file, a class named
+ * <code>&lt;TopLevelClass&gt;_JSFTHandlers</code> is generated for the
+ * handlers of each compilation unit. It defines the handlers and calls
+ * them directly, and is listed in
+ * <code>META-INF/services/</code>{@link #PROVIDER_INTERFACE}, so the
+ * runtime doesn't need to read the <code>Handler.map</code> or use
+ * reflection. The <code>Handler.map</code> is still written for older
+ * runtimes.</p>
  * @author Romain Grecourt
  */
 @SupportedAnnotationTypes(value = {
@@ -65,18 +84,104 @@ public class HandlerAP extends AbstractProcessor {
 
 //  public static final String HANDLER_FILE = "Handler.map";
   public static final String HANDLER_FILE = "META-INF/jsftemplating/Handler.map";
-  private PrintWriter writer = null;
+
+  /**
+   * <p>
+   * The interface implemented by the generated handler classes, the
+   * <code>ServiceLoader</code> file listing them has this name.</p>
+   */
+  public static final String PROVIDER_INTERFACE =
+      "com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinitionProvider";
+
+  /**
+   * <p>
+   * The first line of the <code>Handler.map</code> starts with this
+   * when it was generated along with handler classes, it is followed
+   * by their names.</p>
+   */
+  public static final String PROVIDER_MARKER = "#jsftemplating.providers=";
+
+  /**
+   * <p>
+   * The suffix of the name of the generated handler classes.</p>
+   */
+  public static final String PROVIDER_SUFFIX = "_JSFTHandlers";
+
+  private static final String HD = "com.sun.jsftemplating.layout.descriptors.handler.";
+
+  private StringWriter buffer = new StringWriter();
+  private PrintWriter writer = new PrintWriter(buffer);
   private boolean _setup = false;
   private Map handlers = new HashMap();
 
-    private boolean setup() {
+  // The handlers of each top-level type, in the order they are found
+  private Map<TypeElement, List<HandlerInfo>> _pending = new LinkedHashMap<TypeElement, List<HandlerInfo>>();
+  private List<String> _providers = new ArrayList<String>();
+  private boolean _allGenerated = true;
+
+  private boolean setup() {
     if (_setup) {
       // Don't do setup more than once
       return true;
     }
+    _setup = true;
+    return _setup;
+  }
+
+  /**
+   * <p>
+   * This method writes the <code>Handler.map</code> file, and the
+   * <code>ServiceLoader</code> file listing the generated handler
+   * classes.</p>
+   *
+   * <p>
+   * If the processor's <code>ClassLoader</code> finds a
+   * <code>Handler.map</code> in a directory (e.g. the output of an
+   * earlier incremental compilation), the handlers of this compilation
+   * are merged into it. Its first line only names the generated
+   * classes if every handler in the merged file was generated. The
+   * <code>ServiceLoader</code> file found the same way is merged
+   * too.</p>
+   */
+  private void writeFiles() {
+    PrintWriter out = null;
     try {
       // Create factory mapping file
-      writer = getMapWriter();
+      List<String> providers = new ArrayList<String>(_providers);
+      boolean marker = _allGenerated;
+      String body = buffer.toString();
+      File file = findFile(HANDLER_FILE);
+      if (file != null) {
+        // Merge with the existing file...
+        String old = new String(Files.readAllBytes(file.toPath()));
+        if (old.startsWith(PROVIDER_MARKER)) {
+          int end = old.indexOf('\n');
+          String line = (end == -1) ? old : old.substring(0, end);
+          old = (end == -1) ? "" : old.substring(end + 1);
+          for (String provider : line.substring(PROVIDER_MARKER.length()).trim().split(",")) {
+            if (!provider.isEmpty() && !providers.contains(provider)) {
+              providers.add(provider);
+            }
+          }
+        } else if (!old.trim().isEmpty()) {
+          // Handlers which were not generated
+          marker = false;
+        }
+        body = old + body;
+        out = new PrintWriter(new FileOutputStream(file));
+      } else {
+        // File not found, create a new one...
+        FileObject fo = processingEnv.getFiler().createResource(
+            StandardLocation.CLASS_OUTPUT, "", HANDLER_FILE);
+        out = new PrintWriter(fo.openWriter());
+      }
+      if (marker && !providers.isEmpty()) {
+        out.println(PROVIDER_MARKER + String.join(",", providers));
+      }
+      out.print(body);
+      out.close();
+
+      writeServicesFile();
     } catch (IOException ex) {
       StringWriter buf = new StringWriter();
       ex.printStackTrace(new PrintWriter(buf));
@@ -85,34 +190,68 @@ public class HandlerAP extends AbstractProcessor {
           String.format("Unable to write %s file while processing @FormatDefinition annotation %s",
               HANDLER_FILE,
               buf.toString()));
-      return false;
     }
-    _setup = true;
-    return _setup;
   }
 
-  private PrintWriter getMapWriter() throws IOException {
-    PrintWriter _writer = null;
+  /**
+   * <p>
+   * This method writes the <code>ServiceLoader</code> file listing the
+   * generated handler classes, keeping those listed by an existing
+   * file (see {@link #writeFiles()}).</p>
+   */
+  private void writeServicesFile() throws IOException {
+    String name = "META-INF/services/" + PROVIDER_INTERFACE;
+    File file = findFile(name);
+    List<String> providers = new ArrayList<String>();
+    if (file != null) {
+      for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+        int idx = line.indexOf('#');
+        line = ((idx == -1) ? line : line.substring(0, idx)).trim();
+        if (!line.isEmpty() && !providers.contains(line)) {
+          providers.add(line);
+        }
+      }
+    }
+    int size = providers.size();
+    for (String provider : _providers) {
+      if (!providers.contains(provider)) {
+        providers.add(provider);
+      }
+    }
+    if (providers.size() == size) {
+      // Nothing new
+      return;
+    }
+    PrintWriter out;
+    if (file != null) {
+      out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    } else {
+      FileObject fo = processingEnv.getFiler().createResource(
+          StandardLocation.CLASS_OUTPUT, "", name);
+      out = new PrintWriter(new OutputStreamWriter(fo.openOutputStream(), StandardCharsets.UTF_8));
+    }
+    for (String provider : providers) {
+      out.println(provider);
+    }
+    out.close();
+  }
+
+  /**
+   * <p>
+   * This method returns the first file with the given name which the
+   * processor's <code>ClassLoader</code> finds in a directory, or
+   * <code>null</code>.</p>
+   */
+  private File findFile(String name) throws IOException {
     ClassLoader cl = this.getClass().getClassLoader();
     URL url;
-    for (Enumeration<URL> urls = cl.getResources(HANDLER_FILE);
-        urls.hasMoreElements() && (_writer == null);) {
+    for (Enumeration<URL> urls = cl.getResources(name); urls.hasMoreElements();) {
       url = urls.nextElement();
       if ((url != null) && new File(url.getFile()).canRead()) {
-        // Append to the existing file...
-        _writer = new PrintWriter(new FileOutputStream(url.getFile(), true));
+        return new File(url.getFile());
       }
     }
-    if (_writer == null) {
-      // File not found, create a new one...
-      FileObject  fo = processingEnv.getFiler().createResource(
-          StandardLocation.CLASS_OUTPUT,
-          "",
-          HANDLER_FILE);
-      _writer = new PrintWriter(fo.openWriter());
-      return _writer;
-    }
-    return _writer;
+    return null;
   }
 
   private static final class ElementVisitor extends SimpleElementVisitor6<TypeElement, Void> {
@@ -341,6 +480,11 @@ public class HandlerAP extends AbstractProcessor {
           writeIOProperties(id, "output", output);
         }
 
+        // Remember it for the generated class
+        if ((id != null) && an.getAnnotationType().toString().equals(Handler.class.getName())) {
+          addHandlerInfo(id, decl, teDecl, input, output);
+        }
+
         // Method signature checks...
         // Make sure method is accessible (public)
         if (!decl.getModifiers().contains(Modifier.PUBLIC)) {
@@ -368,9 +512,319 @@ public class HandlerAP extends AbstractProcessor {
       }
     }
 
-    if(_setup){
+    // Generate the classes for the handlers found in this round
+    generateProviders();
+
+    if (roundEnv.processingOver() && _setup) {
       writer.close();
+      writeFiles();
     }
     return roundEnv.processingOver();
   }
+
+  /**
+   * <p>
+   * This method records the information needed to generate the code
+   * which defines and calls the given handler method. If the method
+   * can't be called from a class in the package of its top-level
+   * class, it is left to the <code>Handler.map</code>.</p>
+   */
+  private void addHandlerInfo(String id, Element decl, TypeElement teDecl,
+      List<AnnotationValue> input, List<AnnotationValue> output) {
+    if (processingEnv.getElementUtils().getTypeElement(PROVIDER_INTERFACE) == null) {
+      // An older JSFTemplating, only use the Handler.map
+      _allGenerated = false;
+      return;
+    }
+    ExecutableElement exe = decl.accept(new ExecutableElementVisitor(), null);
+    boolean isStatic = decl.getModifiers().contains(Modifier.STATIC);
+    if ((exe == null) || !decl.getModifiers().contains(Modifier.PUBLIC)
+        || (exe.getParameters().size() != 1) || !isAccessible(teDecl)
+        || (!isStatic && !isInstantiable(teDecl))) {
+      _allGenerated = false;
+      return;
+    }
+
+    HandlerInfo info = new HandlerInfo();
+    info.id = id;
+    info.className = processingEnv.getElementUtils().getBinaryName(teDecl).toString();
+    info.typeName = teDecl.getQualifiedName().toString();
+    info.methodName = decl.getSimpleName().toString();
+    info.isStatic = isStatic;
+    info.isVoid = exe.getReturnType().getKind() == TypeKind.VOID;
+    info.inputs = getIOInfo(input);
+    info.outputs = getIOInfo(output);
+
+    TypeElement top = teDecl;
+    while (top.getEnclosingElement() instanceof TypeElement) {
+      top = (TypeElement) top.getEnclosingElement();
+    }
+    List<HandlerInfo> infos = _pending.get(top);
+    if (infos == null) {
+      infos = new ArrayList<HandlerInfo>();
+      _pending.put(top, infos);
+    }
+    infos.add(info);
+  }
+
+  /**
+   * <p>
+   * This method returns <code>true</code> if the given type (and the
+   * types enclosing it) is not private.</p>
+   */
+  private static boolean isAccessible(TypeElement type) {
+    Element elt = type;
+    while (elt instanceof TypeElement) {
+      if (elt.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      elt = elt.getEnclosingElement();
+    }
+    return true;
+  }
+
+  /**
+   * <p>
+   * This method returns <code>true</code> if the given type can be
+   * created with <code>new</code> and no arguments.</p>
+   */
+  private static boolean isInstantiable(TypeElement type) {
+    if ((type.getKind() != ElementKind.CLASS)
+        || type.getModifiers().contains(Modifier.ABSTRACT)
+        || ((type.getEnclosingElement() instanceof TypeElement)
+            && !type.getModifiers().contains(Modifier.STATIC))) {
+      return false;
+    }
+    List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+    for (ExecutableElement constructor : constructors) {
+      if (constructor.getParameters().isEmpty()
+          && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        return true;
+      }
+    }
+    return constructors.isEmpty();
+  }
+
+  /**
+   * <p>
+   * This method reads the <code>@HandlerInput</code> or
+   * <code>@HandlerOutput</code> annotations.</p>
+   */
+  private List<IOInfo> getIOInfo(List<AnnotationValue> ioList) {
+    List<IOInfo> result = new ArrayList<IOInfo>();
+    if (ioList == null) {
+      return result;
+    }
+    for (AnnotationValue ioVal : ioList) {
+      IOInfo io = new IOInfo();
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> prop
+          : ((AnnotationMirror) ioVal.getValue()).getElementValues().entrySet()) {
+        String key = prop.getKey().getSimpleName().toString();
+        Object value = prop.getValue().getValue();
+        if (key.equals(HandlerInput.NAME)) {
+          io.name = value.toString();
+        } else if (key.equals(HandlerInput.TYPE)) {
+          io.type = processingEnv.getTypeUtils().erasure((TypeMirror) value).toString();
+        } else if (key.equals(HandlerInput.REQUIRED)) {
+          io.required = Boolean.TRUE.equals(value);
+        } else if (key.equals(HandlerInput.DEFAULT)) {
+          io.defaultValue = value.toString();
+        }
+      }
+      result.add(io);
+    }
+    return result;
+  }
+
+  /**
+   * <p>
+   * This method generates a class for each top-level type whose
+   * handlers were found since it was last called. The class defines
+   * the handlers, and calls them directly (see
+   * <code>HandlerDefinitionProvider</code> and
+   * <code>HandlerDispatcher</code>).</p>
+   */
+  private void generateProviders() {
+    for (Map.Entry<TypeElement, List<HandlerInfo>> entry : _pending.entrySet()) {
+      TypeElement top = entry.getKey();
+      String pkg = processingEnv.getElementUtils().getPackageOf(top).getQualifiedName().toString();
+      String simpleName = top.getSimpleName() + PROVIDER_SUFFIX;
+      String className = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+      try {
+        JavaFileObject jfo = processingEnv.getFiler().createSourceFile(className, top);
+        PrintWriter out = new PrintWriter(jfo.openWriter());
+        writeProvider(out, pkg, simpleName, top, entry.getValue());
+        out.close();
+        _providers.add(className);
+      } catch (IOException ex) {
+        _allGenerated = false;
+        processingEnv.getMessager().printMessage(Kind.WARNING,
+            String.format("Unable to generate %s, %s will be used: %s",
+                className, HANDLER_FILE, ex), top);
+      }
+    }
+    _pending.clear();
+  }
+
+  /**
+   * <p>
+   * This method writes the source of a generated handler class.</p>
+   */
+  private void writeProvider(PrintWriter out, String pkg, String simpleName,
+      TypeElement top, List<HandlerInfo> infos) {
+    out.println("// Generated by " + HandlerAP.class.getName() + ", do not edit.");
+    if (!pkg.isEmpty()) {
+      out.println("package " + pkg + ";");
+      out.println();
+    }
+    out.println("/**");
+    out.println(" * The handlers of {@link " + top.getQualifiedName() + "}.");
+    out.println(" */");
+    out.println("@SuppressWarnings(\"all\")");
+    out.println("public final class " + simpleName + " implements " + HD
+        + "HandlerDefinitionProvider, " + HD + "HandlerDispatcher {");
+    out.println();
+    out.println("    public " + simpleName + "() {");
+    out.println("    }");
+    out.println();
+
+    // Definitions
+    out.println("    @java.lang.Override");
+    out.println("    public void addHandlerDefinitions(java.util.Map<java.lang.String, "
+        + HD + "HandlerDefinition> defs) {");
+    out.println("        " + HD + "HandlerDefinition def;");
+    out.println("        " + HD + "IODescriptor io;");
+    int idx = 0;
+    for (HandlerInfo info : infos) {
+      out.println();
+      out.println("        def = new " + HD + "HandlerDefinition(" + quote(info.id) + ");");
+      out.println("        def.setHandlerMethod(" + quote(info.className) + ", "
+          + quote(info.methodName) + ");");
+      out.println("        def.setHandlerDispatcher(this, " + idx + ", " + info.isStatic + ");");
+      for (IOInfo io : info.inputs) {
+        out.println("        io = new " + HD + "IODescriptor(" + quote(io.name) + ", "
+            + io.type + ".class);");
+        if (io.required) {
+          out.println("        io.setRequired(true);");
+        }
+        if ((io.defaultValue != null)
+            && !io.defaultValue.equals(HandlerInput.DEFAULT_DEFAULT_VALUE)) {
+          out.println("        io.setDefault(" + quote(io.defaultValue) + ");");
+        }
+        out.println("        def.addInputDef(io);");
+      }
+      for (IOInfo io : info.outputs) {
+        out.println("        def.addOutputDef(new " + HD + "IODescriptor(" + quote(io.name)
+            + ", " + io.type + ".class));");
+      }
+      out.println("        defs.put(" + quote(info.id) + ", def);");
+      idx++;
+    }
+    out.println("    }");
+    out.println();
+
+    // Dispatch
+    out.println("    @java.lang.Override");
+    out.println("    public java.lang.Object invoke(int handler, java.lang.Object instance, "
+        + HD + "HandlerContext handlerCtx) throws java.lang.Throwable {");
+    out.println("        switch (handler) {");
+    idx = 0;
+    for (HandlerInfo info : infos) {
+      String target = info.isStatic ? info.typeName : "((" + info.typeName + ") instance)";
+      out.println("        case " + idx + ":");
+      if (info.isVoid) {
+        out.println("            " + target + "." + info.methodName + "(handlerCtx);");
+        out.println("            return null;");
+      } else {
+        out.println("            return " + target + "." + info.methodName + "(handlerCtx);");
+      }
+      idx++;
+    }
+    out.println("        default:");
+    out.println("            throw new java.lang.IllegalArgumentException(\"Unknown handler: \" + handler);");
+    out.println("        }");
+    out.println("    }");
+    out.println();
+
+    // Instances
+    out.println("    @java.lang.Override");
+    out.println("    public java.lang.Object newInstance(int handler) {");
+    out.println("        switch (handler) {");
+    idx = 0;
+    for (HandlerInfo info : infos) {
+      if (!info.isStatic) {
+        out.println("        case " + idx + ":");
+        out.println("            return new " + info.typeName + "();");
+      }
+      idx++;
+    }
+    out.println("        default:");
+    out.println("            throw new java.lang.IllegalArgumentException(\"Not an instance handler: \" + handler);");
+    out.println("        }");
+    out.println("    }");
+    out.println("}");
+  }
+
+  /**
+   * <p>
+   * This method returns the given <code>String</code> as a Java
+   * <code>String</code> literal.</p>
+   */
+  private static String quote(String str) {
+    StringBuilder buf = new StringBuilder("\"");
+    for (int idx = 0; idx < str.length(); idx++) {
+      char ch = str.charAt(idx);
+      switch (ch) {
+        case '"':
+          buf.append("\\\"");
+          break;
+        case '\\':
+          buf.append("\\\\");
+          break;
+        case '\n':
+          buf.append("\\n");
+          break;
+        case '\r':
+          buf.append("\\r");
+          break;
+        case '\t':
+          buf.append("\\t");
+          break;
+        default:
+          if ((ch < 0x20) || (ch > 0x7e)) {
+            buf.append(String.format("\\u%04x", (int) ch));
+          } else {
+            buf.append(ch);
+          }
+      }
+    }
+    return buf.append('"').toString();
+  }
+
+  /**
+   * <p>
+   * The information needed to generate the code for a handler.</p>
+   */
+  private static final class HandlerInfo {
+    String id;
+    String className;
+    String typeName;
+    String methodName;
+    boolean isStatic;
+    boolean isVoid;
+    List<IOInfo> inputs;
+    List<IOInfo> outputs;
+  }
+
+  /**
+   * <p>
+   * The information of a <code>@HandlerInput</code> or
+   * <code>@HandlerOutput</code>.</p>
+   */
+  private static final class IOInfo {
+    String name;
+    String type = "java.lang.Object";
+    boolean required;
+    String defaultValue;
+  }
 }
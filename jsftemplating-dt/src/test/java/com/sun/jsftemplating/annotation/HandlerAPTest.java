@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *  <p>	Tests for the {@link HandlerAP}.</p>
+ */
+public class HandlerAPTest {
+
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    /**
+     *	<p> A class is generated for the handlers, and the
+     *	    <code>Handler.map</code> names it.</p>
+     */
+    @Test
+    public void testGenerate() throws Exception {
+        File out = _folder.newFolder("classes");
+        compile(out, "test.Foo", FOO);
+        Assert.assertTrue(new File(out, "test/Foo_JSFTHandlers.class").isFile());
+        List<String> map = readLines(out, HandlerAP.HANDLER_FILE);
+        Assert.assertEquals(HandlerAP.PROVIDER_MARKER + "test.Foo_JSFTHandlers", map.get(0));
+        Assert.assertTrue(map.contains("foo.class=test.Foo"));
+        Assert.assertEquals(Arrays.asList("test.Foo_JSFTHandlers"), readLines(out, SERVICES_FILE));
+    }
+
+    /**
+     *	<p> An incremental compilation merges its handlers with those of the
+     *	    earlier compilation, in the <code>Handler.map</code> and the
+     *	    services file.</p>
+     */
+    @Test
+    public void testMerge() throws Exception {
+        File out = _folder.newFolder("classes");
+        compile(out, "test.Foo", FOO);
+        compile(out, "test.Bar", BAR);
+        List<String> map = readLines(out, HandlerAP.HANDLER_FILE);
+        Assert.assertEquals(HandlerAP.PROVIDER_MARKER + "test.Bar_JSFTHandlers,test.Foo_JSFTHandlers", map.get(0));
+        Assert.assertTrue(map.contains("foo.class=test.Foo"));
+        Assert.assertTrue(map.contains("bar.class=test.Bar"));
+        Assert.assertEquals(1, Collections.frequency(map, map.get(0)));
+        Assert.assertEquals(Arrays.asList("test.Foo_JSFTHandlers", "test.Bar_JSFTHandlers"), readLines(out, SERVICES_FILE));
+
+        // Compiling the same class again doesn't list it twice
+        compile(out, "test.Bar", BAR);
+        Assert.assertEquals(HandlerAP.PROVIDER_MARKER + "test.Bar_JSFTHandlers,test.Foo_JSFTHandlers",
+                readLines(out, HandlerAP.HANDLER_FILE).get(0));
+        Assert.assertEquals(Arrays.asList("test.Foo_JSFTHandlers", "test.Bar_JSFTHandlers"), readLines(out, SERVICES_FILE));
+    }
+
+    /**
+     *	<p> The <code>Handler.map</code> doesn't name the generated classes
+     *	    if a merged handler was not generated, so the runtime still
+     *	    reads it.</p>
+     */
+    @Test
+    public void testMergeNotGenerated() throws Exception {
+        File out = _folder.newFolder("classes");
+        compile(out, "test.Foo", FOO);
+        compile(out, "test.Other", OTHER);
+        Assert.assertFalse(new File(out, "test/Other_JSFTHandlers.class").exists());
+        List<String> map = readLines(out, HandlerAP.HANDLER_FILE);
+        Assert.assertFalse(map.get(0).startsWith(HandlerAP.PROVIDER_MARKER));
+        Assert.assertTrue(map.contains("foo.class=test.Foo"));
+        Assert.assertTrue(map.contains("other.class=test.Other"));
+        Assert.assertEquals(Arrays.asList("test.Foo_JSFTHandlers"), readLines(out, SERVICES_FILE));
+
+        // Still not named after a generated handler is added
+        compile(out, "test.Bar", BAR);
+        map = readLines(out, HandlerAP.HANDLER_FILE);
+        Assert.assertFalse(map.get(0).startsWith(HandlerAP.PROVIDER_MARKER));
+        Assert.assertTrue(map.contains("bar.class=test.Bar"));
+        Assert.assertEquals(Arrays.asList("test.Foo_JSFTHandlers", "test.Bar_JSFTHandlers"), readLines(out, SERVICES_FILE));
+    }
+
+    /**
+     *	<p> This method compiles the given class, along with stubs of the
+     *	    runtime types, into <code>out</code>.  The processor is loaded
+     *	    by a <code>ClassLoader</code> which also sees <code>out</code>,
+     *	    as it would in an incremental build.</p>
+     */
+    private static void compile(File out, String className, String source) throws IOException {
+        List<JavaFileObject> sources = new ArrayList<>();
+        sources.add(new Source(className, source));
+        for (int idx = 0; idx < STUBS.length; idx += 2) {
+            sources.add(new Source(HD + STUBS[idx], "package com.sun.jsftemplating.layout.descriptors.handler;\n" + STUBS[idx + 1]));
+        }
+        URL classes = HandlerAP.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classes, out.toURI().toURL() }, ClassLoader.getPlatformClassLoader())) {
+            Processor processor = (Processor) loader.loadClass(HandlerAP.class.getName()).getDeclaredConstructor().newInstance();
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                    Arrays.asList("-d", out.getPath(), "-classpath", new File(classes.toURI()).getPath()), null, sources);
+            task.setProcessors(Collections.singletonList(processor));
+            boolean success = task.call();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                Assert.assertNotEquals(diagnostic.toString(), Diagnostic.Kind.ERROR, diagnostic.getKind());
+            }
+            Assert.assertTrue(className, success);
+        } catch (ReflectiveOperationException | java.net.URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static List<String> readLines(File out, String name) throws IOException {
+        return Files.readAllLines(new File(out, name).toPath(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     *	<p> A source file in memory.</p>
+     */
+    private static class Source extends SimpleJavaFileObject {
+        Source(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            _source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return _source;
+        }
+
+        private final String _source;
+    }
+
+    private static final String SERVICES_FILE = "META-INF/services/" + HandlerAP.PROVIDER_INTERFACE;
+
+    private static final String HD = "com.sun.jsftemplating.layout.descriptors.handler.";
+
+    private static final String FOO = "package test;\n"
+            + "import com.sun.jsftemplating.annotation.*;\n"
+            + "import com.sun.jsftemplating.layout.descriptors.handler.HandlerContext;\n"
+            + "public class Foo {\n"
+            + "    @Handler(id = \"foo\", input = { @HandlerInput(name = \"value\", type = String.class, required = true) })\n"
+            + "    public static void foo(HandlerContext ctx) {\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String BAR = "package test;\n"
+            + "import com.sun.jsftemplating.annotation.*;\n"
+            + "import com.sun.jsftemplating.layout.descriptors.handler.HandlerContext;\n"
+            + "public class Bar {\n"
+            + "    @Handler(id = \"bar\", output = { @HandlerOutput(name = \"result\", type = Integer.class) })\n"
+            + "    public Object bar(HandlerContext ctx) {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}\n";
+
+    // No no-arg constructor, so it can't be generated
+    private static final String OTHER = "package test;\n"
+            + "import com.sun.jsftemplating.annotation.*;\n"
+            + "import com.sun.jsftemplating.layout.descriptors.handler.HandlerContext;\n"
+            + "public class Other {\n"
+            + "    public Other(String name) {\n"
+            + "    }\n"
+            + "    @Handler(id = \"other\")\n"
+            + "    public void other(HandlerContext ctx) {\n"
+            + "    }\n"
+            + "}\n";
+
+    // The runtime types used by the generated classes
+    private static final String[] STUBS = {
+        "HandlerContext", "public interface HandlerContext {}",
+        "HandlerDefinitionProvider", "public interface HandlerDefinitionProvider {\n"
+            + "    void addHandlerDefinitions(java.util.Map<String, HandlerDefinition> defs);\n"
+            + "}",
+        "HandlerDispatcher", "public interface HandlerDispatcher {\n"
+            + "    Object invoke(int handler, Object instance, HandlerContext handlerCtx) throws Throwable;\n"
+            + "    Object newInstance(int handler);\n"
+            + "}",
+        "HandlerDefinition", "public class HandlerDefinition {\n"
+            + "    public HandlerDefinition(String id) {}\n"
+            + "    public void setHandlerMethod(String cls, String method) {}\n"
+            + "    public void setHandlerDispatcher(HandlerDispatcher dispatcher, int handler, boolean isStatic) {}\n"
+            + "    public void addInputDef(IODescriptor desc) {}\n"
+            + "    public void addOutputDef(IODescriptor desc) {}\n"
+            + "}",
+        "IODescriptor", "public class IODescriptor {\n"
+            + "    public IODescriptor(String name, Class<?> type) {}\n"
+            + "    public void setRequired(boolean required) {}\n"
+            + "    public void setDefault(Object value) {}\n"
+            + "}",
+    };
+}
@@ -17,20 +17,23 @@
 package com.sun.jsftemplating.component;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.sun.jsftemplating.el.ValueExpressionCache;
 import com.sun.jsftemplating.el.VariableResolver;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
 import com.sun.jsftemplating.layout.descriptors.ComponentType;
 import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
 import com.sun.jsftemplating.util.LogUtil;
 import com.sun.jsftemplating.util.TypeConverter;
+import com.sun.jsftemplating.util.Util;
 
-import jakarta.el.ELContext;
+import jakarta.el.ExpressionFactory;
 import jakarta.el.ValueExpression;
 import jakarta.faces.component.UIComponent;
 import jakarta.faces.context.FacesContext;
@@ -287,18 +290,8 @@ public class ComponentUtil {
      * @return A ComponentType instance for <code>factoryClass</code>.
      */
     private ComponentType getComponentType(String factoryClass) {
-        // Check the cache
-        ComponentType type = _types.get(factoryClass);
-        if (type == null) {
-            // Not in the cache... add it...
-            type = new ComponentType(factoryClass, factoryClass);
-            Map<String, ComponentType> newMap = new HashMap<>(_types);
-            newMap.put(factoryClass, type);
-            _types = newMap;
-        }
-
-        // Return the ComponentType
-        return type;
+        // Check the cache, add it if it is not there
+        return _types.computeIfAbsent(factoryClass, cls -> new ComponentType(cls, cls));
     }
 
     /**
@@ -435,63 +428,96 @@ public class ComponentUtil {
                 comp.setValueExpression(key, (ValueExpression) value);
             }
         } else if (value instanceof String && isValueReference((String) value)) {
-            ValueExpression ve = context.getApplication().getExpressionFactory().createValueExpression(context.getELContext(), (String) value, Object.class);
-            if (comp != null) {
-                comp.setValueExpression(key, ve);
-            }
-            value = ve;
+            value = setValueExpressionOption(context, key, (String) value, comp);
         } else if (comp != null) {
-            // In JSF, you must directly modify the attribute Map
-            Map<String, Object> attributes = comp.getAttributes();
-            if (value == null) {
-                // Setting null, assume they want to remove the value
+            setLiteralOption(key, value, comp);
+        }
+
+        // Return the value (which may be a ValueExpression)
+        return value;
+    }
+
+    /**
+     * <p>
+     * This method sets the given value on the <code>UIComponent</code> as-is, without resolving expressions. This is
+     * what {@link #setOption(FacesContext, String, Object, LayoutElement, UIComponent)} does once the value is resolved
+     * and is not a <code>ValueExpression</code>. A <code>null</code> value removes the property.
+     * </p>
+     *
+     * @param key The Property name to set
+     * @param value The Property value to set
+     * @param comp The <code>UIComponent</code>
+     */
+    public void setLiteralOption(String key, Object value, UIComponent comp) {
+        // In JSF, you must directly modify the attribute Map
+        Map<String, Object> attributes = comp.getAttributes();
+        if (value == null) {
+            // Setting null, assume they want to remove the value
+            try {
+                attributes.remove(key);
+            } catch (Exception ex) { // Switched from IAE to E b/c of MyFaces incompatibility
+                // JSF is mesed up... it throws an exception if it has a
+                // property descriptor and you call remove(...). It also
+                // throws an exception if you attempt to call put w/ null
+                // and there is no property descriptor. Either way you
+                // MUST catch something and then handle the other case.
                 try {
-                    attributes.remove(key);
-                } catch (Exception ex) { // Switched from IAE to E b/c of MyFaces incompatibility
-                    // JSF is mesed up... it throws an exception if it has a
-                    // property descriptor and you call remove(...). It also
-                    // throws an exception if you attempt to call put w/ null
-                    // and there is no property descriptor. Either way you
-                    // MUST catch something and then handle the other case.
-                    try {
-                        attributes.put(key, (Object) null);
-                    } catch (Exception iae) { // Switched from IAE to E b/c of MyFaces incompatibility
-                        // We'll make this non-fatal, but log a message
-                        if (LogUtil.infoEnabled()) {
-                            LogUtil.info("JSFT0006", new Object[] { key, comp.getId(), comp.getClass().getName()});
-                            if (LogUtil.fineEnabled()) {
-                                LogUtil.fine("Unable to set (" + key + ").", iae);
-                            }
+                    attributes.put(key, (Object) null);
+                } catch (Exception iae) { // Switched from IAE to E b/c of MyFaces incompatibility
+                    // We'll make this non-fatal, but log a message
+                    if (LogUtil.infoEnabled()) {
+                        LogUtil.info("JSFT0006", new Object[] { key, comp.getId(), comp.getClass().getName()});
+                        if (LogUtil.fineEnabled()) {
+                            LogUtil.fine("Unable to set (" + key + ").", iae);
                         }
                     }
                 }
-            } else {
-                try {
-                    // Attempt to set the value as given...
-                    attributes.put(key, value);
-                } catch (Exception ex) { // Switched from IAE to E b/c of MyFaces incompatibility
-                    // Ok, try a little harder...
-                    Class type = findPropertyType(comp, key);
-                    if (type != null) {
-                        try {
-                            attributes.put(key, TypeConverter.asType(type, value));
-                        } catch (Exception ex2) { // Switched from IAE to E b/c of MyFaces incompatibility
-                            throw new IllegalArgumentException("Failed to set property (" + key + ") with " + "value (" + value + "), which is of type ("
-                                    + value.getClass().getName() + ").  Expected " + "type (" + type.getName() + ").  This "
-                                    + "occured on the component named (" + comp.getId() + ") of type (" + comp.getClass().getName() + ").", ex2);
-                        }
-                    } else {
-                        throw new IllegalArgumentException(
-                                "Failed to set property (" + key + ") with value (" + value + "), which is of type (" + value.getClass().getName()
-                                        + ").  This occured " + "on the component named (" + comp.getId() + ") of type (" + comp.getClass().getName() + ").",
-                                ex);
+            }
+        } else {
+            try {
+                // Attempt to set the value as given...
+                attributes.put(key, value);
+            } catch (Exception ex) { // Switched from IAE to E b/c of MyFaces incompatibility
+                // Ok, try a little harder...
+                Class type = findPropertyType(comp, key);
+                if (type != null) {
+                    try {
+                        attributes.put(key, TypeConverter.asType(type, value));
+                    } catch (Exception ex2) { // Switched from IAE to E b/c of MyFaces incompatibility
+                        throw new IllegalArgumentException("Failed to set property (" + key + ") with " + "value (" + value + "), which is of type ("
+                                + value.getClass().getName() + ").  Expected " + "type (" + type.getName() + ").  This "
+                                + "occured on the component named (" + comp.getId() + ") of type (" + comp.getClass().getName() + ").", ex2);
                     }
+                } else {
+                    throw new IllegalArgumentException(
+                            "Failed to set property (" + key + ") with value (" + value + "), which is of type (" + value.getClass().getName()
+                                    + ").  This occured " + "on the component named (" + comp.getId() + ") of type (" + comp.getClass().getName() + ").",
+                            ex);
                 }
             }
         }
+    }
 
-        // Return the value (which may be a ValueExpression)
-        return value;
+    /**
+     * <p>
+     * This method sets a <code>ValueExpression</code> for the given expression on the <code>UIComponent</code>. This is
+     * what {@link #setOption(FacesContext, String, Object, LayoutElement, UIComponent)} does for a <code>String</code>
+     * which is a <code>ValueExpression</code> once it is resolved.
+     * </p>
+     *
+     * @param context <code>FacesContext</code>
+     * @param key The Property name to set
+     * @param expression The expression (i.e. "#{...}")
+     * @param comp The <code>UIComponent</code>
+     *
+     * @return The <code>ValueExpression</code>.
+     */
+    public ValueExpression setValueExpressionOption(FacesContext context, String key, String expression, UIComponent comp) {
+        ValueExpression ve = createValueExpression(context, expression, Object.class);
+        if (comp != null) {
+            comp.setValueExpression(key, ve);
+        }
+        return ve;
     }
 
     /**
@@ -504,9 +530,10 @@ public class ComponentUtil {
         // First check to see if we've done this before...
         Class compClass = comp.getClass();
         String cacheKey = compClass.getName() + ';' + key;
-        if (_typeCache.containsKey(cacheKey)) {
-            // May return null if method previously executed unsuccessfully
-            return _typeCache.get(cacheKey);
+        Object type = _typeCache.get(cacheKey);
+        if (type != null) {
+            // May be NO_TYPE if method previously executed unsuccessfully
+            return type == NO_TYPE ? null : (Class) type;
         }
 
         // Search a little...
@@ -535,10 +562,7 @@ public class ComponentUtil {
         }
 
         // Save the value for future calls for the same information
-        // NOTE: We do it this way to avoid modifying a shared Map
-        Map<String, Class> newTypeCache = new HashMap<>(_typeCache);
-        newTypeCache.put(cacheKey, val);
-        _typeCache = newTypeCache;
+        _typeCache.put(cacheKey, val == null ? NO_TYPE : val);
 
         // Return the result
         return val;
@@ -578,9 +602,8 @@ public class ComponentUtil {
 
         // Next check to see if the result contains a JSF ValueExpression
         if (result != null && result instanceof String && isValueReference((String) result)) {
-            ELContext elctx = context.getELContext();
-            ValueExpression ve = context.getApplication().getExpressionFactory().createValueExpression(elctx, (String) result, Object.class);
-            result = ve.getValue(elctx);
+            ValueExpression ve = createValueExpression(context, (String) result, Object.class);
+            result = ve.getValue(context.getELContext());
             /*
              * 1.1+ // JSF 1.1 VB: try { ValueBinding vb = context.getApplication().createValueBinding((String) result); result =
              * vb.getValue(context); } catch (EvaluationException ex) { if (LogUtil.infoEnabled()) { LogUtil.info("JSFT0007", new
@@ -592,6 +615,85 @@ public class ComponentUtil {
         return result;
     }
 
+    /**
+     * <p>
+     * This method returns a <code>ValueExpression</code> for the given expression. The application's
+     * {@link ValueExpressionCache} (see {@link #getValueExpressionCache(FacesContext)}) is used, if any, so the same
+     * expression is only parsed once.
+     * </p>
+     *
+     * @param context The <code>FacesContext</code>.
+     * @param expression The expression (i.e. "#{...}").
+     * @param expectedType The expected type of the value.
+     *
+     * @return The <code>ValueExpression</code>.
+     */
+    public ValueExpression createValueExpression(FacesContext context, String expression, Class<?> expectedType) {
+        ExpressionFactory factory = context.getApplication().getExpressionFactory();
+        ValueExpressionCache cache = getValueExpressionCache(context);
+        if (cache == null) {
+            return factory.createValueExpression(context.getELContext(), expression, expectedType);
+        }
+        return cache.getValueExpression(factory, context.getELContext(), expression, expectedType);
+    }
+
+    /**
+     * <p>
+     * This method parses the option values of the given {@link LayoutElement} (and its descendants) that are
+     * <code>ValueExpression</code>s and do not contain <code>$...{...}</code> expressions. These values do not change,
+     * so parsing them when the {@link LayoutElement}s are read saves parsing them when the page is first rendered. Values
+     * that cannot be parsed are skipped, the error is reported when the value is used.
+     * </p>
+     *
+     * @param context The <code>FacesContext</code>.
+     * @param elt The {@link LayoutElement}.
+     */
+    public void preParseValueExpressions(FacesContext context, LayoutElement elt) {
+        ValueExpressionCache cache = getValueExpressionCache(context);
+        if (cache != null) {
+            preParseValueExpressions(context, context.getApplication().getExpressionFactory(), cache, elt);
+        }
+    }
+
+    private void preParseValueExpressions(FacesContext context, ExpressionFactory factory, ValueExpressionCache cache, LayoutElement elt) {
+        if (elt instanceof LayoutComponent) {
+            for (Object value : ((LayoutComponent) elt).getOptions().values()) {
+                if (value instanceof String && ((String) value).indexOf('$') == -1 && isValueReference((String) value)) {
+                    try {
+                        cache.getValueExpression(factory, context.getELContext(), (String) value, Object.class);
+                    } catch (RuntimeException ex) {
+                        // Report it when it is used
+                    }
+                }
+            }
+        }
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            preParseValueExpressions(context, factory, cache, child);
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the application's {@link ValueExpressionCache}, or <code>null</code> when
+     * {@link #VALUE_EXPRESSION_CACHE_SIZE} is <code>0</code> (the default).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static ValueExpressionCache getValueExpressionCache(FacesContext ctx) {
+        if (ctx == null) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, VALUE_EXPRESSIONS, context -> {
+            int size = DEFAULT_VALUE_EXPRESSION_CACHE_SIZE;
+            String value = LayoutDefinitionManager.getConfigValue(context, VALUE_EXPRESSION_CACHE_SIZE);
+            if (value != null) {
+                size = Integer.parseInt(value.trim());
+            }
+            return size > 0 ? new ValueExpressionCache(size) : null;
+        });
+    }
+
     /**
      * <p>
      * Returns true if this expression looks like an EL expression.
@@ -611,14 +713,21 @@ public class ComponentUtil {
 
     // While this is static, the information seems reasonable to share across
     // applications as it is very unlikely to be different... leaving for now
-    private static Map<String, Class> _typeCache = new HashMap<>();
+    private static final Map<String, Object> _typeCache = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * Stored in <code>_typeCache</code> when the type of a property could not be found.
+     * </p>
+     */
+    private static final Object NO_TYPE = Boolean.FALSE;
 
     /**
      * <p>
      * This Map caches ComponentTypes by their factoryClass name.
      * </p>
      */
-    private Map<String, ComponentType> _types = new HashMap<>();
+    private final Map<String, ComponentType> _types = new ConcurrentHashMap<>();
 
     /**
      * <p>
@@ -626,4 +735,23 @@ public class ComponentUtil {
      * </p>
      */
     public static final String COMPONENT_UTIL_KEY = "_jsft_COMP_UTIL";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum number of parsed
+     * <code>ValueExpression</code>s remembered for the application (see {@link ValueExpressionCache}). <code>0</code> (the
+     * default) disables it. A parsed <code>ValueExpression</code> keeps the functions and variables mapped by the
+     * <code>ELContext</code> it was parsed with, so only enable it if these mappings are the same for every request.
+     * </p>
+     */
+    public static final String VALUE_EXPRESSION_CACHE_SIZE = "com.sun.jsftemplating.VALUE_EXPRESSION_CACHE_SIZE";
+
+    /**
+     * <p>
+     * The default value of {@link #VALUE_EXPRESSION_CACHE_SIZE}.
+     * </p>
+     */
+    public static final int DEFAULT_VALUE_EXPRESSION_CACHE_SIZE = 0;
+
+    private static final String VALUE_EXPRESSIONS = "__jsft_ValueExpressions";
 }
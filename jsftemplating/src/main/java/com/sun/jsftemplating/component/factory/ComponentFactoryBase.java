@@ -22,7 +22,10 @@ import java.util.List;
 import java.util.Map;
 
 import com.sun.jsftemplating.component.ComponentUtil;
+import com.sun.jsftemplating.el.VariableResolver;
 import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
+import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
+import com.sun.jsftemplating.layout.descriptors.OptionPlan;
 import com.sun.jsftemplating.layout.descriptors.handler.Handler;
 import com.sun.jsftemplating.layout.event.CommandActionListener;
 import com.sun.jsftemplating.layout.event.ValueChangeListener;
@@ -90,13 +93,38 @@ public abstract class ComponentFactoryBase implements ComponentFactory {
 
         // Loop through all the options and set the values
 // FIXME: Figure a way to skip options that should not be set on the Component
-        Iterator<String> it = desc.getOptions().keySet().iterator();
-        String key = null;
-        while (it.hasNext()) {
-            // Get next property
-            key = it.next();
+        if (OVERRIDES_SET_OPTION.get(getClass())) {
+            // Every option must go through setOption()
+            Iterator<String> it = desc.getOptions().keySet().iterator();
+            String key = null;
+            while (it.hasNext()) {
+                // Get next property
+                key = it.next();
 
-            setOption(context, comp, desc, key, desc.getOption(key));
+                setOption(context, comp, desc, key, desc.getOption(key));
+            }
+        } else {
+            // Only resolve the options that need it
+            OptionPlan plan = desc.getOptionPlan(context);
+            ComponentUtil compUtil = ComponentUtil.getInstance(context);
+            Map<String, Object> compParams = LayoutComposition.getGlobalParamMap(context);
+            for (int idx = 0; idx < plan.size(); idx++) {
+                switch (plan.getKind(idx)) {
+                case OptionPlan.LITERAL:
+                    compUtil.setLiteralOption(plan.getName(idx), plan.getValue(idx), comp);
+                    break;
+                case OptionPlan.DEFERRED:
+                    if (!VariableResolver.mayReferenceCompParams(plan.getCompParamTokens(idx), compParams)) {
+                        // Composition params would change the expression
+                        compUtil.setValueExpressionOption(context, plan.getName(idx), (String) plan.getValue(idx), comp);
+                        break;
+                    }
+                    // Fall through
+                default:
+                    setOption(context, comp, desc, plan.getName(idx), plan.getValue(idx));
+                    break;
+                }
+            }
         }
 
         // Check for "command" handlers...
@@ -225,7 +253,7 @@ public abstract class ComponentFactoryBase implements ComponentFactory {
         }
         if (binding != null && ComponentUtil.getInstance(ctx).isValueReference(binding)) {
             // Create a ValueExpression
-            ValueExpression ve = ctx.getApplication().getExpressionFactory().createValueExpression(ctx.getELContext(), binding, UIComponent.class);
+            ValueExpression ve = ComponentUtil.getInstance(ctx).createValueExpression(ctx, binding, UIComponent.class);
             // Create / get the UIComponent
             comp = ctx.getApplication().createComponent(ve, ctx, componentType);
         } else {
@@ -277,4 +305,25 @@ public abstract class ComponentFactoryBase implements ComponentFactory {
      */
     private Serializable _extraInfo = null;
 
+    /**
+     * <p>
+     * Remembers which <code>ComponentFactoryBase</code> subclasses override
+     * {@link #setOption(FacesContext, UIComponent, LayoutComponent, String, Object)}. {@link #setOptions(FacesContext,
+     * LayoutComponent, UIComponent)} must call it for every option of these factories.
+     * </p>
+     */
+    private static final ClassValue<Boolean> OVERRIDES_SET_OPTION = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> cls = type; cls != ComponentFactoryBase.class; cls = cls.getSuperclass()) {
+                try {
+                    cls.getDeclaredMethod("setOption", FacesContext.class, UIComponent.class, LayoutComponent.class, String.class, Object.class);
+                    return Boolean.TRUE;
+                } catch (NoSuchMethodException ex) {
+                    // Check the superclass
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
 }
@@ -27,6 +27,10 @@ import jakarta.faces.context.FacesContext;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.util.LogUtil;
 
 /**
  * This {@link ELResolver} exists to resolve "page session" attributes. This concept, borrowed from
@@ -36,6 +40,11 @@ import java.util.Map;
  * <p>
  * This implementation stores the attributes on the {@link UIViewRoot}.
  *
+ * <p>
+ * By default an attribute set in request, view, session, or application scope takes precedence over a page session
+ * attribute of the same name, so each page session lookup also searches those scopes. See {@link #RESOLUTION_MODE} for
+ * ways to avoid this.
+ *
  * @author Ken Paulsen (ken.paulsen@sun.com)
  */
 public class PageSessionResolver extends ELResolver {
@@ -50,6 +59,34 @@ public class PageSessionResolver extends ELResolver {
      */
     private static final String PAGE_SESSION_KEY = "_ps";
 
+    /**
+     * The configuration name (JVM variable or {@code context-param}) which sets how page session attributes are resolved:
+     * <ul>
+     * <li>{@link #MODE_SCOPES} (default): the request, view, session, and application scopes are searched first.</li>
+     * <li>{@link #MODE_INDEXED}: as {@link #MODE_SCOPES}, but only for attributes which have been set in one of those
+     * scopes (the view scope is always searched). This requires the {@link ScopeAttributeIndex} listener, which is
+     * registered by the <code>web-fragment.xml</code> of jsftemplating. Without it this is the same as
+     * {@link #MODE_SCOPES}.</li>
+     * <li>{@link #MODE_STRICT}: the page session value is returned w/o searching the other scopes.</li>
+     * </ul>
+     */
+    public static final String RESOLUTION_MODE = "com.sun.jsftemplating.PAGE_SESSION_RESOLUTION";
+
+    /**
+     * Search the other scopes first (the default).
+     */
+    public static final String MODE_SCOPES = "scopes";
+
+    /**
+     * Search the other scopes first, only for attributes known to be set in them.
+     */
+    public static final String MODE_INDEXED = "indexed";
+
+    /**
+     * Never search the other scopes.
+     */
+    public static final String MODE_STRICT = "strict";
+
     /**
      * Checks standard scopes and "page session" to see if the value exists.
      */
@@ -87,6 +124,31 @@ public class PageSessionResolver extends ELResolver {
             return null;
         }
 
+        String mode = getMode(facesContext);
+        if (mode == MODE_STRICT) {
+            return pageSession.get(attribute);
+        }
+        if (mode == MODE_INDEXED) {
+            ScopeAttributeIndex index = _index;
+            if (index == null) {
+                index = ScopeAttributeIndex.getIndex(externalContext);
+                _index = index;
+                if (index == null && !_indexWarned) {
+                    _indexWarned = true;
+                    if (LogUtil.warningEnabled()) {
+                        LogUtil.warning("JSFT0015", new Object[] { RESOLUTION_MODE, MODE_INDEXED, ScopeAttributeIndex.class.getName() });
+                    }
+                }
+            }
+            Set<String> shadowedKeys = index == null ? null : index.getNames();
+            if (shadowedKeys != null && !shadowedKeys.contains(attribute)) {
+                // Not set in request, session or application scope
+                Map<String, Object> viewMap = viewRoot.getViewMap(false);
+                Object value = viewMap == null ? null : viewMap.get(attribute);
+                return value != null ? value : pageSession.get(attribute);
+            }
+        }
+
         // Check request map
         Object value = externalContext.getRequestMap().get(attribute);
         if (value != null) {
@@ -173,9 +235,47 @@ public class PageSessionResolver extends ELResolver {
         return pageSession;
     }
 
+    /**
+     * This method returns the {@link #RESOLUTION_MODE} ({@link #MODE_SCOPES}, {@link #MODE_INDEXED}, or
+     * {@link #MODE_STRICT}). It is read the first time it is needed.
+     */
+    public String getMode(FacesContext facesContext) {
+        String mode = _mode;
+        if (mode == null) {
+            String value = LayoutDefinitionManager.getConfigValue(facesContext, RESOLUTION_MODE);
+            if (value != null) {
+                value = value.trim();
+            }
+            if (MODE_INDEXED.equalsIgnoreCase(value)) {
+                mode = MODE_INDEXED;
+            } else if (MODE_STRICT.equalsIgnoreCase(value)) {
+                mode = MODE_STRICT;
+            } else {
+                mode = MODE_SCOPES;
+            }
+            _mode = mode;
+        }
+        return mode;
+    }
+
     private static void checkPropertyFound(Object base, Object property) {
         if (base == null && property == null) {
             throw new PropertyNotFoundException();
         }
     }
+
+    /**
+     * The {@link #RESOLUTION_MODE}, once it has been read.
+     */
+    private volatile String _mode;
+
+    /**
+     * The {@link ScopeAttributeIndex} of this application, once it has been found.
+     */
+    private volatile ScopeAttributeIndex _index;
+
+    /**
+     * <code>true</code> once the missing {@link ScopeAttributeIndex} has been reported.
+     */
+    private volatile boolean _indexWarned;
 }
@@ -26,6 +26,8 @@ import java.util.Stack;
 
 import com.sun.jsftemplating.component.ComponentUtil;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.util.LruCache;
+import com.sun.jsftemplating.util.Util;
 
 import jakarta.faces.component.UIComponent;
 import jakarta.faces.context.FacesContext;
@@ -121,6 +123,22 @@ public class PermissionChecker {
 
     private static final String PERMISSION_FUNCTIONS = "__jsft_permFuncs";
 
+    /**
+     * <p>
+     * The application key for the compiled equations (see {@link #hasPermission(FacesContext, LayoutElement, UIComponent,
+     * String)}).
+     * </p>
+     */
+    private static final String PERMISSION_CONDITIONS = "__jsft_permConditions";
+
+    /**
+     * <p>
+     * The most equations that are remembered. Equations are normally static template text, this limits the memory used
+     * if they are not. The least recently used equations are forgotten first.
+     * </p>
+     */
+    private static final int MAX_CONDITIONS = 10000;
+
     /**
      * <p>
      * This holds the infix equation.
@@ -481,6 +499,12 @@ public class PermissionChecker {
 
         // Save new copy of function Map
         setFunctions(null, newFuncs);
+
+        // Compiled conditions may no longer use the right functions
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (ctx != null) {
+            ctx.getExternalContext().getApplicationMap().remove(PERMISSION_CONDITIONS);
+        }
     }
 
     /**
@@ -581,6 +605,93 @@ public class PermissionChecker {
         return postfixStr;
     }
 
+    /**
+     * <p>
+     * This method determines if the given equation evaluates to true or false for the given {@link LayoutElement} and
+     * <code>UIComponent</code>. The equation is compiled the first time it is seen, and the compiled form is shared by
+     * later evaluations (of the same equation anywhere in the application). This is the same as:
+     * </p>
+     *
+     * <p>
+     * <code>new PermissionChecker(desc, component, infixStr).hasPermission()</code>
+     * </p>
+     *
+     * <p>
+     * except that the right operand of '&amp;' and '|' is not evaluated when the left operand decides the result.
+     * Equations that use registered functions are evaluated by a new <code>PermissionChecker</code> each time.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param desc The {@link LayoutElement} associated with the equation.
+     * @param component The <code>UIComponent</code> associated with the equation.
+     * @param infixStr The equation.
+     */
+    public static boolean hasPermission(FacesContext ctx, LayoutElement desc, UIComponent component, String infixStr) {
+        if (infixStr == null) {
+            infixStr = "false";
+        }
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+            if (ctx == null) {
+                // Not JSF env, don't cache anything
+                return new PermissionChecker(desc, component, infixStr).hasPermission();
+            }
+        }
+        LruCache<String, PermissionCondition> conditions = getConditions(ctx);
+        PermissionCondition condition = conditions.get(infixStr);
+        if (condition == null) {
+            condition = PermissionCondition.compile(infixStr);
+            if (condition == null) {
+                condition = PermissionCondition.NOT_COMPILED;
+            }
+            conditions.put(infixStr, condition);
+        }
+        if (condition == PermissionCondition.NOT_COMPILED) {
+            return new PermissionChecker(desc, component, infixStr).hasPermission();
+        }
+        return condition.evaluate(ctx, desc, component);
+    }
+
+    /**
+     * <p>
+     * This method returns the result of the given equation if it does not contain expressions or functions, so its
+     * result never changes. Otherwise, or if it cannot be evaluated, <code>null</code> is returned.
+     * </p>
+     *
+     * @param infixStr The equation.
+     */
+    public static Boolean getConstantValue(String infixStr) {
+        if (infixStr == null) {
+            return Boolean.FALSE;
+        }
+        // Functions may be registered later
+        for (int idx = infixStr.indexOf(LEFT_PAREN); idx > 0; idx = infixStr.indexOf(LEFT_PAREN, idx + 1)) {
+            char prev = infixStr.charAt(idx - 1);
+            if (prev != LEFT_PAREN && prev != NOT_OPERATOR && !Character.isWhitespace(prev) && !isOperator(prev)) {
+                return null;
+            }
+        }
+        try {
+            PermissionCondition condition = PermissionCondition.compile(infixStr);
+            if (condition == null || !condition.isConstant()) {
+                return null;
+            }
+            return Boolean.valueOf(condition.evaluate(null, null, null));
+        } catch (RuntimeException ex) {
+            // Report it when it is used
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * This returns the application-scoped {@link LruCache} of compiled equations.
+     * </p>
+     */
+    static LruCache<String, PermissionCondition> getConditions(FacesContext ctx) {
+        return Util.getApplicationAttribute(ctx, PERMISSION_CONDITIONS, context -> new LruCache<>(MAX_CONDITIONS));
+    }
+
     /**
      * <p>
      * This method is invoked to determine if the equation evaluates to true or false.
@@ -745,6 +856,15 @@ public class PermissionChecker {
         _postfixArr = postfix;
     }
 
+    /**
+     * <p>
+     * This method returns the <code>Function</code>s that correspond to the 'F' markers in the postfix equation.
+     * </p>
+     */
+    List<Function> getFunctionList() {
+        return _functionList;
+    }
+
     /**
      * <p>
      * This method provides access to a <code>String</code> representation of the postfix equation held by this
@@ -938,6 +1058,15 @@ public class PermissionChecker {
             return obj.toString();
         }
 
+        /**
+         * <p>
+         * This method returns the unevaluated value.
+         * </p>
+         */
+        String getValue() {
+            return _value;
+        }
+
         private String _value;
     }
 
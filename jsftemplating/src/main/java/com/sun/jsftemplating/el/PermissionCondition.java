@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+import com.sun.jsftemplating.component.ComponentUtil;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.util.LayoutElementUtil;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class holds a {@link PermissionChecker} equation after it has been compiled into an immutable expression tree.
+ * The tree is shared by every evaluation of the equation, only the {@link LayoutElement} and <code>UIComponent</code>
+ * are supplied when it is evaluated (see {@link PermissionChecker#hasPermission(FacesContext, LayoutElement,
+ * UIComponent, String)}).
+ * </p>
+ *
+ * <p>
+ * The equation is parsed by {@link PermissionChecker} itself, so the operators, precedence, and default operands are
+ * the same. Unlike {@link PermissionChecker#hasPermission()}, '&amp;' and '|' do not evaluate their right operand when
+ * the left operand decides the result. Values without expressions are resolved once, and so is the regular expression
+ * of an '=' when it has no expressions.
+ * </p>
+ *
+ * <p>
+ * Equations that use registered {@link PermissionChecker.Function}s (which are created for each evaluation), or that
+ * {@link PermissionChecker#hasPermission()} cannot evaluate, are not compiled (see {@link #compile(String)}).
+ * </p>
+ */
+final class PermissionCondition {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    private PermissionCondition(Node root) {
+        _root = root;
+    }
+
+    /**
+     * <p>
+     * This method compiles the given equation, or returns <code>null</code> if it cannot be compiled (see class
+     * description).
+     * </p>
+     */
+    static PermissionCondition compile(String condition) {
+        PermissionChecker checker = new PermissionChecker(null, null, condition);
+        char[] postfix = checker.getPostfixArr();
+        Iterator<PermissionChecker.Function> it = checker.getFunctionList().iterator();
+
+        // Build the tree the same way PermissionChecker.hasPermission()
+        // evaluates the postfix equation
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(FALSE); // Default to false
+        Node left, right;
+        for (char ch : postfix) {
+            switch (ch) {
+            case PermissionChecker.POST_TRUE:
+                stack.push(TRUE);
+                break;
+            case PermissionChecker.POST_FALSE:
+                stack.push(FALSE);
+                break;
+            case PermissionChecker.FUNCTION_MARKER:
+                if (!it.hasNext()) {
+                    return null;
+                }
+                PermissionChecker.Function function = it.next();
+                if (!(function instanceof PermissionChecker.StringFunction)) {
+                    // Registered Functions are created for each evaluation
+                    return null;
+                }
+                stack.push(new Value(((PermissionChecker.StringFunction) function).getValue()));
+                break;
+            case PermissionChecker.NOT_OPERATOR:
+                if (stack.isEmpty()) {
+                    return null;
+                }
+                stack.push(new Not(stack.pop()));
+                break;
+            case PermissionChecker.EQUALS_OPERATOR:
+            case PermissionChecker.LESS_THAN_OPERATOR:
+            case PermissionChecker.MORE_THAN_OPERATOR:
+            case PermissionChecker.MODULUS_OPERATOR:
+            case PermissionChecker.DIVIDE_OPERATOR:
+            case PermissionChecker.OR_OPERATOR:
+            case PermissionChecker.AND_OPERATOR:
+                if (stack.size() < 2) {
+                    return null;
+                }
+                right = stack.pop();
+                left = stack.pop();
+                stack.push(createOperator(ch, left, right));
+                break;
+            default:
+                // Ignored, as in PermissionChecker.hasPermission()
+                break;
+            }
+        }
+
+        // The result must be the only value (besides the default)
+        if (stack.isEmpty()) {
+            return null;
+        }
+        Node root = stack.pop();
+        if (!stack.isEmpty()) {
+            stack.pop();
+            if (!stack.isEmpty()) {
+                return null;
+            }
+        }
+        return new PermissionCondition(root);
+    }
+
+    /**
+     * <p>
+     * This method creates the {@link Node} for a binary operator.
+     * </p>
+     */
+    private static Node createOperator(char op, Node left, Node right) {
+        switch (op) {
+        case PermissionChecker.EQUALS_OPERATOR:
+            return new Equals(left, right);
+        case PermissionChecker.OR_OPERATOR:
+            return new Or(left, right);
+        case PermissionChecker.AND_OPERATOR:
+            return new And(left, right);
+        default:
+            return new Arithmetic(op, left, right);
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the equation has no expressions, so it always has the same result.
+     * </p>
+     */
+    boolean isConstant() {
+        return _root.isConstant();
+    }
+
+    /**
+     * <p>
+     * This method evaluates the equation for the given {@link LayoutElement} and <code>UIComponent</code>.
+     * </p>
+     */
+    boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+        return _root.evaluate(ctx, desc, component);
+    }
+
+    /**
+     * <p>
+     * A node of the expression tree. Like {@link PermissionChecker.Function}, it can be evaluated as a
+     * <code>boolean</code> or as a <code>String</code>.
+     * </p>
+     */
+    private interface Node {
+        boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component);
+
+        String getString(FacesContext ctx, LayoutElement desc, UIComponent component);
+
+        /**
+         * <p>
+         * The value as an operand of '&lt;', '&gt;', '%', or '/', the same as
+         * <code>Integer.parseInt(getString(...))</code>.
+         * </p>
+         */
+        default int getInt(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return Integer.parseInt(getString(ctx, desc, component));
+        }
+
+        boolean isConstant();
+    }
+
+    /**
+     * <p>
+     * "true" or "false".
+     * </p>
+     */
+    private static final class Constant implements Node {
+        Constant(boolean value) {
+            _value = value;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return _value;
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return _value ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+
+        private final boolean _value;
+    }
+
+    /**
+     * <p>
+     * A value that is resolved like {@link PermissionChecker.StringFunction}. If it has no expressions, it is its own
+     * value.
+     * </p>
+     */
+    private static final class Value implements Node {
+        Value(String value) {
+            _value = value;
+            _static = LayoutElementUtil.isStatic(value);
+            Integer intValue = null;
+            if (_static) {
+                try {
+                    intValue = Integer.valueOf(value);
+                } catch (NumberFormatException ex) {
+                    // Not a number, report it when it is used
+                }
+            }
+            _intValue = intValue;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            String str = getString(ctx, desc, component);
+            return !str.equals("") && !str.equalsIgnoreCase(PermissionChecker.FALSE);
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            if (_static) {
+                return _value;
+            }
+            Object obj = ComponentUtil.getInstance(ctx).resolveValue(ctx, desc, component, _value);
+            return obj == null ? "" : obj.toString();
+        }
+
+        @Override
+        public int getInt(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            if (_intValue != null) {
+                return _intValue;
+            }
+            if (!_static) {
+                Object obj = ComponentUtil.getInstance(ctx).resolveValue(ctx, desc, component, _value);
+                if (obj instanceof Integer) {
+                    // Same as parsing its String
+                    return (Integer) obj;
+                }
+                return Integer.parseInt(obj == null ? "" : obj.toString());
+            }
+            return Integer.parseInt(_value);
+        }
+
+        /**
+         * <p>
+         * The value has no expressions.
+         * </p>
+         */
+        @Override
+        public boolean isConstant() {
+            return _static;
+        }
+
+        private final String _value;
+        private final boolean _static;
+        private final Integer _intValue;
+    }
+
+    /**
+     * <p>
+     * '!'.
+     * </p>
+     */
+    private static final class Not implements Node {
+        Not(Node operand) {
+            _operand = operand;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return !_operand.evaluate(ctx, desc, component);
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return evaluate(ctx, desc, component) ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return _operand.isConstant();
+        }
+
+        private final Node _operand;
+    }
+
+    /**
+     * <p>
+     * '&amp;', the right operand is only evaluated if the left operand is <code>true</code>.
+     * </p>
+     */
+    private static final class And implements Node {
+        And(Node left, Node right) {
+            _left = left;
+            _right = right;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return _left.evaluate(ctx, desc, component) && _right.evaluate(ctx, desc, component);
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return evaluate(ctx, desc, component) ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return _left.isConstant() && _right.isConstant();
+        }
+
+        private final Node _left;
+        private final Node _right;
+    }
+
+    /**
+     * <p>
+     * '|', the right operand is only evaluated if the left operand is <code>false</code>.
+     * </p>
+     */
+    private static final class Or implements Node {
+        Or(Node left, Node right) {
+            _left = left;
+            _right = right;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return _left.evaluate(ctx, desc, component) || _right.evaluate(ctx, desc, component);
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return evaluate(ctx, desc, component) ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return _left.isConstant() && _right.isConstant();
+        }
+
+        private final Node _left;
+        private final Node _right;
+    }
+
+    /**
+     * <p>
+     * '=', the left operand must match the regular expression given by the right operand.
+     * </p>
+     */
+    private static final class Equals implements Node {
+        Equals(Node left, Node right) {
+            _left = left;
+            _right = right;
+            if (right instanceof Constant || right instanceof Value && right.isConstant()) {
+                _pattern = Pattern.compile(right.getString(null, null, null));
+            }
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            Pattern pattern = _pattern;
+            if (pattern == null) {
+                // Reuse the last Pattern if the regular expression is the same
+                String regex = _right.getString(ctx, desc, component);
+                Pattern last = _lastPattern;
+                if (last != null && last.pattern().equals(regex)) {
+                    pattern = last;
+                } else {
+                    pattern = Pattern.compile(regex);
+                    _lastPattern = pattern;
+                }
+            }
+            return pattern.matcher(_left.getString(ctx, desc, component)).matches();
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            return evaluate(ctx, desc, component) ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return _left.isConstant() && _right.isConstant();
+        }
+
+        private final Node _left;
+        private final Node _right;
+        private Pattern _pattern = null;
+        private volatile Pattern _lastPattern = null;
+    }
+
+    /**
+     * <p>
+     * '&lt;', '&gt;', '%', and '/' between 2 Integers.
+     * </p>
+     */
+    private static final class Arithmetic implements Node {
+        Arithmetic(char op, Node left, Node right) {
+            _op = op;
+            _left = left;
+            _right = right;
+        }
+
+        @Override
+        public boolean evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            int right = _right.getInt(ctx, desc, component);
+            int left = _left.getInt(ctx, desc, component);
+            switch (_op) {
+            case PermissionChecker.LESS_THAN_OPERATOR:
+                return left < right;
+            case PermissionChecker.MORE_THAN_OPERATOR:
+                return left > right;
+            default:
+                // The result is a number, which is never false
+                compute(left, right);
+                return true;
+            }
+        }
+
+        @Override
+        public String getString(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            if (_op == PermissionChecker.LESS_THAN_OPERATOR || _op == PermissionChecker.MORE_THAN_OPERATOR) {
+                return evaluate(ctx, desc, component) ? PermissionChecker.TRUE : PermissionChecker.FALSE;
+            }
+            return Integer.toString(getInt(ctx, desc, component));
+        }
+
+        @Override
+        public int getInt(FacesContext ctx, LayoutElement desc, UIComponent component) {
+            if (_op == PermissionChecker.LESS_THAN_OPERATOR || _op == PermissionChecker.MORE_THAN_OPERATOR) {
+                // "true" or "false" is not a number
+                return Integer.parseInt(getString(ctx, desc, component));
+            }
+            int right = _right.getInt(ctx, desc, component);
+            int left = _left.getInt(ctx, desc, component);
+            return compute(left, right);
+        }
+
+        private int compute(int left, int right) {
+            return _op == PermissionChecker.MODULUS_OPERATOR ? left % right : left / right;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return _left.isConstant() && _right.isConstant();
+        }
+
+        private final char _op;
+        private final Node _left;
+        private final Node _right;
+    }
+
+    private static final Node TRUE = new Constant(true);
+    private static final Node FALSE = new Constant(false);
+
+    /**
+     * <p>
+     * Marks an equation that could not be compiled, so it is not compiled again.
+     * </p>
+     */
+    static final PermissionCondition NOT_COMPILED = new PermissionCondition(FALSE);
+
+    private final Node _root;
+}
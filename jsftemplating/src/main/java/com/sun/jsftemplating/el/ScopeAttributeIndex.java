@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.faces.context.ExternalContext;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextAttributeEvent;
+import jakarta.servlet.ServletContextAttributeListener;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.ServletRequestAttributeEvent;
+import jakarta.servlet.ServletRequestAttributeListener;
+import jakarta.servlet.http.HttpSessionAttributeListener;
+import jakarta.servlet.http.HttpSessionBindingEvent;
+
+/**
+ * <p>
+ * This listener remembers the name of every attribute set in request, session, or application scope. It allows the
+ * {@link PageSessionResolver} (when {@link PageSessionResolver#RESOLUTION_MODE} is
+ * {@link PageSessionResolver#MODE_INDEXED}) to know which page session attributes may be shadowed by an attribute of the
+ * same name in another scope, so it only has to search the other scopes for those.
+ * </p>
+ *
+ * <p>
+ * It is registered by the <code>META-INF/web-fragment.xml</code> of jsftemplating, and it only records names when
+ * {@link PageSessionResolver#RESOLUTION_MODE} is set (as a JVM variable or <code>context-param</code>) to
+ * {@link PageSessionResolver#MODE_INDEXED}. If web fragments are not processed (e.g. the <code>web.xml</code> is
+ * <code>metadata-complete</code>), register it in the <code>web.xml</code>:
+ * </p>
+ *
+ * <pre>
+ * &lt;listener&gt;
+ *     &lt;listener-class&gt;com.sun.jsftemplating.el.ScopeAttributeIndex&lt;/listener-class&gt;
+ * &lt;/listener&gt;
+ * </pre>
+ *
+ * <p>
+ * Names are never removed (another request or session may still hold an attribute of that name). If more than
+ * {@link #MAX_NAMES} names are seen, the index gives up and every attribute is treated as shadowed. Session attributes
+ * which are restored (e.g. after a restart) without being set again are not seen, applications which depend on those to
+ * shadow page session attributes should not use the index.
+ * </p>
+ */
+public class ScopeAttributeIndex implements ServletContextListener, ServletContextAttributeListener, HttpSessionAttributeListener,
+        ServletRequestAttributeListener {
+
+    /**
+     * <p>
+     * Default constructor.
+     * </p>
+     */
+    public ScopeAttributeIndex() {
+    }
+
+    /**
+     * <p>
+     * This method returns the index of the application of the given <code>ExternalContext</code>, or <code>null</code>
+     * if this listener is not registered.
+     * </p>
+     */
+    public static ScopeAttributeIndex getIndex(ExternalContext extCtx) {
+        Object index = extCtx.getApplicationMap().get(INDEX_KEY);
+        return index instanceof ScopeAttributeIndex ? (ScopeAttributeIndex) index : null;
+    }
+
+    /**
+     * <p>
+     * This method returns the names of the attributes which have been set in request, session, or application scope, or
+     * <code>null</code> if there are too many. The returned <code>Set</code> must not be changed.
+     * </p>
+     */
+    public Set<String> getNames() {
+        return _saturated ? null : _names;
+    }
+
+    /**
+     * <p>
+     * This method records the given attribute name.
+     * </p>
+     */
+    public void add(String name) {
+        if (!_active || _saturated || name == null || _names.contains(name)) {
+            return;
+        }
+        if (_names.size() >= MAX_NAMES) {
+            _saturated = true;
+            return;
+        }
+        _names.add(name);
+    }
+
+    /**
+     * <p>
+     * If {@link PageSessionResolver#RESOLUTION_MODE} is {@link PageSessionResolver#MODE_INDEXED}, this method stores this
+     * index in the given <code>ServletContext</code> and records the names of its existing attributes. Otherwise, or if
+     * another instance is already registered, this listener stays inactive.
+     * </p>
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext servletCtx = event.getServletContext();
+        String mode = System.getProperty(PageSessionResolver.RESOLUTION_MODE);
+        if (mode == null) {
+            mode = servletCtx.getInitParameter(PageSessionResolver.RESOLUTION_MODE);
+        }
+        if (mode == null || !PageSessionResolver.MODE_INDEXED.equalsIgnoreCase(mode.trim())
+                || servletCtx.getAttribute(INDEX_KEY) != null) {
+            return;
+        }
+        _active = true;
+        Enumeration<String> names = servletCtx.getAttributeNames();
+        while (names != null && names.hasMoreElements()) {
+            add(names.nextElement());
+        }
+        servletCtx.setAttribute(INDEX_KEY, this);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (_active) {
+            event.getServletContext().removeAttribute(INDEX_KEY);
+        }
+    }
+
+    @Override
+    public void attributeAdded(ServletContextAttributeEvent event) {
+        add(event.getName());
+    }
+
+    @Override
+    public void attributeReplaced(ServletContextAttributeEvent event) {
+        add(event.getName());
+    }
+
+    @Override
+    public void attributeAdded(HttpSessionBindingEvent event) {
+        add(event.getName());
+    }
+
+    @Override
+    public void attributeReplaced(HttpSessionBindingEvent event) {
+        add(event.getName());
+    }
+
+    @Override
+    public void attributeAdded(ServletRequestAttributeEvent event) {
+        add(event.getName());
+    }
+
+    @Override
+    public void attributeReplaced(ServletRequestAttributeEvent event) {
+        add(event.getName());
+    }
+
+    /**
+     * <p>
+     * The application scope key under which the index is stored.
+     * </p>
+     */
+    public static final String INDEX_KEY = "__jsft_scope_attribute_index";
+
+    /**
+     * <p>
+     * The maximum number of names to remember.
+     * </p>
+     */
+    public static final int MAX_NAMES = 10000;
+
+    private final Set<String> _names = ConcurrentHashMap.newKeySet();
+    private volatile boolean _active = false;
+    private volatile boolean _saturated = false;
+}
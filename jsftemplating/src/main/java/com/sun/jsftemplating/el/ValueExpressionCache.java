@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.jsftemplating.util.LruCache;
+
+import jakarta.el.ELContext;
+import jakarta.el.ExpressionFactory;
+import jakarta.el.ValueExpression;
+
+/**
+ * <p>
+ * This class remembers the <code>ValueExpression</code>s parsed from <code>#{...}</code> <code>String</code>s for the
+ * life of the application, so the same expression text is not parsed again each time it is resolved. Entries are keyed
+ * by the expression text and the expected type.
+ * </p>
+ *
+ * <p>
+ * A <code>ValueExpression</code> does not hold the <code>ELContext</code> it was created with, so it may be shared by
+ * all requests. It does hold any functions or variables the <code>ELContext</code> mapped while it was parsed, so this
+ * cache must not be used with an <code>ELContext</code> whose mappings differ between requests. For this reason it is
+ * disabled unless {@link com.sun.jsftemplating.component.ComponentUtil#VALUE_EXPRESSION_CACHE_SIZE} is set.
+ * </p>
+ *
+ * <p>
+ * The number of entries is bounded, when the cache is full the least recently used entries are removed.
+ * </p>
+ */
+public class ValueExpressionCache {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param maxSize The maximum number of <code>ValueExpression</code>s to remember.
+     */
+    public ValueExpressionCache(int maxSize) {
+        _entries = new LruCache<>(maxSize);
+    }
+
+    /**
+     * <p>
+     * This method returns the <code>ValueExpression</code> for the given expression and expected type, parsing (and
+     * remembering) it if it has not been parsed before.
+     * </p>
+     *
+     * @param factory The <code>ExpressionFactory</code> used to parse the expression.
+     * @param elctx The <code>ELContext</code> used to parse the expression.
+     * @param expression The expression text.
+     * @param expectedType The expected type of the value.
+     */
+    public ValueExpression getValueExpression(ExpressionFactory factory, ELContext elctx, String expression, Class<?> expectedType) {
+        Key key = new Key(expression, expectedType);
+        ValueExpression ve = _entries.get(key);
+        if (ve != null) {
+            _hits.incrementAndGet();
+            return ve;
+        }
+        _misses.incrementAndGet();
+        ve = factory.createValueExpression(elctx, expression, expectedType);
+        _entries.put(key, ve);
+        return ve;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the given expression and expected type have already been parsed.
+     * </p>
+     */
+    public boolean contains(String expression, Class<?> expectedType) {
+        return _entries.containsKey(new Key(expression, expectedType));
+    }
+
+    /**
+     * <p>
+     * This method forgets all entries.
+     * </p>
+     */
+    public void clear() {
+        _entries.clear();
+    }
+
+    /**
+     * <p>
+     * The number of entries currently remembered.
+     * </p>
+     */
+    public int size() {
+        return _entries.size();
+    }
+
+    /**
+     * <p>
+     * The number of times a remembered <code>ValueExpression</code> was used.
+     * </p>
+     */
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    /**
+     * <p>
+     * The number of times an expression had to be parsed.
+     * </p>
+     */
+    public long getMissCount() {
+        return _misses.get();
+    }
+
+    /**
+     * <p>
+     * The number of entries removed to make room for others.
+     * </p>
+     */
+    public long getEvictionCount() {
+        return _entries.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return "ValueExpressionCache[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+                + "]";
+    }
+
+    /**
+     * <p>
+     * The expression text and expected type.
+     * </p>
+     */
+    private static final class Key {
+        Key(String expression, Class<?> expectedType) {
+            _expression = expression;
+            _expectedType = expectedType;
+            _hash = 31 * expression.hashCode() + (expectedType == null ? 0 : expectedType.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return _expectedType == key._expectedType && _expression.equals(key._expression);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+
+        private final String _expression;
+        private final Class<?> _expectedType;
+        private final int _hash;
+    }
+
+    private final LruCache<Key, ValueExpression> _entries;
+
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+}
@@ -33,7 +33,11 @@ import java.util.StringTokenizer;
 import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
 import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.resource.MessageTable;
+import com.sun.jsftemplating.resource.ResourceBundleManager;
+import com.sun.jsftemplating.util.ApplicationRegistry;
 import com.sun.jsftemplating.util.LogUtil;
+import com.sun.jsftemplating.util.LruCache;
 import com.sun.jsftemplating.util.MessageUtil;
 import com.sun.jsftemplating.util.Util;
 
@@ -258,6 +262,11 @@ public class VariableResolver {
      */
     private static final Class[] EMPTY_CLASS_ARRAY = {};
 
+    /**
+     * Returned by {@link #getCompParamTokens(String)} when there are no tokens.
+     */
+    private static final String[] NO_TOKENS = {};
+
     /**
      * <p>
      * Application scope key to hold the VariableResolver DataSources.
@@ -265,6 +274,28 @@ public class VariableResolver {
      */
     public static final String VR_APP_KEY = "__jsft_vrds_map";
 
+    /**
+     * <p>
+     * Application scope key to hold the compiled {@link VariableTemplate}s.
+     * </p>
+     */
+    private static final String VR_TEMPLATES_KEY = "__jsft_vr_templates";
+
+    /**
+     * <p>
+     * The {@link VariableResolver.DataSource}s of each application, stored under {@link #VR_APP_KEY}.
+     * </p>
+     */
+    private static final ApplicationRegistry<String, DataSource> DATA_SOURCES = new ApplicationRegistry<>(VR_APP_KEY,
+            VariableResolver::addDefaultDataSources);
+
+    /**
+     * <p>
+     * The maximum number of compiled {@link VariableTemplate}s to keep, the least recently used are discarded first.
+     * </p>
+     */
+    private static final int MAX_VARIABLE_TEMPLATES = 10000;
+
     /**
      * Escape character.
      */
@@ -469,6 +500,11 @@ public class VariableResolver {
             return null;
         }
 
+        // Skip strings w/o EL, they can't reference any params
+        if (string.indexOf("#{") == -1) {
+            return string;
+        }
+
         // First see if we have any params
         Map<String, Object> globalParams = LayoutComposition.getGlobalParamMap(ctx);
         if (globalParams.size() == 0) {
@@ -483,7 +519,6 @@ public class VariableResolver {
         char chars[] = string.toCharArray();
         boolean foundAtLeastOne = false, isWholeString = false;
         StringBuilder buff = null;
-        Stack<LayoutElement> stack = null;
 
         while (true) {
             startEL = findOpenEL(chars, loopStart);
@@ -506,10 +541,7 @@ public class VariableResolver {
                 if (value != null) {
                     // We're not done yet! This value is only a flag, we have to
                     // look at the composition stack to be accurate!
-                    if (stack == null) {
-                        stack = LayoutComposition.getCompositionStack(ctx);
-                    }
-                    value = LayoutComposition.findTemplateParam(stack, token);
+                    value = LayoutComposition.findTemplateParam(ctx, token);
                     break;
                 }
                 startEL = string.indexOf("#{", endEL + 1);
@@ -586,6 +618,54 @@ public class VariableResolver {
         return resolveVariables(ctx, desc, comp, buff.toString());
     }
 
+    /**
+     * <p>
+     * This method returns the tokens of the given <code>String</code> which {@link #resolveVariables(FacesContext,
+     * LayoutElement, UIComponent, Object)} would look up as composition parameters (i.e. the first token of each
+     * <code>#{...}</code> expression). An empty array is returned if there are none, in which case the
+     * <code>String</code> will never be changed by composition parameters. This is intended to be called when a page is
+     * read, see {@link #mayReferenceCompParams(String[], Map)}.
+     * </p>
+     *
+     * @param string The <code>String</code> to examine.
+     */
+    public static String[] getCompParamTokens(String string) {
+        if (string == null || string.indexOf("#{") == -1) {
+            return NO_TOKENS;
+        }
+        List<String> tokens = new ArrayList<>();
+        char chars[] = string.toCharArray();
+        int startEL = findOpenEL(chars, 0);
+        while (startEL != -1) {
+            int endEL = findChar(chars, startEL + 2, '}', '[', '.', '=', '>', '<', '!', '&', '|', '*', '+', '-', '?', '/', '%', '(');
+            if (endEL == -1) {
+                break;
+            }
+            tokens.add(string.substring(startEL + 2, endEL).trim());
+            startEL = string.indexOf("#{", endEL + 1);
+        }
+        return tokens.isEmpty() ? NO_TOKENS : tokens.toArray(new String[tokens.size()]);
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if any of the given tokens (see {@link #getCompParamTokens(String)}) is a
+     * composition parameter in the given <code>Map</code> (see
+     * {@link LayoutComposition#getGlobalParamMap(FacesContext)}).
+     * </p>
+     */
+    public static boolean mayReferenceCompParams(String[] tokens, Map<String, Object> globalParams) {
+        if (globalParams.isEmpty()) {
+            return false;
+        }
+        for (String token : tokens) {
+            if (globalParams.get(token) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * <p>
      * This looks for the first occurance of "<code>#{</code>" in <code>chars</code>. It returns the index of the starting
@@ -656,8 +736,7 @@ public class VariableResolver {
             return null;
         }
         if (value instanceof String) {
-            value = VariableResolver.resolveVariables(ctx, desc, component, (String) value, VariableResolver.SUB_START, VariableResolver.SUB_TYPE_DELIM,
-                    VariableResolver.SUB_END);
+            value = VariableResolver.resolveString(ctx, desc, component, (String) value);
         } else if (value instanceof List) {
             // Create a new List b/c invalid to change shared List
             List<Object> list = (List<Object>) value;
@@ -680,6 +759,112 @@ public class VariableResolver {
         return value;
     }
 
+    /**
+     * <p>
+     * This method resolves the given <code>String</code> using the default tokens. This gives the same result as
+     * {@link #resolveVariables(FacesContext, LayoutElement, UIComponent, String, String, String, String)}, but the
+     * <code>String</code> is only parsed the first time (see {@link VariableTemplate}).
+     * </p>
+     */
+    private static Object resolveString(FacesContext ctx, LayoutElement desc, UIComponent component, String string) {
+        if (string.indexOf('$') == -1) {
+            // Nothing to substitute
+            return replaceCompParams(ctx, desc, component, string);
+        }
+        VariableTemplate template = getVariableTemplate(ctx, string);
+        if (template == null) {
+            return VariableResolver.resolveVariables(ctx, desc, component, string, SUB_START, SUB_TYPE_DELIM, SUB_END);
+        }
+        Object value = template.evaluate(ctx, desc, component);
+        if (value instanceof String) {
+            // See if we need to do EL magic manipulation...
+            value = replaceCompParams(ctx, desc, component, (String) value);
+        }
+        return value;
+    }
+
+    /**
+     * <p>
+     * This method returns the compiled {@link VariableTemplate} for the given <code>String</code>, compiling it the first
+     * time it is used. It returns <code>null</code> if the <code>String</code> cannot be compiled, or there is no
+     * <code>FacesContext</code> (and therefore no application to store it in).
+     * </p>
+     */
+    private static VariableTemplate getVariableTemplate(FacesContext ctx, String string) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+            if (ctx == null) {
+                return null;
+            }
+        }
+        LruCache<String, VariableTemplate> templates = getVariableTemplateCache(ctx);
+        VariableTemplate template = templates.get(string);
+        if (template == null) {
+            template = VariableTemplate.compile(ctx, string);
+            if (template == null) {
+                template = VariableTemplate.NOT_COMPILED;
+            }
+            templates.put(string, template);
+        }
+        return template == VariableTemplate.NOT_COMPILED ? null : template;
+    }
+
+    /**
+     * <p>
+     * Provides access to the application-scoped {@link LruCache} which stores the compiled {@link VariableTemplate}s. They
+     * refer to the {@link VariableResolver.DataSource}s of the application, so they are discarded when
+     * {@link #setDataSource(FacesContext, String, VariableResolver.DataSource)} is called.
+     * </p>
+     */
+    static LruCache<String, VariableTemplate> getVariableTemplateCache(FacesContext ctx) {
+        return Util.getApplicationAttribute(ctx, VR_TEMPLATES_KEY, context -> new LruCache<>(MAX_VARIABLE_TEMPLATES));
+    }
+
+    /**
+     * <p>
+     * This method returns the value of the given <code>String</code> if it is a single <code>$constant{...}</code>,
+     * <code>$boolean{...}</code>, or <code>$int{...}</code> expression whose key contains no other expressions, and the
+     * built-in {@link VariableResolver.DataSource} is used for the type. Its value never changes, so it may be resolved
+     * when the page is read rather than each time it is used. <code>null</code> is returned if the <code>String</code> is
+     * not such an expression, or its value is not a <code>String</code> (without <code>#{}</code>), <code>Boolean</code>,
+     * <code>Character</code>, or <code>Number</code>, or it cannot be resolved (the error is reported when it is used).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param string The <code>String</code> to resolve.
+     */
+    public static Object resolveConstant(FacesContext ctx, String string) {
+        // Must be "$type{key}", and nothing else
+        if (string == null || string.length() < 4 || string.charAt(0) != '$' || !string.endsWith(SUB_END) || string.lastIndexOf('$') != 0) {
+            return null;
+        }
+        int delimIndex = string.indexOf(SUB_TYPE_DELIM);
+        if (delimIndex == -1) {
+            return null;
+        }
+        String key = string.substring(delimIndex + 1, string.length() - 1);
+        if (key.indexOf('{') != -1 || key.indexOf('}') != -1 || key.indexOf(ESCAPE_CHAR) != -1) {
+            return null;
+        }
+
+        // Only the built-in DataSources are known to be constant
+        DataSource ds = getDataSource(ctx, string.substring(1, delimIndex));
+        if (ds == null || (ds.getClass() != ConstantDataSource.class && ds.getClass() != BooleanDataSource.class && ds.getClass() != IntDataSource.class)) {
+            return null;
+        }
+        Object value;
+        try {
+            value = ds.getValue(ctx, null, null, key);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+        if (value instanceof String) {
+            // Strings are checked for #{} after they are resolved
+            return ((String) value).contains("#{") ? null : value;
+        }
+        return value instanceof Boolean || value instanceof Character || value instanceof Number ? value : null;
+    }
+
     /**
      * <p>
      * This method looks up the requested {@link VariableResolver.DataSource} by the given key.
@@ -700,60 +885,63 @@ public class VariableResolver {
      * </p>
      */
     private static Map<String, VariableResolver.DataSource> getDataSourceMap(FacesContext ctx) {
-        if (ctx == null) {
-            ctx = FacesContext.getCurrentInstance();
-        }
-        Map<String, VariableResolver.DataSource> dataSourceMap = null;
-        if (ctx != null) {
-            dataSourceMap = (Map<String, VariableResolver.DataSource>) ctx.getExternalContext().getApplicationMap().get(VR_APP_KEY);
-        }
-        if (dataSourceMap == null) {
-            // 1st time... initialize it
-            dataSourceMap = new HashMap<>();
-            AttributeDataSource attrDS = new AttributeDataSource();
-            dataSourceMap.put("", attrDS);
-            dataSourceMap.put(ATTRIBUTE, attrDS);
-            dataSourceMap.put(APPLICATION, new ApplicationDataSource());
-            dataSourceMap.put(COPY_PROPERTY, new CopyPropertyDataSource());
-            dataSourceMap.put(OPTION, new OptionDataSource());
-            dataSourceMap.put(PAGE_SESSION, new PageSessionDataSource());
-            dataSourceMap.put(PROPERTY, new PropertyDataSource());
-            dataSourceMap.put(HAS_PROPERTY, new HasPropertyDataSource());
-            dataSourceMap.put(HAS_FACET, new HasFacetDataSource());
-            dataSourceMap.put(SESSION, new SessionDataSource());
-            dataSourceMap.put(STACK_TRACE, new StackTraceDataSource());
-            dataSourceMap.put(REQUEST_PARAMETER, new RequestParameterDataSource());
-//	dataSourceMap.put(DISPLAY, new DisplayFieldDataSource());
-            dataSourceMap.put(THIS, new ThisDataSource());
-            dataSourceMap.put(ESCAPE, new EscapeDataSource());
-            dataSourceMap.put(EVAL, new EvalDataSource());
-            dataSourceMap.put(INT, new IntDataSource());
-            dataSourceMap.put(BOOLEAN, new BooleanDataSource());
-            dataSourceMap.put(CONSTANT, new ConstantDataSource());
-            dataSourceMap.put(RESOURCE, new ResourceBundleDataSource());
-            dataSourceMap.put(METHOD_BINDING, new MethodBindingDataSource());
-            dataSourceMap.put(METHOD_EXPRESSION, new MethodExpressionDataSource());
-            if (ctx != null) {
-                ctx.getExternalContext().getApplicationMap().put(VR_APP_KEY, dataSourceMap);
-            }
-        }
+        return DATA_SOURCES.getMap(ctx);
+    }
 
-        // Return the map...
-        return dataSourceMap;
+    /**
+     * <p>
+     * This method adds the built-in {@link VariableResolver.DataSource}s to the given <code>Map</code>.
+     * </p>
+     */
+    private static void addDefaultDataSources(Map<String, VariableResolver.DataSource> dataSourceMap) {
+        AttributeDataSource attrDS = new AttributeDataSource();
+        dataSourceMap.put("", attrDS);
+        dataSourceMap.put(ATTRIBUTE, attrDS);
+        dataSourceMap.put(APPLICATION, new ApplicationDataSource());
+        dataSourceMap.put(COPY_PROPERTY, new CopyPropertyDataSource());
+        dataSourceMap.put(OPTION, new OptionDataSource());
+        dataSourceMap.put(PAGE_SESSION, new PageSessionDataSource());
+        dataSourceMap.put(PROPERTY, new PropertyDataSource());
+        dataSourceMap.put(HAS_PROPERTY, new HasPropertyDataSource());
+        dataSourceMap.put(HAS_FACET, new HasFacetDataSource());
+        dataSourceMap.put(SESSION, new SessionDataSource());
+        dataSourceMap.put(STACK_TRACE, new StackTraceDataSource());
+        dataSourceMap.put(REQUEST_PARAMETER, new RequestParameterDataSource());
+//	dataSourceMap.put(DISPLAY, new DisplayFieldDataSource());
+        dataSourceMap.put(THIS, new ThisDataSource());
+        dataSourceMap.put(ESCAPE, new EscapeDataSource());
+        dataSourceMap.put(EVAL, new EvalDataSource());
+        dataSourceMap.put(INT, new IntDataSource());
+        dataSourceMap.put(BOOLEAN, new BooleanDataSource());
+        dataSourceMap.put(CONSTANT, new ConstantDataSource());
+        dataSourceMap.put(RESOURCE, new ResourceBundleDataSource());
+        dataSourceMap.put(METHOD_BINDING, new MethodBindingDataSource());
+        dataSourceMap.put(METHOD_EXPRESSION, new MethodExpressionDataSource());
     }
 
     /**
      * <p>
      * This method sets the given {@link VariableResolver.DataSource} to be used for $[type]{...} when key matches type.
+     * It may be called at any time, the change is visible to all threads.
      * </p>
      *
      * @param key The key identifying the {@link VariableResolver.DataSource}
-     * @param dataSource The {@link VariableResolver.DataSource}
+     * @param dataSource The {@link VariableResolver.DataSource}, or <code>null</code> to remove it
      */
-    public static synchronized void setDataSource(FacesContext ctx, String key, VariableResolver.DataSource dataSource) {
-        // Get the Map... and pull off the value (may be null)
-        // NOTE: This is not thread safe.... although this is very rare
-        VariableResolver.getDataSourceMap(ctx).put(key, dataSource);
+    public static void setDataSource(FacesContext ctx, String key, VariableResolver.DataSource dataSource) {
+        if (dataSource == null) {
+            VariableResolver.getDataSourceMap(ctx).remove(key);
+        } else {
+            VariableResolver.getDataSourceMap(ctx).put(key, dataSource);
+        }
+
+        // Compiled Strings may refer to the old DataSource
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        if (ctx != null) {
+            ctx.getExternalContext().getApplicationMap().remove(VR_TEMPLATES_KEY);
+        }
     }
 
     /**
@@ -1128,8 +1316,7 @@ public class VariableResolver {
          */
         @Override
         public Object getValue(FacesContext ctx, LayoutElement desc, UIComponent component, String key) {
-            PermissionChecker checker = new PermissionChecker(desc, component, key);
-            return Boolean.valueOf(checker.hasPermission());
+            return Boolean.valueOf(PermissionChecker.hasPermission(ctx, desc, component, key));
         }
     }
 
@@ -1212,95 +1399,105 @@ public class VariableResolver {
          */
         @Override
         public Object getValue(FacesContext ctx, LayoutElement desc, UIComponent component, String key) {
-            // First check to see if we've already found the value before.
-            Object value = constantMap.get(key);
-            if (value == null) {
-                // Not found, lets resolve it, duplicate the old Map to avoid
-                // sync problems
-                Map<String, Object> map = new HashMap<>(constantMap);
-                value = resolveValue(map, key);
-
-                // Replace the shared Map w/ this new one.
-                constantMap = map;
+            int lastDot = key.lastIndexOf('.');
+            if (lastDot == -1) {
+                throw new IllegalArgumentException("Unable to resolve '" + key + "' in $constant{" + key + "}.  '" + key + "' must be a "
+                        + "fully qualified classname plus the constant name.");
             }
-            return value;
+            // Look in the constants of the class, null if not a constant of the class
+            Object value = getClassConstants(ctx, key.substring(0, lastDot), key).getValue(key);
+            return value == NULL_VALUE ? null : value;
         }
 
         /**
          * <p>
-         * This method resolves key. Key is expected to be in the format:
-         * </p>
-         *
-         * <p>
-         * some.package.Class.STATIC_VARIBLE
+         * This method returns the {@link ClassConstants} of the given class, it is only created the first time the class is
+         * used by the application. They are kept per application because the class is loaded with the application's
+         * <code>ClassLoader</code>, so a class which one application cannot find may still be found by another.
          * </p>
          *
+         * @param ctx The <code>FacesContext</code>.
+         * @param className The fully qualified class name.
+         * @param key The fully qualified CONSTANT name (for errors).
+         */
+        private ClassConstants getClassConstants(FacesContext ctx, String className, String key) {
+            Map<String, ClassConstants> classConstants = CLASS_CONSTANTS.getMap(ctx);
+            ClassConstants constants = classConstants.get(className);
+            if (constants == null) {
+                try {
+                    constants = new ClassConstants(className, Util.loadClass(className, key), null);
+                } catch (ClassNotFoundException ex) {
+                    // Remember this, so it is not searched for again
+                    constants = new ClassConstants(className, null, ex);
+                }
+                ClassConstants existing = classConstants.putIfAbsent(className, constants);
+                if (existing != null) {
+                    constants = existing;
+                }
+            }
+            return constants;
+        }
+
+        /**
          * <p>
-         * This method will first resolve Class. It will then walk through all its variables adding each static final variable
-         * to the Map.
+         * This class holds all constants (static final fields) of a class, it is created once per class. The keys are the
+         * fully qualified class name, plus a '.', plus the constant name. If the class was not found, it holds no constants
+         * and {@link #getValue(String)} throws an <code>IllegalArgumentException</code>.
          * </p>
-         *
-         * @param map The map to add variables to
-         * @param key The fully qualified CONSTANT name
-         *
-         * @return The value of the CONSTANT, or null if not found
          */
-        private Object resolveValue(Map<String, Object> map, String key) {
-            int lastDot = key.lastIndexOf('.');
-            if (lastDot == -1) {
-                throw new IllegalArgumentException("Unable to resolve '" + key + "' in $constant{" + key + "}.  '" + key + "' must be a "
-                        + "fully qualified classname plus the constant name.");
-            }
+        private static final class ClassConstants {
+            ClassConstants(String className, Class cls, ClassNotFoundException notFound) {
+                _className = className;
+                _notFound = notFound;
+                _constants = new HashMap<>();
+                if (cls == null) {
+                    return;
+                }
 
-            // Get the classname / constant name
-            String className = key.substring(0, lastDot);
+                // Add the static final fields to the Map
+                for (Field field : cls.getFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())) {
+                        try {
+                            Object value = field.get(null);
+                            _constants.put(className + '.' + field.getName(), value == null ? NULL_VALUE : value);
+                        } catch (IllegalAccessException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                }
+            }
 
-            // Add all constants to the Map
-            try {
-                addConstants(map, Util.loadClass(className, key));
-            } catch (ClassNotFoundException ex) {
-                RuntimeException iae = new IllegalArgumentException(
-                        "'" + className + "' was not found!  This must be a valid " + "classname.  This was found in expression $constant{" + key + "}.");
-                iae.initCause(ex);
-                throw iae;
+            /**
+             * <p>
+             * This method returns the value of the given constant, {@link #NULL_VALUE} if its value is <code>null</code>, or
+             * <code>null</code> if there is no such constant.
+             * </p>
+             */
+            Object getValue(String key) {
+                if (_notFound != null) {
+                    RuntimeException iae = new IllegalArgumentException(
+                            "'" + _className + "' was not found!  This must be a valid " + "classname.  This was found in expression $constant{" + key + "}.");
+                    iae.initCause(_notFound);
+                    throw iae;
+                }
+                return _constants.get(key);
             }
 
-            // The constant hopefully is in the Map now, null if not
-            return map.get(key);
+            private final String _className;
+            private final ClassNotFoundException _notFound;
+            private final Map<String, Object> _constants;
         }
 
         /**
-         * This method adds all constants in the given class to the Map. The Map key will be the fully qualified class name,
-         * plus a '.', plus the constant name.
-         *
-         * @param map <code>Map</code> to store <code>cls</code>
-         * @param cls The <code>Class</code> to store in <code>map</code>
+         * The constants of each class used by an application, by class name. Classes which were not found are included.
          */
-        private void addConstants(Map<String, Object> map, Class cls) {
-            // Get the class name
-            String className = cls.getName();
-
-            // Get the fields
-            Field[] fields = cls.getFields();
-
-            // Add the static final fields to the Map
-            Field field = null;
-            for (int count = 0; count < fields.length; count++) {
-                field = fields[count];
-                if (Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())) {
-                    try {
-                        map.put(className + '.' + field.getName(), field.get(null));
-                    } catch (IllegalAccessException ex) {
-                        throw new RuntimeException(ex);
-                    }
-                }
-            }
-        }
+        private static final ApplicationRegistry<String, ClassConstants> CLASS_CONSTANTS = new ApplicationRegistry<>("__jsft_classConstants", map -> {
+        });
 
         /**
-         * This embedded Map caches constant value lookups. It is static and is shared by all users.
+         * Stored in a {@link ClassConstants} for constants whose value is <code>null</code>.
          */
-        private static Map<String, Object> constantMap = new HashMap<>();
+        private static final Object NULL_VALUE = new Object();
     }
 
     /**
@@ -1425,44 +1622,61 @@ public class VariableResolver {
             }
             ResourceBundle bundle = (ResourceBundle) obj;
 
+            // Parse arguments
+            int argSep = key.indexOf(",", separator);
+            String bundleKey = argSep > -1 ? key.substring(separator + 1, argSep) : key.substring(separator + 1);
+            String[] tokens = null;
+            if (argSep > -1) {
+                StringTokenizer st = new StringTokenizer(key.substring(argSep), ",");
+                tokens = new String[st.countTokens()];
+                int i = 0;
+                while (st.hasMoreTokens()) {
+                    tokens[i++] = st.nextToken().trim();
+                }
+            }
+
+            // Use the MessageTable if the bundle came from the ResourceBundleManager
+            MessageTable table = ResourceBundleManager.getInstance(ctx).getMessageTable(bundle);
+            if (table != null) {
+                String str = table.getMessage(bundleKey, tokens);
+                if (str == null) {
+                    logMissingKey(bundleKey, value, null);
+                    return key;
+                }
+                return str;
+            }
+
             // Return the result of the ResouceBundle lookup
             String str = null;
-            int argSep = key.indexOf(",", separator);
             try {
-                if (argSep > -1) {
-                    str = bundle.getString(key.substring(separator + 1, argSep));
-                } else {
-                    str = bundle.getString(key.substring(separator + 1));
-                }
+                str = bundle.getString(bundleKey);
                 if (str == null) {
                     str = key;
-                } else {
-                    // Parse arguments
-                    if (argSep > -1) {
-                        StringTokenizer st = new StringTokenizer(key.substring(argSep), ",");
-                        String[] tokens = new String[st.countTokens()];
-                        int i = 0;
-                        while (st.hasMoreTokens()) {
-                            tokens[i++] = st.nextToken().trim();
-                        }
-                        str = MessageUtil.getFormattedMessage(str, tokens);
-                    }
+                } else if (tokens != null) {
+                    str = MessageUtil.getFormattedMessage(str, tokens);
                 }
             } catch (MissingResourceException ex) {
-                if (LogUtil.configEnabled()) {
-                    LogUtil.config(
-                            "Unable to find key: '" + key.substring(separator + 1) + "' in ResourceBundle '" + value + "'.  Perhaps this needs to be added?",
-                            ex);
-                } else if (LogUtil.infoEnabled()) {
-                    // Info log level, don't be verbose, just display a benign
-                    // warning.
-                    LogUtil.info("JSFT0003", new Object[] { key.substring(separator + 1), value});
-                }
+                logMissingKey(bundleKey, value, ex);
                 str = key;
             }
 
             return str;
         }
+
+        /**
+         * <p>
+         * This method reports a key which is not in the <code>ResourceBundle</code>.
+         * </p>
+         */
+        private void logMissingKey(String bundleKey, String bundleId, MissingResourceException ex) {
+            if (LogUtil.configEnabled()) {
+                LogUtil.config("Unable to find key: '" + bundleKey + "' in ResourceBundle '" + bundleId + "'.  Perhaps this needs to be added?", ex);
+            } else if (LogUtil.infoEnabled()) {
+                // Info log level, don't be verbose, just display a benign
+                // warning.
+                LogUtil.info("JSFT0003", new Object[] { bundleKey, bundleId});
+            }
+        }
     }
 
     /**
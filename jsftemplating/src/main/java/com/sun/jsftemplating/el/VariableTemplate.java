@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class holds a <code>String</code> containing <code>$type{key}</code> expressions after it has been compiled into
+ * literal text and ({@link VariableResolver.DataSource}, key) pairs. Evaluating it gives the same result as
+ * {@link VariableResolver#resolveVariables(FacesContext, LayoutElement, UIComponent, String, String, String, String)}
+ * with the default tokens, without searching the <code>String</code> again.
+ * </p>
+ *
+ * <p>
+ * {@link VariableResolver#resolveVariables(FacesContext, LayoutElement, UIComponent, String, String, String, String)}
+ * replaces expressions from right to left, and the value of an expression becomes part of the <code>String</code> that is
+ * searched for the expressions to its left. When the value could change how an expression to its left is found (i.e.
+ * expressions are nested, or a <code>'$'</code> is not followed by a <code>'{'</code> before the value), or when the
+ * type is not a registered {@link VariableResolver.DataSource}, {@link #compile(FacesContext, String)} returns
+ * <code>null</code> and the <code>String</code> must be evaluated the original way.
+ * </p>
+ *
+ * <p>
+ * The values of <code>$constant{...}</code> expressions (using the built-in
+ * {@link VariableResolver.ConstantDataSource}) never change, so they are resolved when the <code>String</code> is
+ * compiled and become part of the literal text.
+ * </p>
+ */
+final class VariableTemplate {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    private VariableTemplate(String[] literals, VariableResolver.DataSource[] dataSources, String[] keys, boolean wholeString) {
+        _literals = literals;
+        _dataSources = dataSources;
+        _keys = keys;
+        _wholeString = wholeString;
+        int len = 0;
+        for (String literal : literals) {
+            len += literal.length();
+        }
+        _literalLength = len;
+    }
+
+    /**
+     * <p>
+     * This method compiles the given <code>String</code>, or returns <code>null</code> if it cannot be compiled (see
+     * class description).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> used to find the {@link VariableResolver.DataSource}s.
+     * @param string The <code>String</code> to compile.
+     */
+    static VariableTemplate compile(FacesContext ctx, String string) {
+        if (string.indexOf(VALUE) != -1) {
+            // Can't tell our placeholders apart from the original text
+            return null;
+        }
+
+        // This follows VariableResolver.resolveVariables(), but replaces
+        // each expression w/ the VALUE placeholder.
+        int stringLen = string.length();
+        int delimIndex;
+        int endIndex;
+        int parenSemi;
+        char currChar;
+        String type;
+        List<VariableResolver.DataSource> dataSources = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+
+        for (int startIndex = string.lastIndexOf('$'); startIndex != -1; startIndex = string.lastIndexOf('$', startIndex - 1)) {
+
+            // Make sure the startToken isn't escaped
+            if (startIndex > 0 && string.charAt(startIndex - 1) == VariableResolver.ESCAPE_CHAR) {
+                string = string.substring(0, startIndex - 1) // Before '\\'
+                        + string.substring(startIndex); // After
+                stringLen--;
+                startIndex--;
+                continue;
+            }
+
+            // Find first typeDelim, it may not be inside a value
+            delimIndex = -1;
+            for (int curr = startIndex + 1; curr < stringLen; curr++) {
+                currChar = string.charAt(curr);
+                if (currChar == '{') {
+                    delimIndex = curr;
+                    break;
+                }
+                if (currChar == VALUE) {
+                    return null;
+                }
+            }
+            if (delimIndex == -1) {
+                continue;
+            }
+
+            // Next find the end token, it may not be inside a value
+            parenSemi = 0;
+            endIndex = -1;
+            for (int curr = delimIndex + 1; curr < stringLen; curr++) {
+                currChar = string.charAt(curr);
+                if (currChar == '{') {
+                    parenSemi++;
+                } else if (currChar == '}') {
+                    parenSemi--;
+                    if (parenSemi < 0) {
+                        endIndex = curr;
+                        break;
+                    }
+                } else if (currChar == VALUE) {
+                    return null;
+                }
+            }
+            if (endIndex == -1) {
+                continue;
+            }
+
+            // See if the expression is the whole String
+            boolean expressionIsWholeString = false;
+            if (startIndex == 0) {
+                if (string.charAt(stringLen - 1) == VALUE) {
+                    // Depends on whether a value ends w/ '}'
+                    return null;
+                }
+                expressionIsWholeString = endIndex == string.lastIndexOf('}') && string.endsWith("}");
+            }
+
+            // Pull off the type...
+            type = string.substring(startIndex + 1, delimIndex);
+            VariableResolver.DataSource ds = VariableResolver.getDataSource(ctx, type);
+            if (ds == null) {
+                if (type.indexOf('<') > -1 || type.indexOf('&') > -1 || type.indexOf('[') > -1 || type.indexOf('#') > -1 || type.indexOf('$') > -1
+                        || type.indexOf('%') > -1 || type.indexOf('(') > -1 || type.indexOf(')') > -1) {
+                    // Do not consider this a valid EL expression, continue...
+                    continue;
+                }
+
+                // Invalid type, let the original code report it
+                return null;
+            }
+            String key = string.substring(delimIndex + 1, endIndex);
+            if (ds.getClass() == VariableResolver.ConstantDataSource.class) {
+                // Constants never change, use the value
+                try {
+                    ds = new FoldedValue(ds.getValue(ctx, null, null, key));
+                } catch (RuntimeException ex) {
+                    // Let the error be reported when it is used
+                }
+            }
+            dataSources.add(ds);
+            keys.add(key);
+            if (expressionIsWholeString) {
+                return new VariableTemplate(new String[0], dataSources.toArray(new VariableResolver.DataSource[1]), keys.toArray(new String[1]), true);
+            }
+
+            // Replace the expression w/ a placeholder
+            string = string.substring(0, startIndex) + VALUE + string.substring(endIndex + 1);
+            stringLen = string.length();
+        }
+
+        // Split the literal text around the placeholders, the values of
+        // folded expressions become part of the literal text
+        List<String> literals = new ArrayList<>();
+        List<VariableResolver.DataSource> remaining = new ArrayList<>();
+        List<String> remainingKeys = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int start = 0;
+        for (int idx = dataSources.size() - 1; idx >= 0; idx--) {
+            int end = string.indexOf(VALUE, start);
+            literal.append(string, start, end);
+            start = end + 1;
+            VariableResolver.DataSource ds = dataSources.get(idx);
+            if (ds instanceof FoldedValue) {
+                Object value = ds.getValue(ctx, null, null, null);
+                literal.append(value == null ? "" : value.toString());
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                remaining.add(0, ds);
+                remainingKeys.add(0, keys.get(idx));
+            }
+        }
+        literals.add(literal.append(string, start, string.length()).toString());
+
+        return new VariableTemplate(literals.toArray(new String[literals.size()]), remaining.toArray(new VariableResolver.DataSource[remaining.size()]),
+                remainingKeys.toArray(new String[remainingKeys.size()]), false);
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if this is a single expression with no literal text, in which case
+     * {@link #evaluate(FacesContext, LayoutElement, UIComponent)} returns the value itself rather than a
+     * <code>String</code>.
+     * </p>
+     */
+    boolean isWholeString() {
+        return _wholeString;
+    }
+
+    /**
+     * <p>
+     * This method returns the value of the whole-<code>String</code> expression (see {@link #isWholeString()}), or the
+     * <code>String</code> with each expression replaced by its value. As with the original algorithm, the expressions
+     * are evaluated from right to left.
+     * </p>
+     */
+    Object evaluate(FacesContext ctx, LayoutElement desc, UIComponent component) {
+        if (_wholeString) {
+            return _dataSources[0].getValue(ctx, desc, component, _keys[0]);
+        }
+        int count = _dataSources.length;
+        if (count == 0) {
+            return _literals[0];
+        }
+
+        // _dataSources / _keys are in the order they are evaluated (right to left)
+        String[] values = new String[count];
+        int len = _literalLength;
+        Object value;
+        for (int idx = 0; idx < count; idx++) {
+            value = _dataSources[idx].getValue(ctx, desc, component, _keys[idx]);
+            values[idx] = value == null ? "" : value.toString();
+            len += values[idx].length();
+        }
+
+        StringBuilder buf = new StringBuilder(len);
+        for (int idx = 0; idx < count; idx++) {
+            buf.append(_literals[idx]).append(values[count - 1 - idx]);
+        }
+        return buf.append(_literals[count]).toString();
+    }
+
+    /**
+     * <p>
+     * The value of a <code>$constant{...}</code> expression, resolved when the <code>String</code> is compiled.
+     * </p>
+     */
+    private static final class FoldedValue implements VariableResolver.DataSource {
+        FoldedValue(Object value) {
+            _value = value;
+        }
+
+        @Override
+        public Object getValue(FacesContext ctx, LayoutElement desc, UIComponent component, String key) {
+            return _value;
+        }
+
+        private final Object _value;
+    }
+
+    /**
+     * <p>
+     * Marks a <code>String</code> that could not be compiled, so it is not compiled again.
+     * </p>
+     */
+    static final VariableTemplate NOT_COMPILED = new VariableTemplate(new String[] { "" }, new VariableResolver.DataSource[0], new String[0], false);
+
+    /**
+     * <p>
+     * Replaces an expression while compiling, it is a "noncharacter" so it does not occur in normal text.
+     * </p>
+     */
+    private static final char VALUE = '\uFFFF';
+
+    /**
+     * <p>
+     * The literal text before, between, and after the expressions (left to right).
+     * </p>
+     */
+    private final String[] _literals;
+
+    /**
+     * <p>
+     * The {@link VariableResolver.DataSource}s and keys of the expressions (right to left).
+     * </p>
+     */
+    private final VariableResolver.DataSource[] _dataSources;
+    private final String[] _keys;
+
+    private final boolean _wholeString;
+    private final int _literalLength;
+}
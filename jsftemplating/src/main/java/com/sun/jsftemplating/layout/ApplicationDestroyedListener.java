@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import com.sun.jsftemplating.util.LogUtil;
+
+import jakarta.faces.application.Application;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.SystemEvent;
+import jakarta.faces.event.SystemEventListener;
+
+/**
+ * <p>
+ * This class releases the resources JSFTemplating holds for an application when it is destroyed, so that
+ * <code>Thread</code>s and <code>WatchService</code>s do not outlive a redeployed application. It is registered as a
+ * listener for the <code>PreDestroyApplicationEvent</code>.
+ * </p>
+ */
+public class ApplicationDestroyedListener implements SystemEventListener {
+
+    /**
+     * <p>
+     * Default constructor.
+     * </p>
+     */
+    public ApplicationDestroyedListener() {
+    }
+
+    @Override
+    public boolean isListenerForSource(Object source) {
+        return source instanceof Application;
+    }
+
+    @Override
+    public void processEvent(SystemEvent event) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (ctx == null) {
+            return;
+        }
+        LayoutDefinitionManager.destroy(ctx);
+        if (LogUtil.configEnabled()) {
+            LogUtil.config("Released JSFTemplating application resources.");
+        }
+    }
+}
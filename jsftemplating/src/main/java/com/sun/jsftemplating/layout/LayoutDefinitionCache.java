@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.util.function.Consumer;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+
+/**
+ * <p>
+ * This interface defines the application-scoped cache of {@link LayoutDefinition}s used by the
+ * {@link LayoutDefinitionManager}. Implementations must be thread safe, and may evict {@link LayoutDefinition}s at any
+ * time (they will be read again when needed).
+ * </p>
+ *
+ * <p>
+ * The implementation may be replaced by setting {@link LayoutDefinitionManager#CACHE_CLASS} to the name of a class that
+ * implements this interface and has a no-argument constructor. The default is {@link LruLayoutDefinitionCache}.
+ * </p>
+ */
+public interface LayoutDefinitionCache {
+
+    /**
+     * <p>
+     * This method returns the cached {@link LayoutDefinition} for the given key, or <code>null</code>.
+     * </p>
+     */
+    LayoutDefinition get(String key);
+
+    /**
+     * <p>
+     * This method caches the given {@link LayoutDefinition}.
+     * </p>
+     */
+    void put(String key, LayoutDefinition def);
+
+    /**
+     * <p>
+     * This method removes the {@link LayoutDefinition} for the given key (if cached).
+     * </p>
+     */
+    void remove(String key);
+
+    /**
+     * <p>
+     * This method removes all {@link LayoutDefinition}s.
+     * </p>
+     */
+    void clear();
+
+    /**
+     * <p>
+     * The number of cached {@link LayoutDefinition}s.
+     * </p>
+     */
+    int size();
+
+    /**
+     * <p>
+     * The number of successful calls to {@link #get(String)}.
+     * </p>
+     */
+    long getHitCount();
+
+    /**
+     * <p>
+     * The number of calls to {@link #get(String)} which returned <code>null</code>.
+     * </p>
+     */
+    long getMissCount();
+
+    /**
+     * <p>
+     * The number of {@link LayoutDefinition}s removed to stay within the cache limits.
+     * </p>
+     */
+    long getEvictionCount();
+
+    /**
+     * <p>
+     * The estimated total size (in bytes) of the cached {@link LayoutDefinition}s.
+     * </p>
+     */
+    long getEstimatedSize();
+
+    /**
+     * <p>
+     * This method adds a listener which is given the key of each {@link LayoutDefinition} evicted to stay within the cache
+     * limits, so that state kept elsewhere for it can be released. It is not called for {@link #remove(String)} or
+     * {@link #clear()}. Implementations which evict should override this method, the default ignores the listener.
+     * </p>
+     */
+    default void addEvictionListener(Consumer<String> listener) {
+    }
+
+    /**
+     * <p>
+     * The fraction (0.0 - 1.0) of calls to {@link #get(String)} which were successful.
+     * </p>
+     */
+    default double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+
+/**
+ * <p>
+ * This class records the sources a {@link LayoutDefinition} was created from. This includes the <code>URL</code> (and
+ * last modified time) of the template file itself, any file pulled in via <code>#include</code>, and the keys of the
+ * templates referenced by {@link LayoutComposition}s. The {@link LayoutDefinitionRevalidator} uses this information to
+ * detect when a cached {@link LayoutDefinition} is stale.
+ * </p>
+ *
+ * <p>
+ * Sources are recorded on the current thread between {@link #begin()} and {@link #end(LayoutDefinitionDependencies)}.
+ * {@link com.sun.jsftemplating.util.FileUtil#searchForFile(String, String)} reports each <code>URL</code> it resolves
+ * via {@link #recordSource(URL)}. Nested reads (i.e. a template read while another template is being read) are recorded
+ * separately.
+ * </p>
+ */
+public class LayoutDefinitionDependencies {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    public LayoutDefinitionDependencies() {
+        super();
+    }
+
+    /**
+     * <p>
+     * This method starts recording the sources used by the current thread. The returned object will receive all sources
+     * found until {@link #end(LayoutDefinitionDependencies)} is called.
+     * </p>
+     */
+    public static LayoutDefinitionDependencies begin() {
+        Deque<LayoutDefinitionDependencies> stack = _recording.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>(4);
+            _recording.set(stack);
+        }
+        LayoutDefinitionDependencies deps = new LayoutDefinitionDependencies();
+        stack.push(deps);
+        return deps;
+    }
+
+    /**
+     * <p>
+     * This method stops recording sources for the given <code>LayoutDefinitionDependencies</code>.
+     * </p>
+     */
+    public static void end(LayoutDefinitionDependencies deps) {
+        Deque<LayoutDefinitionDependencies> stack = _recording.get();
+        if (stack != null) {
+            stack.remove(deps);
+            if (stack.isEmpty()) {
+                _recording.remove();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method records the given <code>URL</code> as a source of the {@link LayoutDefinition} currently being read on
+     * this thread. If nothing is being recorded, this method does nothing.
+     * </p>
+     */
+    public static void recordSource(URL url) {
+        Deque<LayoutDefinitionDependencies> stack = _recording.get();
+        if (url == null || stack == null || stack.isEmpty()) {
+            return;
+        }
+        stack.peek().addSource(url);
+    }
+
+    /**
+     * <p>
+     * This method adds the given <code>URL</code> as a source. Sources for which no last modified time can be determined
+     * are ignored as there is no way to tell if they change.
+     * </p>
+     */
+    public void addSource(URL url) {
+        String key = getSourceKey(url);
+        if (_sources.containsKey(key)) {
+            return;
+        }
+        long lastModified = getLastModified(url);
+        if (lastModified > 0) {
+            _sources.put(key, new Source(url, lastModified));
+        }
+    }
+
+    /**
+     * <p>
+     * This method adds the key of a template (see {@link LayoutComposition#getTemplate()}) that the
+     * {@link LayoutDefinition} depends on.
+     * </p>
+     */
+    public void addTemplate(String key) {
+        _templates.add(key);
+    }
+
+    /**
+     * <p>
+     * This method returns the keys of the recorded sources (see {@link #getSourceKey(URL)}).
+     * </p>
+     */
+    public Collection<String> getSources() {
+        return _sources.keySet();
+    }
+
+    /**
+     * <p>
+     * This method returns the <code>URL</code>s of the recorded sources.
+     * </p>
+     */
+    public Collection<URL> getSourceURLs() {
+        Collection<URL> urls = new LinkedHashSet<>(_sources.size());
+        for (Source src : _sources.values()) {
+            urls.add(src._url);
+        }
+        return urls;
+    }
+
+    /**
+     * <p>
+     * This method returns the keys of the templates the {@link LayoutDefinition} depends on.
+     * </p>
+     */
+    public Set<String> getTemplates() {
+        return _templates;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if any of the recorded sources has changed (or no longer exists) since it was
+     * recorded.
+     * </p>
+     */
+    public boolean isModified() {
+        for (Source src : _sources.values()) {
+            if (getLastModified(src._url) != src._lastModified) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * The time (in milliseconds) the sources were last checked.
+     * </p>
+     */
+    public long getLastChecked() {
+        return _lastChecked;
+    }
+
+    /**
+     * <p>
+     * Sets the time (in milliseconds) the sources were last checked.
+     * </p>
+     */
+    public void setLastChecked(long time) {
+        _lastChecked = time;
+    }
+
+    /**
+     * <p>
+     * This method returns a normalized <code>String</code> which identifies the given <code>URL</code>. For
+     * <code>file:</code> <code>URL</code>s this is the absolute path of the file, so that it matches the paths reported by
+     * a <code>WatchService</code>. For all other <code>URL</code>s it is the external form.
+     * </p>
+     */
+    public static String getSourceKey(URL url) {
+        Path path = getPath(url);
+        return path == null ? url.toExternalForm() : path.toString();
+    }
+
+    /**
+     * <p>
+     * This method returns the absolute <code>Path</code> of the given <code>file:</code> <code>URL</code>, or
+     * <code>null</code> if the <code>URL</code> does not point to a file.
+     * </p>
+     */
+    public static Path getPath(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI()).toAbsolutePath().normalize();
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the last modified time of the given <code>URL</code>, or <code>0</code> if it cannot be
+     * determined (or the resource does not exist).
+     * </p>
+     */
+    public static long getLastModified(URL url) {
+        Path path = getPath(url);
+        if (path != null) {
+            // Fast path, no need to open a connection
+            return new File(path.toString()).lastModified();
+        }
+        try {
+            URLConnection conn = url.openConnection();
+            long time = conn.getLastModified();
+            if (conn instanceof HttpURLConnection) {
+                ((HttpURLConnection) conn).disconnect();
+            }
+            return time;
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * <p>
+     * A single recorded source.
+     * </p>
+     */
+    private static class Source {
+        Source(URL url, long lastModified) {
+            _url = url;
+            _lastModified = lastModified;
+        }
+
+        private final URL _url;
+        private final long _lastModified;
+    }
+
+    /**
+     * <p>
+     * The <code>LayoutDefinitionDependencies</code> being recorded on the current thread.
+     * </p>
+     */
+    private static final ThreadLocal<Deque<LayoutDefinitionDependencies>> _recording = new ThreadLocal<>();
+
+    private final Map<String, Source> _sources = new LinkedHashMap<>(4);
+    private final Set<String> _templates = new LinkedHashSet<>(2);
+    private volatile long _lastChecked = 0;
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.LogUtil;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class ensures that only one thread reads a given {@link LayoutDefinition} at a time. When many requests for the
+ * same uncached page arrive at once (for example after a restart), the first thread reads the page while the others
+ * wait for its result instead of parsing the same file again.
+ * </p>
+ *
+ * <p>
+ * A thread which is already reading a {@link LayoutDefinition} never waits on another thread, it reads the requested
+ * {@link LayoutDefinition} itself. This prevents deadlocks when {@link LayoutDefinition}s request each other while
+ * they are read.
+ * </p>
+ *
+ * <p>
+ * The number of reads, the number of threads that waited, and the time spent waiting are tracked so contention can be
+ * observed.
+ * </p>
+ */
+public class LayoutDefinitionLoader {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    public LayoutDefinitionLoader() {
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link LayoutDefinition} for the given <code>key</code> provided by <code>loader</code>. If
+     * another thread is already reading the same <code>key</code>, this method waits for that result instead. The
+     * <code>loader</code> should only read, prepare and cache the {@link LayoutDefinition}: work for a specific request,
+     * such as dispatching "initPage" handlers, must be done by each caller after this method returns.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param key The cache key of the {@link LayoutDefinition}.
+     * @param loader Reads (and caches) the {@link LayoutDefinition}.
+     */
+    public LayoutDefinition load(FacesContext ctx, String key, Supplier<LayoutDefinition> loader) throws LayoutDefinitionException {
+        Set<String> leading = _leading.get();
+        if (!leading.isEmpty()) {
+            // Never wait while others may be waiting on us
+            return lead(key, loader, null, leading);
+        }
+
+        CompletableFuture<LayoutDefinition> future = new CompletableFuture<>();
+        CompletableFuture<LayoutDefinition> existing = _inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            return lead(key, loader, future, leading);
+        }
+
+        // Wait for the other thread
+        _waits.incrementAndGet();
+        long start = System.nanoTime();
+        LayoutDefinition def = null;
+        try {
+            def = existing.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LayoutDefinitionException("Interrupted while waiting for LayoutDefinition '" + key + "'.", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw new LayoutDefinitionException(cause.getMessage(), cause);
+        } finally {
+            long waited = System.nanoTime() - start;
+            _waitTime.addAndGet(waited);
+            if (LogUtil.finerEnabled()) {
+                LogUtil.finer("Waited " + (waited / 1000) + " mics for LayoutDefinition: " + key);
+            }
+        }
+        return def;
+    }
+
+    /**
+     * <p>
+     * This method reads the {@link LayoutDefinition} on the current thread and publishes the result to the given
+     * <code>future</code> (if any).
+     * </p>
+     */
+    private LayoutDefinition lead(String key, Supplier<LayoutDefinition> loader, CompletableFuture<LayoutDefinition> future, Set<String> leading) {
+        _loads.incrementAndGet();
+        boolean added = leading.add(key);
+        try {
+            LayoutDefinition def = loader.get();
+            if (future != null) {
+                future.complete(def);
+            }
+            return def;
+        } catch (RuntimeException | Error ex) {
+            if (future != null) {
+                future.completeExceptionally(ex);
+            }
+            throw ex;
+        } finally {
+            if (added) {
+                leading.remove(key);
+            }
+            if (future != null) {
+                _inFlight.remove(key, future);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * The number of {@link LayoutDefinition}s read by this <code>LayoutDefinitionLoader</code>.
+     * </p>
+     */
+    public long getLoadCount() {
+        return _loads.get();
+    }
+
+    /**
+     * <p>
+     * The number of times a thread waited for another thread to read a {@link LayoutDefinition}. Each of these is a
+     * duplicate read that was avoided.
+     * </p>
+     */
+    public long getWaitCount() {
+        return _waits.get();
+    }
+
+    /**
+     * <p>
+     * The total time (in milliseconds) threads spent waiting for other threads to read {@link LayoutDefinition}s.
+     * </p>
+     */
+    public long getWaitTime() {
+        return _waitTime.get() / 1000000;
+    }
+
+    /**
+     * <p>
+     * The number of {@link LayoutDefinition}s currently being read.
+     * </p>
+     */
+    public int getInFlightCount() {
+        return _inFlight.size();
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutDefinitionLoader[loads=" + getLoadCount() + ", waits=" + getWaitCount() + ", waitTime=" + getWaitTime() + "ms, inFlight="
+                + getInFlightCount() + "]";
+    }
+
+    /**
+     * <p>
+     * The keys of the {@link LayoutDefinition}s currently being read, mapped to their pending result.
+     * </p>
+     */
+    private final Map<String, CompletableFuture<LayoutDefinition>> _inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * The keys being read by the current thread.
+     * </p>
+     */
+    private final ThreadLocal<Set<String>> _leading = ThreadLocal.withInitial(HashSet::new);
+
+    private final AtomicLong _loads = new AtomicLong();
+    private final AtomicLong _waits = new AtomicLong();
+    private final AtomicLong _waitTime = new AtomicLong();
+}
@@ -25,13 +25,20 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.Stack;
 import java.util.StringTokenizer;
@@ -53,6 +60,7 @@ import com.sun.jsftemplating.annotation.FormatDefinitionAP;
 import com.sun.jsftemplating.annotation.HandlerAP;
 import com.sun.jsftemplating.annotation.HandlerInput;
 import com.sun.jsftemplating.annotation.UIComponentFactoryAP;
+import com.sun.jsftemplating.component.ComponentUtil;
 import com.sun.jsftemplating.component.factory.basic.GenericFactory;
 import com.sun.jsftemplating.layout.descriptors.ComponentType;
 import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
@@ -61,13 +69,17 @@ import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
 import com.sun.jsftemplating.layout.descriptors.LayoutInsert;
 import com.sun.jsftemplating.layout.descriptors.Resource;
+import com.sun.jsftemplating.layout.descriptors.handler.AsyncHandlerDispatch;
 import com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinition;
+import com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinitionProvider;
 import com.sun.jsftemplating.layout.descriptors.handler.IODescriptor;
 import com.sun.jsftemplating.layout.facelets.DbFactory;
 import com.sun.jsftemplating.layout.facelets.NSContext;
 import com.sun.jsftemplating.layout.template.TemplateLayoutDefinitionManager;
 import com.sun.jsftemplating.util.FileUtil;
+import com.sun.jsftemplating.util.LayoutElementUtil;
 import com.sun.jsftemplating.util.LogUtil;
+import com.sun.jsftemplating.util.LruCache;
 import com.sun.jsftemplating.util.Util;
 
 import jakarta.faces.context.FacesContext;
@@ -100,7 +112,9 @@ public abstract class LayoutDefinitionManager {
 
     /**
      * <p>
-     * This method is responsible for finding/creating the requested {@link LayoutDefinition}.
+     * This method is responsible for finding/creating the requested {@link LayoutDefinition}. It should only read the
+     * {@link LayoutDefinition}: caching it and dispatching its "initPage" handlers is done by
+     * {@link #getLayoutDefinition(FacesContext, String)}.
      * </p>
      *
      * @param key The key used to identify the requested {@link LayoutDefinition}.
@@ -122,6 +136,43 @@ public abstract class LayoutDefinitionManager {
      */
     public abstract boolean accepts(String key);
 
+    /**
+     * <p>
+     * This method allows a <code>LayoutDefinitionManager</code> to claim (or refuse) a key cheaply, for example by its
+     * extension or prefix, before {@link #accepts(String)} is asked to examine the file's contents. It returns
+     * <code>Boolean.TRUE</code> if this <code>LayoutDefinitionManager</code> should process the given key,
+     * <code>Boolean.FALSE</code> if it should not, or <code>null</code> if {@link #accepts(String)} must decide. A
+     * <code>TRUE</code> result should only be returned if the file exists.
+     * </p>
+     *
+     * <p>
+     * This implementation applies the claims configured via {@link #LAYOUT_DEFINITION_MANAGER_CLAIMS}. Subclasses which
+     * override this method should call it first.
+     * </p>
+     *
+     * @param key The key identifying the {@link LayoutDefinition}.
+     */
+    public Boolean claims(String key) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        for (String[] claim : getLayoutDefinitionManagerClaims(ctx)) {
+            String pattern = claim[0];
+            boolean matches = pattern.startsWith("*") ? key.endsWith(pattern.substring(1))
+                    : pattern.endsWith("*") ? key.startsWith(pattern.substring(0, pattern.length() - 1)) : key.equals(pattern);
+            if (matches) {
+                if (!claim[1].equals(getClass().getName())) {
+                    // Claimed by another LayoutDefinitionManager
+                    return Boolean.FALSE;
+                }
+                try {
+                    return FileUtil.searchForFile(key, null) != null;
+                } catch (IOException ex) {
+                    return Boolean.FALSE;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * <p>
      * This method should be used to obtain a {@link LayoutDefinition}. It first checks to see if a cached
@@ -132,27 +183,119 @@ public abstract class LayoutDefinitionManager {
      */
     public static LayoutDefinition getLayoutDefinition(FacesContext ctx, String key) throws LayoutDefinitionException {
         // Determine the key we should use to cache this
-        String cacheKey = FileUtil.cleanUpPath(key.startsWith("/") ? key : FileUtil.getAbsolutePath(ctx, key));
+        String cacheKey = getCacheKey(ctx, key);
 
         // Check to see if we already have it.
         LayoutDefinition def = getCachedLayoutDefinition(ctx, cacheKey);
 //System.out.println("GET LD (" + cacheKey + ", " + isDebug(ctx) + "):" + def);
         if (def == null) {
-            // Obtain the correct LDM, and get the LD
-            def = getLayoutDefinitionManager(ctx, key).getLayoutDefinition(key);
+            LayoutDefinitionLoader loader = getLayoutDefinitionLoader(ctx);
+            if (loader == null) {
+                def = readLayoutDefinition(ctx, key, cacheKey);
+            } else {
+                // Only let one thread read a given LD at a time
+                def = loader.load(ctx, cacheKey, () -> {
+                    // Another thread may have just finished reading it
+                    LayoutDefinition cached = getCachedLayoutDefinition(ctx, cacheKey);
+                    return cached != null ? cached : readLayoutDefinition(ctx, key, cacheKey);
+                });
+            }
 //System.out.println("  Found LD (" + cacheKey + ")?:" + def);
-            putCachedLayoutDefinition(ctx, cacheKey, def);
-        } else {
-            // In the case where we found a cached version,
-            // ensure we invoke "initPage" handlers
+        }
+
+        // Invoke the "initPage" handlers for this request, on this thread
+        if (def != null) {
             def.dispatchInitPageHandlers(ctx, def);
         }
-// FIXME: Flag a page as *not found* for performance reasons when JSP is used (or other view technologies)
 
         // Return the LD
         return def;
     }
 
+    /**
+     * <p>
+     * This method obtains the appropriate <code>LayoutDefinitionManager</code>, reads the {@link LayoutDefinition} and
+     * caches it. It is used by {@link #getLayoutDefinition(FacesContext, String)} when the {@link LayoutDefinition} is not
+     * already cached.
+     * </p>
+     */
+    private static LayoutDefinition readLayoutDefinition(FacesContext ctx, String key, String cacheKey) throws LayoutDefinitionException {
+        // Make sure we haven't already looked for it w/o success
+        LayoutDefinitionNotFoundCache notFound = getLayoutDefinitionNotFoundCache(ctx);
+        if (notFound != null && notFound.contains(cacheKey)) {
+            throw new LayoutDefinitionException(getNotFoundMessage(key));
+        }
+
+        // Obtain the correct LDM
+        LayoutDefinitionManager ldm = findLayoutDefinitionManager(ctx, key);
+        if (ldm == null) {
+            // Remember this so we don't search again
+            if (notFound != null) {
+                notFound.add(cacheKey);
+            }
+            throw new LayoutDefinitionException(getNotFoundMessage(key));
+        }
+
+        LayoutDefinition def = null;
+        LayoutDefinitionRevalidator revalidator = getLayoutDefinitionRevalidator(ctx);
+        LayoutDefinitionDependencies deps = null;
+        if (revalidator == null) {
+            // Get the LD
+            def = ldm.getLayoutDefinition(key);
+        } else {
+            // Same as above, but remember where the LD came from
+            deps = LayoutDefinitionDependencies.begin();
+            try {
+                def = ldm.getLayoutDefinition(key);
+            } finally {
+                LayoutDefinitionDependencies.end(deps);
+            }
+        }
+
+        // Resolve what doesn't change once, instead of when rendering.  Do
+        // this before caching it, so other threads never see it unprepared.
+        if (def != null && ctx != null) {
+            LayoutElementUtil.prepare(ctx, def);
+            ComponentUtil.getInstance(ctx).preParseValueExpressions(ctx, def);
+        }
+
+        if (deps != null) {
+            // Register first, so an eviction during the put is not missed
+            revalidator.register(ctx, cacheKey, def, deps);
+        }
+        putCachedLayoutDefinition(ctx, cacheKey, def);
+        return def;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link LayoutDefinitionLoader} for this application, which coordinates threads reading the
+     * same {@link LayoutDefinition}. In {@link #CACHE_MODE_REQUEST} mode, <code>null</code> is returned as each request
+     * reads its own {@link LayoutDefinition}s.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static LayoutDefinitionLoader getLayoutDefinitionLoader(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        if (ctx == null || CACHE_MODE_REQUEST.equals(getCacheMode(ctx))) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, LD_LOADER, context -> new LayoutDefinitionLoader());
+    }
+
+    /**
+     * <p>
+     * This method returns the key used to cache the {@link LayoutDefinition} for the given <code>key</code>. Relative keys
+     * are resolved against the current <code>viewId</code>.
+     * </p>
+     */
+    public static String getCacheKey(FacesContext ctx, String key) {
+        return FileUtil.cleanUpPath(key.startsWith("/") ? key : FileUtil.getAbsolutePath(ctx, key));
+    }
+
     /**
      * <p>
      * This method finds the (closest) requested <code>LayoutComponent</code> for the given <code>clientId</code>. If the
@@ -190,7 +333,7 @@ public abstract class LayoutDefinitionManager {
         // - Stack and use a fresh one. We must restore it later.
         Stack<LayoutElement> oldStack = LayoutComposition.getCompositionStack(ctx);
         try {
-            LayoutComposition.setCompositionStack(ctx, new Stack<LayoutElement>());
+            LayoutComposition.setCompositionStack(ctx, new LayoutComposition.CompositionStack());
 
             // Create a StringTokenizer over the clientId
             StringTokenizer tok = new StringTokenizer(clientId, ":");
@@ -257,7 +400,7 @@ public abstract class LayoutDefinitionManager {
 
                 // Get the new LD to walk
                 try {
-                    elt = LayoutDefinitionManager.getLayoutDefinition(ctx, viewId);
+                    elt = ((LayoutComposition) elt).getTemplateLayoutDefinition(ctx);
                 } catch (LayoutDefinitionException ex) {
                     if (((LayoutComposition) elt).isRequired()) {
                         throw ex;
@@ -324,19 +467,176 @@ public abstract class LayoutDefinitionManager {
      * @see #LAYOUT_DEFINITION_MANAGER_KEY
      */
     public static LayoutDefinitionManager getLayoutDefinitionManager(FacesContext ctx, String key) throws LayoutDefinitionException {
+        LayoutDefinitionManager mgr = findLayoutDefinitionManager(ctx, key);
+        if (mgr == null) {
+            throw new LayoutDefinitionException(getNotFoundMessage(key));
+        }
+        return mgr;
+    }
+
+    /**
+     * <p>
+     * This method does the work for {@link #getLayoutDefinitionManager(FacesContext, String)}, however, it returns
+     * <code>null</code> instead of throwing an exception when no <code>LayoutDefinitionManager</code> accepts the
+     * <code>key</code>.
+     * </p>
+     */
+    static LayoutDefinitionManager findLayoutDefinitionManager(FacesContext ctx, String key) {
+        // See if we've already resolved this key
+        LruCache<String, LayoutDefinitionManager> resolved = getLayoutDefinitionManagerCache(ctx);
+        String cacheKey = null;
+        if (resolved != null) {
+            cacheKey = getCacheKey(ctx, key);
+            LayoutDefinitionManager mgr = resolved.get(cacheKey);
+            if (mgr != null) {
+                return mgr;
+            }
+        }
+
         List<String> ldms = getLayoutDefinitionManagers(ctx);
 //System.out.println("LDMS: " + ldms);
         LayoutDefinitionManager mgr = null;
         for (String className : ldms) {
             mgr = getLayoutDefinitionManagerByClass(ctx, className);
 //System.out.println("LDM ("+className+"): " + mgr);
-            if (mgr.accepts(key)) {
+            Boolean claim = mgr.claims(key);
+            if (claim == null ? mgr.accepts(key) : claim) {
 //System.out.println("Accepts!");
+                if (resolved != null) {
+                    resolved.put(cacheKey, mgr);
+                }
                 return mgr;
             }
         }
-        throw new LayoutDefinitionException(
-                "No LayoutDefinitionManager " + "available for '" + key + "'.  This may mean the file cannot " + "be found, or is unrecognizable.");
+        return null;
+    }
+
+    /**
+     * <p>
+     * This method returns the application-scoped {@link LruCache} which remembers the
+     * <code>LayoutDefinitionManager</code> chosen for each {@link LayoutDefinition} key, so that
+     * {@link #accepts(String)} is only called the first time a key is read. It holds at most
+     * {@link #LDM_CACHE_SIZE} keys. Entries are removed when the {@link LayoutDefinitionCache} evicts the
+     * {@link LayoutDefinition}, and when the {@link LayoutDefinitionRevalidator} finds it stale. In
+     * {@link #CACHE_MODE_REQUEST} mode, or when {@link #LDM_CACHE_SIZE} is <code>0</code>, <code>null</code> is
+     * returned.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static LruCache<String, LayoutDefinitionManager> getLayoutDefinitionManagerCache(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        if (ctx == null || CACHE_MODE_REQUEST.equals(getCacheMode(ctx))) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, LDM_RESOLVED, context -> {
+            int size = DEFAULT_LDM_CACHE_SIZE;
+            String value = getConfigValue(context, LDM_CACHE_SIZE);
+            if (value != null) {
+                size = Integer.parseInt(value.trim());
+            }
+            if (size <= 0) {
+                return null;
+            }
+            LruCache<String, LayoutDefinitionManager> resolved = new LruCache<>(size);
+            getLayoutDefinitionCache(context).addEvictionListener(resolved::remove);
+            return resolved;
+        });
+    }
+
+    /**
+     * <p>
+     * This method returns the claims configured via {@link #LAYOUT_DEFINITION_MANAGER_CLAIMS}. Each entry holds the
+     * pattern and the <code>LayoutDefinitionManager</code> class name. This is only needed the first time a key is
+     * resolved, so it is not cached.
+     * </p>
+     */
+    private static List<String[]> getLayoutDefinitionManagerClaims(FacesContext ctx) {
+        List<String[]> claims = new ArrayList<>();
+        String value = getConfigValue(ctx, LAYOUT_DEFINITION_MANAGER_CLAIMS);
+        if (value != null) {
+            for (String entry : value.split(",")) {
+                int idx = entry.indexOf('=');
+                if (idx < 1) {
+                    if (!entry.trim().isEmpty()) {
+                        throw new IllegalArgumentException("Invalid " + LAYOUT_DEFINITION_MANAGER_CLAIMS + " entry: '" + entry + "'.");
+                    }
+                    continue;
+                }
+                claims.add(new String[] { entry.substring(0, idx).trim(), entry.substring(idx + 1).trim() });
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * <p>
+     * The message used when no <code>LayoutDefinitionManager</code> is able to process the given <code>key</code>.
+     * </p>
+     */
+    private static String getNotFoundMessage(String key) {
+        return "No LayoutDefinitionManager " + "available for '" + key + "'.  This may mean the file cannot " + "be found, or is unrecognizable.";
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if it is already known that no <code>LayoutDefinitionManager</code> is able to
+     * provide a {@link LayoutDefinition} for the given <code>key</code>. This allows callers, such as the
+     * {@link LayoutViewHandler}, to skip pages which are handled by another view technology without searching for them or
+     * creating an exception.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param key The {@link LayoutDefinition} key.
+     */
+    public static boolean isNotFound(FacesContext ctx, String key) {
+        LayoutDefinitionNotFoundCache notFound = getLayoutDefinitionNotFoundCache(ctx);
+        return notFound != null && notFound.contains(getCacheKey(ctx, key));
+    }
+
+    /**
+     * <p>
+     * This method returns the application's {@link LayoutDefinitionNotFoundCache}. This is <code>null</code> in
+     * {@link #CACHE_MODE_REQUEST} mode (pages may be added at any time while developing), or when
+     * {@link #NOT_FOUND_CACHE_SIZE} is <code>0</code>.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static LayoutDefinitionNotFoundCache getLayoutDefinitionNotFoundCache(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        if (ctx == null) {
+            return null;
+        }
+        String mode = getCacheMode(ctx);
+        if (CACHE_MODE_REQUEST.equals(mode)) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, LD_NOT_FOUND, context -> {
+            int size = DEFAULT_NOT_FOUND_CACHE_SIZE;
+            String value = getConfigValue(context, NOT_FOUND_CACHE_SIZE);
+            if (value != null) {
+                size = Integer.parseInt(value.trim());
+            }
+            if (size <= 0) {
+                return null;
+            }
+            long ttl = -1;
+            value = getConfigValue(context, NOT_FOUND_CACHE_TTL);
+            if (value == null && CACHE_MODE_REVALIDATE.equals(mode)) {
+                // Default to the revalidation interval
+                value = getConfigValue(context, REVALIDATE_INTERVAL);
+                ttl = DEFAULT_REVALIDATE_INTERVAL;
+            }
+            if (value != null) {
+                ttl = Long.parseLong(value.trim());
+            }
+            return new LayoutDefinitionNotFoundCache(size, ttl);
+        });
     }
 
     /**
@@ -464,20 +764,22 @@ public abstract class LayoutDefinitionManager {
 
     /**
      * <p>
-     * This method may be used to obtain a cached {@link LayoutDefinition}. If it has not been cached, this method returns
-     * <code>null</code>.
+     * This method may be used to obtain a cached {@link LayoutDefinition}. If it has not been cached (or, in
+     * {@link #CACHE_MODE_REVALIDATE} mode, it is stale), this method returns <code>null</code>. "initPage" handlers are
+     * not dispatched.
      * </p>
      *
      * @param ctx The <code>FacesContext</code>.
-     * @param key Key for the cached {@link LayoutDefinition} to obtain.
+     * @param key Key for the cached {@link LayoutDefinition} to obtain (see {@link #getCacheKey(FacesContext, String)}).
      *
      * @return The {@link LayoutDefinition} or <code>null</code>.
      */
-    private static LayoutDefinition getCachedLayoutDefinition(FacesContext ctx, String key) {
+    public static LayoutDefinition getCachedLayoutDefinition(FacesContext ctx, String key) {
         if (ctx == null) {
             ctx = FacesContext.getCurrentInstance();
         }
-        if (isDebug(ctx)) {
+        String mode = getCacheMode(ctx);
+        if (CACHE_MODE_REQUEST.equals(mode)) {
             if (ctx != null) {
                 // Make sure we cache during the life of the request, even
                 // in Debug mode
@@ -488,35 +790,168 @@ public abstract class LayoutDefinitionManager {
             return null;
         }
 
-        return getLayoutDefinitionMap(ctx).get(key);
+        LayoutDefinition def = getLayoutDefinitionCache(ctx).get(key);
+        if (def != null && CACHE_MODE_REVALIDATE.equals(mode)) {
+            // Make sure it (and the templates it uses) haven't changed
+            if (!getLayoutDefinitionRevalidator(ctx).validate(key)) {
+                def = null;
+            }
+        }
+        return def;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link LayoutDefinitionRevalidator} for this application. If the {@link #CACHE_MODE} is not
+     * {@link #CACHE_MODE_REVALIDATE}, <code>null</code> is returned.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static LayoutDefinitionRevalidator getLayoutDefinitionRevalidator(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        if (ctx == null || !CACHE_MODE_REVALIDATE.equals(getCacheMode(ctx))) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, LD_REVALIDATOR, context -> {
+            String interval = getConfigValue(context, REVALIDATE_INTERVAL);
+            String watch = getConfigValue(context, WATCH_TEMPLATES);
+            LayoutDefinitionRevalidator revalidator = new LayoutDefinitionRevalidator(getLayoutDefinitionCache(context),
+                    interval == null ? DEFAULT_REVALIDATE_INTERVAL : Long.parseLong(interval.trim()), Boolean.parseBoolean(watch));
+            revalidator.setNotFoundCache(getLayoutDefinitionNotFoundCache(context));
+            revalidator.setLayoutDefinitionManagerCache(getLayoutDefinitionManagerCache(context));
+            return revalidator;
+        });
+    }
+
+    /**
+     * <p>
+     * This method releases the resources this application holds outside of the application scope, such as the
+     * <code>WatchService</code> and <code>Thread</code> of the {@link LayoutDefinitionRevalidator}, and the threads of the
+     * default {@link AsyncHandlerDispatch} <code>Executor</code>. It is called when the application is destroyed (see
+     * {@link ApplicationDestroyedListener}).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static void destroy(FacesContext ctx) {
+        Object revalidator = ctx.getExternalContext().getApplicationMap().remove(LD_REVALIDATOR);
+        if (revalidator instanceof LayoutDefinitionRevalidator) {
+            ((LayoutDefinitionRevalidator) revalidator).close();
+        }
+        AsyncHandlerDispatch.shutdown(ctx);
     }
 
     /**
      * <p>
-     * This method returns the LD Map which is stored in application scope. If it has not been created yet, it will be
-     * created as a <code>ConcurrentHashMap
+     * This method returns the {@link LayoutDefinition} cache mode. It is one of {@link #CACHE_MODE_APPLICATION},
+     * {@link #CACHE_MODE_REQUEST}, or {@link #CACHE_MODE_REVALIDATE}. If the {@link #CACHE_MODE} is not explicitly set
+     * (via a JVM variable or a <code>context-param</code>), {@link #CACHE_MODE_REQUEST} is used in debug mode (see
+     * {@link #isDebug(FacesContext)}) and {@link #CACHE_MODE_APPLICATION} otherwise.
      * </p>
-     * .
      */
-    private static Map<String, LayoutDefinition> getLayoutDefinitionMap(FacesContext ctx) {
+    public static String getCacheMode(FacesContext ctx) {
         if (ctx == null) {
             ctx = FacesContext.getCurrentInstance();
         }
-        Map<String, LayoutDefinition> ldMap = null;
         if (ctx != null) {
-            ldMap = (Map<String, LayoutDefinition>) ctx.getExternalContext().getApplicationMap().get(LD_MAP);
+            String mode = (String) ctx.getExternalContext().getApplicationMap().get(CACHE_MODE);
+            if (mode != null) {
+                return mode.isEmpty() ? getDefaultCacheMode(ctx) : mode;
+            }
         }
-        if (ldMap == null) {
+        String mode = getConfigValue(ctx, CACHE_MODE);
+        mode = mode == null ? "" : mode.trim().toLowerCase(Locale.ENGLISH);
+        if (ctx != null) {
+            // Save it in application scope, "" means not set
+            ctx.getExternalContext().getApplicationMap().put(CACHE_MODE, mode);
+        }
+        return mode.isEmpty() ? getDefaultCacheMode(ctx) : mode;
+    }
+
+    /**
+     * <p>
+     * This method returns the cache mode to use when {@link #CACHE_MODE} is not set.
+     * </p>
+     */
+    private static String getDefaultCacheMode(FacesContext ctx) {
+        return isDebug(ctx) ? CACHE_MODE_REQUEST : CACHE_MODE_APPLICATION;
+    }
+
+    /**
+     * <p>
+     * This method looks for the given configuration value as a JVM variable first, then as a <code>context-param</code>.
+     * </p>
+     */
+    public static String getConfigValue(FacesContext ctx, String name) {
+        String value = System.getProperty(name);
+        if (value == null && ctx != null) {
+            value = ctx.getExternalContext().getInitParameter(name);
+        }
+        return value;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link LayoutDefinitionCache} which is stored in application scope. If it has not been
+     * created yet, it will be created using {@link #CACHE_CLASS}, {@link #CACHE_MAX_ENTRIES} and
+     * {@link #CACHE_MAX_BYTES}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static LayoutDefinitionCache getLayoutDefinitionCache(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        LayoutDefinitionCache cache = null;
+        if (ctx != null) {
+            cache = (LayoutDefinitionCache) ctx.getExternalContext().getApplicationMap().get(LD_CACHE);
+        }
+        if (cache == null) {
             // 1st time... initialize it
-            // Consider using a SoftReference here...
-            ldMap = new ConcurrentHashMap<>(400, 0.75f, 2);
-            if (ctx != null) {
-                ctx.getExternalContext().getApplicationMap().put(LD_MAP, ldMap);
+            synchronized (LayoutDefinitionManager.class) {
+                if (ctx != null) {
+                    cache = (LayoutDefinitionCache) ctx.getExternalContext().getApplicationMap().get(LD_CACHE);
+                }
+                if (cache == null) {
+                    cache = createLayoutDefinitionCache(ctx);
+                    if (ctx != null) {
+                        ctx.getExternalContext().getApplicationMap().put(LD_CACHE, cache);
+                    }
+                }
             }
         }
 
-        // Return the map...
-        return ldMap;
+        // Return the cache...
+        return cache;
+    }
+
+    /**
+     * <p>
+     * This method creates a new {@link LayoutDefinitionCache} as configured by {@link #CACHE_CLASS},
+     * {@link #CACHE_MAX_ENTRIES} and {@link #CACHE_MAX_BYTES}.
+     * </p>
+     */
+    private static LayoutDefinitionCache createLayoutDefinitionCache(FacesContext ctx) {
+        String className = getConfigValue(ctx, CACHE_CLASS);
+        if (className != null && !className.trim().isEmpty()) {
+            try {
+                return (LayoutDefinitionCache) Util.loadClass(className.trim(), className).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException("Unable to create LayoutDefinitionCache '" + className + "'!", ex);
+            }
+        }
+        String value = getConfigValue(ctx, CACHE_MAX_ENTRIES);
+        int maxEntries = value == null ? 0 : Integer.parseInt(value.trim());
+        value = getConfigValue(ctx, CACHE_MAX_BYTES);
+        long maxBytes = value == null ? Runtime.getRuntime().maxMemory() / 10 : Long.parseLong(value.trim());
+        if (LogUtil.configEnabled()) {
+            LogUtil.config("LayoutDefinition cache limits: entries=" + maxEntries + ", bytes=" + maxBytes);
+        }
+        return new LruLayoutDefinitionCache(maxEntries, maxBytes);
     }
 
     /**
@@ -531,14 +966,20 @@ public abstract class LayoutDefinitionManager {
      */
     public static void putCachedLayoutDefinition(FacesContext ctx, String key, LayoutDefinition value) {
 //System.out.println("CACHING LD: " + key);
-        if (isDebug(ctx)) {
+        if (CACHE_MODE_REQUEST.equals(getCacheMode(ctx))) {
             if (ctx != null) {
                 // Make sure we cache during the life of the request, even
                 // in Debug mode
                 ctx.getExternalContext().getRequestMap().put(CACHE_PREFIX + key, value);
             }
         } else {
-            getLayoutDefinitionMap(ctx).put(key, value);
+            getLayoutDefinitionCache(ctx).put(key, value);
+
+            // It exists now...
+            LayoutDefinitionNotFoundCache notFound = getLayoutDefinitionNotFoundCache(ctx);
+            if (notFound != null) {
+                notFound.remove(key);
+            }
         }
     }
 
@@ -765,6 +1206,11 @@ public abstract class LayoutDefinitionManager {
      * finding all files in the classpath named: {@link HandlerAPFactory#HANDLER_FILE}. It then reads each file (which must
      * be a valid <code>Properties</code> file) and stores the information for later retrieval.
      * </p>
+     *
+     * <p>
+     * Files which were generated along with {@link HandlerDefinitionProvider}s are not read if those providers are found
+     * by the <code>ServiceLoader</code>, the providers add the {@link HandlerDefinition}s instead.
+     * </p>
      */
     public static Map<String, HandlerDefinition> getGlobalHandlerDefinitions() {
         return getGlobalHandlerDefinitions(HandlerAP.HANDLER_FILE);
@@ -794,12 +1240,20 @@ public abstract class LayoutDefinitionManager {
         Properties props = null;
         URL url = null;
         try {
+            // Find the generated providers
+            ClassLoader loader = Util.getClassLoader(filename);
+            Map<String, HandlerDefinitionProvider> providers = getHandlerDefinitionProviders(loader);
+
             // Get all the properties files that define them
-            Enumeration<URL> urls = Util.getClassLoader(filename).getResources(filename);
+            Enumeration<URL> urls = loader.getResources(filename);
             InputStream is = null;
             while (urls.hasMoreElements()) {
                 try {
                     url = urls.nextElement();
+                    if (addProvidedHandlerDefinitions(handlers, providers, url)) {
+                        // Generated along w/ providers which we have, skip it
+                        continue;
+                    }
                     props = new Properties();
                     // Load each Properties file
                     is = url.openStream();
@@ -814,6 +1268,20 @@ public abstract class LayoutDefinitionManager {
                     Util.closeStream(is);
                 }
             }
+
+            // Use the remaining providers for the handlers we've read
+            for (HandlerDefinitionProvider provider : providers.values()) {
+                Map<String, HandlerDefinition> provided = new HashMap<>();
+                provider.addHandlerDefinitions(provided);
+                for (HandlerDefinition def : provided.values()) {
+                    // Don't replace a different handler w/ the same id
+                    HandlerDefinition old = handlers.get(def.getId());
+                    if (old == null || Objects.equals(old.getHandlerClassName(), def.getHandlerClassName())
+                            && Objects.equals(old.getHandlerMethodName(), def.getHandlerMethodName())) {
+                        handlers.put(def.getId(), def);
+                    }
+                }
+            }
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -829,6 +1297,66 @@ public abstract class LayoutDefinitionManager {
         return handlers;
     }
 
+    /**
+     * <p>
+     * This method returns the {@link HandlerDefinitionProvider}s found by the <code>ServiceLoader</code>, by class name.
+     * Providers which cannot be loaded are logged and skipped.
+     * </p>
+     */
+    private static Map<String, HandlerDefinitionProvider> getHandlerDefinitionProviders(ClassLoader loader) {
+        Map<String, HandlerDefinitionProvider> providers = new LinkedHashMap<>();
+        Iterator<HandlerDefinitionProvider> it = ServiceLoader.load(HandlerDefinitionProvider.class, loader).iterator();
+        while (true) {
+            try {
+                if (!it.hasNext()) {
+                    break;
+                }
+                HandlerDefinitionProvider provider = it.next();
+                providers.put(provider.getClass().getName(), provider);
+            } catch (ServiceConfigurationError ex) {
+                if (LogUtil.configEnabled()) {
+                    LogUtil.config("Unable to load HandlerDefinitionProvider, its Handler.map will be used.", ex);
+                }
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * <p>
+     * If the first line of the given <code>Handler.map</code> lists the {@link HandlerDefinitionProvider}s generated along
+     * with it (see {@link HandlerDefinitionProvider#MAP_MARKER}), and all of them were found, this method adds their
+     * {@link HandlerDefinition}s (in place of reading the file) and returns <code>true</code>. The providers which are
+     * used are removed from <code>providers</code>.
+     * </p>
+     */
+    private static boolean addProvidedHandlerDefinitions(Map<String, HandlerDefinition> handlers, Map<String, HandlerDefinitionProvider> providers,
+            URL url) throws IOException {
+        if (providers.isEmpty()) {
+            return false;
+        }
+        String line = null;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.ISO_8859_1));
+        try {
+            line = reader.readLine();
+        } finally {
+            reader.close();
+        }
+        if (line == null || !line.startsWith(HandlerDefinitionProvider.MAP_MARKER)) {
+            return false;
+        }
+        String[] names = line.substring(HandlerDefinitionProvider.MAP_MARKER.length()).split(",");
+        for (String name : names) {
+            if (!providers.containsKey(name.trim())) {
+                return false;
+            }
+        }
+        for (String name : names) {
+            providers.remove(name.trim()).addHandlerDefinitions(handlers);
+        }
+        return true;
+    }
+
     /**
      * <p>
      * This method returns the current application's {@link HandlerDefinition} <code>Map</code>.
@@ -1110,12 +1638,40 @@ public abstract class LayoutDefinitionManager {
      */
     private static final String LDM_KEYS = "__jsft_LayoutDefMgrKeys";
 
+    /**
+     * <p>
+     * This key stores the {@link LayoutDefinitionManager} chosen for each {@link LayoutDefinition} key.
+     * </p>
+     */
+    private static final String LDM_RESOLVED = "__jsft_LayoutDefMgrResolved";
+
     /**
      * <p>
      * This key stores the {@link LayoutDefinition} instances for this application.
      * </p>
      */
-    private static final String LD_MAP = "__jsft_LayoutDefMap";
+    private static final String LD_CACHE = "__jsft_LayoutDefCache";
+
+    /**
+     * <p>
+     * This key stores the {@link LayoutDefinitionRevalidator} for this application.
+     * </p>
+     */
+    private static final String LD_REVALIDATOR = "__jsft_LayoutDefRevalidator";
+
+    /**
+     * <p>
+     * This key stores the {@link LayoutDefinitionLoader} for this application.
+     * </p>
+     */
+    private static final String LD_LOADER = "__jsft_LayoutDefLoader";
+
+    /**
+     * <p>
+     * This key stores the {@link LayoutDefinitionNotFoundCache} for this application.
+     * </p>
+     */
+    private static final String LD_NOT_FOUND = "__jsft_LayoutDefNotFound";
 
     /**
      * <p>
@@ -1165,6 +1721,17 @@ public abstract class LayoutDefinitionManager {
      */
     public static final String LAYOUT_DEFINITION_MANAGER_KEY = "LayoutDefinitionManagerImpl";
 
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to assign keys to <code>LayoutDefinitionManager</code>s
+     * without examining the files (see {@link #claims(String)}). The value is a comma separated list of
+     * <code>pattern=className</code> entries, where a pattern is either <code>*suffix</code>, <code>prefix*</code>, or
+     * an exact key. For example: <code>*.xhtml=com.sun.jsftemplating.layout.facelets.FaceletsLayoutDefinitionManager</code>.
+     * The first matching entry wins.
+     * </p>
+     */
+    public static final String LAYOUT_DEFINITION_MANAGER_CLAIMS = "com.sun.jsftemplating.LDM_CLAIMS";
+
     /**
      * <p>
      * This is the name of the initParameter or JVM variable used to set the DEBUG flag.
@@ -1172,6 +1739,129 @@ public abstract class LayoutDefinitionManager {
      */
     public static final String DEBUG_FLAG = "com.sun.jsftemplating.DEBUG";
 
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set how {@link LayoutDefinition}s are cached. Valid
+     * values are {@link #CACHE_MODE_APPLICATION}, {@link #CACHE_MODE_REQUEST}, and {@link #CACHE_MODE_REVALIDATE}.
+     * </p>
+     */
+    public static final String CACHE_MODE = "com.sun.jsftemplating.CACHE_MODE";
+
+    /**
+     * <p>
+     * {@link LayoutDefinition}s are read once and cached for the life of the application. This is the default when not in
+     * debug mode.
+     * </p>
+     */
+    public static final String CACHE_MODE_APPLICATION = "application";
+
+    /**
+     * <p>
+     * {@link LayoutDefinition}s are only cached for the life of a request, so every request re-reads every page. This is
+     * the default in debug mode.
+     * </p>
+     */
+    public static final String CACHE_MODE_REQUEST = "request";
+
+    /**
+     * <p>
+     * {@link LayoutDefinition}s are cached for the life of the application, but are re-read when one of the files they
+     * were read from changes. See {@link LayoutDefinitionRevalidator}.
+     * </p>
+     */
+    public static final String CACHE_MODE_REVALIDATE = "revalidate";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the minimum time (in milliseconds) between checks
+     * of a cached {@link LayoutDefinition}'s files in {@link #CACHE_MODE_REVALIDATE} mode. A negative value disables these
+     * checks, which is useful with {@link #WATCH_TEMPLATES}.
+     * </p>
+     */
+    public static final String REVALIDATE_INTERVAL = "com.sun.jsftemplating.REVALIDATE_INTERVAL";
+
+    /**
+     * <p>
+     * The default value for {@link #REVALIDATE_INTERVAL} (2 seconds).
+     * </p>
+     */
+    public static final long DEFAULT_REVALIDATE_INTERVAL = 2000;
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable which, when <code>true</code>, uses a
+     * <code>WatchService</code> to evict {@link LayoutDefinition}s as soon as their files change in
+     * {@link #CACHE_MODE_REVALIDATE} mode.
+     * </p>
+     */
+    public static final String WATCH_TEMPLATES = "com.sun.jsftemplating.WATCH_TEMPLATES";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to specify the {@link LayoutDefinitionCache}
+     * implementation. The default is {@link LruLayoutDefinitionCache}.
+     * </p>
+     */
+    public static final String CACHE_CLASS = "com.sun.jsftemplating.CACHE_CLASS";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum number of {@link LayoutDefinition}s
+     * cached by the default {@link LayoutDefinitionCache}. <code>0</code> (the default) means no limit.
+     * </p>
+     */
+    public static final String CACHE_MAX_ENTRIES = "com.sun.jsftemplating.CACHE_MAX_ENTRIES";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum estimated size (in bytes) of the
+     * {@link LayoutDefinition}s cached by the default {@link LayoutDefinitionCache}. <code>0</code> means no limit, the
+     * default is 10% of the maximum heap size.
+     * </p>
+     */
+    public static final String CACHE_MAX_BYTES = "com.sun.jsftemplating.CACHE_MAX_BYTES";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum number of keys remembered by the
+     * {@link LayoutDefinitionNotFoundCache}. <code>0</code> disables it.
+     * </p>
+     */
+    public static final String NOT_FOUND_CACHE_SIZE = "com.sun.jsftemplating.NOT_FOUND_CACHE_SIZE";
+
+    /**
+     * <p>
+     * The default value for {@link #NOT_FOUND_CACHE_SIZE}.
+     * </p>
+     */
+    public static final int DEFAULT_NOT_FOUND_CACHE_SIZE = 1000;
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum number of keys for which the chosen
+     * <code>LayoutDefinitionManager</code> is remembered (see
+     * {@link #getLayoutDefinitionManagerCache(FacesContext)}). <code>0</code> disables it.
+     * </p>
+     */
+    public static final String LDM_CACHE_SIZE = "com.sun.jsftemplating.LDM_CACHE_SIZE";
+
+    /**
+     * <p>
+     * The default value for {@link #LDM_CACHE_SIZE}.
+     * </p>
+     */
+    public static final int DEFAULT_LDM_CACHE_SIZE = 10000;
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the time (in milliseconds) the
+     * {@link LayoutDefinitionNotFoundCache} remembers a key. A negative value (the default in
+     * {@link #CACHE_MODE_APPLICATION} mode) remembers keys for the life of the application. In
+     * {@link #CACHE_MODE_REVALIDATE} mode, this defaults to the {@link #REVALIDATE_INTERVAL}.
+     * </p>
+     */
+    public static final String NOT_FOUND_CACHE_TTL = "com.sun.jsftemplating.NOT_FOUND_CACHE_TTL";
+
     /**
      * <p>
      * This is the prefix of a request-scoped variable that caches {@link LayoutDefinition}s.
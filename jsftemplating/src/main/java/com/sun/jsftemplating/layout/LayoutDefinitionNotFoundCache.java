@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.LruCache;
+
+/**
+ * <p>
+ * This class remembers the keys for which no {@link LayoutDefinitionManager} is able to provide a
+ * {@link LayoutDefinition}. Applications which mix JSFTemplating pages with JSP or Facelets pages would otherwise search
+ * the docroot and the classpath (and throw a {@link LayoutDefinitionException}) on every request for a page that
+ * JSFTemplating does not own.
+ * </p>
+ *
+ * <p>
+ * The number of keys is bounded (the least recently used keys are forgotten first), and each key may expire after a configurable time. Keys can be removed individually
+ * via {@link #remove(String)}, or all at once via {@link #clear()}.
+ * </p>
+ */
+public class LayoutDefinitionNotFoundCache {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param maxSize The maximum number of keys to remember.
+     * @param ttl The time (in milliseconds) to remember a key, a negative value remembers keys until they are removed.
+     */
+    public LayoutDefinitionNotFoundCache(int maxSize, long ttl) {
+        _keys = new LruCache<>(maxSize);
+        _ttl = ttl;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the given key is known to not exist.
+     * </p>
+     */
+    public boolean contains(String key) {
+        Long expires = _keys.get(key);
+        if (expires == null) {
+            return false;
+        }
+        if (expires >= 0 && expires < System.currentTimeMillis()) {
+            // Expired, look for it again
+            _keys.remove(key, expires);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method remembers that the given key does not exist.
+     * </p>
+     */
+    public void add(String key) {
+        _keys.put(key, _ttl < 0 ? -1L : System.currentTimeMillis() + _ttl);
+    }
+
+    /**
+     * <p>
+     * This method forgets the given key, this should be called when a {@link LayoutDefinition} becomes available for it.
+     * </p>
+     */
+    public void remove(String key) {
+        _keys.remove(key);
+    }
+
+    /**
+     * <p>
+     * This method forgets all keys.
+     * </p>
+     */
+    public void clear() {
+        _keys.clear();
+    }
+
+    /**
+     * <p>
+     * The number of keys currently remembered.
+     * </p>
+     */
+    public int size() {
+        return _keys.size();
+    }
+
+    /**
+     * <p>
+     * The keys which are known to not exist, mapped to the time at which they expire (or -1).
+     * </p>
+     */
+    private final LruCache<String, Long> _keys;
+
+    private final long _ttl;
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.LogUtil;
+import com.sun.jsftemplating.util.Util;
+
+import jakarta.faces.application.Application;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.ExternalContextWrapper;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.FacesContextWrapper;
+import jakarta.faces.event.SystemEvent;
+import jakarta.faces.event.SystemEventListener;
+
+/**
+ * <p>
+ * This class reads {@link LayoutDefinition}s ahead of time so the first request for each page does not pay the cost of
+ * parsing it. It is registered as a listener for the <code>PostConstructApplicationEvent</code>, and does nothing unless
+ * {@link #PRECOMPILE} is set to <code>true</code> (via a JVM variable or a <code>context-param</code>).
+ * </p>
+ *
+ * <p>
+ * Files ending with one of the {@link #PRECOMPILE_SUFFIXES} are found in the docroot and under the <code>META-INF</code>
+ * folders of the classpath. Each one is read in parallel (on a <code>ForkJoinPool</code>) through the registered
+ * {@link LayoutDefinitionManager}s, which places the result in the {@link LayoutDefinitionCache}. "initPage" handlers
+ * are not invoked, there is no request while precompiling. Files that no {@link LayoutDefinitionManager} accepts are
+ * skipped. A summary and each failure are logged, and the time taken for each file is logged at the FINE level.
+ * </p>
+ *
+ * <p>
+ * Precompiling is skipped when the {@link LayoutDefinitionManager#CACHE_MODE} is
+ * {@link LayoutDefinitionManager#CACHE_MODE_REQUEST}, as nothing would be kept.
+ * </p>
+ */
+public class LayoutDefinitionPrecompiler implements SystemEventListener {
+
+    /**
+     * <p>
+     * Default constructor.
+     * </p>
+     */
+    public LayoutDefinitionPrecompiler() {
+    }
+
+    @Override
+    public boolean isListenerForSource(Object source) {
+        return source instanceof Application;
+    }
+
+    @Override
+    public void processEvent(SystemEvent event) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (ctx == null || !Boolean.parseBoolean(LayoutDefinitionManager.getConfigValue(ctx, PRECOMPILE))) {
+            return;
+        }
+        if (LayoutDefinitionManager.CACHE_MODE_REQUEST.equals(LayoutDefinitionManager.getCacheMode(ctx))) {
+            if (LogUtil.configEnabled()) {
+                LogUtil.config("LayoutDefinitions are not cached, skipping precompilation.");
+            }
+            return;
+        }
+        precompile(ctx);
+    }
+
+    /**
+     * <p>
+     * This method finds and reads all {@link LayoutDefinition}s, and returns the {@link Result} for each file.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public List<Result> precompile(FacesContext ctx) {
+        long start = System.currentTimeMillis();
+        Set<String> keys = findLayoutFiles(ctx);
+
+        String value = LayoutDefinitionManager.getConfigValue(ctx, PRECOMPILE_PARALLELISM);
+        int parallelism = value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value.trim());
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<Callable<Result>> tasks = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            tasks.add(() -> compile(ctx, loader, key));
+        }
+
+        List<Result> results = new ArrayList<>(keys.size());
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            for (Future<Result> future : pool.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    // compile() catches everything, this shouldn't happen
+                    throw new LayoutDefinitionException(ex.getCause());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Report
+        int compiled = 0;
+        int failed = 0;
+        for (Result result : results) {
+            if (result.getException() != null) {
+                failed++;
+                if (LogUtil.warningEnabled()) {
+                    LogUtil.warning("JSFT0013", new Object[] { result.getKey(), result.getException().getMessage() });
+                }
+            } else if (!result.isSkipped()) {
+                compiled++;
+            }
+            if (LogUtil.fineEnabled()) {
+                LogUtil.fine("Precompile '" + result.getKey() + "': " + (result.isSkipped() ? "skipped" : result.getTime() + "ms"));
+            }
+        }
+        if (LogUtil.infoEnabled()) {
+            LogUtil.info("JSFT0012", new Object[] { compiled, failed, System.currentTimeMillis() - start, parallelism });
+        }
+        return results;
+    }
+
+    /**
+     * <p>
+     * This method reads a single {@link LayoutDefinition}. It runs on a <code>ForkJoinPool</code> thread.
+     * </p>
+     */
+    private Result compile(FacesContext ctx, ClassLoader loader, String key) {
+        Thread thread = Thread.currentThread();
+        ClassLoader oldLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        PrecompileFacesContext precompileCtx = new PrecompileFacesContext(ctx);
+        long start = System.currentTimeMillis();
+        try {
+            if (LayoutDefinitionManager.findLayoutDefinitionManager(precompileCtx, key) == null) {
+                // Not a LayoutDefinition (or not ours)
+                return new Result(key, 0, true, null);
+            }
+            LayoutDefinitionManager.getLayoutDefinition(precompileCtx, key);
+            return new Result(key, System.currentTimeMillis() - start, false, null);
+        } catch (Exception ex) {
+            return new Result(key, System.currentTimeMillis() - start, false, ex);
+        } finally {
+            precompileCtx.release();
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the keys of all files ending with one of the {@link #PRECOMPILE_SUFFIXES} in the docroot and
+     * under the <code>META-INF</code> folders of the classpath.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public Set<String> findLayoutFiles(FacesContext ctx) {
+        String[] suffixes = getSuffixes(ctx);
+        Set<String> keys = new LinkedHashSet<>();
+        findDocrootFiles(ctx.getExternalContext(), "/", suffixes, keys);
+        try {
+            findClasspathFiles(ctx, suffixes, keys);
+        } catch (IOException ex) {
+            if (LogUtil.warningEnabled()) {
+                LogUtil.warning("JSFT0013", new Object[] { "META-INF/", ex.getMessage() });
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * <p>
+     * This method returns the keys of all files ending with one of the {@link #PRECOMPILE_SUFFIXES} in the docroot only.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public Set<String> findDocrootLayoutFiles(FacesContext ctx) {
+        Set<String> keys = new LinkedHashSet<>();
+        findDocrootFiles(ctx.getExternalContext(), "/", getSuffixes(ctx), keys);
+        return keys;
+    }
+
+    /**
+     * <p>
+     * This method returns the configured {@link #PRECOMPILE_SUFFIXES}.
+     * </p>
+     */
+    private String[] getSuffixes(FacesContext ctx) {
+        String value = LayoutDefinitionManager.getConfigValue(ctx, PRECOMPILE_SUFFIXES);
+        String[] suffixes = (value == null ? DEFAULT_PRECOMPILE_SUFFIXES : value).split(",");
+        for (int idx = 0; idx < suffixes.length; idx++) {
+            suffixes[idx] = suffixes[idx].trim();
+        }
+        return suffixes;
+    }
+
+    /**
+     * <p>
+     * This method adds the matching files found in the given docroot folder (recursively).
+     * </p>
+     */
+    private void findDocrootFiles(ExternalContext extCtx, String path, String[] suffixes, Set<String> keys) {
+        Set<String> paths = extCtx.getResourcePaths(path);
+        if (paths == null) {
+            return;
+        }
+        for (String child : paths) {
+            if (child.endsWith("/")) {
+                if (!child.equals("/WEB-INF/classes/") && !child.equals("/WEB-INF/lib/") && !child.equals("/META-INF/")) {
+                    findDocrootFiles(extCtx, child, suffixes, keys);
+                }
+            } else if (isLayoutFile(child, suffixes, () -> extCtx.getResourceAsStream(child))) {
+                keys.add(child);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method adds the matching files found under the <code>META-INF</code> folders of the classpath. These are found
+     * by {@link com.sun.jsftemplating.util.FileUtil#searchForFile(String, String)} using the path relative to
+     * <code>META-INF</code>, which is what is used as the key.
+     * </p>
+     */
+    private void findClasspathFiles(FacesContext ctx, String[] suffixes, Set<String> keys) throws IOException {
+        Enumeration<URL> urls = Util.getClassLoader(ctx).getResources(META_INF);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            URLConnection conn = url.openConnection();
+            conn.setUseCaches(false);
+            if (conn instanceof JarURLConnection) {
+                JarFile jarFile = ((JarURLConnection) conn).getJarFile();
+                try {
+                    Enumeration<JarEntry> entries = jarFile.entries();
+                    while (entries.hasMoreElements()) {
+                        JarEntry entry = entries.nextElement();
+                        String name = entry.getName();
+                        if (!entry.isDirectory() && name.startsWith(META_INF) && !isExcluded(name)
+                                && isLayoutFile(name, suffixes, () -> jarFile.getInputStream(entry))) {
+                            keys.add(name.substring(META_INF.length() - 1));
+                        }
+                    }
+                } finally {
+                    jarFile.close();
+                }
+            } else {
+                Path dir = LayoutDefinitionDependencies.getPath(url);
+                if (dir != null) {
+                    findDirectoryFiles(dir.toFile(), "/", suffixes, keys);
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method adds the matching files in the given <code>META-INF</code> directory (recursively).
+     * </p>
+     */
+    private void findDirectoryFiles(File dir, String path, String[] suffixes, Set<String> keys) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = path + file.getName();
+            if (file.isDirectory()) {
+                if (!isExcluded(META_INF + name.substring(1) + "/")) {
+                    findDirectoryFiles(file, name + "/", suffixes, keys);
+                }
+            } else if (isLayoutFile(name, suffixes, () -> new FileInputStream(file))) {
+                keys.add(name);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> for <code>META-INF</code> folders which do not contain layout files (or, in
+     * the case of <code>META-INF/resources/</code>, are part of the docroot).
+     * </p>
+     */
+    private boolean isExcluded(String name) {
+        for (String prefix : EXCLUDED_META_INF) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * This method checks the suffix of the given file. Since many <code>.xml</code> files are not
+     * {@link LayoutDefinition}s, those are only accepted if they contain a <code>&lt;layoutDefinition&gt;</code> element
+     * near the top.
+     * </p>
+     */
+    private boolean isLayoutFile(String name, String[] suffixes, StreamSource source) {
+        for (String suffix : suffixes) {
+            if (!suffix.isEmpty() && name.endsWith(suffix)) {
+                if (!name.endsWith(".xml")) {
+                    return true;
+                }
+                try (InputStream is = source.open()) {
+                    if (is == null) {
+                        return false;
+                    }
+                    byte[] buf = is.readNBytes(4096);
+                    return new String(buf, StandardCharsets.ISO_8859_1).contains("<layoutDefinition");
+                } catch (IOException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Opens an <code>InputStream</code> for a file, only when needed.
+     * </p>
+     */
+    private interface StreamSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * <p>
+     * The outcome of precompiling one file.
+     * </p>
+     */
+    public static class Result {
+        Result(String key, long time, boolean skipped, Exception exception) {
+            _key = key;
+            _time = time;
+            _skipped = skipped;
+            _exception = exception;
+        }
+
+        /**
+         * <p>
+         * The key of the {@link LayoutDefinition}.
+         * </p>
+         */
+        public String getKey() {
+            return _key;
+        }
+
+        /**
+         * <p>
+         * The time (in milliseconds) it took to read the {@link LayoutDefinition}.
+         * </p>
+         */
+        public long getTime() {
+            return _time;
+        }
+
+        /**
+         * <p>
+         * <code>true</code> if no {@link LayoutDefinitionManager} accepted the file.
+         * </p>
+         */
+        public boolean isSkipped() {
+            return _skipped;
+        }
+
+        /**
+         * <p>
+         * The <code>Exception</code> thrown while reading the {@link LayoutDefinition}, or <code>null</code>.
+         * </p>
+         */
+        public Exception getException() {
+            return _exception;
+        }
+
+        private final String _key;
+        private final long _time;
+        private final boolean _skipped;
+        private final Exception _exception;
+    }
+
+    /**
+     * <p>
+     * The <code>FacesContext</code> used by the threads that read {@link LayoutDefinition}s. It delegates to the
+     * <code>FacesContext</code> of the application startup, but provides its own (empty) request scope so that threads do
+     * not share it, and so "initPage" handlers are not invoked.
+     * </p>
+     */
+    private static class PrecompileFacesContext extends FacesContextWrapper {
+        PrecompileFacesContext(FacesContext wrapped) {
+            super(wrapped);
+            Map<String, Object> requestMap = new HashMap<>();
+            requestMap.put(LayoutDefinition.SKIP_INIT_PAGE, Boolean.TRUE);
+            _extCtx = new ExternalContextWrapper(wrapped.getExternalContext()) {
+                @Override
+                public Map<String, Object> getRequestMap() {
+                    return requestMap;
+                }
+            };
+            setCurrentInstance(this);
+        }
+
+        @Override
+        public ExternalContext getExternalContext() {
+            return _extCtx;
+        }
+
+        @Override
+        public void release() {
+            // Do NOT release the wrapped FacesContext
+            setCurrentInstance(null);
+        }
+
+        private final ExternalContext _extCtx;
+    }
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable which enables precompilation when set to <code>true</code>.
+     * </p>
+     */
+    public static final String PRECOMPILE = "com.sun.jsftemplating.PRECOMPILE";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable which sets the number of threads used to precompile. The
+     * default is the number of available processors.
+     * </p>
+     */
+    public static final String PRECOMPILE_PARALLELISM = "com.sun.jsftemplating.PRECOMPILE_PARALLELISM";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable which sets the comma separated list of file suffixes to
+     * precompile. The default is {@link #DEFAULT_PRECOMPILE_SUFFIXES}.
+     * </p>
+     */
+    public static final String PRECOMPILE_SUFFIXES = "com.sun.jsftemplating.PRECOMPILE_SUFFIXES";
+
+    /**
+     * <p>
+     * The default value for {@link #PRECOMPILE_SUFFIXES}.
+     * </p>
+     */
+    public static final String DEFAULT_PRECOMPILE_SUFFIXES = ".jsf,.xhtml,.xml";
+
+    private static final String META_INF = "META-INF/";
+
+    private static final String[] EXCLUDED_META_INF = { "META-INF/maven/", "META-INF/resources/", "META-INF/versions/", "META-INF/services/" };
+}
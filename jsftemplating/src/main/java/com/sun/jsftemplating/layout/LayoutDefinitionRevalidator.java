@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.util.LayoutElementUtil;
+import com.sun.jsftemplating.util.LogUtil;
+import com.sun.jsftemplating.util.LruCache;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class keeps cached {@link LayoutDefinition}s up to date when the {@link LayoutDefinitionManager#CACHE_MODE} is
+ * {@link LayoutDefinitionManager#CACHE_MODE_REVALIDATE}. For each cached {@link LayoutDefinition} it holds the
+ * {@link LayoutDefinitionDependencies} recorded while it was read. A cached {@link LayoutDefinition} is checked at most
+ * once per revalidation interval (see {@link LayoutDefinitionManager#REVALIDATE_INTERVAL}), and optionally whenever a
+ * <code>WatchService</code> reports a change to one of its files (see {@link LayoutDefinitionManager#WATCH_TEMPLATES}).
+ * </p>
+ *
+ * <p>
+ * When a source changes only the {@link LayoutDefinition}s which depend on it are evicted. This includes those which
+ * use a changed template via a {@link LayoutComposition}, directly or indirectly.
+ * </p>
+ */
+public class LayoutDefinitionRevalidator {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param cache The {@link LayoutDefinitionCache} holding the cached {@link LayoutDefinition}s.
+     * @param interval The minimum time (in milliseconds) between checks of the same {@link LayoutDefinition}, a negative
+     * value disables checking on access.
+     * @param watch <code>true</code> to use a <code>WatchService</code> to detect changes to files.
+     */
+    public LayoutDefinitionRevalidator(LayoutDefinitionCache cache, long interval, boolean watch) {
+        _cache = cache;
+        _interval = interval;
+        cache.addEvictionListener(this::evicted);
+        if (watch) {
+            startWatching();
+        }
+    }
+
+    /**
+     * <p>
+     * This method registers the {@link LayoutDefinitionDependencies} for a newly cached {@link LayoutDefinition}. It also
+     * adds the templates of all {@link LayoutComposition}s that do not contain expressions as dependencies.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param key The cache key of the {@link LayoutDefinition}.
+     * @param def The {@link LayoutDefinition}.
+     * @param deps The sources recorded while reading the {@link LayoutDefinition}.
+     */
+    public void register(FacesContext ctx, String key, LayoutDefinition def, LayoutDefinitionDependencies deps) {
+        addCompositionTemplates(ctx, def, deps);
+        deps.setLastChecked(System.currentTimeMillis());
+        _retained.remove(key);
+
+        LayoutDefinitionDependencies old = _dependencies.put(key, deps);
+        if (old != null) {
+            removeDependent(key, old);
+        }
+        for (String src : deps.getSources()) {
+            addDependent(src, key);
+        }
+        for (String template : deps.getTemplates()) {
+            addDependent(template, key);
+        }
+        if (_watchService != null) {
+            for (URL url : deps.getSourceURLs()) {
+                watch(url);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method checks if the cached {@link LayoutDefinition} for the given key is still valid. If the revalidation
+     * interval has passed, the sources of the {@link LayoutDefinition} (and of the templates it depends on) are checked.
+     * Stale {@link LayoutDefinition}s are evicted and <code>false</code> is returned.
+     * </p>
+     *
+     * @param key The cache key of the {@link LayoutDefinition}.
+     *
+     * @return <code>true</code> if the cached {@link LayoutDefinition} may be used.
+     */
+    public boolean validate(String key) {
+        if (_interval < 0) {
+            // Only the WatchService evicts entries
+            return true;
+        }
+        return isValid(key, new HashSet<String>(), System.currentTimeMillis());
+    }
+
+    /**
+     * <p>
+     * This method does the work for {@link #validate(String)}.
+     * </p>
+     */
+    private boolean isValid(String key, Set<String> visited, long now) {
+        if (!visited.add(key)) {
+            // Cycle, already checking this one
+            return true;
+        }
+        LayoutDefinitionDependencies deps = _dependencies.get(key);
+        if (deps == null) {
+            // Not tracked (or already evicted), nothing to check
+            return true;
+        }
+        if (now - deps.getLastChecked() >= _interval) {
+            deps.setLastChecked(now);
+            if (deps.isModified()) {
+                evict(key);
+                return false;
+            }
+        }
+        for (String template : deps.getTemplates()) {
+            if (!isValid(template, visited, now)) {
+                // The template was evicted, and so were we
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method evicts the {@link LayoutDefinition} for the given key, along with every {@link LayoutDefinition} that
+     * depends on it.
+     * </p>
+     */
+    public void evict(String key) {
+        LayoutDefinitionDependencies deps = _dependencies.remove(key);
+        _retained.remove(key);
+        _cache.remove(key);
+        LruCache<String, LayoutDefinitionManager> ldmCache = _ldmCache;
+        if (ldmCache != null) {
+            // The file may now be handled by a different LayoutDefinitionManager
+            ldmCache.remove(key);
+        }
+        if (deps != null) {
+            removeDependent(key, deps);
+        }
+        Set<String> dependents = _dependents.remove(key);
+        if (dependents != null) {
+            for (String dependent : dependents) {
+                evict(dependent);
+            }
+        }
+        if (LogUtil.finerEnabled()) {
+            LogUtil.finer("Evicted stale LayoutDefinition: " + key);
+        }
+    }
+
+    /**
+     * <p>
+     * This method is called when the {@link LayoutDefinitionCache} evicts a {@link LayoutDefinition} to stay within its
+     * limits. The {@link LayoutDefinitionDependencies} of the {@link LayoutDefinition} are forgotten, unless other cached
+     * {@link LayoutDefinition}s use it as a template: they must still be evicted when it changes.
+     * </p>
+     */
+    void evicted(String key) {
+        Set<String> dependents = _dependents.get(key);
+        if (dependents != null && !dependents.isEmpty()) {
+            _retained.add(key);
+            return;
+        }
+        _retained.remove(key);
+        LayoutDefinitionDependencies deps = _dependencies.remove(key);
+        if (deps == null) {
+            return;
+        }
+        removeDependent(key, deps);
+    }
+
+    /**
+     * <p>
+     * The number of {@link LayoutDefinition}s whose {@link LayoutDefinitionDependencies} are tracked.
+     * </p>
+     */
+    public int size() {
+        return _dependencies.size();
+    }
+
+    /**
+     * <p>
+     * This method evicts every {@link LayoutDefinition} that depends on the given source (see
+     * {@link LayoutDefinitionDependencies#getSourceKey(URL)}).
+     * </p>
+     */
+    public void sourceChanged(String source) {
+        Set<String> dependents = _dependents.remove(source);
+        if (dependents != null) {
+            for (String key : dependents) {
+                evict(key);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method sets the {@link LayoutDefinitionNotFoundCache} which should be cleared when the
+     * <code>WatchService</code> reports a new file.
+     * </p>
+     */
+    public void setNotFoundCache(LayoutDefinitionNotFoundCache notFound) {
+        _notFoundCache = notFound;
+    }
+
+    /**
+     * <p>
+     * This method sets the {@link LruCache} of resolved {@link LayoutDefinitionManager}s (see
+     * {@link LayoutDefinitionManager#getLayoutDefinitionManagerCache(FacesContext)}) whose entries are evicted along with
+     * the {@link LayoutDefinition}s.
+     * </p>
+     */
+    public void setLayoutDefinitionManagerCache(LruCache<String, LayoutDefinitionManager> ldmCache) {
+        _ldmCache = ldmCache;
+    }
+
+    /**
+     * <p>
+     * This method forgets all tracked {@link LayoutDefinition}s. It does not change the cache.
+     * </p>
+     */
+    public void clear() {
+        _dependencies.clear();
+        _dependents.clear();
+        _retained.clear();
+    }
+
+    /**
+     * <p>
+     * This method stops the <code>WatchService</code> (if any), which ends the watcher <code>Thread</code>, and forgets
+     * all tracked {@link LayoutDefinition}s. It is called when the application is destroyed (see
+     * {@link LayoutDefinitionManager#destroy(FacesContext)}).
+     * </p>
+     */
+    public void close() {
+        clear();
+        _watchedDirs.clear();
+        WatchService service = _watchService;
+        _watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ex) {
+                // Ignore, we're shutting down
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method walks the given {@link LayoutElement} tree and adds the template of each {@link LayoutComposition} which
+     * can be determined without evaluating an expression.
+     * </p>
+     */
+    private static void addCompositionTemplates(FacesContext ctx, LayoutElement elt, LayoutDefinitionDependencies deps) {
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            if (child instanceof LayoutComposition) {
+                String template = ((LayoutComposition) child).getUnevaluatedTemplate();
+                if (template != null && LayoutElementUtil.isStatic(template)) {
+                    deps.addTemplate(LayoutDefinitionManager.getCacheKey(ctx, template));
+                }
+            }
+            addCompositionTemplates(ctx, child, deps);
+        }
+    }
+
+    private void addDependent(String dependency, String key) {
+        _dependents.compute(dependency, (k, dependents) -> {
+            if (dependents == null) {
+                dependents = ConcurrentHashMap.newKeySet();
+            }
+            dependents.add(key);
+            return dependents;
+        });
+    }
+
+    private void removeDependent(String key, LayoutDefinitionDependencies deps) {
+        for (String src : deps.getSources()) {
+            removeDependent(src, key);
+        }
+        for (String template : deps.getTemplates()) {
+            removeDependent(template, key);
+            if (_retained.contains(template) && !_dependents.containsKey(template)) {
+                // The evicted template was only kept for us
+                evicted(template);
+            }
+        }
+    }
+
+    private void removeDependent(String dependency, String key) {
+        _dependents.computeIfPresent(dependency, (k, dependents) -> {
+            dependents.remove(key);
+            return dependents.isEmpty() ? null : dependents;
+        });
+    }
+
+    /**
+     * <p>
+     * This method creates the <code>WatchService</code> and a daemon <code>Thread</code> which evicts
+     * {@link LayoutDefinition}s as soon as one of their files change.
+     * </p>
+     */
+    private void startWatching() {
+        try {
+            _watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException ex) {
+            if (LogUtil.configEnabled()) {
+                LogUtil.config("Unable to create a WatchService, falling back to interval based revalidation.", ex);
+            }
+            return;
+        }
+        Thread watcher = new Thread(this::processEvents, "jsft-template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * <p>
+     * This method registers the directory of the given file (if it is a file) with the <code>WatchService</code>.
+     * </p>
+     */
+    private void watch(URL url) {
+        Path file = LayoutDefinitionDependencies.getPath(url);
+        WatchService service = _watchService;
+        if (file == null || service == null) {
+            return;
+        }
+        Path dir = file.getParent();
+        if (dir == null || _watchedDirs.containsKey(dir)) {
+            return;
+        }
+        try {
+            _watchedDirs.put(dir, dir.register(service, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+        } catch (IOException | ClosedWatchServiceException ex) {
+            if (LogUtil.finerEnabled()) {
+                LogUtil.finer("Unable to watch directory: " + dir, ex);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method processes <code>WatchService</code> events until the <code>WatchService</code> is closed.
+     * </p>
+     */
+    private void processEvents() {
+        while (true) {
+            WatchService service = _watchService;
+            if (service == null) {
+                return;
+            }
+            WatchKey watchKey;
+            try {
+                watchKey = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+            Path dir = (Path) watchKey.watchable();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    // Events were lost, evict everything in this directory
+                    String prefix = dir.toString();
+                    for (String source : new ArrayList<>(_dependents.keySet())) {
+                        if (source.startsWith(prefix)) {
+                            sourceChanged(source);
+                        }
+                    }
+                    continue;
+                }
+                if (event.kind() == ENTRY_CREATE && _notFoundCache != null) {
+                    // A page that wasn't found before may exist now
+                    _notFoundCache.clear();
+                }
+                sourceChanged(dir.resolve((Path) event.context()).toAbsolutePath().normalize().toString());
+            }
+            if (!watchKey.reset()) {
+                _watchedDirs.remove(dir);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * The cached {@link LayoutDefinition}s.
+     * </p>
+     */
+    private final LayoutDefinitionCache _cache;
+
+    /**
+     * <p>
+     * The minimum time (in milliseconds) between checks of a {@link LayoutDefinition}'s sources.
+     * </p>
+     */
+    private final long _interval;
+
+    /**
+     * <p>
+     * The recorded {@link LayoutDefinitionDependencies} by cache key.
+     * </p>
+     */
+    private final Map<String, LayoutDefinitionDependencies> _dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * Reverse index: the cache keys of the {@link LayoutDefinition}s which depend on a source or template.
+     * </p>
+     */
+    private final Map<String, Set<String>> _dependents = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * The cache keys of evicted {@link LayoutDefinition}s whose {@link LayoutDefinitionDependencies} are kept because
+     * cached {@link LayoutDefinition}s use them as a template.
+     * </p>
+     */
+    private final Set<String> _retained = ConcurrentHashMap.newKeySet();
+
+    /**
+     * <p>
+     * The directories registered with the <code>WatchService</code>.
+     * </p>
+     */
+    private final Map<Path, WatchKey> _watchedDirs = new ConcurrentHashMap<>();
+
+    private volatile WatchService _watchService = null;
+    private volatile LayoutDefinitionNotFoundCache _notFoundCache = null;
+    private volatile LruCache<String, LayoutDefinitionManager> _ldmCache = null;
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.layout.descriptors.LayoutStaticText;
+import com.sun.jsftemplating.layout.descriptors.handler.Handler;
+
+/**
+ * <p>
+ * This class estimates the heap retained by a {@link LayoutDefinition} tree. The estimate is intentionally cheap: it
+ * walks the {@link LayoutElement}s, their options and their {@link Handler}s once, and charges a fixed overhead per
+ * object plus the size of the <code>String</code>s it finds. It is used to enforce the heap budget of the
+ * {@link LayoutDefinitionCache}, not to measure exact sizes.
+ * </p>
+ *
+ * <p>
+ * The estimate describes a prepared {@link LayoutDefinition} (see
+ * {@link com.sun.jsftemplating.util.LayoutElementUtil#prepare}), which is how the {@link LayoutDefinitionManager}
+ * caches them: the {@link com.sun.jsftemplating.layout.descriptors.OptionPlan} of each {@link LayoutComponent} and the
+ * {@link com.sun.jsftemplating.layout.descriptors.handler.InputPlan} of each {@link Handler} are included.
+ * </p>
+ */
+public class LayoutDefinitionSizeEstimator {
+
+    /**
+     * <p>
+     * This class should not be instantiated.
+     * </p>
+     */
+    private LayoutDefinitionSizeEstimator() {
+    }
+
+    /**
+     * <p>
+     * This method returns the estimated size (in bytes) of the given {@link LayoutDefinition}.
+     * </p>
+     */
+    public static long estimate(LayoutDefinition def) {
+        if (def == null) {
+            return 0;
+        }
+        return estimate(def, new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * <p>
+     * This method estimates the size of a {@link LayoutElement} and its children.
+     * </p>
+     */
+    private static long estimate(LayoutElement elt, Map<Object, Boolean> seen) {
+        if (seen.put(elt, Boolean.TRUE) != null) {
+            return 0;
+        }
+        long size = ELEMENT_SIZE + estimateString(elt.getUnevaluatedId());
+        if (elt instanceof LayoutComponent) {
+            Map<String, Object> options = ((LayoutComponent) elt).getOptions();
+            if (options != null) {
+                size += PLAN_SIZE + options.size() * PLAN_ENTRY_SIZE;
+                for (Map.Entry<String, Object> entry : options.entrySet()) {
+                    size += ENTRY_SIZE + estimateString(entry.getKey()) + estimateValue(entry.getValue());
+                }
+            }
+        } else if (elt instanceof LayoutStaticText) {
+            size += estimateString(((LayoutStaticText) elt).getValue());
+        }
+        Map<String, List<Handler>> handlersByType = elt.getHandlersByTypeMap();
+        if (handlersByType != null) {
+            for (Map.Entry<String, List<Handler>> entry : handlersByType.entrySet()) {
+                size += ENTRY_SIZE + estimateHandlers(entry.getValue(), seen);
+            }
+        }
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            size += estimate(child, seen);
+        }
+        return size;
+    }
+
+    /**
+     * <p>
+     * This method estimates the size of a <code>List</code> of {@link Handler}s (including child {@link Handler}s).
+     * </p>
+     */
+    private static long estimateHandlers(List<Handler> handlers, Map<Object, Boolean> seen) {
+        if (handlers == null) {
+            return 0;
+        }
+        long size = LIST_SIZE;
+        for (Handler handler : handlers) {
+            if (seen.put(handler, Boolean.TRUE) == null) {
+                size += HANDLER_SIZE + estimateHandlers(handler.getChildHandlers(), seen);
+                if (handler.getHandlerDefinition() != null) {
+                    size += PLAN_SIZE + handler.getHandlerDefinition().getInputDefs().size() * PLAN_ENTRY_SIZE;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * <p>
+     * This method estimates the size of an option value.
+     * </p>
+     */
+    private static long estimateValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return estimateString((String) value);
+        }
+        if (value instanceof Collection) {
+            long size = LIST_SIZE;
+            for (Object obj : (Collection<?>) value) {
+                size += REFERENCE_SIZE + estimateValue(obj);
+            }
+            return size;
+        }
+        return OBJECT_SIZE;
+    }
+
+    /**
+     * <p>
+     * This method estimates the size of a <code>String</code> (assuming compact Latin-1 storage).
+     * </p>
+     */
+    private static long estimateString(String str) {
+        return str == null ? 0 : STRING_SIZE + str.length();
+    }
+
+    // Rough sizes (in bytes) of the objects found in a LayoutDefinition tree
+    private static final long REFERENCE_SIZE = 8;
+    private static final long OBJECT_SIZE = 32;
+    private static final long STRING_SIZE = 40;
+    private static final long ENTRY_SIZE = 32;
+    private static final long LIST_SIZE = 56;
+    private static final long HANDLER_SIZE = 160;
+    private static final long ELEMENT_SIZE = 160;
+
+    // A plan holds a few arrays, each with one slot per option or input
+    private static final long PLAN_SIZE = 96;
+    private static final long PLAN_ENTRY_SIZE = 40;
+}
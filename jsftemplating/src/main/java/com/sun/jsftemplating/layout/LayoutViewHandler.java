@@ -178,6 +178,11 @@ public class LayoutViewHandler extends ViewHandler {
             return  oldViewHandler.createView(facesContext, viewId);
         }
 
+        // Skip views we already know are handled by another technology
+        if (LayoutDefinitionManager.isNotFound(facesContext, viewId)) {
+            return oldViewHandler.createView(facesContext, viewId);
+        }
+
         Locale locale = null;
         String renderKitId = null;
 
@@ -511,7 +516,7 @@ public class LayoutViewHandler extends ViewHandler {
 
                     try {
                         // Add the template here.
-                        buildUIComponentTree(facesContext, parentComponent, LayoutDefinitionManager.getLayoutDefinition(facesContext, template));
+                        buildUIComponentTree(facesContext, parentComponent, layoutComposition.getTemplateLayoutDefinition(facesContext));
                     } catch (LayoutDefinitionException ex) {
                         if (((LayoutComposition) childLayoutElement).isRequired()) {
                             throw ex;
@@ -539,11 +544,8 @@ public class LayoutViewHandler extends ViewHandler {
                     // Include everything
                     buildUIComponentTree(facesContext, parentComponent, compositionStack.get(0));
                 } else {
-                    // First resolve any EL in the insertName
-                    insertName = "" + ((LayoutInsert) childLayoutElement).resolveValue(facesContext, parentComponent, insertName);
-
                     // Search for specific LayoutDefine
-                    LayoutElement layoutDefine = LayoutInsert.findLayoutDefine(facesContext, parentComponent, compositionStack, insertName);
+                    LayoutElement layoutDefine = ((LayoutInsert) childLayoutElement).getLayoutDefine(facesContext, parentComponent, compositionStack);
                     if (layoutDefine == null) {
                         // Not found include the body-content of the insert
                         buildUIComponentTree(facesContext, parentComponent, childLayoutElement);
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.LogUtil;
+
+/**
+ * <p>
+ * This is the default {@link LayoutDefinitionCache}. It limits the number of cached {@link LayoutDefinition}s and their
+ * estimated size (see {@link LayoutDefinitionSizeEstimator}). When either limit is exceeded the least recently used
+ * {@link LayoutDefinition}s are evicted until the cache is back under 90% of its limits, so evictions happen in
+ * batches rather than on every {@link #put(String, LayoutDefinition)}.
+ * </p>
+ *
+ * <p>
+ * The size of a {@link LayoutDefinition} is estimated once, when it is put in the cache. The
+ * {@link LayoutDefinitionManager} only caches {@link LayoutDefinition}s after preparing them, so the estimate includes
+ * the state created by the preparation.
+ * </p>
+ *
+ * <p>
+ * Reads do not lock: each entry records the time it was last used, and the ordering is only computed when evicting.
+ * </p>
+ */
+public class LruLayoutDefinitionCache implements LayoutDefinitionCache {
+
+    /**
+     * <p>
+     * Default constructor, which does not limit the cache.
+     * </p>
+     */
+    public LruLayoutDefinitionCache() {
+        this(0, 0);
+    }
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param maxEntries The maximum number of {@link LayoutDefinition}s to cache, <code>0</code> for no limit.
+     * @param maxBytes The maximum estimated size (in bytes) of all cached {@link LayoutDefinition}s, <code>0</code> for no
+     * limit.
+     */
+    public LruLayoutDefinitionCache(int maxEntries, long maxBytes) {
+        _maxEntries = maxEntries;
+        _maxBytes = maxBytes;
+    }
+
+    @Override
+    public LayoutDefinition get(String key) {
+        Entry entry = _map.get(key);
+        if (entry == null) {
+            _misses.incrementAndGet();
+            return null;
+        }
+        _hits.incrementAndGet();
+        entry.lastUsed = System.nanoTime();
+        return entry.def;
+    }
+
+    @Override
+    public void put(String key, LayoutDefinition def) {
+        if (def == null) {
+            remove(key);
+            return;
+        }
+        Entry entry = new Entry(def, LayoutDefinitionSizeEstimator.estimate(def), System.nanoTime());
+        Entry old = _map.put(key, entry);
+        _bytes.addAndGet(entry.bytes - (old == null ? 0 : old.bytes));
+        if (isOverLimit(_maxEntries, _maxBytes)) {
+            evict();
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        Entry old = _map.remove(key);
+        if (old != null) {
+            _bytes.addAndGet(-old.bytes);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (String key : new ArrayList<>(_map.keySet())) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public void addEvictionListener(Consumer<String> listener) {
+        _evictionListeners.add(listener);
+    }
+
+    @Override
+    public int size() {
+        return _map.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return _misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return _evictions.get();
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return _bytes.get();
+    }
+
+    /**
+     * <p>
+     * The maximum number of {@link LayoutDefinition}s, <code>0</code> means no limit.
+     * </p>
+     */
+    public int getMaxEntries() {
+        return _maxEntries;
+    }
+
+    /**
+     * <p>
+     * The maximum estimated size in bytes, <code>0</code> means no limit.
+     * </p>
+     */
+    public long getMaxBytes() {
+        return _maxBytes;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the cache exceeds the given limits.
+     * </p>
+     */
+    private boolean isOverLimit(long maxEntries, long maxBytes) {
+        return (maxEntries > 0 && _map.size() > maxEntries) || (maxBytes > 0 && _bytes.get() > maxBytes);
+    }
+
+    /**
+     * <p>
+     * This method evicts the least recently used {@link LayoutDefinition}s until the cache is under 90% of its limits.
+     * </p>
+     */
+    private synchronized void evict() {
+        if (!isOverLimit(_maxEntries, _maxBytes)) {
+            // Another thread already did it
+            return;
+        }
+        long maxEntries = _maxEntries * 9L / 10;
+        long maxBytes = _maxBytes * 9 / 10;
+        // Snapshot the last use, it may change while sorting
+        List<Candidate> candidates = new ArrayList<>(_map.size());
+        for (Map.Entry<String, Entry> entry : _map.entrySet()) {
+            candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+        candidates.sort((a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+        int count = 0;
+        for (Candidate candidate : candidates) {
+            if (!isOverLimit(maxEntries, maxBytes)) {
+                break;
+            }
+            if (_map.remove(candidate.key, candidate.entry)) {
+                _bytes.addAndGet(-candidate.entry.bytes);
+                count++;
+                for (Consumer<String> listener : _evictionListeners) {
+                    listener.accept(candidate.key);
+                }
+            }
+        }
+        _evictions.addAndGet(count);
+        if (LogUtil.finerEnabled()) {
+            LogUtil.finer("Evicted " + count + " LayoutDefinitions, " + _map.size() + " (" + _bytes.get() + " bytes) remain.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LruLayoutDefinitionCache[size=" + size() + ", bytes=" + getEstimatedSize() + ", hitRate=" + getHitRate() + ", evictions="
+                + getEvictionCount() + "]";
+    }
+
+    /**
+     * <p>
+     * A cached {@link LayoutDefinition}.
+     * </p>
+     */
+    private static class Entry {
+        Entry(LayoutDefinition def, long bytes, long lastUsed) {
+            this.def = def;
+            this.bytes = bytes;
+            this.lastUsed = lastUsed;
+        }
+
+        final LayoutDefinition def;
+        final long bytes;
+        volatile long lastUsed;
+    }
+
+    /**
+     * <p>
+     * An {@link Entry} considered for eviction.
+     * </p>
+     */
+    private static class Candidate {
+        Candidate(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastUsed = entry.lastUsed;
+        }
+
+        final String key;
+        final Entry entry;
+        final long lastUsed;
+    }
+
+    private final Map<String, Entry> _map = new ConcurrentHashMap<>(400, 0.75f, 2);
+
+    private final List<Consumer<String>> _evictionListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong _bytes = new AtomicLong();
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+    private final AtomicLong _evictions = new AtomicLong();
+
+    private final int _maxEntries;
+    private final long _maxBytes;
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.compiled;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionDependencies;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.descriptors.ComponentType;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinition;
+import com.sun.jsftemplating.util.Util;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class reads and writes the compiled (binary) form of a {@link LayoutDefinition}. A compiled
+ * {@link LayoutDefinition} is produced at build time by the {@link LayoutDefinitionCompiler} and read by the
+ * {@link CompiledLayoutDefinitionManager}, which avoids parsing the text template at runtime.
+ * </p>
+ *
+ * <p>
+ * The format is a short header (magic number, {@link #VERSION}, the last modified time of the source file, the key,
+ * and the key and last modified time of each other file read with it, such as included files) followed by the
+ * serialized {@link LayoutDefinition} tree. While writing, equal <code>String</code>s are replaced by a
+ * single instance so each is stored only once (later occurrences are back-references), and
+ * {@link HandlerDefinition}s and {@link ComponentType}s that are globally registered are stored by id only. These are
+ * resolved against the application's registered definitions when read.
+ * </p>
+ *
+ * <p>
+ * Only the classes a {@link LayoutDefinition} tree is made of may be deserialized: JSFTemplating classes and the
+ * <code>java.lang</code> and <code>java.util</code> types they use. Other classes may only appear as
+ * <code>Class</code> references (e.g. the type of an
+ * {@link com.sun.jsftemplating.layout.descriptors.handler.IODescriptor}), so they must not be
+ * <code>Serializable</code>. Anything else is rejected.
+ * </p>
+ *
+ * <p>
+ * Files on the local file system are read via a memory-mapped buffer.
+ * </p>
+ */
+public class CompiledLayoutDefinition {
+
+    /**
+     * <p>
+     * This class only has static methods.
+     * </p>
+     */
+    private CompiledLayoutDefinition() {
+    }
+
+    /**
+     * <p>
+     * This method writes the compiled form of the given {@link LayoutDefinition}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> used to find the globally registered definitions.
+     * @param key The {@link LayoutDefinition} key.
+     * @param def The {@link LayoutDefinition}.
+     * @param sourceLastModified The last modified time of the source file (or 0).
+     * @param out The <code>OutputStream</code> to write to (not closed).
+     */
+    public static void write(FacesContext ctx, String key, LayoutDefinition def, long sourceLastModified, OutputStream out) throws IOException {
+        write(ctx, key, def, sourceLastModified, Collections.<String, Long>emptyMap(), out);
+    }
+
+    /**
+     * <p>
+     * This method writes the compiled form of the given {@link LayoutDefinition}, along with the other files it was read
+     * from so that changes to them can be detected (see {@link #readSourceTimestamps(URL)}).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> used to find the globally registered definitions.
+     * @param key The {@link LayoutDefinition} key.
+     * @param def The {@link LayoutDefinition}.
+     * @param sourceLastModified The last modified time of the source file (or 0).
+     * @param dependencies The last modified time of each other file, by key.
+     * @param out The <code>OutputStream</code> to write to (not closed).
+     */
+    public static void write(FacesContext ctx, String key, LayoutDefinition def, long sourceLastModified, Map<String, Long> dependencies,
+            OutputStream out) throws IOException {
+        BufferedOutputStream buf = new BufferedOutputStream(out);
+        DataOutputStream data = new DataOutputStream(buf);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(sourceLastModified);
+        data.writeUTF(key);
+        data.writeInt(dependencies.size());
+        for (Map.Entry<String, Long> entry : dependencies.entrySet()) {
+            data.writeUTF(entry.getKey());
+            data.writeLong(entry.getValue());
+        }
+        data.flush();
+
+        // Generated ids are assigned on first use, make sure they are stored
+        assignIds(def);
+
+        ObjectOutputStream oos = new CompilingOutputStream(ctx, buf);
+        oos.writeObject(def);
+        oos.flush();
+    }
+
+    /**
+     * <p>
+     * This method ensures each {@link LayoutElement} has its (possibly generated) id before it is written.
+     * </p>
+     */
+    private static void assignIds(LayoutElement elt) {
+        elt.getUnevaluatedId();
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            assignIds(child);
+        }
+    }
+
+    /**
+     * <p>
+     * This method reads the header of a compiled {@link LayoutDefinition}. It returns the last modified time of the
+     * source, or <code>-1</code> if the given <code>URL</code> is not a compiled {@link LayoutDefinition} of the current
+     * {@link #VERSION}.
+     * </p>
+     */
+    public static long readSourceLastModified(URL url) {
+        try (InputStream is = open(url)) {
+            DataInputStream data = new DataInputStream(is);
+            if (data.readInt() != MAGIC || data.readShort() != VERSION) {
+                return -1;
+            }
+            return data.readLong();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * <p>
+     * This method reads the header of a compiled {@link LayoutDefinition}. It returns the last modified time of each file
+     * it was read from by key, starting with the source itself, or <code>null</code> if the given <code>URL</code> is not
+     * a compiled {@link LayoutDefinition} of the current {@link #VERSION}.
+     * </p>
+     */
+    public static Map<String, Long> readSourceTimestamps(URL url) {
+        try (InputStream is = open(url)) {
+            DataInputStream data = new DataInputStream(is);
+            if (data.readInt() != MAGIC || data.readShort() != VERSION) {
+                return null;
+            }
+            Map<String, Long> timestamps = new LinkedHashMap<>();
+            long lastModified = data.readLong();
+            timestamps.put(data.readUTF(), lastModified);
+            for (int count = data.readInt(); count > 0; count--) {
+                timestamps.put(data.readUTF(), data.readLong());
+            }
+            return timestamps;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * This method reads a compiled {@link LayoutDefinition}.
+     * </p>
+     *
+     * @param url The location of the compiled {@link LayoutDefinition}.
+     */
+    public static LayoutDefinition read(URL url) throws IOException {
+        try (InputStream is = open(url)) {
+            DataInputStream data = new DataInputStream(is);
+            if (data.readInt() != MAGIC) {
+                throw new IOException("'" + url + "' is not a compiled LayoutDefinition.");
+            }
+            short version = data.readShort();
+            if (version != VERSION) {
+                throw new IOException("'" + url + "' has version " + version + ", expected " + VERSION + ".");
+            }
+            data.readLong();
+            data.readUTF();
+            for (int count = data.readInt(); count > 0; count--) {
+                data.readUTF();
+                data.readLong();
+            }
+
+            ObjectInputStream ois = new ObjectInputStream(is) {
+                @Override
+                protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                    try {
+                        return Class.forName(desc.getName(), false, Util.getClassLoader(desc));
+                    } catch (ClassNotFoundException ex) {
+                        // Primitive types, etc.
+                        return super.resolveClass(desc);
+                    }
+                }
+            };
+            ois.setObjectInputFilter(CompiledLayoutDefinition::checkClass);
+            return (LayoutDefinition) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Unable to read compiled LayoutDefinition '" + url + "'.", ex);
+        }
+    }
+
+    /**
+     * <p>
+     * This <code>ObjectInputFilter</code> only allows the classes a {@link LayoutDefinition} tree is made of.
+     * </p>
+     */
+    private static ObjectInputFilter.Status checkClass(ObjectInputFilter.FilterInfo info) {
+        Class<?> cls = info.serialClass();
+        if (cls == null) {
+            // Not a class (depth, references, etc.)
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls.isPrimitive() || !Serializable.class.isAssignableFrom(cls)) {
+            // Can't be instantiated, only referenced
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        String name = cls.getName();
+        if (name.startsWith("com.sun.jsftemplating.") || name.startsWith("java.util.")
+                || (name.startsWith("java.lang.") && name.indexOf('.', 10) == -1)) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    }
+
+    /**
+     * <p>
+     * This method opens the given <code>URL</code>, memory-mapping it if it is a local file.
+     * </p>
+     */
+    private static InputStream open(URL url) throws IOException {
+        Path path = LayoutDefinitionDependencies.getPath(url);
+        if (path == null) {
+            return new BufferedInputStream(url.openStream());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * <p>
+     * This <code>ObjectOutputStream</code> shares equal <code>String</code>s and replaces registered
+     * {@link HandlerDefinition}s and {@link ComponentType}s with references.
+     * </p>
+     */
+    private static class CompilingOutputStream extends ObjectOutputStream {
+        CompilingOutputStream(FacesContext ctx, OutputStream out) throws IOException {
+            super(out);
+            _ctx = ctx;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            if (obj instanceof String) {
+                String str = _strings.putIfAbsent((String) obj, (String) obj);
+                return str == null ? obj : str;
+            }
+            if (obj instanceof HandlerDefinition) {
+                String id = ((HandlerDefinition) obj).getId();
+                if (LayoutDefinitionManager.getGlobalHandlerDefinitions().get(id) == obj) {
+                    return new HandlerDefinitionRef(id);
+                }
+            } else if (obj instanceof ComponentType) {
+                String id = ((ComponentType) obj).getId();
+                if (LayoutDefinitionManager.getGlobalComponentType(_ctx, id) == obj) {
+                    return new ComponentTypeRef(id);
+                }
+            }
+            return obj;
+        }
+
+        private final FacesContext _ctx;
+        private final Map<String, String> _strings = new HashMap<>();
+    }
+
+    /**
+     * <p>
+     * A reference to a globally registered {@link HandlerDefinition}.
+     * </p>
+     */
+    private static class HandlerDefinitionRef implements Serializable {
+        HandlerDefinitionRef(String id) {
+            _id = id;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            HandlerDefinition def = LayoutDefinitionManager.getGlobalHandlerDefinition(_id);
+            if (def == null) {
+                throw new InvalidObjectException("HandlerDefinition '" + _id + "' is not registered.");
+            }
+            return def;
+        }
+
+        private static final long serialVersionUID = 1L;
+        private final String _id;
+    }
+
+    /**
+     * <p>
+     * A reference to a globally registered {@link ComponentType}.
+     * </p>
+     */
+    private static class ComponentTypeRef implements Serializable {
+        ComponentTypeRef(String id) {
+            _id = id;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            ComponentType type = LayoutDefinitionManager.getGlobalComponentType(FacesContext.getCurrentInstance(), _id);
+            if (type == null) {
+                throw new InvalidObjectException("ComponentType '" + _id + "' is not registered.");
+            }
+            return type;
+        }
+
+        private static final long serialVersionUID = 1L;
+        private final String _id;
+    }
+
+    /**
+     * <p>
+     * An <code>InputStream</code> over a (memory-mapped) <code>ByteBuffer</code>.
+     * </p>
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        ByteBufferInputStream(ByteBuffer buffer) {
+            _buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return _buffer.hasRemaining() ? (_buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (!_buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, _buffer.remaining());
+            _buffer.get(bytes, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return _buffer.remaining();
+        }
+
+        private final ByteBuffer _buffer;
+    }
+
+    /**
+     * <p>
+     * The file suffix appended to a {@link LayoutDefinition} key to find its compiled form.
+     * </p>
+     */
+    public static final String SUFFIX = ".jsftc";
+
+    /**
+     * <p>
+     * The current version of the format. Compiled {@link LayoutDefinition}s with a different version are ignored.
+     * </p>
+     */
+    public static final short VERSION = 2;
+
+    /**
+     * <p>
+     * "JSFT" in ASCII.
+     * </p>
+     */
+    private static final int MAGIC = 0x4A534654;
+}
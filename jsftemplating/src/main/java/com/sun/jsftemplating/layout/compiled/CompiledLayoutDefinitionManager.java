@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.compiled;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionDependencies;
+import com.sun.jsftemplating.layout.LayoutDefinitionException;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.FileUtil;
+import com.sun.jsftemplating.util.LogUtil;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This {@link LayoutDefinitionManager} reads {@link LayoutDefinition}s that were compiled at build time by the
+ * {@link LayoutDefinitionCompiler} (see {@link CompiledLayoutDefinition}). A compiled {@link LayoutDefinition} is found
+ * by appending {@link CompiledLayoutDefinition#SUFFIX} to the key, and searching for it the same way as for the source
+ * file (the docroot first, then the classpath).
+ * </p>
+ *
+ * <p>
+ * If the source file can be found on the local file system and is newer than it was when compiled, the compiled
+ * {@link LayoutDefinition} is not used. If the compiled {@link LayoutDefinition} cannot be read, the next
+ * {@link LayoutDefinitionManager} that accepts the key is used instead.
+ * </p>
+ *
+ * <p>
+ * To use this {@link LayoutDefinitionManager} before the others, set the <code>context-param</code>
+ * {@link LayoutDefinitionManager#LAYOUT_DEFINITION_MANAGER_KEY} to the name of this class.
+ * </p>
+ */
+public class CompiledLayoutDefinitionManager extends LayoutDefinitionManager {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    protected CompiledLayoutDefinitionManager() {
+        super();
+    }
+
+    /**
+     * <p>
+     * This method returns an instance of this LayoutDefinitionManager. The object returned is a singleton (only 1 instance
+     * will be created per application).
+     * </p>
+     *
+     * @return <code>CompiledLayoutDefinitionManager</code> instance
+     */
+    public static LayoutDefinitionManager getInstance() {
+        return getInstance(FacesContext.getCurrentInstance());
+    }
+
+    /**
+     * <p>
+     * This method returns an instance of this LayoutDefinitionManager. The object returned is a singleton (only 1 instance
+     * will be created per application).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     *
+     * @return <code>CompiledLayoutDefinitionManager</code> instance
+     */
+    public static LayoutDefinitionManager getInstance(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+        }
+        CompiledLayoutDefinitionManager instance = null;
+        if (ctx != null) {
+            instance = (CompiledLayoutDefinitionManager) ctx.getExternalContext().getApplicationMap().get(CLDM_INSTANCE);
+        }
+        if (instance == null) {
+            instance = new CompiledLayoutDefinitionManager();
+            if (ctx != null) {
+                ctx.getExternalContext().getApplicationMap().put(CLDM_INSTANCE, instance);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if a current compiled {@link LayoutDefinition} exists for the given key. It
+     * is not current if its source, or any file included while reading it, is newer than when it was compiled.
+     * </p>
+     */
+    @Override
+    public boolean accepts(String key) {
+        URL url = findCompiled(key);
+        if (url == null) {
+            return false;
+        }
+        Map<String, Long> timestamps = CompiledLayoutDefinition.readSourceTimestamps(url);
+        if (timestamps == null) {
+            return false;
+        }
+
+        // Make sure the source (and the files read with it) haven't changed since it was compiled
+        for (Map.Entry<String, Long> entry : timestamps.entrySet()) {
+            try {
+                URL source = FileUtil.searchForFile(entry.getKey(), null);
+                if (source != null && LayoutDefinitionDependencies.getPath(source) != null
+                        && LayoutDefinitionDependencies.getLastModified(source) > entry.getValue()) {
+                    if (LogUtil.fineEnabled()) {
+                        LogUtil.fine("Compiled LayoutDefinition is out of date: " + url + " (" + entry.getKey() + " changed)");
+                    }
+                    return false;
+                }
+            } catch (IOException ex) {
+                // Ignore, use the compiled version
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method reads the compiled {@link LayoutDefinition} for the given <code>key</code>.
+     * </p>
+     *
+     * @param key Key identifying the desired {@link LayoutDefinition}
+     *
+     * @return The requested {@link LayoutDefinition}.
+     */
+    @Override
+    public LayoutDefinition getLayoutDefinition(String key) throws LayoutDefinitionException {
+        URL url = findCompiled(key);
+        if (url == null) {
+            throw new LayoutDefinitionException("Unable to locate '" + key + CompiledLayoutDefinition.SUFFIX + "'");
+        }
+
+        LayoutDefinition ld = null;
+        try {
+            ld = CompiledLayoutDefinition.read(url);
+        } catch (IOException ex) {
+            // Fall back to the source
+            if (LogUtil.configEnabled()) {
+                LogUtil.config("Unable to read compiled LayoutDefinition '" + url + "', reading the source instead.", ex);
+            }
+            return getSourceLayoutDefinitionManager(key).getLayoutDefinition(key);
+        }
+
+        // Return the LayoutDefinition
+        return ld;
+    }
+
+    /**
+     * <p>
+     * This method finds the compiled {@link LayoutDefinition} for the given key, or returns <code>null</code>.
+     * </p>
+     */
+    private URL findCompiled(String key) {
+        try {
+            return FileUtil.searchForFile(key + CompiledLayoutDefinition.SUFFIX, null);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * This method finds the first other {@link LayoutDefinitionManager} that accepts the given key.
+     * </p>
+     */
+    private LayoutDefinitionManager getSourceLayoutDefinitionManager(String key) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        for (String className : getLayoutDefinitionManagers(ctx)) {
+            LayoutDefinitionManager ldm = getLayoutDefinitionManagerByClass(ctx, className);
+            if (ldm != this && ldm.accepts(key)) {
+                return ldm;
+            }
+        }
+        throw new LayoutDefinitionException("No LayoutDefinitionManager available for '" + key + "'.");
+    }
+
+    /**
+     * <p>
+     * Application scope key for an instance of this class.
+     * </p>
+     */
+    private static final String CLDM_INSTANCE = "__jsft_CompiledLDM";
+}
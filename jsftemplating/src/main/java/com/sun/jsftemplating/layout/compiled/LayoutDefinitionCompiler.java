@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.compiled;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionDependencies;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.LayoutDefinitionPrecompiler;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.util.FileUtil;
+
+import jakarta.faces.component.UIViewRoot;
+import jakarta.faces.context.ExternalContext;
+import jakarta.faces.context.ExternalContextWrapper;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.context.FacesContextWrapper;
+
+/**
+ * <p>
+ * This class compiles the templates of an application into the format read by the
+ * {@link CompiledLayoutDefinitionManager} (see {@link CompiledLayoutDefinition}). It is meant to be run during the build,
+ * for example via the <code>exec-maven-plugin</code>:
+ * </p>
+ *
+ * <blockquote><code>java com.sun.jsftemplating.layout.compiled.LayoutDefinitionCompiler &lt;docroot&gt; [&lt;output
+ * dir&gt;]</code></blockquote>
+ *
+ * <p>
+ * Each template in <code>docroot</code> (see {@link LayoutDefinitionPrecompiler#PRECOMPILE_SUFFIXES}) is read with the
+ * {@link LayoutDefinitionManager}s found on the classpath, and written to <code>output dir</code> (which defaults to
+ * <code>docroot</code>) at the same relative path with {@link CompiledLayoutDefinition#SUFFIX} appended. The classpath
+ * must contain the application's handlers and components, as they are referenced by id.
+ * </p>
+ */
+public class LayoutDefinitionCompiler {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param docroot The directory containing the templates.
+     * @param outputDir The directory to write the compiled {@link LayoutDefinition}s to.
+     */
+    public LayoutDefinitionCompiler(File docroot, File outputDir) {
+        _docroot = docroot;
+        _outputDir = outputDir;
+    }
+
+    /**
+     * <p>
+     * Command line entry point.
+     * </p>
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java " + LayoutDefinitionCompiler.class.getName() + " <docroot> [<output dir>]");
+            System.exit(2);
+        }
+        File docroot = new File(args[0]);
+        File outputDir = new File(args.length > 1 ? args[1] : args[0]);
+        List<String> failures = new LayoutDefinitionCompiler(docroot, outputDir).compile();
+        for (String failure : failures) {
+            System.err.println(failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * <p>
+     * This method compiles all templates, and returns a message for each one that failed.
+     * </p>
+     */
+    public List<String> compile() {
+        List<String> failures = new ArrayList<>();
+        CompilerFacesContext ctx = new CompilerFacesContext(_docroot);
+        try {
+            Set<String> keys = new LayoutDefinitionPrecompiler().findDocrootLayoutFiles(ctx);
+            int count = 0;
+            for (String key : keys) {
+                try {
+                    if (compile(ctx, key)) {
+                        count++;
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    failures.add("Unable to compile '" + key + "': " + ex);
+                }
+            }
+            System.out.println("Compiled " + count + " of " + keys.size() + " templates to '" + _outputDir + "'.");
+        } finally {
+            ctx.release();
+        }
+        return failures;
+    }
+
+    /**
+     * <p>
+     * This method compiles a single template. It returns <code>false</code> if no {@link LayoutDefinitionManager} accepts
+     * the key.
+     * </p>
+     */
+    private boolean compile(FacesContext ctx, String key) throws IOException {
+        LayoutDefinitionManager ldm = getSourceLayoutDefinitionManager(ctx, key);
+        if (ldm == null) {
+            return false;
+        }
+        LayoutDefinitionDependencies deps = LayoutDefinitionDependencies.begin();
+        LayoutDefinition def = null;
+        try {
+            def = ldm.getLayoutDefinition(key);
+        } finally {
+            LayoutDefinitionDependencies.end(deps);
+        }
+        URL source = FileUtil.searchForFile(key, null);
+        long lastModified = source == null ? 0 : LayoutDefinitionDependencies.getLastModified(source);
+
+        // Remember the other docroot files (e.g. includes) so changes to them are noticed
+        Map<String, Long> dependencies = new LinkedHashMap<>();
+        for (URL url : deps.getSourceURLs()) {
+            String depKey = getDocrootKey(url);
+            if (depKey != null && !depKey.equals(key)) {
+                dependencies.put(depKey, LayoutDefinitionDependencies.getLastModified(url));
+            }
+        }
+
+        File outFile = new File(_outputDir, key.substring(1) + CompiledLayoutDefinition.SUFFIX);
+        outFile.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(outFile)) {
+            CompiledLayoutDefinition.write(ctx, key, def, lastModified, dependencies, out);
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method returns the key (the path relative to the docroot) of the given file, or <code>null</code> if it is not
+     * in the docroot. Files from the classpath only change when the application is rebuilt.
+     * </p>
+     */
+    private String getDocrootKey(URL url) {
+        Path path = LayoutDefinitionDependencies.getPath(url);
+        Path docroot = _docroot.toPath().toAbsolutePath().normalize();
+        if (path == null || !path.startsWith(docroot)) {
+            return null;
+        }
+        return "/" + docroot.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * <p>
+     * This method finds the first {@link LayoutDefinitionManager} (other than the
+     * {@link CompiledLayoutDefinitionManager}) that accepts the given key.
+     * </p>
+     */
+    private LayoutDefinitionManager getSourceLayoutDefinitionManager(FacesContext ctx, String key) {
+        for (String className : LayoutDefinitionManager.getLayoutDefinitionManagers(ctx)) {
+            if (className.equals(CompiledLayoutDefinitionManager.class.getName())) {
+                continue;
+            }
+            LayoutDefinitionManager ldm = LayoutDefinitionManager.getLayoutDefinitionManagerByClass(ctx, className);
+            if (ldm.accepts(key)) {
+                return ldm;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * The <code>FacesContext</code> used while compiling. There is no running application, so it only provides an
+     * application scope, a request scope (which skips "initPage" handlers), and access to the files in the docroot.
+     * </p>
+     */
+    private static class CompilerFacesContext extends FacesContextWrapper {
+        CompilerFacesContext(File docroot) {
+            super(null);
+            _extCtx = new CompilerExternalContext(docroot);
+            setCurrentInstance(this);
+        }
+
+        @Override
+        public ExternalContext getExternalContext() {
+            return _extCtx;
+        }
+
+        @Override
+        public UIViewRoot getViewRoot() {
+            return null;
+        }
+
+        @Override
+        public Map<Object, Object> getAttributes() {
+            return _attributes;
+        }
+
+        @Override
+        public void release() {
+            setCurrentInstance(null);
+        }
+
+        private final ExternalContext _extCtx;
+        private final Map<Object, Object> _attributes = new HashMap<>();
+    }
+
+    /**
+     * <p>
+     * The <code>ExternalContext</code> used while compiling. It is public because {@link FileUtil} calls
+     * <code>getResource(String)</code> on the object returned by {@link #getContext()} reflectively.
+     * </p>
+     */
+    public static class CompilerExternalContext extends ExternalContextWrapper {
+        CompilerExternalContext(File docroot) {
+            super(null);
+            _docroot = docroot;
+            _requestMap.put(LayoutDefinition.SKIP_INIT_PAGE, Boolean.TRUE);
+        }
+
+        @Override
+        public Object getContext() {
+            return this;
+        }
+
+        @Override
+        public Map<String, Object> getApplicationMap() {
+            return _appMap;
+        }
+
+        @Override
+        public Map<String, Object> getRequestMap() {
+            return _requestMap;
+        }
+
+        @Override
+        public String getInitParameter(String name) {
+            return null;
+        }
+
+        @Override
+        public Map getInitParameterMap() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public URL getResource(String path) throws MalformedURLException {
+            File file = new File(_docroot, path);
+            return file.isFile() ? file.toURI().toURL() : null;
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String path) {
+            try {
+                return new FileInputStream(new File(_docroot, path));
+            } catch (FileNotFoundException ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public Set<String> getResourcePaths(String path) {
+            File[] files = new File(_docroot, path).listFiles();
+            if (files == null) {
+                return null;
+            }
+            Set<String> paths = new LinkedHashSet<>();
+            String prefix = path.endsWith("/") ? path : path + "/";
+            for (File file : files) {
+                paths.add(prefix + file.getName() + (file.isDirectory() ? "/" : ""));
+            }
+            return paths;
+        }
+
+        private final File _docroot;
+        private final Map<String, Object> _appMap = new HashMap<>();
+        private final Map<String, Object> _requestMap = new HashMap<>();
+    }
+
+    private final File _docroot;
+    private final File _outputDir;
+}
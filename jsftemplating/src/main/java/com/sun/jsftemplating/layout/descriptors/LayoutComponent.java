@@ -102,6 +102,7 @@ public class LayoutComponent extends LayoutElementBase implements LayoutElement
      */
     public void addOption(String name, Object value) {
         _options.put(name, value);
+        _optionsModCount++;
     }
 
     /**
@@ -114,6 +115,7 @@ public class LayoutComponent extends LayoutElementBase implements LayoutElement
      */
     public void addOptions(Map<String, Object> map) {
         _options.putAll(map);
+        _optionsModCount++;
     }
 
     /**
@@ -180,11 +182,14 @@ public class LayoutComponent extends LayoutElementBase implements LayoutElement
      */
     public void setOptions(Map<String, Object> options) {
         _options = options;
+        _optionsModCount++;
     }
 
     /**
      * <p>
-     * This method returns the options as a Map. This method does not evaluate expressions.
+     * This method returns the options as a Map. This method does not evaluate expressions. Use
+     * {@link #addOption(String, Object)} to change an option, a value replaced directly in this <code>Map</code> may not be
+     * seen by the {@link OptionPlan} (see {@link #getOptionPlan(FacesContext)}).
      * </p>
      *
      * @return Map of options.
@@ -193,6 +198,27 @@ public class LayoutComponent extends LayoutElementBase implements LayoutElement
         return _options;
     }
 
+    /**
+     * <p>
+     * This method returns the {@link OptionPlan} for the options of this {@link LayoutComponent}, which tells which
+     * options must be resolved when the <code>UIComponent</code> is created. It is created the first time it is needed
+     * (normally when the {@link LayoutDefinition} is read), and again if the options are changed through this
+     * {@link LayoutComponent} (or the size of the options <code>Map</code> changes).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public OptionPlan getOptionPlan(FacesContext ctx) {
+        // Read the count first, so a concurrent change is seen next time
+        int modCount = _optionsModCount;
+        OptionPlan plan = _optionPlan;
+        if (plan == null || !plan.isPlanFor(_options, modCount)) {
+            plan = OptionPlan.create(ctx, _options, modCount);
+            _optionPlan = plan;
+        }
+        return plan;
+    }
+
     /**
      * <p>
      * This method is overriden so that the correct UIComponent can be passed into the events. This is important so that
@@ -502,6 +528,20 @@ public class LayoutComponent extends LayoutElementBase implements LayoutElement
      */
     private Map<String, Object> _options = new HashMap<>();
 
+    /**
+     * <p>
+     * The {@link OptionPlan} for {@link #_options}, created when needed.
+     * </p>
+     */
+    private transient volatile OptionPlan _optionPlan = null;
+
+    /**
+     * <p>
+     * The number of times the options were changed through this {@link LayoutComponent}.
+     * </p>
+     */
+    private transient volatile int _optionsModCount = 0;
+
     /**
      * <p>
      * This is the "type" for handlers to be invoked to handle "afterCreate" functionality for this element.
@@ -17,6 +17,8 @@
 package com.sun.jsftemplating.layout.descriptors;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -26,6 +28,7 @@ import java.util.Stack;
 import com.sun.jsftemplating.layout.LayoutDefinitionException;
 import com.sun.jsftemplating.layout.LayoutDefinitionManager;
 import com.sun.jsftemplating.layout.event.EncodeEvent;
+import com.sun.jsftemplating.util.LayoutElementUtil;
 
 import jakarta.faces.component.UIComponent;
 import jakarta.faces.context.FacesContext;
@@ -101,6 +104,15 @@ public class LayoutComposition extends LayoutElementBase {
         return result == null ? null : result.toString();
     }
 
+    /**
+     * <p>
+     * Accessor for the template filename. This method does NOT resolve expressions.
+     * </p>
+     */
+    public String getUnevaluatedTemplate() {
+        return template;
+    }
+
     /**
      * <p>
      * Setter for the template filename.
@@ -108,6 +120,41 @@ public class LayoutComposition extends LayoutElementBase {
      */
     public void setTemplate(String template) {
         this.template = template;
+        _templateKey = null;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link LayoutDefinition} of the template, or <code>null</code> if there is no template. When
+     * the template filename is an absolute path without expressions, its cache key is remembered so the filename is not
+     * resolved again on each request (except in {@link LayoutDefinitionManager#CACHE_MODE_REQUEST} mode). The
+     * {@link LayoutDefinition} itself is always obtained from the cache, so an evicted or stale template is read again.
+     * "initPage" handlers are dispatched in either case.
+     * </p>
+     *
+     * @param context The <code>FacesContext</code>.
+     *
+     * @throws LayoutDefinitionException If the template cannot be found.
+     */
+    public LayoutDefinition getTemplateLayoutDefinition(FacesContext context) throws LayoutDefinitionException {
+        String key = _templateKey;
+        if (key != null) {
+            LayoutDefinition def = LayoutDefinitionManager.getCachedLayoutDefinition(context, key);
+            if (def != null) {
+                def.dispatchInitPageHandlers(context, def);
+                return def;
+            }
+        }
+        String templateName = getTemplate();
+        if (templateName == null) {
+            return null;
+        }
+        LayoutDefinition def = LayoutDefinitionManager.getLayoutDefinition(context, templateName);
+        if (context != null && templateName.startsWith("/") && LayoutElementUtil.isStatic(template)
+                && !LayoutDefinitionManager.CACHE_MODE_REQUEST.equals(LayoutDefinitionManager.getCacheMode(context))) {
+            _templateKey = LayoutDefinitionManager.getCacheKey(context, templateName);
+        }
+        return def;
     }
 
     /**
@@ -146,7 +193,7 @@ public class LayoutComposition extends LayoutElementBase {
 
         LayoutElement template = null;
         try {
-            template = LayoutDefinitionManager.getLayoutDefinition(context, templateName);
+            template = getTemplateLayoutDefinition(context);
         } catch (LayoutDefinitionException ex) {
             if (isRequired()) {
                 throw ex;
@@ -224,7 +271,7 @@ public class LayoutComposition extends LayoutElementBase {
         Map<String, Object> requestMap = context == null ? getTestMap() : context.getExternalContext().getRequestMap();
         Stack<LayoutElement> stack = (Stack<LayoutElement>) requestMap.get(COMPOSITION_STACK_KEY);
         if (stack == null) {
-            stack = new Stack<>();
+            stack = new CompositionStack();
             requestMap.put(COMPOSITION_STACK_KEY, stack);
         }
         return stack;
@@ -309,6 +356,25 @@ public class LayoutComposition extends LayoutElementBase {
         return val;
     }
 
+    /**
+     * <p>
+     * This method searches the current composition <code>Stack</code> (see
+     * {@link #getCompositionStack(FacesContext)}) for a template param with the given <code>name</code>. It returns the
+     * same value as {@link #findTemplateParam(List, String)}, however, when the <code>Stack</code> is a
+     * {@link CompositionStack} the value is found in a single lookup.
+     * </p>
+     *
+     * @param context The <code>FacesContext</code>.
+     * @param name The name of the parameter to look for.
+     */
+    public static Object findTemplateParam(FacesContext context, String name) {
+        Stack<LayoutElement> stack = getCompositionStack(context);
+        if (stack instanceof CompositionStack) {
+            return ((CompositionStack) stack).getParameter(name);
+        }
+        return findTemplateParam(stack, name);
+    }
+
     /**
      * <p>
      * This method returns the <code>Map</code> of parameter values, or <code>null</code> if there are no parameter values
@@ -345,6 +411,151 @@ public class LayoutComposition extends LayoutElementBase {
         _params.put(name, value);
     }
 
+    /**
+     * <p>
+     * This <code>Stack</code> of {@link LayoutElement}s (normally {@link LayoutComposition}s) also keeps, for each level,
+     * the template params visible at that level. As with {@link LayoutComposition#findTemplateParam(List, String)}, a
+     * param of an outer composition takes precedence over one of the same name in an inner composition. The params are
+     * computed when an element is pushed, so {@link #getParameter(String)} does not need to search the
+     * <code>Stack</code>.
+     * </p>
+     *
+     * <p>
+     * If the <code>Stack</code> is changed without {@link #push(LayoutElement)} or {@link #pop()}, including replacing an
+     * element below the top, this is detected (by the modification count of the <code>Stack</code>) and the params are
+     * computed again.
+     * </p>
+     */
+    public static class CompositionStack extends Stack<LayoutElement> {
+
+        /**
+         * <p>
+         * Default constructor.
+         * </p>
+         */
+        public CompositionStack() {
+        }
+
+        @Override
+        public synchronized LayoutElement push(LayoutElement elt) {
+            List<Map<String, Object>> levels = getLevels();
+            Map<String, Object> params = levels.isEmpty() ? Collections.<String, Object>emptyMap() : levels.get(levels.size() - 1);
+            super.push(elt);
+            levels.add(addParameters(params, elt));
+            _levelsModCount = modCount;
+            return elt;
+        }
+
+        @Override
+        public synchronized LayoutElement pop() {
+            LayoutElement elt = super.pop();
+            if (_levels != null && _levelsModCount == modCount - 1) {
+                _levels.remove(_levels.size() - 1);
+                _levelsModCount = modCount;
+            }
+            return elt;
+        }
+
+        /**
+         * <p>
+         * <code>Vector</code> does not count replacing an element as a modification, this does so the params are
+         * computed again.
+         * </p>
+         */
+        @Override
+        public synchronized LayoutElement set(int index, LayoutElement elt) {
+            LayoutElement old = super.set(index, elt);
+            modCount++;
+            return old;
+        }
+
+        @Override
+        public synchronized void setElementAt(LayoutElement elt, int index) {
+            super.setElementAt(elt, index);
+            modCount++;
+        }
+
+        /**
+         * <p>
+         * This method returns the value of the template param with the given <code>name</code>, or <code>null</code> if
+         * there is none.
+         * </p>
+         */
+        public synchronized Object getParameter(String name) {
+            int size = size();
+            if (size == 0) {
+                return null;
+            }
+            return getLevels().get(size - 1).get(name);
+        }
+
+        /**
+         * <p>
+         * This method returns the params of the outer levels plus those of the given element which are not already
+         * defined. The given <code>Map</code> is returned if nothing is added.
+         * </p>
+         */
+        private static Map<String, Object> addParameters(Map<String, Object> params, LayoutElement elt) {
+            if (!(elt instanceof LayoutComposition)) {
+                return params;
+            }
+            Map<String, Object> eltParams = ((LayoutComposition) elt).getParameters();
+            if (eltParams == null || eltParams.isEmpty()) {
+                return params;
+            }
+            Map<String, Object> result = null;
+            for (Map.Entry<String, Object> entry : eltParams.entrySet()) {
+                if (entry.getValue() != null && params.get(entry.getKey()) == null) {
+                    if (result == null) {
+                        result = new HashMap<>(params);
+                    }
+                    result.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+            return result == null ? params : result;
+        }
+
+        /**
+         * <p>
+         * This method computes the params of every level.
+         * </p>
+         */
+        private void rebuild() {
+            _levels = new ArrayList<>();
+            Map<String, Object> params = Collections.emptyMap();
+            for (LayoutElement elt : this) {
+                params = addParameters(params, elt);
+                _levels.add(params);
+            }
+            _levelsModCount = modCount;
+        }
+
+        /**
+         * <p>
+         * The params of each level (these are transient, so they may need to be created). They are computed again if the
+         * <code>Stack</code> was changed without {@link #push(LayoutElement)} or {@link #pop()}.
+         * </p>
+         */
+        private List<Map<String, Object>> getLevels() {
+            if (_levels == null || _levelsModCount != modCount) {
+                // Changed w/o push() / pop(), start over
+                rebuild();
+            }
+            return _levels;
+        }
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * <p>
+         * The template params visible at each level, and the modification count of the <code>Stack</code> they were
+         * computed for.
+         * </p>
+         */
+        private transient List<Map<String, Object>> _levels;
+        private transient int _levelsModCount;
+    }
+
     private static final long serialVersionUID = 2L;
 
     /**
@@ -390,6 +601,14 @@ public class LayoutComposition extends LayoutElementBase {
      */
     private String template = null;
 
+    /**
+     * <p>
+     * The cache key of the template's {@link LayoutDefinition}, if it may be remembered (see
+     * {@link #getTemplateLayoutDefinition}).
+     * </p>
+     */
+    private transient volatile String _templateKey = null;
+
     /**
      * <p>
      * True if trimming should occur.
@@ -22,8 +22,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.sun.jsftemplating.component.TemplateComponent;
+import com.sun.jsftemplating.layout.descriptors.handler.AsyncHandlerDispatch;
 import com.sun.jsftemplating.layout.descriptors.handler.Handler;
 import com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinition;
 import com.sun.jsftemplating.layout.event.DecodeEvent;
@@ -340,8 +342,8 @@ public class LayoutDefinition extends LayoutElementBase {
             return;
         }
 
-        // Check to see if we've already done this...
-        if (isInitPageExecuted(ctx)) {
+        // Check to see if we've already done this (or shouldn't do it)...
+        if (ctx.getExternalContext().getRequestMap().containsKey(SKIP_INIT_PAGE) || isInitPageExecuted(ctx)) {
             // We've already init'd this request, do nothing
             return;
         }
@@ -353,6 +355,27 @@ public class LayoutDefinition extends LayoutElementBase {
         setInitPageExecuted(ctx, Boolean.TRUE);
     }
 
+    /**
+     * <p>
+     * This method returns the <code>Map</code> in which {@link LayoutInsert}s remember the {@link LayoutDefine} they
+     * resolve to when this <code>LayoutDefinition</code> is the page (the bottom of the {@link LayoutComposition} stack).
+     * It lives as long as this <code>LayoutDefinition</code> does, which is evicted whenever a template it uses changes.
+     * </p>
+     */
+    Map<Object, Object> getInsertLinks() {
+        Map<Object, Object> links = _insertLinks;
+        if (links == null) {
+            synchronized (this) {
+                links = _insertLinks;
+                if (links == null) {
+                    links = new ConcurrentHashMap<>();
+                    _insertLinks = links;
+                }
+            }
+        }
+        return links;
+    }
+
     /**
      * <p>
      * This method checks to see if the initPage event has fired yet for this request.
@@ -374,11 +397,43 @@ public class LayoutDefinition extends LayoutElementBase {
         ctx.getExternalContext().getRequestMap().put(key, value);
     }
 
+    /**
+     * <p>
+     * This method returns the time (in milliseconds) the asynchronous {@link Handler}s of this page may take (see
+     * {@link AsyncHandlerDispatch}). Unless it was set for this page, the time configured for the application is used.
+     * </p>
+     */
+    public long getAsyncTimeout(FacesContext ctx) {
+        if (_asyncTimeout != null) {
+            return _asyncTimeout;
+        }
+        return AsyncHandlerDispatch.getConfiguredTimeout(ctx);
+    }
+
+    /**
+     * <p>
+     * This method sets the time (in milliseconds) the asynchronous {@link Handler}s of this page may take,
+     * <code>0</code> for no limit. In a template it is set with <code>&lt;!event type="initPage" timeout="5000"&gt;</code>.
+     * </p>
+     */
+    public void setAsyncTimeout(long timeout) {
+        _asyncTimeout = timeout;
+    }
+
     /**
      *
      */
     private static final String INIT_PAGE_PREFIX = "__ip";
 
+    /**
+     * <p>
+     * If a request attribute with this name exists, "initPage" handlers are not invoked. This is used when
+     * {@link LayoutDefinition}s are read outside of a request (see
+     * {@link com.sun.jsftemplating.layout.LayoutDefinitionPrecompiler}).
+     * </p>
+     */
+    public static final String SKIP_INIT_PAGE = "__jsft_skipInitPage";
+
     /**
      * <p>
      * This is the "type" for handlers to be invoked to handle "decode" functionality for this element.
@@ -429,4 +484,18 @@ public class LayoutDefinition extends LayoutElementBase {
      * </p>
      */
     private Map<String, HandlerDefinition> _attributes = new HashMap<>();
+
+    /**
+     * <p>
+     * The {@link LayoutDefine}s (or lack thereof) that {@link LayoutInsert}s resolved to (see {@link #getInsertLinks()}).
+     * </p>
+     */
+    private transient volatile Map<Object, Object> _insertLinks = null;
+
+    /**
+     * <p>
+     * The time the asynchronous {@link Handler}s of this page may take, <code>null</code> to use the configured time.
+     * </p>
+     */
+    private Long _asyncTimeout = null;
 }
@@ -25,7 +25,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.sun.jsftemplating.component.ComponentUtil;
-import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.descriptors.handler.AsyncHandlerDispatch;
 import com.sun.jsftemplating.layout.descriptors.handler.Handler;
 import com.sun.jsftemplating.layout.descriptors.handler.HandlerContext;
 import com.sun.jsftemplating.layout.descriptors.handler.HandlerContextImpl;
@@ -144,10 +144,12 @@ public abstract class LayoutElementBase implements LayoutElement {
             LayoutComposition.push(context, this);
 
             // Find the new LD tree...
-            LayoutDefinition def = LayoutDefinitionManager.getLayoutDefinition(context, ((LayoutComposition) this).getTemplate());
+            LayoutDefinition def = ((LayoutComposition) this).getTemplateLayoutDefinition(context);
 
             // Recurse...
-            result = def.findLayoutElement(id);
+            if (def != null) {
+                result = def.findLayoutElement(id);
+            }
             LayoutComposition.pop(context);
         }
 
@@ -158,7 +160,7 @@ public abstract class LayoutElementBase implements LayoutElement {
                 LayoutComposition.push(context, elt);
 
                 // Find the new LD tree...
-                LayoutDefinition def = LayoutDefinitionManager.getLayoutDefinition(context, ((LayoutComposition) elt).getTemplate());
+                LayoutDefinition def = ((LayoutComposition) elt).getTemplateLayoutDefinition(context);
 
                 // Recurse...
                 result = def.findLayoutElement(id);
@@ -412,6 +414,17 @@ public abstract class LayoutElementBase implements LayoutElement {
     @Override
     public Object dispatchHandlers(HandlerContext handlerCtx, List<Handler> handlers) {
         FacesContext ctx = handlerCtx.getFacesContext();
+        if (LayoutDefinition.INIT_PAGE.equals(handlerCtx.getEventType()) && AsyncHandlerDispatch.hasAsyncHandlers(handlers)) {
+            // Some Handlers may run concurrently (only before the tree is built)
+            LayoutDefinition def = getLayoutDefinition();
+            long timeout = def == null ? AsyncHandlerDispatch.getConfiguredTimeout(ctx) : def.getAsyncTimeout(ctx);
+            try {
+                return new AsyncHandlerDispatch(handlerCtx, timeout).dispatch(handlers);
+            } catch (Exception ex) {
+                throw new RuntimeException(
+                        ex.getClass().getName() + " while attempting to " + "process a '" + handlerCtx.getEventType() + "' event for '" + getId() + "'.", ex);
+            }
+        }
         Object retVal = null;
         Object result = null;
         // Only check for renderResponse if we're not already doing it
@@ -17,6 +17,7 @@
 package com.sun.jsftemplating.layout.descriptors;
 
 import com.sun.jsftemplating.el.PermissionChecker;
+import com.sun.jsftemplating.el.VariableResolver;
 import com.sun.jsftemplating.layout.LayoutDefinitionManager;
 
 import jakarta.faces.component.UIComponent;
@@ -81,9 +82,59 @@ public class LayoutIf extends LayoutComponent {
      */
     @Override
     public boolean encodeThis(FacesContext ctx, UIComponent comp) {
-        PermissionChecker checker = new PermissionChecker(this, comp,
+        Boolean constant = getConstantCondition(ctx);
+        if (constant != null) {
+            return constant;
+        }
+        return PermissionChecker.hasPermission(ctx, this, comp,
                 _doubleEval ? (String) getEvaluatedOption(ctx, "condition", comp) : (String) getOption("condition"));
-        return checker.hasPermission();
+    }
+
+    /**
+     * <p>
+     * This method returns the result of the condition if it is always the same, or <code>null</code> if it must be
+     * evaluated each time. A condition is constant if it does not contain expressions or functions (see
+     * {@link PermissionChecker#getConstantValue(String)}), or is a single <code>$constant{...}</code> or
+     * <code>$boolean{...}</code> expression (see {@link VariableResolver#resolveConstant(FacesContext, String)}). The
+     * result is remembered until the condition is changed.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public Boolean getConstantCondition(FacesContext ctx) {
+        Object condition = getOption("condition");
+        Object[] constant = _constant;
+        if (constant == null || constant[0] != condition) {
+            constant = new Object[] { condition, findConstantCondition(ctx, condition) };
+            _constant = constant;
+        }
+        return (Boolean) constant[1];
+    }
+
+    /**
+     * <p>
+     * This method determines the result of the given condition if it is constant.
+     * </p>
+     */
+    private Boolean findConstantCondition(FacesContext ctx, Object condition) {
+        if (_doubleEval || !(condition instanceof String)) {
+            return null;
+        }
+        String str = (String) condition;
+        for (int idx = 0; idx < str.length(); idx++) {
+            if (PermissionChecker.isOperator(str.charAt(idx))) {
+                // Not a single expression
+                return PermissionChecker.getConstantValue(str);
+            }
+        }
+        Object value = VariableResolver.resolveConstant(ctx, str);
+        if (value == null) {
+            return PermissionChecker.getConstantValue(str);
+        }
+
+        // Same as a value in PermissionChecker
+        String result = value.toString();
+        return !result.equals("") && !result.equalsIgnoreCase(PermissionChecker.FALSE);
     }
 
     /**
@@ -97,4 +148,11 @@ public class LayoutIf extends LayoutComponent {
      * See LayoutForEach also.
      */
     private boolean _doubleEval = false;
+
+    /**
+     * <p>
+     * The condition and its constant result (see {@link #getConstantCondition(FacesContext)}).
+     * </p>
+     */
+    private transient volatile Object[] _constant = null;
 }
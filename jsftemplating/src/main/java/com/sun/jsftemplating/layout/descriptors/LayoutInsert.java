@@ -19,9 +19,11 @@ package com.sun.jsftemplating.layout.descriptors;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 
 import com.sun.jsftemplating.layout.event.EncodeEvent;
+import com.sun.jsftemplating.util.LayoutElementUtil;
 
 import jakarta.faces.component.UIComponent;
 import jakarta.faces.context.FacesContext;
@@ -88,11 +90,8 @@ public class LayoutInsert extends LayoutElementBase {
         if (name == null) {
             encodeChildren(context, component, stack.get(0));
         } else {
-            // First resolve any EL in the insertName
-            name = "" + resolveValue(context, component, name);
-
             // Search for specific LayoutDefine
-            LayoutElement def = LayoutInsert.findLayoutDefine(context, component, stack, name);
+            LayoutElement def = getLayoutDefine(context, component, stack);
             if (def == null) {
                 // Render whatever is inside the insert
                 return true;
@@ -122,6 +121,89 @@ public class LayoutInsert extends LayoutElementBase {
         }
     }
 
+    /**
+     * <p>
+     * This method finds the {@link LayoutDefine} whose content should be used for this <code>LayoutInsert</code>, or
+     * returns <code>null</code> if there is none (or this <code>LayoutInsert</code> has no name).
+     * </p>
+     *
+     * <p>
+     * When the name of this <code>LayoutInsert</code>, and the ids of the {@link LayoutDefine}s that are searched, do not
+     * contain expressions, the result depends only on the {@link LayoutComposition}s in the <code>stack</code>. It is then
+     * remembered by the page's {@link LayoutDefinition} (see {@link LayoutDefinition#getInsertLinks()}) so the templates
+     * are not searched again.
+     * </p>
+     *
+     * @param context The <code>FacesContext</code>.
+     * @param parent The parent <code>UIComponent</code>.
+     * @param stack The {@link LayoutComposition} stack.
+     */
+    public LayoutDefine getLayoutDefine(FacesContext context, UIComponent parent, List<LayoutElement> stack) {
+        String name = getName();
+        if (name == null || stack.isEmpty()) {
+            return null;
+        }
+        if (!LayoutElementUtil.isStatic(name)) {
+            // Resolve any EL in the insertName, then search
+            return findLayoutDefine(context, parent, stack, "" + resolveValue(context, parent, name));
+        }
+
+        // See if we've already searched w/ this stack
+        Map<Object, Object> links = stack.get(0).getLayoutDefinition().getInsertLinks();
+        LinkKey key = new LinkKey(this, stack);
+        Object link = links.get(key);
+        if (link == null) {
+            link = findStaticLayoutDefine(stack, name);
+            if (link == null) {
+                link = NOT_FOUND;
+            }
+            links.put(key, link);
+        }
+        if (link == DYNAMIC) {
+            // A LayoutDefine id must be evaluated
+            return findLayoutDefine(context, parent, stack, name);
+        }
+        return link == NOT_FOUND ? null : (LayoutDefine) link;
+    }
+
+    /**
+     * <p>
+     * This method searches like {@link #findLayoutDefine(FacesContext, UIComponent, List, String)}, but does not evaluate
+     * ids. If it encounters a {@link LayoutDefine} whose id contains an expression before finding a match, it returns
+     * {@link #DYNAMIC}.
+     * </p>
+     */
+    private static Object findStaticLayoutDefine(List<LayoutElement> eltList, String name) {
+        for (LayoutElement elt : eltList) {
+            Object result = findStaticLayoutDefine(elt, name);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static Object findStaticLayoutDefine(LayoutElement elt, String name) {
+        for (LayoutElement def : elt.getChildLayoutElements()) {
+            if (def instanceof LayoutDefine) {
+                String id = def.getUnevaluatedId();
+                if (!LayoutElementUtil.isStatic(id)) {
+                    return DYNAMIC;
+                }
+                if (id.equals(name)) {
+                    return def;
+                }
+            }
+        }
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            Object result = findStaticLayoutDefine(child, name);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
     /**
      * <p>
      * This method searches the given the entire <code>stack</code> for a {@link LayoutDefine} with the given
@@ -170,4 +252,62 @@ public class LayoutInsert extends LayoutElementBase {
         // Not found!
         return null;
     }
+
+    /**
+     * <p>
+     * Identifies a <code>LayoutInsert</code> encountered with a particular {@link LayoutComposition} stack. The
+     * {@link LayoutElement}s are compared by identity.
+     * </p>
+     */
+    private static final class LinkKey {
+        LinkKey(LayoutInsert insert, List<LayoutElement> stack) {
+            _elements = new LayoutElement[stack.size() + 1];
+            _elements[0] = insert;
+            int hash = System.identityHashCode(insert);
+            for (int idx = 1; idx < _elements.length; idx++) {
+                _elements[idx] = stack.get(idx - 1);
+                hash = 31 * hash + System.identityHashCode(_elements[idx]);
+            }
+            _hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof LinkKey)) {
+                return false;
+            }
+            LayoutElement[] other = ((LinkKey) obj)._elements;
+            if (other.length != _elements.length) {
+                return false;
+            }
+            for (int idx = 0; idx < _elements.length; idx++) {
+                if (other[idx] != _elements[idx]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
+
+        private final LayoutElement[] _elements;
+        private final int _hash;
+    }
+
+    /**
+     * <p>
+     * Remembered when no {@link LayoutDefine} matches.
+     * </p>
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * <p>
+     * Remembered when the search requires evaluating a {@link LayoutDefine}'s id.
+     * </p>
+     */
+    private static final Object DYNAMIC = new Object();
 }
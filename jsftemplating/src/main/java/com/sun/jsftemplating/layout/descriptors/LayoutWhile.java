@@ -76,8 +76,7 @@ public class LayoutWhile extends LayoutIf {
      * @return true if children are to be rendered, false otherwise.
      */
     protected boolean shouldContinue(UIComponent component) {
-        PermissionChecker checker = new PermissionChecker(this, component, (String) getOption("condition"));
-        return checker.hasPermission();
+        return PermissionChecker.hasPermission(FacesContext.getCurrentInstance(), this, component, (String) getOption("condition"));
     }
 
     /**
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors;
+
+import java.util.Map;
+
+import com.sun.jsftemplating.component.ComponentUtil;
+import com.sun.jsftemplating.el.VariableResolver;
+import com.sun.jsftemplating.util.LayoutElementUtil;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class describes how each option of a {@link LayoutComponent} must be applied to its <code>UIComponent</code>
+ * (see {@link LayoutComponent#getOptionPlan(FacesContext)}). Each option is one of:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #LITERAL}: the value is set as-is. This includes text without expressions, and single
+ * <code>$constant{...}</code>, <code>$boolean{...}</code>, or <code>$int{...}</code> expressions, which are resolved
+ * when the plan is created (see {@link VariableResolver#resolveConstant(FacesContext, String)}).</li>
+ * <li>{@link #DEFERRED}: the value is a <code>#{...}</code> expression without <code>$...{...}</code> expressions, it
+ * only needs to be turned into a <code>ValueExpression</code> (unless it references a composition parameter, see
+ * {@link #getCompParamTokens(int)}).</li>
+ * <li>{@link #DYNAMIC}: the value must be resolved each time.</li>
+ * </ul>
+ */
+public final class OptionPlan {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    private OptionPlan(Map<String, Object> options, int modCount, String[] names, Object[] values, int[] kinds, String[][] compParamTokens) {
+        _options = options;
+        _modCount = modCount;
+        _names = names;
+        _values = values;
+        _kinds = kinds;
+        _compParamTokens = compParamTokens;
+    }
+
+    /**
+     * <p>
+     * This method creates the plan for the given options.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param options The options of a {@link LayoutComponent}.
+     * @param modCount The number of times the {@link LayoutComponent} changed its options.
+     */
+    static OptionPlan create(FacesContext ctx, Map<String, Object> options, int modCount) {
+        int size = options.size();
+        String[] names = new String[size];
+        Object[] values = new Object[size];
+        int[] kinds = new int[size];
+        String[][] compParamTokens = new String[size][];
+        int idx = 0;
+        for (Map.Entry<String, Object> entry : options.entrySet()) {
+            names[idx] = entry.getKey();
+            Object value = entry.getValue();
+            int kind = DYNAMIC;
+            if (value == null) {
+                kind = LITERAL;
+            } else if (value instanceof String) {
+                String str = (String) value;
+                if (LayoutElementUtil.isStatic(str)) {
+                    kind = LITERAL;
+                } else if (str.indexOf('$') == -1) {
+                    if (ComponentUtil.getInstance(ctx).isValueReference(str)) {
+                        kind = DEFERRED;
+                        compParamTokens[idx] = VariableResolver.getCompParamTokens(str);
+                    }
+                } else {
+                    Object constant = VariableResolver.resolveConstant(ctx, str);
+                    if (constant != null) {
+                        value = constant;
+                        kind = LITERAL;
+                    }
+                }
+            }
+            values[idx] = value;
+            kinds[idx] = kind;
+            idx++;
+        }
+        return new OptionPlan(options, modCount, names, values, kinds, compParamTokens);
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if this plan was created for the given options <code>Map</code>, the
+     * {@link LayoutComponent} has not changed its options since (its modification count is the same), and the
+     * <code>Map</code> has not changed size.
+     * </p>
+     */
+    boolean isPlanFor(Map<String, Object> options, int modCount) {
+        return _options == options && _modCount == modCount && _names.length == options.size();
+    }
+
+    /**
+     * <p>
+     * The number of options.
+     * </p>
+     */
+    public int size() {
+        return _names.length;
+    }
+
+    /**
+     * <p>
+     * The name of the option at the given index.
+     * </p>
+     */
+    public String getName(int idx) {
+        return _names[idx];
+    }
+
+    /**
+     * <p>
+     * The value of the option at the given index. For a {@link #LITERAL} this is the value to set.
+     * </p>
+     */
+    public Object getValue(int idx) {
+        return _values[idx];
+    }
+
+    /**
+     * <p>
+     * The kind of the option at the given index: {@link #LITERAL}, {@link #DEFERRED}, or {@link #DYNAMIC}.
+     * </p>
+     */
+    public int getKind(int idx) {
+        return _kinds[idx];
+    }
+
+    /**
+     * <p>
+     * The tokens of a {@link #DEFERRED} option which may be composition parameters (see
+     * {@link VariableResolver#getCompParamTokens(String)}), or <code>null</code> for other kinds.
+     * </p>
+     */
+    public String[] getCompParamTokens(int idx) {
+        return _compParamTokens[idx];
+    }
+
+    /**
+     * <p>
+     * The value does not need to be resolved.
+     * </p>
+     */
+    public static final int LITERAL = 0;
+
+    /**
+     * <p>
+     * The value is a <code>ValueExpression</code>.
+     * </p>
+     */
+    public static final int DEFERRED = 1;
+
+    /**
+     * <p>
+     * The value must be resolved each time it is used.
+     * </p>
+     */
+    public static final int DYNAMIC = 2;
+
+    private final Map<String, Object> _options;
+    private final int _modCount;
+    private final String[] _names;
+    private final Object[] _values;
+    private final int[] _kinds;
+    private final String[][] _compParamTokens;
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.util.LogUtil;
+import com.sun.jsftemplating.util.Util;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class dispatches a <code>List</code> of {@link Handler}s, some of which are asynchronous (see
+ * {@link Handler#isAsync()}). An asynchronous {@link Handler} is started when it is reached, and the {@link Handler}s
+ * which follow it are dispatched without waiting for it. Everything is joined before {@link #dispatch(List)} returns,
+ * so all the work is done before the component tree is built, and the page takes as long as its slowest
+ * {@link Handler} instead of the sum of them all.
+ * </p>
+ *
+ * <p>
+ * Only "initPage" {@link Handler}s are dispatched this way, the {@link Handler}s of other events always run on the
+ * request thread, even if they are marked asynchronous.
+ * </p>
+ *
+ * <p>
+ * Only the handler method runs on another thread, and it may not use the <code>FacesContext</code>. Its condition and
+ * inputs are evaluated on the request thread before it is started, and the outputs it sets are remembered. When it is
+ * complete they are stored (according to the {@link OutputMapping}s), and its child {@link Handler}s are invoked, on
+ * the request thread. The instance of a non-static handler method is also obtained on the request thread, so it may be
+ * request scoped (see {@link HandlerInvoker#INSTANCE_SCOPE}). A {@link Handler} which depends on others (see
+ * {@link Handler#getDependsOn()}) is not started until the asynchronous {@link Handler}s it depends on are complete,
+ * so it may use their outputs as inputs.
+ * </p>
+ *
+ * <p>
+ * The {@link Handler}s of a page must be complete within its timeout (see {@link #ASYNC_TIMEOUT}), otherwise those
+ * which are still running are cancelled (interrupted) and a <code>TimeoutException</code> is thrown. They are also
+ * cancelled if a {@link Handler} fails, or completes the response.
+ * </p>
+ *
+ * <p>
+ * By default, the handler methods are run on virtual threads if the JVM supports them, or on a pool of daemon threads
+ * if it does not. The default <code>Executor</code> is shut down when the application is destroyed. An application may
+ * provide its own <code>Executor</code> (see {@link #setExecutor(FacesContext, Executor)}).
+ * </p>
+ */
+public final class AsyncHandlerDispatch {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param handlerCtx The {@link HandlerContext} of the request thread.
+     * @param timeout The time (in milliseconds) the {@link Handler}s may take, <code>0</code> or less for no limit.
+     */
+    public AsyncHandlerDispatch(HandlerContext handlerCtx, long timeout) {
+        _handlerCtx = handlerCtx;
+        _facesCtx = handlerCtx.getFacesContext();
+        _timeout = timeout;
+        _deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if any of the given {@link Handler}s is asynchronous.
+     * </p>
+     */
+    public static boolean hasAsyncHandlers(List<Handler> handlers) {
+        for (Handler handler : handlers) {
+            if (handler.isAsync()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * This method dispatches the given {@link Handler}s, and waits until the asynchronous ones are complete. Like
+     * {@link LayoutElement#dispatchHandlers(HandlerContext, List)}, it stops when the response is complete (or when
+     * rendering the response starts).
+     * </p>
+     *
+     * @return The value of the last {@link Handler} to produce a non-null value (in the order they complete), or
+     * <code>null</code>.
+     */
+    public Object dispatch(List<Handler> handlers) throws Exception {
+        // Only check for renderResponse if we're not already doing it
+        _checkRenderResp = !_facesCtx.getRenderResponse();
+        try {
+            for (Handler handler : handlers) {
+                if (isStopped()) {
+                    return _result;
+                }
+                if (handler.isAsync() && handler.getHandlerDefinition().getHandlerInvoker() != null) {
+                    Task task = new Task(handler);
+                    boolean ready = isComplete(handler.getDependsOn(), null);
+                    _tasks.add(task);
+                    if (ready) {
+                        start(task);
+                    } else {
+                        _waiting.add(task);
+                    }
+                } else {
+                    // Wait for the Handlers this one needs
+                    if (!await(handler.getDependsOn())) {
+                        return _result;
+                    }
+                    _handlerCtx.setHandler(handler);
+                    Object retVal = handler.invoke(_handlerCtx);
+                    if (retVal != null) {
+                        _result = retVal;
+                    }
+                }
+            }
+
+            // Join the rest
+            await(null);
+            return _result;
+        } finally {
+            // Anything still running is no longer needed
+            cancel();
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the asynchronous {@link Handler}s with the given ids (or all if
+     * <code>null</code>) which were reached before the given {@link Task} (or all if <code>null</code>) are complete.
+     * </p>
+     */
+    private boolean isComplete(List<String> ids, Task before) {
+        for (Task task : _tasks) {
+            if (task == before) {
+                break;
+            }
+            if (!task._complete && (ids == null || ids.contains(task.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method waits until the asynchronous {@link Handler}s with the given ids (or all if <code>null</code>) are
+     * complete. It returns <code>false</code> if the response was completed meanwhile.
+     * </p>
+     */
+    private boolean await(List<String> ids) throws Exception {
+        if (ids != null && ids.isEmpty()) {
+            return true;
+        }
+        while (!isComplete(ids, null)) {
+            long wait = _deadline == 0 ? Long.MAX_VALUE : _deadline - System.nanoTime();
+            Task task;
+            try {
+                task = wait > 0 ? _completed.poll(wait, TimeUnit.NANOSECONDS) : _completed.poll();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw ex;
+            }
+            if (task == null) {
+                throw new TimeoutException("Asynchronous handlers " + getRunning() + " did not complete within " + _timeout + "ms.");
+            }
+            complete(task);
+            if (isStopped()) {
+                return false;
+            }
+            startWaiting();
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method evaluates the condition and inputs of the {@link Handler} of the given {@link Task}, gets the instance
+     * of its handler method, and starts it.
+     * </p>
+     */
+    private void start(Task task) throws Exception {
+        Handler handler = task._handler;
+        _handlerCtx.setHandler(handler);
+        if (!handler.hasPermission(_handlerCtx)) {
+            if (LogUtil.finerEnabled()) {
+                LogUtil.finer("Handler '" + task.getId() + "' skipped because condition not met: '" + handler.getCondition() + "'.");
+            }
+            task._complete = true;
+            return;
+        }
+
+        // Evaluate the inputs now, the FacesContext is only used here
+        InputPlan plan = handler.getInputPlan(_facesCtx);
+        Object[] values = plan.newValues();
+        for (int idx = 0; idx < values.length; idx++) {
+            if (plan.getKind(idx) != InputPlan.MISSING) {
+                values[idx] = plan.evaluate(_handlerCtx, idx);
+            }
+        }
+        AsyncHandlerContext asyncCtx = new AsyncHandlerContext(_handlerCtx, handler, plan, values);
+        HandlerInvoker invoker = handler.getHandlerDefinition().getHandlerInvoker();
+        // The instance may be request scoped
+        Object instance = invoker.getInstance(_facesCtx);
+        FutureTask<Object> future = new FutureTask<Object>(() -> invoker.invoke(asyncCtx, instance)) {
+            @Override
+            protected void done() {
+                _completed.offer(task);
+            }
+        };
+        task._context = asyncCtx;
+        task._future = future;
+        getExecutor(_facesCtx).execute(future);
+    }
+
+    /**
+     * <p>
+     * This method starts the waiting {@link Task}s whose dependencies are complete.
+     * </p>
+     */
+    private void startWaiting() throws Exception {
+        boolean started = true;
+        while (started) {
+            started = false;
+            Iterator<Task> it = _waiting.iterator();
+            while (it.hasNext()) {
+                Task task = it.next();
+                if (isComplete(task._handler.getDependsOn(), task)) {
+                    it.remove();
+                    start(task);
+                    // It may be complete already (condition not met)
+                    started = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method stores the outputs of the given finished {@link Task}, and invokes the child {@link Handler}s of its
+     * {@link Handler}.
+     * </p>
+     */
+    private void complete(Task task) throws Exception {
+        task._complete = true;
+        Object retVal;
+        try {
+            retVal = task._future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+
+        // Back on the request thread, store the outputs
+        Handler handler = task._handler;
+        _handlerCtx.setHandler(handler);
+        for (Map.Entry<String, Object> output : task._context.getOutputValues().entrySet()) {
+            handler.setOutputValue(_handlerCtx, output.getKey(), output.getValue());
+        }
+        retVal = handler.invokeChildHandlers(_handlerCtx, retVal);
+        if (retVal != null) {
+            _result = retVal;
+        }
+    }
+
+    /**
+     * <p>
+     * This method cancels the {@link Task}s which are not complete.
+     * </p>
+     */
+    private void cancel() {
+        for (Task task : _tasks) {
+            if (!task._complete && task._future != null) {
+                task._future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if no more {@link Handler}s should be invoked.
+     * </p>
+     */
+    private boolean isStopped() {
+        return _facesCtx.getResponseComplete() || _checkRenderResp && _facesCtx.getRenderResponse();
+    }
+
+    /**
+     * <p>
+     * The ids of the {@link Handler}s which are not complete.
+     * </p>
+     */
+    private List<String> getRunning() {
+        List<String> ids = new ArrayList<>();
+        for (Task task : _tasks) {
+            if (!task._complete) {
+                ids.add(task.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * <p>
+     * This method returns the <code>Executor</code> used to run asynchronous {@link Handler}s for the application of the
+     * given <code>FacesContext</code>.
+     * </p>
+     */
+    public static Executor getExecutor(FacesContext ctx) {
+        Object executor = ctx.getExternalContext().getApplicationMap().get(EXECUTOR);
+        if (executor instanceof Executor) {
+            return (Executor) executor;
+        }
+        return Util.getApplicationAttribute(ctx, DEFAULT_EXECUTOR, c -> createDefaultExecutor());
+    }
+
+    /**
+     * <p>
+     * This method sets the <code>Executor</code> used to run asynchronous {@link Handler}s for the application of the
+     * given <code>FacesContext</code>, <code>null</code> restores the default. The application is responsible for shutting
+     * it down.
+     * </p>
+     */
+    public static void setExecutor(FacesContext ctx, Executor executor) {
+        Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+        if (executor == null) {
+            appMap.remove(EXECUTOR);
+        } else {
+            appMap.put(EXECUTOR, executor);
+        }
+    }
+
+    /**
+     * <p>
+     * This method shuts down the default <code>Executor</code> of the application of the given <code>FacesContext</code>,
+     * if it was created. It is called when the application is destroyed (see
+     * {@link LayoutDefinitionManager#destroy(FacesContext)}). An <code>Executor</code> set by
+     * {@link #setExecutor(FacesContext, Executor)} is not affected.
+     * </p>
+     */
+    public static void shutdown(FacesContext ctx) {
+        Object executor = ctx.getExternalContext().getApplicationMap().remove(DEFAULT_EXECUTOR);
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    /**
+     * <p>
+     * This method creates an <code>Executor</code> which starts a virtual thread for each task. The release this is
+     * compiled for has no virtual threads, so they are found reflectively. If they are not available, a pool of daemon
+     * threads is used instead.
+     * </p>
+     */
+    private static ExecutorService createDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            if (LogUtil.configEnabled()) {
+                LogUtil.config("Virtual threads are not available, asynchronous handlers will use a thread pool.");
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jsft-async-handler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * <p>
+     * This method returns the timeout (in milliseconds) for asynchronous {@link Handler}s which is configured for the
+     * application (see {@link #ASYNC_TIMEOUT}).
+     * </p>
+     */
+    public static long getConfiguredTimeout(FacesContext ctx) {
+        String value = LayoutDefinitionManager.getConfigValue(ctx, ASYNC_TIMEOUT);
+        if (value != null) {
+            return Long.parseLong(value.trim());
+        }
+        return DEFAULT_ASYNC_TIMEOUT;
+    }
+
+    /**
+     * <p>
+     * An asynchronous {@link Handler} which has been reached.
+     * </p>
+     */
+    private static final class Task {
+        Task(Handler handler) {
+            _handler = handler;
+        }
+
+        String getId() {
+            return _handler.getAsyncId();
+        }
+
+        private final Handler _handler;
+        private AsyncHandlerContext _context = null;
+        private FutureTask<Object> _future = null;
+        private boolean _complete = false;
+    }
+
+    /**
+     * <p>
+     * The {@link HandlerContext} of an asynchronous {@link Handler}. Its inputs were evaluated before it was started,
+     * and its outputs are remembered until it is complete.
+     * </p>
+     */
+    private static final class AsyncHandlerContext implements HandlerContext {
+        AsyncHandlerContext(HandlerContext handlerCtx, Handler handler, InputPlan plan, Object[] values) {
+            _facesContext = handlerCtx.getFacesContext();
+            _layoutElement = handlerCtx.getLayoutElement();
+            _event = handlerCtx.getEventObject();
+            _eventType = handlerCtx.getEventType();
+            _handler = handler;
+            _plan = plan;
+            _values = values;
+        }
+
+        /**
+         * <p>
+         * The <code>FacesContext</code> of the request. It must not be used on another thread.
+         * </p>
+         */
+        @Override
+        public FacesContext getFacesContext() {
+            return _facesContext;
+        }
+
+        @Override
+        public LayoutElement getLayoutElement() {
+            return _layoutElement;
+        }
+
+        @Override
+        public EventObject getEventObject() {
+            return _event;
+        }
+
+        @Override
+        public String getEventType() {
+            return _eventType;
+        }
+
+        @Override
+        public Handler getHandler() {
+            return _handler;
+        }
+
+        @Override
+        public void setHandler(Handler handler) {
+            throw new UnsupportedOperationException("The Handler of an asynchronous HandlerContext cannot be changed.");
+        }
+
+        @Override
+        public HandlerDefinition getHandlerDefinition() {
+            return _handler.getHandlerDefinition();
+        }
+
+        @Override
+        public Object getInputValue(String name) {
+            int idx = _plan.indexOf(name);
+            if (idx == -1) {
+                throw new RuntimeException("Attempted to get input value '" + name + "', however, this is not a declared input "
+                        + "parameter in handler definition '" + getHandlerDefinition().getId() + "'!  Check your handler and/or the XML.");
+            }
+            Object value = _values[idx];
+            if (value == InputPlan.NOT_EVALUATED) {
+                // Required, but missing
+                value = _plan.evaluate(this, idx);
+            }
+            return value;
+        }
+
+        @Override
+        public Object getOutputValue(String name) {
+            checkOutput(name);
+            return _outputs.get(name);
+        }
+
+        @Override
+        public void setOutputValue(String name, Object value) {
+            checkOutput(name);
+            _outputs.put(name, value);
+        }
+
+        /**
+         * <p>
+         * The output values which were set.
+         * </p>
+         */
+        Map<String, Object> getOutputValues() {
+            return _outputs;
+        }
+
+        /**
+         * <p>
+         * This method ensures the given output is declared.
+         * </p>
+         */
+        private void checkOutput(String name) {
+            HandlerDefinition handlerDef = getHandlerDefinition();
+            if (handlerDef.getOutputDef(name) == null) {
+                throw new RuntimeException("Attempted to set output value '" + name + "' from handler '" + handlerDef.getId()
+                        + "', however, this is not a declared output parameter!  " + "Check your handler and/or the XML.");
+            }
+        }
+
+        private final FacesContext _facesContext;
+        private final LayoutElement _layoutElement;
+        private final EventObject _event;
+        private final String _eventType;
+        private final Handler _handler;
+        private final InputPlan _plan;
+        private final Object[] _values;
+        private final Map<String, Object> _outputs = new LinkedHashMap<>();
+    }
+
+    private final HandlerContext _handlerCtx;
+    private final FacesContext _facesCtx;
+    private final long _timeout;
+    private final long _deadline;
+    private boolean _checkRenderResp = false;
+    private Object _result = null;
+    private final List<Task> _tasks = new ArrayList<>();
+    private final List<Task> _waiting = new ArrayList<>();
+    private final BlockingQueue<Task> _completed = new LinkedBlockingQueue<>();
+
+    /**
+     * <p>
+     * The application scoped key of the <code>Executor</code> set by {@link #setExecutor(FacesContext, Executor)}.
+     * </p>
+     */
+    private static final String EXECUTOR = "__jsft_asyncHandlerExecutor";
+
+    /**
+     * <p>
+     * The application scoped key of the default <code>Executor</code>, which is shut down with the application.
+     * </p>
+     */
+    private static final String DEFAULT_EXECUTOR = "__jsft_defaultAsyncHandlerExecutor";
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the time (in milliseconds) the asynchronous
+     * {@link Handler}s of a page may take, <code>0</code> for no limit. A page may override it (see
+     * {@link com.sun.jsftemplating.layout.descriptors.LayoutDefinition#setAsyncTimeout(long)}).
+     * </p>
+     */
+    public static final String ASYNC_TIMEOUT = "com.sun.jsftemplating.ASYNC_HANDLER_TIMEOUT";
+
+    /**
+     * <p>
+     * The default value for {@link #ASYNC_TIMEOUT} (30 seconds).
+     * </p>
+     */
+    public static final long DEFAULT_ASYNC_TIMEOUT = 30000;
+}
@@ -106,7 +106,7 @@ public class ELOutputType implements OutputType {
         // Set it in EL
         FacesContext facesContext = context.getFacesContext();
         ELContext elctx = facesContext.getELContext();
-        ValueExpression ve = facesContext.getApplication().getExpressionFactory().createValueExpression(elctx, key, Object.class);
+        ValueExpression ve = ComponentUtil.getInstance(facesContext).createValueExpression(facesContext, key, Object.class);
         try {
             ve.setValue(elctx, value);
         } catch (ELException ex) {
@@ -17,8 +17,8 @@
 package com.sun.jsftemplating.layout.descriptors.handler;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EventObject;
 import java.util.HashMap;
 import java.util.List;
@@ -121,6 +121,29 @@ public class Handler implements java.io.Serializable {
                     + "' is not a declared input parameter in HandlerDefinition '" + getHandlerDefinition().getId() + "'!");
         }
         _inputs.put(name, value);
+        _inputsModCount++;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link InputPlan} for the input values of this <code>Handler</code>, which tells how each
+     * input must be evaluated. It is created the first time it is needed (normally when the {@link LayoutElement} which
+     * declares this <code>Handler</code> is read), and again if the input values are changed through
+     * {@link #setInputValue(String, Object)} (or the size of the inputs <code>Map</code> changes).
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public InputPlan getInputPlan(FacesContext ctx) {
+        // Read the count first, so a concurrent change is seen next time
+        int modCount = _inputsModCount;
+        InputPlan plan = _inputPlan;
+        HandlerDefinition handlerDef = getHandlerDefinition();
+        if (plan == null || !plan.isPlanFor(handlerDef, _inputs, modCount)) {
+            plan = InputPlan.create(ctx, handlerDef, _inputs, modCount);
+            _inputPlan = plan;
+        }
+        return plan;
     }
 
     /**
@@ -163,40 +186,18 @@ public class Handler implements java.io.Serializable {
      */
     public Object getInputValue(HandlerContext ctx, String name) {
         // Make sure the requested name is valid
-        IODescriptor inDesc = getHandlerDefinition().getInputDef(name);
         FacesContext facesCtx = ctx.getFacesContext();
-        if (inDesc == null) {
+        InputPlan plan = getInputPlan(facesCtx);
+        int idx = plan.indexOf(name);
+        if (idx == -1) {
             throw new RuntimeException("Attempted to get input value '" + name + "', however, this is not a declared input "
                     + "parameter in handler definition '" + getHandlerDefinition().getId() + "'!  Check your handler " + " and/or the XML (near LayoutElement '"
                     + ctx.getLayoutElement().getId(facesCtx, null) + "')");
         }
 
-        // Get the value, and parse it
-        Object value = getInputValue(name);
-        if (value == null) {
-            if (inDesc.isRequired()) {
-                throw new RuntimeException("'" + name + "' is required for handler '" + getHandlerDefinition().getId() + "'!");
-            }
-            value = inDesc.getDefault();
-        }
-
-        // Resolve any expressions
-        EventObject event = ctx.getEventObject();
-        UIComponent component = null;
-        if (event instanceof UIComponentHolder) {
-            component = ((UIComponentHolder) event).getUIComponent();
-        } else if (event != null) {
-            Object src = event.getSource();
-            if (src instanceof UIComponent) {
-                component = (UIComponent) src;
-            }
-        }
-        value = ComponentUtil.getInstance(facesCtx).resolveValue(facesCtx, ctx.getLayoutElement(), component, value);
-
-        // Make sure the value is the correct type...
-        value = TypeConverter.asType(inDesc.getType(), value);
-
-        return value;
+        // Get the value, resolve any expressions, and make sure the value
+        // is the correct type
+        return plan.evaluate(ctx, idx);
     }
 
     /**
@@ -355,6 +356,85 @@ public class Handler implements java.io.Serializable {
         _condition = cond;
     }
 
+    /**
+     * <p>
+     * This method returns <code>true</code> if this <code>Handler</code> may be invoked on another thread, concurrently
+     * with the <code>Handler</code>s that follow it (see {@link AsyncHandlerDispatch}). This is only honored for
+     * "initPage" <code>Handler</code>s, for other events it is invoked on the request thread.
+     * </p>
+     */
+    public boolean isAsync() {
+        return _async;
+    }
+
+    /**
+     * <p>
+     * This method sets whether this <code>Handler</code> may be invoked on another thread (see {@link #isAsync()}).
+     * </p>
+     */
+    public void setAsync(boolean async) {
+        _async = async;
+    }
+
+    /**
+     * <p>
+     * This method returns the id by which other <code>Handler</code>s refer to this one in their
+     * {@link #getDependsOn()}. It defaults to the id of the {@link HandlerDefinition}, so it only needs to be set when
+     * the same {@link HandlerDefinition} is used by several asynchronous <code>Handler</code>s of an event.
+     * </p>
+     */
+    public String getAsyncId() {
+        return _asyncId == null ? _handlerDef.getId() : _asyncId;
+    }
+
+    /**
+     * <p>
+     * This method sets the id by which other <code>Handler</code>s refer to this one (see {@link #getAsyncId()}),
+     * <code>null</code> to use the id of the {@link HandlerDefinition}.
+     * </p>
+     */
+    public void setAsyncId(String asyncId) {
+        if (asyncId != null) {
+            asyncId = asyncId.trim();
+            if (asyncId.length() == 0) {
+                asyncId = null;
+            }
+        }
+        _asyncId = asyncId;
+    }
+
+    /**
+     * <p>
+     * This method returns the ids (see {@link #getAsyncId()}) of the asynchronous <code>Handler</code>s (declared earlier
+     * for the same event) which must be complete before this <code>Handler</code> is invoked. The <code>List</code> is
+     * empty if there are none. If several of them have the same id, this <code>Handler</code> waits for all of them.
+     * </p>
+     */
+    public List<String> getDependsOn() {
+        return _dependsOn;
+    }
+
+    /**
+     * <p>
+     * This method sets the ids of the <code>Handler</code>s this <code>Handler</code> depends on (see
+     * {@link #getDependsOn()}).
+     * </p>
+     *
+     * @param dependsOn A comma separated list of <code>Handler</code> ids.
+     */
+    public void setDependsOn(String dependsOn) {
+        List<String> ids = new ArrayList<>();
+        if (dependsOn != null) {
+            for (String id : dependsOn.split(",")) {
+                id = id.trim();
+                if (id.length() > 0) {
+                    ids.add(id);
+                }
+            }
+        }
+        _dependsOn = ids.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(ids);
+    }
+
     /**
      * <p>
      * This method determines if the handler is static.
@@ -422,43 +502,14 @@ public class Handler implements java.io.Serializable {
         if (hasPermission(handlerContext)) {
             // Only attempt to do this if there is a handler method, there
             // might only be child handlers
-            Method method = handlerDef.getHandlerMethod();
-            if (method != null) {
-                Object instance = null;
-                if (!isStatic()) {
-                    // Get the class that contains the method
-                    instance = method.getDeclaringClass().newInstance();
-                }
-
-                // Invoke the Method
-                result = method.invoke(instance, handlerContext);
+            HandlerInvoker invoker = handlerDef.getHandlerInvoker();
+            if (invoker != null) {
+                // Invoke the Method (creates the instance if not static)
+                result = invoker.invoke(handlerContext);
             }
 
             // Execute all the child handlers
-            if (result == null || !result.toString().equals("false")) {
-                // NOTE: 'handler' in handlerContext will change.
-                // before we execute this Handler.
-                // FIRST: Execute handlerDef child handlers
-                List<Handler> handlers = handlerDef.getChildHandlers();
-                Object retVal = null;
-                LayoutElement elt = handlerContext.getLayoutElement();
-                if (handlers.size() > 0) {
-                    retVal = elt.dispatchHandlers(handlerContext, handlers);
-                    if (retVal != null) {
-                        result = retVal;
-                    }
-                }
-
-                // NEXT: Execute instance child handlers
-                // Useful for applying a condition to a group
-                handlers = getChildHandlers();
-                if (handlers.size() > 0) {
-                    retVal = elt.dispatchHandlers(handlerContext, handlers);
-                    if (retVal != null) {
-                        result = retVal;
-                    }
-                }
-            }
+            result = invokeChildHandlers(handlerContext, result);
         } else {
             if (LogUtil.finerEnabled()) {
                 LogUtil.finer("Handler '" + handlerDef.getId() + "' skipped because condition not met: '" + getCondition() + "'.");
@@ -469,6 +520,47 @@ public class Handler implements java.io.Serializable {
         return result;
     }
 
+    /**
+     * <p>
+     * This method invokes the child <code>Handler</code>s of the {@link HandlerDefinition}, then those of this
+     * <code>Handler</code>, unless the given result of this <code>Handler</code> is "false".
+     * </p>
+     *
+     * @param handlerContext The {@link HandlerContext}.
+     * @param result The result of this <code>Handler</code>.
+     *
+     * @return The result of the last child <code>Handler</code> which returned a value, or the given result.
+     */
+    Object invokeChildHandlers(HandlerContext handlerContext, Object result) {
+        if (result != null && result.toString().equals("false")) {
+            return result;
+        }
+
+        // NOTE: 'handler' in handlerContext will change.
+        // before we execute this Handler.
+        // FIRST: Execute handlerDef child handlers
+        List<Handler> handlers = getHandlerDefinition().getChildHandlers();
+        Object retVal = null;
+        LayoutElement elt = handlerContext.getLayoutElement();
+        if (handlers.size() > 0) {
+            retVal = elt.dispatchHandlers(handlerContext, handlers);
+            if (retVal != null) {
+                result = retVal;
+            }
+        }
+
+        // NEXT: Execute instance child handlers
+        // Useful for applying a condition to a group
+        handlers = getChildHandlers();
+        if (handlers.size() > 0) {
+            retVal = elt.dispatchHandlers(handlerContext, handlers);
+            if (retVal != null) {
+                result = retVal;
+            }
+        }
+        return result;
+    }
+
     /**
      * <p>
      * This method determines if the condition (see {@link #getCondition()}) is satisfied.
@@ -489,11 +581,8 @@ public class Handler implements java.io.Serializable {
             comp = (UIComponent) obj;
         }
 
-        // Create a PermissionChecker
-        PermissionChecker checker = new PermissionChecker(handlerContext.getLayoutElement(), comp, cond);
-
-        // Return the result
-        return checker.hasPermission();
+        // Evaluate the condition
+        return PermissionChecker.hasPermission(handlerContext.getFacesContext(), handlerContext.getLayoutElement(), comp, cond);
     }
 
     private HandlerDefinition _handlerDef = null;
@@ -502,8 +591,14 @@ public class Handler implements java.io.Serializable {
 
     private List<Handler> _childHandlers = _emptyList;
 
+    private boolean _async = false;
+    private String _asyncId = null;
+    private List<String> _dependsOn = Collections.emptyList();
+
     private Map<String, Object> _inputs = new HashMap<>();
     private Map<String, OutputMapping> _outputs = new HashMap<>();
+    private transient volatile InputPlan _inputPlan = null;
+    private transient volatile int _inputsModCount = 0;
 
     private static final List<Handler> _emptyList = new ArrayList<>(0);
 }
@@ -19,6 +19,7 @@ package com.sun.jsftemplating.layout.descriptors.handler;
 import java.util.EventObject;
 
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+import com.sun.jsftemplating.util.TypeConverter;
 
 import jakarta.faces.context.FacesContext;
 
@@ -103,6 +104,52 @@ public interface HandlerContext {
      */
     Object getInputValue(String name);
 
+    /**
+     * <p>
+     * This method returns the value for the named input converted to the given type (see
+     * {@link TypeConverter#asType(Object, Object)}). The value is already converted to the type declared by the
+     * {@link HandlerDefinition}, so this is normally only a cast.
+     * </p>
+     *
+     * @param name The input name
+     * @param type The type of the value (use wrapper types, not primitive types)
+     *
+     * @return The value of the input (null if not found)
+     */
+    default <T> T getInputValue(String name, Class<T> type) {
+        Object value = getInputValue(name);
+        if (value == null || type.isInstance(value)) {
+            return (T) value;
+        }
+        return (T) TypeConverter.asType(type, value);
+    }
+
+    /**
+     * <p>
+     * This method returns the value for the named input as an <code>int</code>, or the given default if it is
+     * <code>null</code> (see {@link TypeConverter#asInt(Object, int)}).
+     * </p>
+     *
+     * @param name The input name
+     * @param defaultValue The value to return if the input is <code>null</code>
+     */
+    default int getIntInputValue(String name, int defaultValue) {
+        return TypeConverter.asInt(getInputValue(name), defaultValue);
+    }
+
+    /**
+     * <p>
+     * This method returns the value for the named input as a <code>boolean</code>, or the given default if it is
+     * <code>null</code> (see {@link TypeConverter#asBoolean(Object, boolean)}).
+     * </p>
+     *
+     * @param name The input name
+     * @param defaultValue The value to return if the input is <code>null</code>
+     */
+    default boolean getBooleanInputValue(String name, boolean defaultValue) {
+        return TypeConverter.asBoolean(getInputValue(name), defaultValue);
+    }
+
     /**
      * <p>
      * This method retrieves an Output value. Output values must not be stored in this Context itself (remember
@@ -99,6 +99,24 @@ public class HandlerDefinition implements java.io.Serializable {
         _methodName = methodName;
     }
 
+    /**
+     * <p>
+     * This method returns the name of the class which declares the handler method, or <code>null</code> if not set.
+     * </p>
+     */
+    public String getHandlerClassName() {
+        return _methodClass;
+    }
+
+    /**
+     * <p>
+     * This method returns the name of the handler method, or <code>null</code> if not set.
+     * </p>
+     */
+    public String getHandlerMethodName() {
+        return _methodName;
+    }
+
     /**
      *
      */
@@ -111,6 +129,22 @@ public class HandlerDefinition implements java.io.Serializable {
             _methodClass = null;
         }
         _method = method;
+        _invoker = null;
+    }
+
+    /**
+     * <p>
+     * This method sets a {@link HandlerDispatcher} which calls the handler method directly (the class and method names
+     * must also be set, see {@link #setHandlerMethod(String, String)}). It is used instead of reflection.
+     * </p>
+     *
+     * @param dispatcher The {@link HandlerDispatcher}.
+     * @param handler The index of this handler in the {@link HandlerDispatcher}.
+     * @param isStatic <code>true</code> if the handler method is static.
+     */
+    public void setHandlerDispatcher(HandlerDispatcher dispatcher, int handler, boolean isStatic) {
+        _static = Boolean.valueOf(isStatic);
+        _invoker = new HandlerInvoker(dispatcher, handler, isStatic, _methodClass);
     }
 
     /**
@@ -160,6 +194,25 @@ public class HandlerDefinition implements java.io.Serializable {
         return _method;
     }
 
+    /**
+     * <p>
+     * This method returns the {@link HandlerInvoker} which calls the handler method, or <code>null</code> if there is no
+     * handler method. It is created the first time it is needed.
+     * </p>
+     */
+    public HandlerInvoker getHandlerInvoker() {
+        HandlerInvoker invoker = _invoker;
+        if (invoker == null) {
+            Method method = getHandlerMethod();
+            if (method == null) {
+                return null;
+            }
+            invoker = new HandlerInvoker(method);
+            _invoker = invoker;
+        }
+        return invoker;
+    }
+
     /**
      * This method adds an IODescriptor to the list of input descriptors. These descriptors define the input parameters to
      * this handler.
@@ -321,6 +374,7 @@ public class HandlerDefinition implements java.io.Serializable {
     private Map<String, IODescriptor> _outputDefs = new HashMap<>(5);
     private List<Handler> _childHandlers = _emptyList;
     private transient Boolean _static = null;
+    private transient volatile HandlerInvoker _invoker = null;
 
     private static final List<Handler> _emptyList = new ArrayList<>(0);
     private static final long serialVersionUID = 0xA8B7C6D5E4F30211L;
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * This interface is implemented by the classes the annotation processor generates for the handlers of each compilation
+ * unit. They are found via the <code>java.util.ServiceLoader</code> by
+ * {@link com.sun.jsftemplating.layout.LayoutDefinitionManager#getGlobalHandlerDefinitions()}, so the
+ * <code>Handler.map</code> files they were generated with do not have to be read. The {@link HandlerDefinition}s they
+ * create are normally invoked through a {@link HandlerDispatcher}, without reflection.
+ * </p>
+ */
+public interface HandlerDefinitionProvider {
+
+    /**
+     * <p>
+     * This method adds the {@link HandlerDefinition}s of this provider to the given <code>Map</code> (by id).
+     * </p>
+     */
+    void addHandlerDefinitions(Map<String, HandlerDefinition> defs);
+
+    /**
+     * <p>
+     * The first line of a <code>Handler.map</code> file which was generated along with providers starts with this, it is
+     * followed by a comma separated list of the provider class names.
+     * </p>
+     */
+    String MAP_MARKER = "#jsftemplating.providers=";
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+/**
+ * <p>
+ * This interface calls handler methods directly. Each handler is identified by an index, which is given to its
+ * {@link HandlerDefinition} (see {@link HandlerDefinition#setHandlerDispatcher(HandlerDispatcher, int, boolean)}).
+ * Implementations are normally generated (see {@link HandlerDefinitionProvider}).
+ * </p>
+ */
+public interface HandlerDispatcher {
+
+    /**
+     * <p>
+     * This method calls the handler with the given index.
+     * </p>
+     *
+     * @param handler The index of the handler.
+     * @param instance The instance to call a non-static handler on (<code>null</code> for static handlers).
+     * @param handlerCtx The {@link HandlerContext}.
+     *
+     * @return The value returned by the handler (<code>null</code> if it is <code>void</code>).
+     */
+    Object invoke(int handler, Object instance, HandlerContext handlerCtx) throws Throwable;
+
+    /**
+     * <p>
+     * This method creates a new instance of the class of the (non-static) handler with the given index.
+     * </p>
+     */
+    Object newInstance(int handler);
+}
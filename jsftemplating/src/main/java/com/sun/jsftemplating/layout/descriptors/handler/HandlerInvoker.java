@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.util.ApplicationRegistry;
+import com.sun.jsftemplating.util.LogUtil;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class invokes the handler method of a {@link HandlerDefinition}. The <code>Method</code> is bound once (see
+ * {@link HandlerDefinition#getHandlerInvoker()}) to a generated <code>java.util.function</code> implementation (via the
+ * <code>LambdaMetafactory</code>) which calls it directly, rather than through <code>Method.invoke()</code>. If that is
+ * not possible (e.g. the handler class is in a different module), a <code>MethodHandle</code> is used, and if that fails
+ * too, reflection is used.
+ * </p>
+ *
+ * <p>
+ * Non-static handler methods need an instance of their class. By default a new instance is created for each call; see
+ * {@link #INSTANCE_SCOPE} to reuse instances instead.
+ * </p>
+ */
+public final class HandlerInvoker {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param method The handler <code>Method</code>.
+     */
+    HandlerInvoker(Method method) {
+        _method = method;
+        _static = Modifier.isStatic(method.getModifiers());
+        Class<?> cls = method.getDeclaringClass();
+        _className = cls.getName();
+        _dispatcher = null;
+        _handler = -1;
+        MethodHandles.Lookup lookup = null;
+        BiFunction<Object, HandlerContext, Object> call = null;
+        String kind = KIND_LAMBDA;
+        try {
+            lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+            call = bind(lookup, method);
+        } catch (Throwable ex) {
+            if (LogUtil.finestEnabled()) {
+                LogUtil.finest("Unable to bind handler method '" + method + "', using a MethodHandle.", ex);
+            }
+            call = bindMethodHandle(method);
+            kind = call == null ? KIND_REFLECTION : KIND_METHOD_HANDLE;
+        }
+        _call = call;
+        _kind = kind;
+        _factory = _static ? null : bindConstructor(lookup, cls);
+    }
+
+    /**
+     * <p>
+     * Constructor for a handler which is called by a {@link HandlerDispatcher}.
+     * </p>
+     *
+     * @param dispatcher The {@link HandlerDispatcher}.
+     * @param handler The index of the handler in the {@link HandlerDispatcher}.
+     * @param isStatic <code>true</code> if the handler method is static.
+     * @param className The name of the class which declares the handler method.
+     */
+    HandlerInvoker(HandlerDispatcher dispatcher, int handler, boolean isStatic, String className) {
+        _method = null;
+        _static = isStatic;
+        _className = className;
+        _dispatcher = dispatcher;
+        _handler = handler;
+        _call = null;
+        _factory = null;
+        _kind = KIND_GENERATED;
+    }
+
+    /**
+     * <p>
+     * This method returns the handler <code>Method</code>, or <code>null</code> if it is called by a
+     * {@link HandlerDispatcher}.
+     * </p>
+     */
+    public Method getMethod() {
+        return _method;
+    }
+
+    /**
+     * <p>
+     * This method returns how the handler is called: {@link #KIND_GENERATED}, {@link #KIND_LAMBDA},
+     * {@link #KIND_METHOD_HANDLE}, or {@link #KIND_REFLECTION}.
+     * </p>
+     */
+    public String getKind() {
+        return _kind;
+    }
+
+    /**
+     * <p>
+     * This method invokes the handler method. For a non-static method, an instance is obtained according to the
+     * {@link #INSTANCE_SCOPE}. As with <code>Method.invoke()</code>, anything thrown by the handler method is wrapped in an
+     * <code>InvocationTargetException</code>.
+     * </p>
+     *
+     * @param handlerCtx The {@link HandlerContext}.
+     *
+     * @return The value returned by the handler method (<code>null</code> if it is <code>void</code>).
+     */
+    public Object invoke(HandlerContext handlerCtx) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return invoke(handlerCtx, getInstance(handlerCtx.getFacesContext()));
+    }
+
+    /**
+     * <p>
+     * This method invokes the handler method with the given instance (see {@link #getInstance(FacesContext)}). It allows
+     * the instance to be obtained on the request thread, and the handler method to be invoked on another thread.
+     * </p>
+     *
+     * @param handlerCtx The {@link HandlerContext}.
+     * @param instance The instance, <code>null</code> for a static method.
+     *
+     * @return The value returned by the handler method (<code>null</code> if it is <code>void</code>).
+     */
+    Object invoke(HandlerContext handlerCtx, Object instance) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (_dispatcher != null) {
+            try {
+                return _dispatcher.invoke(_handler, instance, handlerCtx);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+        if (_call == null) {
+            return _method.invoke(instance, handlerCtx);
+        }
+        try {
+            return _call.apply(instance, handlerCtx);
+        } catch (HandlerException ex) {
+            throw new InvocationTargetException(ex.getCause());
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the instance to use for a non-static handler method, according to the {@link #INSTANCE_SCOPE},
+     * or <code>null</code> for a static method. It uses the request scope, so it must be called on the request thread.
+     * </p>
+     */
+    Object getInstance(FacesContext ctx) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (_static) {
+            return null;
+        }
+        String scope = getInstanceScope(ctx);
+        if (scope == SCOPE_CALL) {
+            return newInstance();
+        }
+        Map<String, Object> instances = null;
+        if (scope == SCOPE_REQUEST) {
+            Map<String, Object> requestMap = ctx.getExternalContext().getRequestMap();
+            instances = (Map<String, Object>) requestMap.get(REQUEST_INSTANCES_KEY);
+            if (instances == null) {
+                instances = new HashMap<>(4);
+                requestMap.put(REQUEST_INSTANCES_KEY, instances);
+            }
+        } else {
+            instances = SINGLETONS.getMap(ctx);
+        }
+        Object instance = instances.get(_className);
+        if (instance == null) {
+            instance = newInstance();
+            Object existing = instances.putIfAbsent(_className, instance);
+            if (existing != null) {
+                instance = existing;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * <p>
+     * This method creates a new instance of the class which declares the handler method.
+     * </p>
+     */
+    private Object newInstance() throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        if (_dispatcher != null) {
+            try {
+                return _dispatcher.newInstance(_handler);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+        if (_factory != null) {
+            try {
+                return _factory.get();
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+        Class<?> cls = _method.getDeclaringClass();
+        try {
+            Constructor<?> constructor = cls.getDeclaredConstructor();
+            return constructor.newInstance();
+        } catch (NoSuchMethodException ex) {
+            InstantiationException iex = new InstantiationException(cls.getName());
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link #INSTANCE_SCOPE} ({@link #SCOPE_CALL}, {@link #SCOPE_REQUEST}, or
+     * {@link #SCOPE_SINGLETON}) of the application. It is read once and remembered in application scope.
+     * </p>
+     */
+    public static String getInstanceScope(FacesContext ctx) {
+        if (ctx == null) {
+            return SCOPE_CALL;
+        }
+        Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+        String scope = (String) appMap.get(INSTANCE_SCOPE_KEY);
+        if (scope == null) {
+            String value = LayoutDefinitionManager.getConfigValue(ctx, INSTANCE_SCOPE);
+            value = value == null ? "" : value.trim();
+            if (SCOPE_REQUEST.equalsIgnoreCase(value)) {
+                scope = SCOPE_REQUEST;
+            } else if (SCOPE_SINGLETON.equalsIgnoreCase(value)) {
+                scope = SCOPE_SINGLETON;
+            } else {
+                scope = SCOPE_CALL;
+            }
+            appMap.put(INSTANCE_SCOPE_KEY, scope);
+        }
+        return scope;
+    }
+
+    /**
+     * <p>
+     * This method uses the <code>LambdaMetafactory</code> to create a function which calls the given
+     * <code>Method</code>.
+     * </p>
+     */
+    private static BiFunction<Object, HandlerContext, Object> bind(MethodHandles.Lookup lookup, Method method) throws Throwable {
+        MethodHandle target = lookup.unreflect(method);
+        MethodType type = target.type();
+        boolean isVoid = type.returnType() == void.class;
+        if (Modifier.isStatic(method.getModifiers())) {
+            if (isVoid) {
+                Consumer<HandlerContext> call = (Consumer<HandlerContext>) metafactory(lookup, target, Consumer.class, "accept",
+                        MethodType.methodType(void.class, Object.class), type);
+                return (instance, handlerCtx) -> {
+                    call.accept(handlerCtx);
+                    return null;
+                };
+            }
+            Function<HandlerContext, Object> call = (Function<HandlerContext, Object>) metafactory(lookup, target, Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class), type.wrap());
+            return (instance, handlerCtx) -> call.apply(handlerCtx);
+        }
+        if (isVoid) {
+            BiConsumer<Object, HandlerContext> call = (BiConsumer<Object, HandlerContext>) metafactory(lookup, target, BiConsumer.class,
+                    "accept", MethodType.methodType(void.class, Object.class, Object.class), type);
+            return (instance, handlerCtx) -> {
+                call.accept(instance, handlerCtx);
+                return null;
+            };
+        }
+        return (BiFunction<Object, HandlerContext, Object>) metafactory(lookup, target, BiFunction.class, "apply",
+                MethodType.methodType(Object.class, Object.class, Object.class), type.wrap());
+    }
+
+    /**
+     * <p>
+     * This method returns an instance of the given functional interface which calls the given target.
+     * </p>
+     */
+    private static Object metafactory(MethodHandles.Lookup lookup, MethodHandle target, Class<?> iface, String name, MethodType erasedType,
+            MethodType instantiatedType) throws Throwable {
+        CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(iface), erasedType, target, instantiatedType);
+        return site.getTarget().invoke();
+    }
+
+    /**
+     * <p>
+     * This method returns a function which calls the given <code>Method</code> via a <code>MethodHandle</code>, or
+     * <code>null</code> if the <code>Method</code> is not accessible.
+     * </p>
+     */
+    private static BiFunction<Object, HandlerContext, Object> bindMethodHandle(Method method) {
+        MethodHandle target = null;
+        try {
+            target = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        MethodHandle call = target.asType(MethodType.methodType(Object.class, Object.class, HandlerContext.class));
+        return (instance, handlerCtx) -> {
+            try {
+                return call.invokeExact(instance, handlerCtx);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new HandlerException(ex);
+            }
+        };
+    }
+
+    /**
+     * <p>
+     * This method uses the <code>LambdaMetafactory</code> to create a <code>Supplier</code> which calls the no-argument
+     * constructor of the given class, or returns <code>null</code> if that is not possible.
+     * </p>
+     */
+    private static Supplier<Object> bindConstructor(MethodHandles.Lookup lookup, Class<?> cls) {
+        if (lookup == null || Modifier.isAbstract(cls.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandle target = lookup.findConstructor(cls, MethodType.methodType(void.class));
+            return (Supplier<Object>) metafactory(lookup, target, Supplier.class, "get", MethodType.methodType(Object.class),
+                    MethodType.methodType(cls));
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Wraps a checked exception thrown by a handler invoked through a <code>MethodHandle</code>, it is unwrapped by
+     * {@link HandlerInvoker#invoke(HandlerContext)}.
+     * </p>
+     */
+    private static final class HandlerException extends RuntimeException {
+        HandlerException(Throwable cause) {
+            super(cause);
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * <p>
+     * The configuration name (JVM variable or <code>context-param</code>) which sets how instances of the classes of
+     * non-static handler methods are created: {@link #SCOPE_CALL} (the default) creates a new instance for every call,
+     * {@link #SCOPE_REQUEST} shares an instance per class for the request, {@link #SCOPE_SINGLETON} shares an instance
+     * per class for the application. Handler classes must be thread-safe to use {@link #SCOPE_SINGLETON}.
+     * </p>
+     */
+    public static final String INSTANCE_SCOPE = "com.sun.jsftemplating.HANDLER_INSTANCE_SCOPE";
+
+    /**
+     * <p>
+     * A new instance for each call.
+     * </p>
+     */
+    public static final String SCOPE_CALL = "call";
+
+    /**
+     * <p>
+     * One instance per class for each request.
+     * </p>
+     */
+    public static final String SCOPE_REQUEST = "request";
+
+    /**
+     * <p>
+     * One instance per class for the application.
+     * </p>
+     */
+    public static final String SCOPE_SINGLETON = "singleton";
+
+    /**
+     * <p>
+     * The handler is called by a generated {@link HandlerDispatcher}.
+     * </p>
+     */
+    public static final String KIND_GENERATED = "generated";
+
+    /**
+     * <p>
+     * The handler is called via a generated function.
+     * </p>
+     */
+    public static final String KIND_LAMBDA = "lambda";
+
+    /**
+     * <p>
+     * The handler is called via a <code>MethodHandle</code>.
+     * </p>
+     */
+    public static final String KIND_METHOD_HANDLE = "methodHandle";
+
+    /**
+     * <p>
+     * The handler is called via <code>Method.invoke()</code>.
+     * </p>
+     */
+    public static final String KIND_REFLECTION = "reflection";
+
+    /**
+     * <p>
+     * Application scope key for the {@link #INSTANCE_SCOPE}.
+     * </p>
+     */
+    private static final String INSTANCE_SCOPE_KEY = "__jsft_handler_instance_scope";
+
+    /**
+     * <p>
+     * Request scope key for the handler instances of the request.
+     * </p>
+     */
+    private static final String REQUEST_INSTANCES_KEY = "__jsft_handler_instances";
+
+    /**
+     * <p>
+     * The handler instances of each application.
+     * </p>
+     */
+    private static final ApplicationRegistry<String, Object> SINGLETONS = new ApplicationRegistry<>("__jsft_handler_singletons", map -> {
+    });
+
+    private final Method _method;
+    private final boolean _static;
+    private final String _className;
+    private final HandlerDispatcher _dispatcher;
+    private final int _handler;
+    private final BiFunction<Object, HandlerContext, Object> _call;
+    private final Supplier<Object> _factory;
+    private final String _kind;
+}
@@ -44,6 +44,19 @@ public class IODescriptor implements java.io.Serializable {
         setType(type);
     }
 
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param name The name of the input/output field.
+     * @param type The type of the input/output field.
+     */
+    public IODescriptor(String name, Class type) {
+        setName(name);
+        setType(type);
+    }
+
     /**
      * <p>
      * This method returns the name for this handler definition.
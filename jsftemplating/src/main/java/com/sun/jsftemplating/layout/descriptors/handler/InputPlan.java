@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.EventObject;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.sun.jsftemplating.component.ComponentUtil;
+import com.sun.jsftemplating.el.VariableResolver;
+import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
+import com.sun.jsftemplating.layout.event.UIComponentHolder;
+import com.sun.jsftemplating.util.LayoutElementUtil;
+import com.sun.jsftemplating.util.TypeConverter;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class describes how each input of a {@link Handler} is evaluated (see
+ * {@link Handler#getInputPlan(FacesContext)}). Each input declared by the {@link HandlerDefinition} has a slot, the
+ * value of the slot is the value given to the {@link Handler} (or the default value) and is one of:
+ * </p>
+ *
+ * <ul>
+ * <li>{@link #LITERAL}: the value is used as-is. This includes text without expressions, and single
+ * <code>$constant{...}</code>, <code>$boolean{...}</code>, or <code>$int{...}</code> expressions, which are resolved
+ * when the plan is created (see {@link VariableResolver#resolveConstant(FacesContext, String)}). If the converted value
+ * cannot be changed (e.g. a <code>String</code> or <code>Integer</code>) it is also converted when the plan is
+ * created.</li>
+ * <li>{@link #DEFERRED}: the value is a <code>#{...}</code> expression without <code>$...{...}</code> expressions, it
+ * only needs to be evaluated as a <code>ValueExpression</code> (unless it references a composition parameter).</li>
+ * <li>{@link #DYNAMIC}: the value must be resolved each time.</li>
+ * <li>{@link #MISSING}: the input is required, but no value was given.</li>
+ * </ul>
+ *
+ * <p>
+ * Each call to {@link Handler#getInputValue(HandlerContext, String)} evaluates the input again, as before, since a
+ * handler may read an input after changing what it refers to. Evaluated values may be kept in an array indexed by slot
+ * (see {@link #newValues()}), e.g. for an asynchronous {@link Handler} whose inputs are evaluated before it is started.
+ * </p>
+ */
+public final class InputPlan {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     */
+    private InputPlan(HandlerDefinition def, Map<String, IODescriptor> inputDefs, Map<String, Object> inputs, int modCount, String[] names,
+            Object[] values, Class[] types, int[] kinds, String[][] compParamTokens) {
+        _def = def;
+        _inputDefs = inputDefs;
+        _inputs = inputs;
+        _modCount = modCount;
+        _names = names;
+        _values = values;
+        _types = types;
+        _kinds = kinds;
+        _compParamTokens = compParamTokens;
+        _inputsSize = inputs.size();
+    }
+
+    /**
+     * <p>
+     * This method creates the plan for the given inputs.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param def The {@link HandlerDefinition}.
+     * @param inputs The input values of the {@link Handler}.
+     * @param modCount The modification count of the inputs of the {@link Handler}.
+     */
+    static InputPlan create(FacesContext ctx, HandlerDefinition def, Map<String, Object> inputs, int modCount) {
+        Map<String, IODescriptor> inputDefs = def.getInputDefs();
+        int size = inputDefs.size();
+        String[] names = new String[size];
+        Object[] values = new Object[size];
+        Class[] types = new Class[size];
+        int[] kinds = new int[size];
+        String[][] compParamTokens = new String[size][];
+        int idx = 0;
+        for (IODescriptor inDesc : inputDefs.values()) {
+            names[idx] = inDesc.getName();
+            types[idx] = inDesc.getType();
+            Object value = inputs.get(inDesc.getName());
+            if (value == null && !inDesc.isRequired()) {
+                value = inDesc.getDefault();
+            }
+            int kind = DYNAMIC;
+            if (value == null) {
+                kind = inDesc.isRequired() ? MISSING : LITERAL;
+            } else if (value instanceof String) {
+                String str = (String) value;
+                if (LayoutElementUtil.isStatic(str)) {
+                    kind = LITERAL;
+                } else if (str.indexOf('$') == -1) {
+                    if (ComponentUtil.getInstance(ctx).isValueReference(str)) {
+                        kind = DEFERRED;
+                        compParamTokens[idx] = VariableResolver.getCompParamTokens(str);
+                    }
+                } else {
+                    Object constant = VariableResolver.resolveConstant(ctx, str);
+                    if (constant != null) {
+                        value = constant;
+                        kind = LITERAL;
+                    }
+                }
+            } else if (!(value instanceof List) && !(value instanceof Object[])) {
+                // Only Strings, Lists, and arrays are resolved
+                kind = LITERAL;
+            }
+            if (kind == LITERAL) {
+                value = convertLiteral(ctx, types[idx], value);
+            }
+            values[idx] = value;
+            kinds[idx] = kind;
+            idx++;
+        }
+        return new InputPlan(def, inputDefs, inputs, modCount, names, values, types, kinds, compParamTokens);
+    }
+
+    /**
+     * <p>
+     * This method converts a {@link #LITERAL} value if the result cannot be changed, so it can be shared by all
+     * invocations. Otherwise, or if it cannot be converted (the error is reported when it is used), the value is
+     * returned as-is.
+     * </p>
+     */
+    private static Object convertLiteral(FacesContext ctx, Class type, Object value) {
+        try {
+            Object converted = convert(ctx, type, value);
+            if (converted == null || converted instanceof String || converted instanceof Boolean || converted instanceof Character
+                    || converted instanceof Integer || converted instanceof Long || converted instanceof Double
+                    || converted instanceof Float || converted instanceof Short || converted instanceof Byte
+                    || converted instanceof BigDecimal || converted instanceof BigInteger) {
+                return converted;
+            }
+        } catch (RuntimeException ex) {
+            // Report it when it is used
+        }
+        return value;
+    }
+
+    /**
+     * <p>
+     * This method converts the value to the type of the input.
+     * </p>
+     */
+    private static Object convert(FacesContext ctx, Class type, Object value) {
+        if (value == null || type == null || type == Object.class || type.isInstance(value)) {
+            // Nothing to convert
+            return value;
+        }
+        Function<Object, Object> converter = TypeConverter.getConverter(ctx, type, value.getClass());
+        if (converter == null) {
+            // Report the missing conversion
+            return TypeConverter.asType(type, value);
+        }
+        return converter.apply(value);
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if this plan was created for the given {@link HandlerDefinition} and inputs,
+     * the {@link Handler} has not changed its inputs since (its modification count is the same), and neither
+     * <code>Map</code> has changed size.
+     * </p>
+     */
+    boolean isPlanFor(HandlerDefinition def, Map<String, Object> inputs, int modCount) {
+        return _def == def && _inputs == inputs && _modCount == modCount && _inputDefs == def.getInputDefs()
+                && _names.length == _inputDefs.size() && _inputsSize == inputs.size();
+    }
+
+    /**
+     * <p>
+     * The number of inputs.
+     * </p>
+     */
+    public int size() {
+        return _names.length;
+    }
+
+    /**
+     * <p>
+     * The slot of the named input, or <code>-1</code> if the {@link HandlerDefinition} does not declare it.
+     * </p>
+     */
+    public int indexOf(String name) {
+        String[] names = _names;
+        for (int idx = 0; idx < names.length; idx++) {
+            if (names[idx].equals(name)) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * <p>
+     * The name of the input at the given slot.
+     * </p>
+     */
+    public String getName(int idx) {
+        return _names[idx];
+    }
+
+    /**
+     * <p>
+     * The type of the input at the given slot.
+     * </p>
+     */
+    public Class getType(int idx) {
+        return _types[idx];
+    }
+
+    /**
+     * <p>
+     * The value of the input at the given slot. For a {@link #LITERAL} this is the value to use.
+     * </p>
+     */
+    public Object getValue(int idx) {
+        return _values[idx];
+    }
+
+    /**
+     * <p>
+     * The kind of the input at the given slot: {@link #LITERAL}, {@link #DEFERRED}, {@link #DYNAMIC}, or
+     * {@link #MISSING}.
+     * </p>
+     */
+    public int getKind(int idx) {
+        return _kinds[idx];
+    }
+
+    /**
+     * <p>
+     * This method returns a new array to hold the evaluated values of the inputs, each slot is initially
+     * {@link #NOT_EVALUATED}.
+     * </p>
+     */
+    public Object[] newValues() {
+        Object[] values = new Object[_names.length];
+        Arrays.fill(values, NOT_EVALUATED);
+        return values;
+    }
+
+    /**
+     * <p>
+     * This method evaluates the input at the given slot, and converts it to the type of the input. This gives the same
+     * result as resolving the value with
+     * {@link ComponentUtil#resolveValue(FacesContext, com.sun.jsftemplating.layout.descriptors.LayoutElement, UIComponent, Object)}
+     * and converting it with {@link TypeConverter#asType(Object, Object)} (see
+     * {@link TypeConverter#getConverter(FacesContext, Object, Class)}).
+     * </p>
+     *
+     * @param ctx The {@link HandlerContext}.
+     * @param idx The slot.
+     */
+    public Object evaluate(HandlerContext ctx, int idx) {
+        Object value = _values[idx];
+        FacesContext facesCtx = ctx.getFacesContext();
+        switch (_kinds[idx]) {
+        case LITERAL:
+            break;
+        case MISSING:
+            throw new RuntimeException("'" + _names[idx] + "' is required for handler '" + _def.getId() + "'!");
+        case DEFERRED:
+            if (!VariableResolver.mayReferenceCompParams(_compParamTokens[idx], LayoutComposition.getGlobalParamMap(facesCtx))) {
+                // Composition params would change the expression
+                ComponentUtil compUtil = ComponentUtil.getInstance(facesCtx);
+                value = compUtil.createValueExpression(facesCtx, (String) value, Object.class).getValue(facesCtx.getELContext());
+                break;
+            }
+            // Fall through
+        default:
+            value = ComponentUtil.getInstance(facesCtx).resolveValue(facesCtx, ctx.getLayoutElement(), getComponent(ctx), value);
+            break;
+        }
+
+        // Make sure the value is the correct type...
+        return convert(facesCtx, _types[idx], value);
+    }
+
+    /**
+     * <p>
+     * This method returns the <code>UIComponent</code> of the event, if any.
+     * </p>
+     */
+    private static UIComponent getComponent(HandlerContext ctx) {
+        EventObject event = ctx.getEventObject();
+        if (event instanceof UIComponentHolder) {
+            return ((UIComponentHolder) event).getUIComponent();
+        } else if (event != null) {
+            Object src = event.getSource();
+            if (src instanceof UIComponent) {
+                return (UIComponent) src;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>
+     * The value is used as-is.
+     * </p>
+     */
+    public static final int LITERAL = 0;
+
+    /**
+     * <p>
+     * The value is a <code>ValueExpression</code>.
+     * </p>
+     */
+    public static final int DEFERRED = 1;
+
+    /**
+     * <p>
+     * The value must be resolved each time it is used.
+     * </p>
+     */
+    public static final int DYNAMIC = 2;
+
+    /**
+     * <p>
+     * The input is required, but there is no value.
+     * </p>
+     */
+    public static final int MISSING = 3;
+
+    /**
+     * <p>
+     * The value of a slot in the array returned by {@link #newValues()} which has not been evaluated.
+     * </p>
+     */
+    public static final Object NOT_EVALUATED = new Object();
+
+    private final HandlerDefinition _def;
+    private final Map<String, IODescriptor> _inputDefs;
+    private final Map<String, Object> _inputs;
+    private final int _modCount;
+    private final String[] _names;
+    private final Object[] _values;
+    private final Class[] _types;
+    private final int[] _kinds;
+    private final String[][] _compParamTokens;
+    private final int _inputsSize;
+}
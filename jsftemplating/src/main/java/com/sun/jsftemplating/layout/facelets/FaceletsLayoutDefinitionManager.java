@@ -43,6 +43,24 @@ public class FaceletsLayoutDefinitionManager extends LayoutDefinitionManager {
         super();
     }
 
+    /**
+     * <p>
+     * Keys ending in <code>.xhtml</code> are claimed without reading the file (see {@link #accepts(String)}).
+     * </p>
+     */
+    @Override
+    public Boolean claims(String key) {
+        Boolean claim = super.claims(key);
+        if (claim == null && key.endsWith(defaultSuffix)) {
+            try {
+                claim = FileUtil.searchForFile(key, defaultSuffix) != null;
+            } catch (IOException ex) {
+                claim = Boolean.FALSE;
+            }
+        }
+        return claim;
+    }
+
     @Override
     public boolean accepts(String key) {
         boolean accept = false;
@@ -110,9 +128,6 @@ public class FaceletsLayoutDefinitionManager extends LayoutDefinitionManager {
             throw new LayoutDefinitionException("Unable to process '" + url.toString() + "'.", ex);
         }
 
-        // Dispatch "initPage" handlers
-        ld.dispatchInitPageHandlers(FacesContext.getCurrentInstance(), ld);
-
         // Return the LayoutDefinition
         return ld;
     }
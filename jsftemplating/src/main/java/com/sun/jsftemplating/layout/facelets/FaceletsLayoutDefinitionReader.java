@@ -283,6 +283,11 @@ public class FaceletsLayoutDefinitionReader {
                 throw new SyntaxException("The 'type' attribute is required on 'ui:event'!");
             }
             String eventName = type.getNodeValue();
+            Node timeout = node.getAttributes().getNamedItem(EventParserCommand.TIMEOUT_ATTRIBUTE);
+            if (timeout != null) {
+                // The timeout of the page's asynchronous handlers
+                parent.getLayoutDefinition().setAsyncTimeout(Long.parseLong(timeout.getNodeValue().trim()));
+            }
             InputStream is = new ByteArrayInputStream(body.getBytes());
             EventParserCommand command = new EventParserCommand();
             try {
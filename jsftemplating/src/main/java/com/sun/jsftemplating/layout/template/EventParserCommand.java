@@ -116,9 +116,22 @@ public class EventParserCommand implements CustomParserCommand {
             }
             eventName = nvp.getValue().toString();
 
-            // Ensure the next character is '>'
+            // Check for the timeout of the page's asynchronous handlers
             parser.skipCommentsAndWhiteSpace(TemplateParser.SIMPLE_WHITE_SPACE);
             ch = parser.nextChar();
+            if (ch != '>' && ch != -1) {
+                parser.unread(ch);
+                nvp = parser.getNVP(null);
+                if (!nvp.getName().equals(TIMEOUT_ATTRIBUTE)) {
+                    throw new SyntaxException("Only '" + TIMEOUT_ATTRIBUTE + "' may follow the event type!  Found \"...event type=\"" + eventName + "\" "
+                            + nvp.getName() + "\" instead.");
+                }
+                parent.getLayoutDefinition().setAsyncTimeout(Long.parseLong(nvp.getValue().toString().trim()));
+                parser.skipCommentsAndWhiteSpace(TemplateParser.SIMPLE_WHITE_SPACE);
+                ch = parser.nextChar();
+            }
+
+            // Ensure the next character is '>'
             if (ch != '>') {
                 throw new SyntaxException("Syntax error in event definition, found: '...event type=\"" + eventName + "\" " + (char) ch
                         + "\'.  Expected closing '>' for opening event element.");
@@ -318,6 +331,15 @@ public class EventParserCommand implements CustomParserCommand {
                 if (name.equals(CONDITION_ATTRIBUTE) && (inputs.get(CONDITION_ATTRIBUTE) == null || handlerId.equals(IF_HANDLER))) {
                     // We have a Handler condition, set it
                     handler.setCondition(nvp.getValue().toString());
+                } else if (name.equals(ASYNC_ATTRIBUTE) && inputs.get(ASYNC_ATTRIBUTE) == null && outputs.get(ASYNC_ATTRIBUTE) == null) {
+                    // The Handler may run concurrently w/ the ones after it
+                    handler.setAsync(Boolean.parseBoolean(nvp.getValue().toString().trim()));
+                } else if (name.equals(DEPENDS_ON_ATTRIBUTE) && inputs.get(DEPENDS_ON_ATTRIBUTE) == null && outputs.get(DEPENDS_ON_ATTRIBUTE) == null) {
+                    // The asynchronous Handlers which must complete first
+                    handler.setDependsOn(nvp.getValue().toString());
+                } else if (name.equals(ASYNC_ID_ATTRIBUTE) && inputs.get(ASYNC_ID_ATTRIBUTE) == null && outputs.get(ASYNC_ID_ATTRIBUTE) == null) {
+                    // The id other Handlers use in dependsOn
+                    handler.setAsyncId(nvp.getValue().toString());
                 } else {
                     // We still don't know if this is an input, output, or both
                     // (EL is now supported as an output mapping: out="#{el}")
@@ -366,6 +388,39 @@ public class EventParserCommand implements CustomParserCommand {
 
     public static final String IF_HANDLER = "if";
     public static final String CONDITION_ATTRIBUTE = "condition";
+
+    /**
+     * <p>
+     * The special handler attribute which makes a handler asynchronous, i.e. <code>async="true"</code> (see
+     * {@link Handler#isAsync()}). It only applies to "initPage" handlers.
+     * </p>
+     */
+    public static final String ASYNC_ATTRIBUTE = "async";
+
+    /**
+     * <p>
+     * The special handler attribute which lists the asynchronous handlers (by id) a handler depends on (see
+     * {@link Handler#getDependsOn()}).
+     * </p>
+     */
+    public static final String DEPENDS_ON_ATTRIBUTE = "dependsOn";
+
+    /**
+     * <p>
+     * The special handler attribute which sets the id other handlers use to depend on it, when it is not the id of its
+     * handler definition (see {@link Handler#getAsyncId()}).
+     * </p>
+     */
+    public static final String ASYNC_ID_ATTRIBUTE = "asyncId";
+
+    /**
+     * <p>
+     * The attribute of the <code>event</code> element which sets the timeout (in milliseconds) for the page's
+     * asynchronous handlers (see
+     * {@link com.sun.jsftemplating.layout.descriptors.LayoutDefinition#setAsyncTimeout(long)}).
+     * </p>
+     */
+    public static final String TIMEOUT_ATTRIBUTE = "timeout";
     public static final ProcessingContext EVENT_PROCESSING_CONTEXT = new EventProcessingContext();
 
     public static final char LEFT_CURLY = '{';
@@ -192,9 +192,6 @@ public class TemplateLayoutDefinitionManager extends LayoutDefinitionManager {
             throw new LayoutDefinitionException("Unable to process '" + url.toString() + "'.", ex);
         }
 
-        // Dispatch "initPage" handlers
-        ld.dispatchInitPageHandlers(FacesContext.getCurrentInstance(), ld);
-
         // Return the LayoutDefinition
         return ld;
     }
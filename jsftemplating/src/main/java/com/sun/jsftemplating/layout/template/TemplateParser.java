@@ -17,20 +17,25 @@
 package com.sun.jsftemplating.layout.template;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
 import com.sun.jsftemplating.layout.SyntaxException;
 import com.sun.jsftemplating.layout.descriptors.handler.OutputTypeManager;
 import com.sun.jsftemplating.util.IncludeInputStream;
 import com.sun.jsftemplating.util.LogUtil;
 
+import jakarta.faces.context.FacesContext;
+
 /**
  * <p>
  * This class is responsible for the actual parsing of a template.
@@ -42,6 +47,18 @@ import com.sun.jsftemplating.util.LogUtil;
  * static and safe to share. However, this class itself is not thread safe.
  * </p>
  *
+ * <p>
+ * The template is decoded using the encoding declared by its byte order mark, if any. Otherwise the encoding set via
+ * {@link #setEncoding(String)}, or configured via {@link #TEMPLATE_ENCODING}, is used (UTF-8 by default). Characters are
+ * read into a <code>char[]</code> window, which {@link #readToken(String)}, {@link #readUntil(int, boolean)}, and
+ * {@link #readLine()} scan directly when possible.
+ * </p>
+ *
+ * <p>
+ * Note that earlier versions decoded templates using the platform's default encoding. Applications whose templates are
+ * not UTF-8 (and whose platform encoding is not UTF-8) should set {@link #TEMPLATE_ENCODING}.
+ * </p>
+ *
  * @author Ken Paulsen (ken.paulsen@sun.com)
  */
 public class TemplateParser {
@@ -90,6 +107,31 @@ public class TemplateParser {
         return _inputStream;
     }
 
+    /**
+     * <p>
+     * This method returns the encoding used to read the template when it does not start with a byte order mark. If it has
+     * not been set via {@link #setEncoding(String)}, the {@link #TEMPLATE_ENCODING} configuration value is used, or
+     * UTF-8 if that is not set either.
+     * </p>
+     */
+    public String getEncoding() {
+        if (_encoding == null) {
+            String encoding = LayoutDefinitionManager.getConfigValue(FacesContext.getCurrentInstance(), TEMPLATE_ENCODING);
+            return encoding == null ? DEFAULT_ENCODING : encoding;
+        }
+        return _encoding;
+    }
+
+    /**
+     * <p>
+     * This method sets the encoding used to read the template when it does not start with a byte order mark. It must be
+     * called before {@link #open()}.
+     * </p>
+     */
+    public void setEncoding(String encoding) {
+        _encoding = encoding;
+    }
+
     /**
      * <p>
      * The init method opens the given <code>URL</code> pointing to a template and prepares to parses it.
@@ -103,12 +145,46 @@ public class TemplateParser {
             close();
         }
 
+        // Honor a byte order mark, otherwise use the configured encoding
+        BufferedInputStream stream = new BufferedInputStream(getInputStream());
+        Charset charset = readByteOrderMark(stream);
+        if (charset == null) {
+            charset = Charset.forName(getEncoding());
+        }
+
 // FIXME: It is possible while evaluating the file an #include may need to log a message to the screen!  Provide a callback mechanism to do this in a Template-specific way
         // Create the reader from the stream
-        _reader = new BufferedReader(new InputStreamReader(new IncludeInputStream(new BufferedInputStream(getInputStream()))));
+        _reader = new InputStreamReader(new IncludeInputStream(stream), charset);
+
+        // Initialize the window and the buffer we will use to push values back
+        _buf = new char[BUFFER_SIZE];
+        _pos = 0;
+        _len = 0;
+        _pushback = new int[16];
+        _pushbackLen = 0;
+    }
 
-        // Initialize the queue we will use to push values back
-        _stack = new Stack<>();
+    /**
+     * <p>
+     * This method reads the byte order mark (if any) at the beginning of the given stream. It returns the
+     * <code>Charset</code> it declares, or <code>null</code> if there is none (in which case nothing is consumed).
+     * </p>
+     */
+    private static Charset readByteOrderMark(BufferedInputStream stream) throws IOException {
+        stream.mark(3);
+        int b1 = stream.read();
+        int b2 = stream.read();
+        if (b1 == 0xFE && b2 == 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (b1 == 0xFF && b2 == 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        if (b1 == 0xEF && b2 == 0xBB && stream.read() == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        stream.reset();
+        return null;
     }
 
     /**
@@ -135,11 +211,14 @@ public class TemplateParser {
      * </p>
      */
     public int nextChar() throws IOException {
-        if (!_stack.empty()) {
+        if (_pushbackLen > 0) {
             // We have values in the queue
-            return _stack.pop().charValue();
+            return _pushback[--_pushbackLen];
+        }
+        if (_pos >= _len && !fill()) {
+            return -1;
         }
-        return _reader.read();
+        return _buf[_pos++];
     }
 
     /**
@@ -148,7 +227,35 @@ public class TemplateParser {
      * </p>
      */
     public void unread(int ch) {
-        _stack.push(new Character((char) ch));
+        if (_pushbackLen == _pushback.length) {
+            _pushback = Arrays.copyOf(_pushback, _pushbackLen * 2);
+        }
+        _pushback[_pushbackLen++] = ch;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if there are characters in the window that can be scanned directly (i.e.
+     * nothing has been pushed back). It reads more characters if the window has been consumed.
+     * </p>
+     */
+    private boolean hasWindow() throws IOException {
+        return _pushbackLen == 0 && (_pos < _len || fill());
+    }
+
+    /**
+     * <p>
+     * This method reads the next characters into the window. It returns <code>false</code> at the end of the stream.
+     * </p>
+     */
+    private boolean fill() throws IOException {
+        _pos = 0;
+        _len = _reader.read(_buf, 0, _buf.length);
+        if (_len <= 0) {
+            _len = 0;
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -446,7 +553,30 @@ public class TemplateParser {
             otherChars = "";
         }
 
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = null;
+        while (hasWindow()) {
+            // Scan the window directly
+            int start = _pos;
+            while (_pos < _len && (Character.isLetterOrDigit(_buf[_pos]) || otherChars.indexOf(_buf[_pos]) != -1)) {
+                _pos++;
+            }
+            if (_pos < _len) {
+                // Found the end of the token
+                if (buf == null) {
+                    return new String(_buf, start, _pos - start);
+                }
+                return buf.append(_buf, start, _pos - start).toString();
+            }
+            if (buf == null) {
+                buf = new StringBuilder();
+            }
+            buf.append(_buf, start, _pos - start);
+        }
+
+        // Read from the pushed back characters
+        if (buf == null) {
+            buf = new StringBuilder();
+        }
         int next = nextChar();
         while (Character.isLetterOrDigit(next) || otherChars.indexOf(next) != -1) {
             buf.append((char) next);
@@ -468,13 +598,15 @@ public class TemplateParser {
      * @param skipComments <code>true</code> to strip comments.
      */
     public String readUntil(int endingChar, boolean skipComments) throws IOException {
-        if (skipComments) {
-            // In case we start on a comment and should skip it...
-            skipCommentsAndWhiteSpace("");
+        if (!skipComments) {
+            return readUntil(endingChar);
         }
+
+        // In case we start on a comment and should skip it...
+        skipCommentsAndWhiteSpace("");
         int tmpch;
         int next = nextChar();
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = new StringBuilder();
         while (next != endingChar && next != -1) {
             switch (next) {
             case '\'':
@@ -540,6 +672,55 @@ public class TemplateParser {
         return buf.toString();
     }
 
+    /**
+     * <p>
+     * This method behaves like {@link #readUntil(int, boolean)} when comments are not skipped. Only the escape character
+     * '\' and <code>endingChar</code> need to be examined, so the window is scanned for them directly.
+     * </p>
+     */
+    private String readUntil(int endingChar) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        int next;
+        while (true) {
+            if (hasWindow()) {
+                // Copy everything up to the next special character
+                int start = _pos;
+                char ch;
+                while (_pos < _len) {
+                    ch = _buf[_pos];
+                    if (ch == endingChar || ch == '\\') {
+                        break;
+                    }
+                    _pos++;
+                }
+                buf.append(_buf, start, _pos - start);
+            }
+            next = nextChar();
+            if (next == endingChar || next == -1) {
+                break;
+            }
+            if (next == '\\') {
+                // Escape Character...
+                next = nextChar();
+                if (next == 'n') {
+                    // Special case, insert a '\n' character.
+                    buf.append('\n');
+                } else if (next == 't') {
+                    // Special case, insert a '\t' character.
+                    buf.append('\t');
+                } else if (next != '\n') {
+                    // add the next char unless it's a return char
+                    buf.append((char) next);
+                }
+            } else {
+                buf.append((char) next);
+            }
+        }
+
+        // Return the result
+        return buf.toString();
+    }
+
     /**
      * <p>
      * This method returns a <code>String</code> of characters from the current position in the file until the given String
@@ -560,7 +741,7 @@ public class TemplateParser {
         char arr[] = endingStr.toCharArray();
         int arrlen = arr.length;
 
-        StringBuffer buf = new StringBuffer("");
+        StringBuilder buf = new StringBuilder();
         int ch = nextChar(); // Read a char to unread
         int idx = 1;
         do {
@@ -715,19 +896,19 @@ public class TemplateParser {
      * </p>
      */
     public String readLine() throws IOException {
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = new StringBuilder();
         int ch = -1;
-        while (!_stack.empty()) {
+        while (_pushbackLen > 0) {
             // We have values in the queue
-            ch = _stack.pop().charValue();
+            ch = _pushback[--_pushbackLen];
             if (ch == '\r' || ch == '\n') {
                 // We hit the EOL...
                 // Check to see if there are 2...
-                if (!_stack.empty()) {
-                    ch = _stack.peek().charValue();
+                if (_pushbackLen > 0) {
+                    ch = _pushback[_pushbackLen - 1];
                     if (ch == '\r' || ch == '\n') {
                         // Remove this one too...
-                        _stack.pop().charValue();
+                        _pushbackLen--;
                     }
                 }
                 return buf.toString();
@@ -736,7 +917,20 @@ public class TemplateParser {
         }
 
         // Read the rest of the line
-        buf.append(_reader.readLine());
+        while (hasWindow()) {
+            int start = _pos;
+            while (_pos < _len && _buf[_pos] != '\r' && _buf[_pos] != '\n') {
+                _pos++;
+            }
+            buf.append(_buf, start, _pos - start);
+            if (_pos < _len) {
+                // Found the EOL, treat "\r\n" as a single EOL
+                if (_buf[_pos++] == '\r' && hasWindow() && _buf[_pos] == '\n') {
+                    _pos++;
+                }
+                break;
+            }
+        }
 
         int idx = buf.indexOf("\\n");
         while (idx != -1) {
@@ -773,8 +967,48 @@ public class TemplateParser {
      */
     public static final String SIMPLE_WHITE_SPACE = " \t\r\n";
 
+    /**
+     * <p>
+     * The name of the context-param (or system property) which specifies the encoding of templates that do not start
+     * with a byte order mark (see {@link #getEncoding()}).
+     * </p>
+     */
+    public static final String TEMPLATE_ENCODING = "com.sun.jsftemplating.TEMPLATE_ENCODING";
+
+    /**
+     * <p>
+     * The encoding used when none is declared or configured. Earlier versions used the platform's default encoding.
+     * </p>
+     */
+    public static final String DEFAULT_ENCODING = "UTF-8";
+
+    /**
+     * <p>
+     * The size of the window characters are read into.
+     * </p>
+     */
+    private static final int BUFFER_SIZE = 8192;
+
     private URL _url = null;
     private InputStream _inputStream = null;
-    private transient BufferedReader _reader = null;
-    private transient Stack<Character> _stack = null;
+    private String _encoding = null;
+    private transient Reader _reader = null;
+
+    /**
+     * <p>
+     * The window of characters read from <code>_reader</code>, <code>_pos</code> is the next character to read and
+     * <code>_len</code> the number of valid characters.
+     * </p>
+     */
+    private transient char[] _buf = null;
+    private transient int _pos = 0;
+    private transient int _len = 0;
+
+    /**
+     * <p>
+     * The characters which were pushed back (see {@link #unread(int)}), the last one is read next.
+     * </p>
+     */
+    private transient int[] _pushback = null;
+    private transient int _pushbackLen = 0;
 }
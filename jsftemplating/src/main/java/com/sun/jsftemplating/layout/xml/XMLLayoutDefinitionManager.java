@@ -183,9 +183,6 @@ public class XMLLayoutDefinitionManager extends LayoutDefinitionManager {
                     + getErrorHandler() + "'.  baseURI: '" + baseURI + "'.", ex);
         }
 
-        // Dispatch "initPage" handlers
-        ld.dispatchInitPageHandlers(FacesContext.getCurrentInstance(), ld);
-
         // Return the LayoutDefinition
         return ld;
     }
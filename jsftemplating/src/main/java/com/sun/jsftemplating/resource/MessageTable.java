@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.resource;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * This class holds the messages of a <code>ResourceBundle</code>, including those inherited from its parent bundles, in
+ * a single <code>Map</code> which does not change after it is created. It also remembers the
+ * <code>MessageFormat</code> of each message that has been formatted, per <code>Locale</code>, so the pattern is only
+ * parsed once.
+ * </p>
+ *
+ * <p>
+ * Several <code>Locale</code>s often resolve to the same bundle and share its table, so messages are formatted for the
+ * <code>Locale</code> that was requested, not for the <code>Locale</code> of the bundle that was found (see
+ * {@link #getMessage(String, Object[], Locale)}).
+ * </p>
+ *
+ * <p>
+ * A <code>MessageTable</code> without a <code>ResourceBundle</code> stands for a bundle that could not be found (see
+ * {@link #isMissing()}), it contains no messages. Use
+ * {@link ResourceBundleManager#getMessageTable(String, Locale)} to obtain an instance.
+ * </p>
+ */
+public final class MessageTable {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param baseName The base name of the <code>ResourceBundle</code>.
+     * @param bundle The <code>ResourceBundle</code>, or <code>null</code> if it was not found.
+     */
+    MessageTable(String baseName, ResourceBundle bundle) {
+        _baseName = baseName;
+        _bundle = bundle;
+        if (bundle == null) {
+            _messages = Collections.emptyMap();
+            return;
+        }
+
+        // Flatten the bundle and its parents
+        Set<String> keys = bundle.keySet();
+        Map<String, Object> messages = new HashMap<>(keys.size() * 4 / 3 + 1);
+        for (String key : keys) {
+            messages.put(key, bundle.getObject(key));
+        }
+        _messages = messages;
+    }
+
+    /**
+     * <p>
+     * The base name of the <code>ResourceBundle</code>.
+     * </p>
+     */
+    public String getBaseName() {
+        return _baseName;
+    }
+
+    /**
+     * <p>
+     * The <code>ResourceBundle</code>, or <code>null</code> if it was not found.
+     * </p>
+     */
+    public ResourceBundle getBundle() {
+        return _bundle;
+    }
+
+    /**
+     * <p>
+     * The <code>Locale</code> of the <code>ResourceBundle</code>, or <code>null</code> if it was not found.
+     * </p>
+     */
+    public Locale getLocale() {
+        return _bundle == null ? null : _bundle.getLocale();
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the <code>ResourceBundle</code> was not found.
+     * </p>
+     */
+    public boolean isMissing() {
+        return _bundle == null;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the given key has a value.
+     * </p>
+     */
+    public boolean containsKey(String key) {
+        return _messages.containsKey(key);
+    }
+
+    /**
+     * <p>
+     * The number of keys.
+     * </p>
+     */
+    public int size() {
+        return _messages.size();
+    }
+
+    /**
+     * <p>
+     * This method returns the message for the given key, or <code>null</code> if there is none. As with
+     * <code>ResourceBundle.getString(String)</code>, a <code>ClassCastException</code> is thrown if the value is not a
+     * <code>String</code>.
+     * </p>
+     */
+    public String getString(String key) {
+        return (String) _messages.get(key);
+    }
+
+    /**
+     * <p>
+     * This method returns the message for the given key formatted with the given arguments for the default
+     * <code>Locale</code>, like
+     * {@link com.sun.jsftemplating.util.MessageUtil#getFormattedMessage(String, Object[])} (see
+     * {@link #getMessage(String, Object[], Locale)}).
+     * </p>
+     *
+     * @param key The key of the message.
+     * @param args The substitution values (may be null).
+     */
+    public String getMessage(String key, Object[] args) {
+        return getMessage(key, args, null);
+    }
+
+    /**
+     * <p>
+     * This method returns the message for the given key formatted with the given arguments, or <code>null</code> if there
+     * is no message. If there are no arguments the message is returned as-is.
+     * </p>
+     *
+     * @param key The key of the message.
+     * @param args The substitution values (may be null).
+     * @param locale The <code>Locale</code> used to format numbers, dates, etc., normally the one the table was requested
+     * for. If <code>null</code>, the default <code>Locale</code> is used.
+     */
+    public String getMessage(String key, Object[] args, Locale locale) {
+        String message = getString(key);
+        if (message == null || args == null || args.length == 0) {
+            return message;
+        }
+        if (locale == null) {
+            locale = Locale.getDefault(Locale.Category.FORMAT);
+        }
+        Map<String, MessageFormat> formats = _formats.get(locale);
+        if (formats == null) {
+            formats = _formats.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        }
+        MessageFormat format = formats.get(key);
+        if (format == null) {
+            format = new MessageFormat(message, locale);
+            formats.putIfAbsent(key, format);
+        }
+
+        // MessageFormat is not thread safe, format w/ a copy
+        String result = ((MessageFormat) format.clone()).format(args);
+        return result != null ? result : message;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageTable[" + _baseName + ", " + (isMissing() ? "missing" : getLocale() + ", " + size() + " keys") + "]";
+    }
+
+    private final String _baseName;
+    private final ResourceBundle _bundle;
+    private final Map<String, Object> _messages;
+    private final Map<Locale, Map<String, MessageFormat>> _formats = new ConcurrentHashMap<>();
+}
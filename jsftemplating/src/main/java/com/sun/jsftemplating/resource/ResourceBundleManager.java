@@ -16,19 +16,22 @@
 
 package com.sun.jsftemplating.resource;
 
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.sun.jsftemplating.util.LogUtil;
 import com.sun.jsftemplating.util.Util;
 
 import jakarta.faces.context.FacesContext;
 
 /**
  * <p>
- * This class caches <code>ResourceBundle</code> objects per locale.
+ * This class caches <code>ResourceBundle</code> objects per locale. Each bundle is held in a {@link MessageTable},
+ * which flattens the bundle and its parents and remembers compiled <code>MessageFormat</code>s. Bundles which are not
+ * found are remembered as well.
  * </p>
  *
  * @author Ken Paulsen (ken.paulsen@sun.com)
@@ -70,10 +73,17 @@ public class ResourceBundleManager {
             mgr = (ResourceBundleManager) ctx.getExternalContext().getApplicationMap().get(RB_MGR);
         }
         if (mgr == null) {
+            if (ctx == null) {
+                return new ResourceBundleManager();
+            }
             // 1st time... create / initialize it
-            mgr = new ResourceBundleManager();
-            if (ctx != null) {
-                ctx.getExternalContext().getApplicationMap().put(RB_MGR, mgr);
+            Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+            synchronized (ResourceBundleManager.class) {
+                mgr = (ResourceBundleManager) appMap.get(RB_MGR);
+                if (mgr == null) {
+                    mgr = new ResourceBundleManager();
+                    appMap.put(RB_MGR, mgr);
+                }
             }
         }
 
@@ -92,7 +102,8 @@ public class ResourceBundleManager {
      * @return The requested <code>ResourceBundle</code> in the most appropriate <code>Locale</code>.
      */
     protected ResourceBundle getCachedBundle(String baseName, Locale locale) {
-        return _cache.get(getCacheKey(baseName, locale));
+        MessageTable table = getCachedMessageTable(baseName, locale);
+        return table == null ? null : table.getBundle();
     }
 
     /**
@@ -100,7 +111,10 @@ public class ResourceBundleManager {
      * This method generates a unique key for setting / getting <code>ResourceBundle</code>s from the cache. It is important
      * to have different keys per locale (obviously).
      * </p>
+     *
+     * @deprecated The cache is no longer keyed by a <code>String</code>.
      */
+    @Deprecated
     protected String getCacheKey(String baseName, Locale locale) {
         return baseName + "__" + locale.toString();
     }
@@ -111,15 +125,7 @@ public class ResourceBundleManager {
      * </p>
      */
     protected void addCachedBundle(String baseName, Locale locale, ResourceBundle bundle) {
-        // Copy the old Map to prevent changing a Map while someone is
-        // accessing it.
-        Map<String, ResourceBundle> map = new HashMap<>(_cache);
-
-        // Add the new bundle
-        map.put(getCacheKey(baseName, locale), bundle);
-
-        // Set this new Map as the shared cache Map
-        _cache = map;
+        getTables(baseName).put(locale, createMessageTable(baseName, bundle));
     }
 
     /**
@@ -132,21 +138,7 @@ public class ResourceBundleManager {
      * @param locale The desired <code>Locale</code>.
      */
     public ResourceBundle getBundle(String baseName, Locale locale) {
-        ResourceBundle bundle = getCachedBundle(baseName, locale);
-        if (bundle == null) {
-            try {
-                bundle = ResourceBundle.getBundle(baseName, locale, Util.getClassLoader(baseName));
-            } catch (MissingResourceException ex) {
-                // Use System.out.println b/c we don't want infinite loop and
-                // we're too lazy to do more...
-                System.out.println("Can't find bundle: " + baseName);
-                ex.printStackTrace();
-            }
-            if (bundle != null) {
-                addCachedBundle(baseName, locale, bundle);
-            }
-        }
-        return bundle;
+        return getMessageTable(baseName, locale).getBundle();
     }
 
     /**
@@ -169,6 +161,95 @@ public class ResourceBundleManager {
         return bundle;
     }
 
+    /**
+     * <p>
+     * This method obtains the {@link MessageTable} of the <code>ResourceBundle</code> specified by the given
+     * <code>basename</code> and <code>locale</code>. The bundle is only loaded the first time it is requested for the
+     * <code>Locale</code>. If it is not found, a {@link MessageTable} without messages is returned (see
+     * {@link MessageTable#isMissing()}), and it is not searched for again until {@link #clear()} is called.
+     * </p>
+     *
+     * @param baseName The base name for the <code>ResourceBundle</code>.
+     * @param locale The desired <code>Locale</code>.
+     */
+    public MessageTable getMessageTable(String baseName, Locale locale) {
+        MessageTable table = getCachedMessageTable(baseName, locale);
+        if (table == null) {
+            ResourceBundle bundle = null;
+            try {
+                bundle = ResourceBundle.getBundle(baseName, locale, Util.getClassLoader(baseName));
+            } catch (MissingResourceException ex) {
+                // Reported below
+            }
+            table = createMessageTable(baseName, bundle);
+            MessageTable existing = getTables(baseName).putIfAbsent(locale, table);
+            if (existing != null) {
+                table = existing;
+            } else if (bundle == null && LogUtil.warningEnabled()) {
+                // Only after the table is cached, the log message may be
+                // looked up in this bundle
+                LogUtil.warning("JSFT0014", new Object[] { baseName, locale });
+            }
+        }
+        return table;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link MessageTable} of the given <code>ResourceBundle</code> if it was obtained from this
+     * <code>ResourceBundleManager</code>, otherwise <code>null</code>.
+     * </p>
+     */
+    public MessageTable getMessageTable(ResourceBundle bundle) {
+        return bundle == null ? null : _tablesByBundle.get(bundle);
+    }
+
+    /**
+     * <p>
+     * This method forgets all <code>ResourceBundle</code>s, including those which were not found.
+     * </p>
+     */
+    public void clear() {
+        _tables.clear();
+        _tablesByBundle.clear();
+    }
+
+    /**
+     * <p>
+     * This method returns the cached {@link MessageTable}, or <code>null</code>.
+     * </p>
+     */
+    private MessageTable getCachedMessageTable(String baseName, Locale locale) {
+        Map<Locale, MessageTable> tables = _tables.get(baseName);
+        return tables == null ? null : tables.get(locale);
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link MessageTable}s of the given base name by <code>Locale</code>.
+     * </p>
+     */
+    private Map<Locale, MessageTable> getTables(String baseName) {
+        Map<Locale, MessageTable> tables = _tables.get(baseName);
+        if (tables == null) {
+            tables = _tables.computeIfAbsent(baseName, name -> new ConcurrentHashMap<>());
+        }
+        return tables;
+    }
+
+    /**
+     * <p>
+     * This method returns the {@link MessageTable} for the given <code>ResourceBundle</code>. Several
+     * <code>Locale</code>s often resolve to the same bundle, they share its {@link MessageTable}.
+     * </p>
+     */
+    private MessageTable createMessageTable(String baseName, ResourceBundle bundle) {
+        if (bundle == null) {
+            return new MessageTable(baseName, null);
+        }
+        return _tablesByBundle.computeIfAbsent(bundle, b -> new MessageTable(baseName, b));
+    }
+
     /**
      * <p>
      * Application scope key which stores the <code>ResourceBundleManager</code> instance for this application.
@@ -178,8 +259,24 @@ public class ResourceBundleManager {
 
     /**
      * <p>
-     * The cache of <code>ResourceBundle</code>s.
+     * This is the name of the initParameter or JVM variable which lists (comma separated) the base names of the
+     * <code>ResourceBundle</code>s to load when the application starts (see {@link ResourceBundlePreloader}).
+     * </p>
+     */
+    public static final String PRELOAD_BUNDLES = "com.sun.jsftemplating.PRELOAD_BUNDLES";
+
+    /**
+     * <p>
+     * The cache of {@link MessageTable}s by base name and <code>Locale</code>.
+     * </p>
+     */
+    private final Map<String, Map<Locale, MessageTable>> _tables = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * The {@link MessageTable} of each <code>ResourceBundle</code> (<code>ResourceBundle</code>s are compared by
+     * identity).
      * </p>
      */
-    private Map<String, ResourceBundle> _cache = new HashMap<>();
+    private final Map<ResourceBundle, MessageTable> _tablesByBundle = new ConcurrentHashMap<>();
 }
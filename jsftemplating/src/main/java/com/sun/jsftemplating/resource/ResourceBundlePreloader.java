@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.resource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.util.LogUtil;
+
+import jakarta.faces.application.Application;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.SystemEvent;
+import jakarta.faces.event.SystemEventListener;
+
+/**
+ * <p>
+ * This class loads the {@link MessageTable}s of the <code>ResourceBundle</code>s listed in
+ * {@link ResourceBundleManager#PRELOAD_BUNDLES} when the application starts, so the first request which uses them does
+ * not pay the cost of loading them. It is registered as a listener for the <code>PostConstructApplicationEvent</code>,
+ * and does nothing unless {@link ResourceBundleManager#PRELOAD_BUNDLES} is set (via a JVM variable or a
+ * <code>context-param</code>).
+ * </p>
+ *
+ * <p>
+ * Each bundle is loaded for the default <code>Locale</code> and each supported <code>Locale</code> of the
+ * <code>Application</code>, or for the JVM's default <code>Locale</code> if none are configured.
+ * </p>
+ */
+public class ResourceBundlePreloader implements SystemEventListener {
+
+    /**
+     * <p>
+     * Default constructor.
+     * </p>
+     */
+    public ResourceBundlePreloader() {
+    }
+
+    @Override
+    public boolean isListenerForSource(Object source) {
+        return source instanceof Application;
+    }
+
+    @Override
+    public void processEvent(SystemEvent event) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        if (ctx == null) {
+            return;
+        }
+        String value = LayoutDefinitionManager.getConfigValue(ctx, ResourceBundleManager.PRELOAD_BUNDLES);
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        List<String> baseNames = new ArrayList<>();
+        for (String baseName : value.split(",")) {
+            baseName = baseName.trim();
+            if (!baseName.isEmpty()) {
+                baseNames.add(baseName);
+            }
+        }
+        preload(ctx, baseNames, getLocales(ctx.getApplication()));
+    }
+
+    /**
+     * <p>
+     * This method loads the {@link MessageTable} of each of the given bundles for each of the given <code>Locale</code>s,
+     * and returns the number of bundles which were not found.
+     * </p>
+     */
+    public int preload(FacesContext ctx, List<String> baseNames, Set<Locale> locales) {
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(ctx);
+        int missing = 0;
+        for (String baseName : baseNames) {
+            for (Locale locale : locales) {
+                MessageTable table = mgr.getMessageTable(baseName, locale);
+                if (table.isMissing()) {
+                    missing++;
+                } else if (LogUtil.fineEnabled()) {
+                    LogUtil.fine("Preloaded " + table + " for '" + locale + "'.");
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * <p>
+     * This method returns the default and supported <code>Locale</code>s of the given <code>Application</code>.
+     * </p>
+     */
+    private Set<Locale> getLocales(Application app) {
+        Set<Locale> locales = new LinkedHashSet<>();
+        if (app != null) {
+            if (app.getDefaultLocale() != null) {
+                locales.add(app.getDefaultLocale());
+            }
+            Iterator<Locale> it = app.getSupportedLocales();
+            while (it != null && it.hasNext()) {
+                locales.add(it.next());
+            }
+        }
+        if (locales.isEmpty()) {
+            locales.add(Locale.getDefault());
+        }
+        return locales;
+    }
+}
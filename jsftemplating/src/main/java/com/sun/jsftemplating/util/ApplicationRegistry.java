@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import jakarta.faces.context.FacesContext;
+
+/**
+ * <p>
+ * This class provides an application-scoped <code>ConcurrentHashMap</code> which is stored in the application
+ * <code>Map</code> under a fixed key. The <code>Map</code> is created (and filled with its default entries) exactly
+ * once per application, so entries registered while other threads are reading, or while the <code>Map</code> is being
+ * created, are never lost.
+ * </p>
+ *
+ * <p>
+ * Reading the <code>Map</code> once it exists requires no lock, only creating it does. This object holds no reference
+ * to it, so a <code>Map</code> which is removed from the application (or an undeployed application) is not kept in
+ * memory, and a new one is created the next time it is needed.
+ * </p>
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public final class ApplicationRegistry<K, V> {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param key The application <code>Map</code> key under which to store the <code>Map</code>.
+     * @param defaults Adds the default entries to a new <code>Map</code>.
+     */
+    public ApplicationRegistry(String key, Consumer<Map<K, V>> defaults) {
+        _key = key;
+        _defaults = defaults;
+    }
+
+    /**
+     * <p>
+     * This method returns the <code>Map</code> for the application of the given <code>FacesContext</code> (or the current
+     * <code>FacesContext</code> if <code>null</code>). If there is no <code>FacesContext</code> (e.g. outside of a
+     * request), there is no application to store the <code>Map</code> in: a new <code>Map</code> containing only the
+     * default entries is returned each time, so entries added to it are lost.
+     * </p>
+     */
+    public Map<K, V> getMap(FacesContext ctx) {
+        if (ctx == null) {
+            ctx = FacesContext.getCurrentInstance();
+            if (ctx == null) {
+                return createMap();
+            }
+        }
+        Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+        Map<K, V> map = (Map<K, V>) appMap.get(_key);
+        if (map == null) {
+            synchronized (this) {
+                map = (Map<K, V>) appMap.get(_key);
+                if (map == null) {
+                    map = createMap();
+                    appMap.put(_key, map);
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * <p>
+     * This method creates a new <code>Map</code> containing the default entries.
+     * </p>
+     */
+    private Map<K, V> createMap() {
+        Map<K, V> map = new ConcurrentHashMap<>();
+        _defaults.accept(map);
+        return map;
+    }
+
+    private final String _key;
+    private final Consumer<Map<K, V>> _defaults;
+}
@@ -31,7 +31,9 @@ import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import com.sun.jsftemplating.layout.LayoutDefinitionDependencies;
 import com.sun.jsftemplating.layout.LayoutDefinitionException;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
 
 import jakarta.faces.component.UIViewRoot;
 import jakarta.faces.context.ExternalContext;
@@ -121,6 +123,20 @@ public class FileUtil {
      * path using a default suffix.
      */
     public static URL searchForFile(String path, String defSuff) throws IOException {
+        URL url = findFile(path, defSuff);
+
+        // Let the LayoutDefinition being read (if any) know where it came from
+        LayoutDefinitionDependencies.recordSource(url);
+
+        return url;
+    }
+
+    /**
+     * <p>
+     * This method does the work for {@link #searchForFile(String, String)}.
+     * </p>
+     */
+    private static URL findFile(String path, String defSuff) throws IOException {
         // Remove leading '/' characters if needed
         boolean absolutePath = false;
         String newPath = path;
@@ -184,14 +200,38 @@ public class FileUtil {
             }
 
             String absPath = getAbsolutePath(ctx, newPath);
-            url = searchForFile(absPath, defSuff);
+            url = findFile(absPath, defSuff);
 
             // We're done, don't search anymore even if not found
             return url;
         }
 
+        // Check to see if we have already found this before (in this application)
+        ResourceLocationCache locations = getResourceLocationCache(ctx);
+        if (locations != null) {
+            ResourceLocationCache.Location location = locations.get(newPath, defSuff);
+            if (location != null) {
+                return location.getURL();
+            }
+        }
+
+        // Search the docroot and classpath
+        url = locateFile(path, newPath, defSuff, filesFound);
+        if (locations != null) {
+            locations.put(newPath, defSuff, url);
+        }
+        return url;
+    }
+
+    /**
+     * <p>
+     * This method searches the docroot, then the classpath, for the given absolute path (<code>newPath</code> is the path
+     * without leading '/' characters).
+     * </p>
+     */
+    private static URL locateFile(String path, String newPath, String defSuff, Map<String, URL> filesFound) throws IOException {
         // Check for file in docroot.
-        url = getResource(newPath);
+        URL url = getResource(newPath);
         if (url == null) {
             // Check the classpath for the file
             ClassLoader loader = Util.getClassLoader(path);
@@ -212,10 +252,10 @@ public class FileUtil {
                         if (idx != -1) {
                             String ext = path.substring(idx);
                             if (!ext.equalsIgnoreCase(defSuff)) {
-                                return searchForFile(path.substring(0, idx) + defSuff, null);
+                                return findFile(path.substring(0, idx) + defSuff, null);
                             }
                         } else {
-                            return searchForFile(path + defSuff, null);
+                            return findFile(path + defSuff, null);
                         }
                     }
                 }
@@ -403,6 +443,60 @@ public class FileUtil {
         return filesFound;
     }
 
+    /**
+     * <p>
+     * This method returns the application's {@link ResourceLocationCache}. This is <code>null</code> in
+     * {@link LayoutDefinitionManager#CACHE_MODE_REQUEST} mode, or when {@link #RESOURCE_CACHE_SIZE} is <code>0</code>.
+     * In {@link LayoutDefinitionManager#CACHE_MODE_REVALIDATE} mode, found files are searched for again when their last
+     * modified time changes, and files which were not found are searched for again after the
+     * {@link LayoutDefinitionManager#REVALIDATE_INTERVAL}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     */
+    public static ResourceLocationCache getResourceLocationCache(FacesContext ctx) {
+        if (ctx == null) {
+            return null;
+        }
+        String mode = LayoutDefinitionManager.getCacheMode(ctx);
+        if (LayoutDefinitionManager.CACHE_MODE_REQUEST.equals(mode)) {
+            return null;
+        }
+        return Util.getApplicationAttribute(ctx, RESOURCE_LOCATIONS, context -> {
+            int size = DEFAULT_RESOURCE_CACHE_SIZE;
+            String value = LayoutDefinitionManager.getConfigValue(context, RESOURCE_CACHE_SIZE);
+            if (value != null) {
+                size = Integer.parseInt(value.trim());
+            }
+            if (size <= 0) {
+                return null;
+            }
+            long ttl = -1;
+            boolean revalidate = LayoutDefinitionManager.CACHE_MODE_REVALIDATE.equals(mode);
+            if (revalidate) {
+                value = LayoutDefinitionManager.getConfigValue(context, LayoutDefinitionManager.REVALIDATE_INTERVAL);
+                ttl = value == null ? LayoutDefinitionManager.DEFAULT_REVALIDATE_INTERVAL : Long.parseLong(value.trim());
+            }
+            return new ResourceLocationCache(size, ttl, revalidate);
+        });
+    }
+
+    /**
+     * <p>
+     * This is the name of the initParameter or JVM variable used to set the maximum number of file locations (found or
+     * not found) remembered by {@link #searchForFile(String, String)} for the application. <code>0</code> disables it.
+     * </p>
+     */
+    public static final String RESOURCE_CACHE_SIZE = "com.sun.jsftemplating.RESOURCE_CACHE_SIZE";
+
+    /**
+     * <p>
+     * The default value of {@link #RESOURCE_CACHE_SIZE}.
+     * </p>
+     */
+    public static final int DEFAULT_RESOURCE_CACHE_SIZE = 10000;
+
+    private static final String RESOURCE_LOCATIONS = "__jsft_ResourceLocations";
     private static final String FILES_FOUND = "_filesFoundThisRequest";
     private static final Class[] REALPATH_ARGS = new Class[] { String.class };
     private static final Class[] GET_RES_ARGS = new Class[] { String.class };
@@ -17,12 +17,17 @@
 package com.sun.jsftemplating.util;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
 import com.sun.jsftemplating.layout.descriptors.LayoutFacet;
+import com.sun.jsftemplating.layout.descriptors.LayoutIf;
+import com.sun.jsftemplating.layout.descriptors.OptionPlan;
+import com.sun.jsftemplating.layout.descriptors.handler.Handler;
+import com.sun.jsftemplating.layout.descriptors.handler.InputPlan;
 
 import jakarta.faces.context.FacesContext;
 
@@ -35,6 +40,16 @@ import jakarta.faces.context.FacesContext;
  */
 public class LayoutElementUtil {
 
+    /**
+     * <p>
+     * This method returns <code>true</code> if the given value cannot contain an expression (i.e. it has no
+     * <code>$</code> and no <code>#{</code>), so resolving it will always produce the value itself.
+     * </p>
+     */
+    public static boolean isStatic(String value) {
+        return value == null || (value.indexOf('$') == -1 && !value.contains("#{"));
+    }
+
     /**
      * <p>
      * This method determines if the given {@link LayoutElement} is inside a {@link LayoutComponent}. It will look at all
@@ -244,6 +259,52 @@ public class LayoutElementUtil {
         }
     }
 
+    /**
+     * <p>
+     * This method recurses through the {@link LayoutElement} tree and does the work that only depends on the tree, so it
+     * is not done when the page is rendered. It creates each {@link LayoutComponent}'s {@link OptionPlan} (which resolves
+     * constant options), each {@link Handler}'s {@link InputPlan}, and determines which {@link LayoutIf} conditions are
+     * constant.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param elt The {@link LayoutElement} tree.
+     */
+    public static void prepare(FacesContext ctx, LayoutElement elt) {
+        if (elt instanceof LayoutComponent) {
+            ((LayoutComponent) elt).getOptionPlan(ctx);
+            if (elt instanceof LayoutIf) {
+                ((LayoutIf) elt).getConstantCondition(ctx);
+            }
+        }
+        Map<String, List<Handler>> handlersByType = elt.getHandlersByTypeMap();
+        if (handlersByType != null) {
+            for (List<Handler> handlers : handlersByType.values()) {
+                prepareHandlers(ctx, handlers);
+            }
+        }
+        for (LayoutElement child : elt.getChildLayoutElements()) {
+            prepare(ctx, child);
+        }
+    }
+
+    /**
+     * <p>
+     * This method creates the {@link InputPlan} of the given {@link Handler}s and their child {@link Handler}s.
+     * </p>
+     */
+    private static void prepareHandlers(FacesContext ctx, List<Handler> handlers) {
+        if (handlers == null) {
+            return;
+        }
+        for (Handler handler : handlers) {
+            if (handler.getHandlerDefinition() != null) {
+                handler.getInputPlan(ctx);
+            }
+            prepareHandlers(ctx, handler.getChildHandlers());
+        }
+    }
+
     /**
      * <p>
      * This method recurses through the {@link LayoutElement} tree to generate a String representation of its structure.
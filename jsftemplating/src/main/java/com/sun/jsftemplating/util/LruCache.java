@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * This class is a thread safe cache which holds at most a given number of entries. When it is full, the least recently
+ * used entries are evicted until it is back under 90% of its size, so evictions happen in batches rather than on every
+ * {@link #put(Object, Object)}. A maximum size of <code>0</code> (or less) disables the cache: nothing is remembered.
+ * </p>
+ *
+ * <p>
+ * Like the {@link com.sun.jsftemplating.layout.LruLayoutDefinitionCache}, reads do not lock: each entry records the
+ * time it was last used, and the ordering is only computed when evicting.
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param maxSize The maximum number of entries, <code>0</code> to remember nothing.
+     */
+    public LruCache(int maxSize) {
+        _maxSize = maxSize;
+    }
+
+    /**
+     * <p>
+     * This method returns the value for the given key, or <code>null</code>.
+     * </p>
+     */
+    public V get(K key) {
+        Entry<V> entry = _map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUsed = System.nanoTime();
+        return entry.value;
+    }
+
+    /**
+     * <p>
+     * This method remembers the given value (a <code>null</code> value removes the key).
+     * </p>
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        if (_maxSize <= 0) {
+            return;
+        }
+        _map.put(key, new Entry<V>(value, System.nanoTime()));
+        if (_map.size() > _maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * <p>
+     * This method returns the value for the given key. If there is none, it is created with the given
+     * <code>Function</code> and remembered. Another thread may create a value for the same key at the same time, the
+     * <code>Function</code> must not have side effects.
+     * </p>
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * <p>
+     * This method forgets the given key.
+     * </p>
+     */
+    public void remove(K key) {
+        _map.remove(key);
+    }
+
+    /**
+     * <p>
+     * This method forgets the given key if it still maps to the given value.
+     * </p>
+     */
+    public void remove(K key, V value) {
+        _map.computeIfPresent(key, (k, entry) -> entry.value == value ? null : entry);
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the given key is cached, without counting this as a use.
+     * </p>
+     */
+    public boolean containsKey(K key) {
+        return _map.containsKey(key);
+    }
+
+    /**
+     * <p>
+     * This method forgets all entries.
+     * </p>
+     */
+    public void clear() {
+        _map.clear();
+    }
+
+    /**
+     * <p>
+     * The number of entries.
+     * </p>
+     */
+    public int size() {
+        return _map.size();
+    }
+
+    /**
+     * <p>
+     * The maximum number of entries.
+     * </p>
+     */
+    public int getMaxSize() {
+        return _maxSize;
+    }
+
+    /**
+     * <p>
+     * The number of entries removed to stay within the maximum size.
+     * </p>
+     */
+    public long getEvictionCount() {
+        return _evictions.get();
+    }
+
+    /**
+     * <p>
+     * This method evicts the least recently used entries until the cache is under 90% of its maximum size.
+     * </p>
+     */
+    private synchronized void evict() {
+        if (_map.size() <= _maxSize) {
+            // Another thread already did it
+            return;
+        }
+        int size = _maxSize * 9 / 10;
+        // Snapshot the last use, it may change while sorting
+        List<Candidate<K, V>> candidates = new ArrayList<>(_map.size());
+        for (Map.Entry<K, Entry<V>> entry : _map.entrySet()) {
+            candidates.add(new Candidate<K, V>(entry.getKey(), entry.getValue()));
+        }
+        candidates.sort((a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+        int count = 0;
+        for (Candidate<K, V> candidate : candidates) {
+            if (_map.size() <= size) {
+                break;
+            }
+            if (_map.remove(candidate.key, candidate.entry)) {
+                count++;
+            }
+        }
+        _evictions.addAndGet(count);
+    }
+
+    @Override
+    public String toString() {
+        return "LruCache[size=" + size() + ", maxSize=" + getMaxSize() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * <p>
+     * A cached value.
+     * </p>
+     */
+    private static class Entry<V> {
+        Entry(V value, long lastUsed) {
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+
+        final V value;
+        volatile long lastUsed;
+    }
+
+    /**
+     * <p>
+     * An {@link Entry} considered for eviction.
+     * </p>
+     */
+    private static class Candidate<K, V> {
+        Candidate(K key, Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastUsed = entry.lastUsed;
+        }
+
+        final K key;
+        final Entry<V> entry;
+        final long lastUsed;
+    }
+
+    private final Map<K, Entry<V>> _map = new ConcurrentHashMap<>();
+
+    private final AtomicLong _evictions = new AtomicLong();
+
+    private final int _maxSize;
+}
@@ -18,9 +18,8 @@ package com.sun.jsftemplating.util;
 
 import java.text.MessageFormat;
 import java.util.Locale;
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
 
+import com.sun.jsftemplating.resource.MessageTable;
 import com.sun.jsftemplating.resource.ResourceBundleManager;
 
 import jakarta.faces.context.FacesContext;
@@ -98,26 +97,16 @@ public class MessageUtil extends Object {
             locale = Util.getLocale(ctx);
         }
 
-        // Get the ResourceBundle
-        ResourceBundle bundle = ResourceBundleManager.getInstance(ctx).getBundle(baseName, locale);
-        if (bundle == null) {
-            // FIXME: Log a warning
-            return key;
-        }
-
-        String message = null;
-        try {
-            message = bundle.getString(key);
-        } catch (MissingResourceException ex) {
-            // Key not found!
-            // FIXME: Log a warning
-        }
+        // Get the messages of the ResourceBundle
+        MessageTable table = ResourceBundleManager.getInstance(ctx).getMessageTable(baseName, locale);
+        // Format for the requested Locale, the bundle found may be for a parent Locale
+        String message = table.getMessage(key, args, locale);
         if (message == null) {
-            // No message found?
+            // No bundle or message found?
+            // FIXME: Log a warning
             return key;
         }
-
-        return getFormattedMessage(message, args);
+        return message;
     }
 
     /**
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import java.net.URL;
+
+import com.sun.jsftemplating.layout.LayoutDefinitionDependencies;
+
+/**
+ * <p>
+ * This class remembers where {@link FileUtil#searchForFile(String, String)} found a file (or that it found nothing) for
+ * the life of the application, so the docroot and the classpath are not searched again on every request. Entries are
+ * keyed by the path (without leading '/' characters) and the default suffix. The number of entries is bounded, the
+ * least recently used entries are forgotten first.
+ * </p>
+ *
+ * <p>
+ * While developing, a found file may be validated: its last modified time is compared to the time recorded when it was
+ * found, and if it changed (or the file was removed) the file is searched for again. A file which was not found may
+ * expire after a configurable time, after which it is searched for again, so that files which are added are found.
+ * Note that a file added to the docroot while the same path is remembered on the classpath is not noticed until the
+ * entry is forgotten.
+ * </p>
+ */
+public class ResourceLocationCache {
+
+    /**
+     * <p>
+     * Constructor.
+     * </p>
+     *
+     * @param maxSize The maximum number of entries to remember.
+     * @param notFoundTtl The time (in milliseconds) to remember that a file was not found, a negative value remembers it
+     * until it is removed.
+     * @param validate <code>true</code> to check the last modified time of a found file each time it is used.
+     */
+    public ResourceLocationCache(int maxSize, long notFoundTtl, boolean validate) {
+        _entries = new LruCache<>(maxSize);
+        _notFoundTtl = notFoundTtl;
+        _validate = validate;
+    }
+
+    /**
+     * <p>
+     * This method returns the remembered {@link Location} of the given path and suffix, or <code>null</code> if it is not
+     * known (or is no longer valid). The {@link Location}'s <code>URL</code> is <code>null</code> if the file does not
+     * exist.
+     * </p>
+     */
+    public Location get(String path, String defSuff) {
+        String key = getKey(path, defSuff);
+        Location location = _entries.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (!location.isValid(_validate)) {
+            // Changed, look for it again
+            _entries.remove(key, location);
+            return null;
+        }
+        return location;
+    }
+
+    /**
+     * <p>
+     * This method remembers the location of the given path and suffix, <code>url</code> is <code>null</code> if it does
+     * not exist.
+     * </p>
+     */
+    public void put(String path, String defSuff, URL url) {
+        if (_entries.getMaxSize() <= 0) {
+            return;
+        }
+        Location location;
+        if (url == null) {
+            location = new Location(null, _notFoundTtl < 0 ? -1L : System.currentTimeMillis() + _notFoundTtl);
+        } else {
+            location = new Location(url, _validate ? LayoutDefinitionDependencies.getLastModified(url) : 0L);
+        }
+        _entries.put(getKey(path, defSuff), location);
+    }
+
+    /**
+     * <p>
+     * This method forgets all entries.
+     * </p>
+     */
+    public void clear() {
+        _entries.clear();
+    }
+
+    /**
+     * <p>
+     * The number of entries currently remembered.
+     * </p>
+     */
+    public int size() {
+        return _entries.size();
+    }
+
+    private static String getKey(String path, String defSuff) {
+        return defSuff == null ? path : path + '\0' + defSuff;
+    }
+
+    /**
+     * <p>
+     * A remembered location.
+     * </p>
+     */
+    public static final class Location {
+        /**
+         * @param url The location, or <code>null</code> if not found.
+         * @param time The last modified time of the file, or the time the entry expires (-1 for never) if not found.
+         */
+        Location(URL url, long time) {
+            _url = url;
+            _time = time;
+        }
+
+        /**
+         * <p>
+         * The location of the file, or <code>null</code> if it does not exist.
+         * </p>
+         */
+        public URL getURL() {
+            return _url;
+        }
+
+        /**
+         * <p>
+         * This method returns <code>false</code> if a file which was not found has expired, or if <code>validate</code>
+         * is <code>true</code> and the last modified time of a found file changed.
+         * </p>
+         */
+        boolean isValid(boolean validate) {
+            if (_url == null) {
+                return _time < 0 || _time >= System.currentTimeMillis();
+            }
+            return !validate || LayoutDefinitionDependencies.getLastModified(_url) == _time;
+        }
+
+        private final URL _url;
+        private final long _time;
+    }
+
+    /**
+     * <p>
+     * The entries, keyed by path and suffix.
+     * </p>
+     */
+    private final LruCache<String, Location> _entries;
+
+    private final long _notFoundTtl;
+    private final boolean _validate;
+}
@@ -20,6 +20,11 @@ import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import jakarta.faces.context.FacesContext;
 
@@ -178,98 +183,319 @@ public class TypeConverter extends Object {
      * </p>
      */
     public static Map<Object, TypeConversion> getTypeConversions(FacesContext ctx) {
-        if (ctx == null) {
-            ctx = FacesContext.getCurrentInstance();
+        return TYPE_CONVERSIONS.getMap(ctx);
+    }
+
+    /**
+     * <p>
+     * This method adds the default {@link TypeConversion}s to the given <code>Map</code>.
+     * </p>
+     */
+    private static void addDefaultTypeConversions(Map<Object, TypeConversion> conversions) {
+        // Add type conversions by class
+        conversions.put(Object.class, OBJECT_TYPE_CONVERSION);
+        conversions.put(String.class, STRING_TYPE_CONVERSION);
+        conversions.put(Integer.class, INTEGER_TYPE_CONVERSION);
+        conversions.put(Integer.TYPE, INTEGER_TYPE_CONVERSION);
+        conversions.put(Double.class, DOUBLE_TYPE_CONVERSION);
+        conversions.put(Double.TYPE, DOUBLE_TYPE_CONVERSION);
+        conversions.put(Boolean.class, BOOLEAN_TYPE_CONVERSION);
+        conversions.put(Boolean.TYPE, BOOLEAN_TYPE_CONVERSION);
+        conversions.put(Long.class, LONG_TYPE_CONVERSION);
+        conversions.put(Long.TYPE, LONG_TYPE_CONVERSION);
+        conversions.put(Float.class, FLOAT_TYPE_CONVERSION);
+        conversions.put(Float.TYPE, FLOAT_TYPE_CONVERSION);
+        conversions.put(Short.class, SHORT_TYPE_CONVERSION);
+        conversions.put(Short.TYPE, SHORT_TYPE_CONVERSION);
+        conversions.put(BigDecimal.class, BIG_DECIMAL_TYPE_CONVERSION);
+        conversions.put(Byte.class, BYTE_TYPE_CONVERSION);
+        conversions.put(Byte.TYPE, BYTE_TYPE_CONVERSION);
+        conversions.put(Character.class, CHARACTER_TYPE_CONVERSION);
+        conversions.put(Character.TYPE, CHARACTER_TYPE_CONVERSION);
+        conversions.put(java.util.Date.class, DATE_TYPE_CONVERSION);
+        conversions.put(java.sql.Date.class, SQL_DATE_TYPE_CONVERSION);
+        conversions.put(java.sql.Time.class, SQL_TIME_TYPE_CONVERSION);
+        conversions.put(java.sql.Timestamp.class, SQL_TIMESTAMP_TYPE_CONVERSION);
+        conversions.put(java.util.Locale.class, LOCALE_TYPE_CONVERSION);
+
+        // Add type conversions by class name
+        conversions.put(Object.class.getName(), OBJECT_TYPE_CONVERSION);
+        conversions.put(String.class.getName(), STRING_TYPE_CONVERSION);
+        conversions.put(Integer.class.getName(), INTEGER_TYPE_CONVERSION);
+        conversions.put(Double.class.getName(), DOUBLE_TYPE_CONVERSION);
+        conversions.put(Boolean.class.getName(), BOOLEAN_TYPE_CONVERSION);
+        conversions.put(Long.class.getName(), LONG_TYPE_CONVERSION);
+        conversions.put(Float.class.getName(), FLOAT_TYPE_CONVERSION);
+        conversions.put(Short.class.getName(), SHORT_TYPE_CONVERSION);
+        conversions.put(BigDecimal.class.getName(), BIG_DECIMAL_TYPE_CONVERSION);
+        conversions.put(Byte.class.getName(), BYTE_TYPE_CONVERSION);
+        conversions.put(Character.class.getName(), CHARACTER_TYPE_CONVERSION);
+        conversions.put(java.util.Date.class.getName(), DATE_TYPE_CONVERSION);
+        conversions.put(java.sql.Date.class.getName(), SQL_DATE_TYPE_CONVERSION);
+        conversions.put(java.sql.Time.class.getName(), SQL_TIME_TYPE_CONVERSION);
+        conversions.put(java.sql.Timestamp.class.getName(), SQL_TIMESTAMP_TYPE_CONVERSION);
+        conversions.put(java.util.Locale.class.getName(), LOCALE_TYPE_CONVERSION);
+
+        // Add type conversions by name
+        conversions.put(TYPE_UNKNOWN, UNKNOWN_TYPE_CONVERSION);
+        conversions.put(TYPE_OBJECT, OBJECT_TYPE_CONVERSION);
+        conversions.put(TYPE_STRING, STRING_TYPE_CONVERSION);
+        conversions.put(TYPE_INT, INTEGER_TYPE_CONVERSION);
+        conversions.put(TYPE_INTEGER, INTEGER_TYPE_CONVERSION);
+        conversions.put(TYPE_DOUBLE, DOUBLE_TYPE_CONVERSION);
+        conversions.put(TYPE_BOOLEAN, BOOLEAN_TYPE_CONVERSION);
+        conversions.put(TYPE_LONG, LONG_TYPE_CONVERSION);
+        conversions.put(TYPE_FLOAT, FLOAT_TYPE_CONVERSION);
+        conversions.put(TYPE_SHORT, SHORT_TYPE_CONVERSION);
+        conversions.put(TYPE_BIG_DECIMAL, BIG_DECIMAL_TYPE_CONVERSION);
+        conversions.put(TYPE_BYTE, BYTE_TYPE_CONVERSION);
+        conversions.put(TYPE_CHAR, CHARACTER_TYPE_CONVERSION);
+        conversions.put(TYPE_CHARACTER, CHARACTER_TYPE_CONVERSION);
+        conversions.put(TYPE_DATE, DATE_TYPE_CONVERSION);
+        conversions.put(TYPE_SQL_DATE, SQL_DATE_TYPE_CONVERSION);
+        conversions.put(TYPE_SQL_TIME, SQL_TIME_TYPE_CONVERSION);
+        conversions.put(TYPE_SQL_TIMESTAMP, SQL_TIMESTAMP_TYPE_CONVERSION);
+        conversions.put(TYPE_LOCALE, LOCALE_TYPE_CONVERSION);
+    }
+
+    /**
+     * Register a type conversion object under the specified key. This method can be used by developers to register custom
+     * type conversion objects. It may be called at any time, the change is visible to all threads. A <code>null</code>
+     * conversion removes the type conversion registered under the key.
+     */
+    public static void registerTypeConversion(FacesContext ctx, Object key, TypeConversion conversion) {
+        if (conversion == null) {
+            getTypeConversions(ctx).remove(key);
+        } else {
+            getTypeConversions(ctx).put(key, conversion);
         }
-        Map<Object, TypeConversion> conversions = null;
-        if (ctx != null) {
-            conversions = (Map<Object, TypeConversion>) ctx.getExternalContext().getApplicationMap().get(CONVERSIONS);
+
+        // The converters may use the old conversion
+        CONVERTERS.getMap(ctx).clear();
+    }
+
+    /**
+     * <p>
+     * This method returns a function which converts values of the given source type the same way as
+     * {@link #asType(Object, Object)}, or <code>null</code> if no {@link TypeConversion} is registered under the type key.
+     * The function is created once per source type and type key (until {@link #registerTypeConversion(FacesContext,
+     * Object, TypeConversion)} is called). It returns the value itself if it is already of the requested type, and
+     * converts <code>String</code>s to the built-in number and <code>Boolean</code> types directly. Changes made
+     * directly to the <code>Map</code> returned by {@link #getTypeConversions(FacesContext)} are not seen by functions
+     * which were already created.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     * @param typeKey The key of the type conversion (see {@link #asType(Object, Object)}).
+     * @param sourceType The type of the values that will be converted.
+     */
+    public static Function<Object, Object> getConverter(FacesContext ctx, Object typeKey, Class<?> sourceType) {
+        if (typeKey == null) {
+            return IDENTITY;
         }
-        if (conversions == null) {
-            // 1st time... initialize it
-            conversions = new ConcurrentHashMap<>(80, 0.75f, 1);
-
-            // Add type conversions by class
-            conversions.put(Object.class, OBJECT_TYPE_CONVERSION);
-            conversions.put(String.class, STRING_TYPE_CONVERSION);
-            conversions.put(Integer.class, INTEGER_TYPE_CONVERSION);
-            conversions.put(Integer.TYPE, INTEGER_TYPE_CONVERSION);
-            conversions.put(Double.class, DOUBLE_TYPE_CONVERSION);
-            conversions.put(Double.TYPE, DOUBLE_TYPE_CONVERSION);
-            conversions.put(Boolean.class, BOOLEAN_TYPE_CONVERSION);
-            conversions.put(Boolean.TYPE, BOOLEAN_TYPE_CONVERSION);
-            conversions.put(Long.class, LONG_TYPE_CONVERSION);
-            conversions.put(Long.TYPE, LONG_TYPE_CONVERSION);
-            conversions.put(Float.class, FLOAT_TYPE_CONVERSION);
-            conversions.put(Float.TYPE, FLOAT_TYPE_CONVERSION);
-            conversions.put(Short.class, SHORT_TYPE_CONVERSION);
-            conversions.put(Short.TYPE, SHORT_TYPE_CONVERSION);
-            conversions.put(BigDecimal.class, BIG_DECIMAL_TYPE_CONVERSION);
-            conversions.put(Byte.class, BYTE_TYPE_CONVERSION);
-            conversions.put(Byte.TYPE, BYTE_TYPE_CONVERSION);
-            conversions.put(Character.class, CHARACTER_TYPE_CONVERSION);
-            conversions.put(Character.TYPE, CHARACTER_TYPE_CONVERSION);
-            conversions.put(java.util.Date.class, DATE_TYPE_CONVERSION);
-            conversions.put(java.sql.Date.class, SQL_DATE_TYPE_CONVERSION);
-            conversions.put(java.sql.Time.class, SQL_TIME_TYPE_CONVERSION);
-            conversions.put(java.sql.Timestamp.class, SQL_TIMESTAMP_TYPE_CONVERSION);
-            conversions.put(java.util.Locale.class, LOCALE_TYPE_CONVERSION);
-
-            // Add type conversions by class name
-            conversions.put(Object.class.getName(), OBJECT_TYPE_CONVERSION);
-            conversions.put(String.class.getName(), STRING_TYPE_CONVERSION);
-            conversions.put(Integer.class.getName(), INTEGER_TYPE_CONVERSION);
-            conversions.put(Double.class.getName(), DOUBLE_TYPE_CONVERSION);
-            conversions.put(Boolean.class.getName(), BOOLEAN_TYPE_CONVERSION);
-            conversions.put(Long.class.getName(), LONG_TYPE_CONVERSION);
-            conversions.put(Float.class.getName(), FLOAT_TYPE_CONVERSION);
-            conversions.put(Short.class.getName(), SHORT_TYPE_CONVERSION);
-            conversions.put(BigDecimal.class.getName(), BIG_DECIMAL_TYPE_CONVERSION);
-            conversions.put(Byte.class.getName(), BYTE_TYPE_CONVERSION);
-            conversions.put(Character.class.getName(), CHARACTER_TYPE_CONVERSION);
-            conversions.put(java.util.Date.class.getName(), DATE_TYPE_CONVERSION);
-            conversions.put(java.sql.Date.class.getName(), SQL_DATE_TYPE_CONVERSION);
-            conversions.put(java.sql.Time.class.getName(), SQL_TIME_TYPE_CONVERSION);
-            conversions.put(java.sql.Timestamp.class.getName(), SQL_TIMESTAMP_TYPE_CONVERSION);
-            conversions.put(java.util.Locale.class.getName(), LOCALE_TYPE_CONVERSION);
-
-            // Add type conversions by name
-            conversions.put(TYPE_UNKNOWN, UNKNOWN_TYPE_CONVERSION);
-            conversions.put(TYPE_OBJECT, OBJECT_TYPE_CONVERSION);
-            conversions.put(TYPE_STRING, STRING_TYPE_CONVERSION);
-            conversions.put(TYPE_INT, INTEGER_TYPE_CONVERSION);
-            conversions.put(TYPE_INTEGER, INTEGER_TYPE_CONVERSION);
-            conversions.put(TYPE_DOUBLE, DOUBLE_TYPE_CONVERSION);
-            conversions.put(TYPE_BOOLEAN, BOOLEAN_TYPE_CONVERSION);
-            conversions.put(TYPE_LONG, LONG_TYPE_CONVERSION);
-            conversions.put(TYPE_FLOAT, FLOAT_TYPE_CONVERSION);
-            conversions.put(TYPE_SHORT, SHORT_TYPE_CONVERSION);
-            conversions.put(TYPE_BIG_DECIMAL, BIG_DECIMAL_TYPE_CONVERSION);
-            conversions.put(TYPE_BYTE, BYTE_TYPE_CONVERSION);
-            conversions.put(TYPE_CHAR, CHARACTER_TYPE_CONVERSION);
-            conversions.put(TYPE_CHARACTER, CHARACTER_TYPE_CONVERSION);
-            conversions.put(TYPE_DATE, DATE_TYPE_CONVERSION);
-            conversions.put(TYPE_SQL_DATE, SQL_DATE_TYPE_CONVERSION);
-            conversions.put(TYPE_SQL_TIME, SQL_TIME_TYPE_CONVERSION);
-            conversions.put(TYPE_SQL_TIMESTAMP, SQL_TIMESTAMP_TYPE_CONVERSION);
-            conversions.put(TYPE_LOCALE, LOCALE_TYPE_CONVERSION);
-
-            if (ctx != null) {
-                // Save it for next time...
-                ctx.getExternalContext().getApplicationMap().put(CONVERSIONS, conversions);
+        Map<Object, Map<Class<?>, Function<Object, Object>>> converters = CONVERTERS.getMap(ctx);
+        Map<Class<?>, Function<Object, Object>> bySource = converters.get(typeKey);
+        if (bySource == null) {
+            bySource = converters.computeIfAbsent(typeKey, key -> new ConcurrentHashMap<>());
+        }
+        Function<Object, Object> converter = bySource.get(sourceType);
+        if (converter == null) {
+            converter = createConverter(getTypeConversions(ctx).get(typeKey), typeKey, sourceType);
+            if (converter == null) {
+                // Don't remember this, it may be registered later
+                return null;
             }
+            bySource.put(sourceType, converter);
         }
+        return converter;
+    }
 
-        // Return all the type conversions...
-        return conversions;
+    /**
+     * <p>
+     * This method creates the function returned by {@link #getConverter(FacesContext, Object, Class)}.
+     * </p>
+     */
+    private static Function<Object, Object> createConverter(TypeConversion conversion, Object typeKey, Class<?> sourceType) {
+        if (typeKey instanceof Class && typeKey != Object.class && ((Class<?>) typeKey).isAssignableFrom(sourceType)) {
+            // Already the right type
+            return IDENTITY;
+        }
+        if (conversion == null) {
+            return null;
+        }
+        if (conversion == OBJECT_TYPE_CONVERSION || conversion == UNKNOWN_TYPE_CONVERSION) {
+            return IDENTITY;
+        }
+        if (sourceType == String.class) {
+            // The built-in conversions of Strings
+            if (conversion == STRING_TYPE_CONVERSION) {
+                return IDENTITY;
+            } else if (conversion == INTEGER_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Integer.valueOf((String) value);
+            } else if (conversion == LONG_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Long.valueOf((String) value);
+            } else if (conversion == DOUBLE_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Double.valueOf((String) value);
+            } else if (conversion == BOOLEAN_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Boolean.valueOf((String) value);
+            } else if (conversion == FLOAT_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Float.valueOf((String) value);
+            } else if (conversion == SHORT_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Short.valueOf((String) value);
+            } else if (conversion == BYTE_TYPE_CONVERSION) {
+                return value -> value == null || isBlank((String) value) ? null : Byte.valueOf((String) value);
+            }
+        }
+        return conversion::convertValue;
     }
 
     /**
-     * Register a type conversion object under the specified key. This method can be used by developers to register custom
-     * type conversion objects.
+     * <p>
+     * This method returns <code>true</code> if the given <code>String</code> is empty or only contains whitespace (the
+     * same as <code>str.trim().length() == 0</code>).
+     * </p>
      */
-    public static void registerTypeConversion(FacesContext ctx, Object key, TypeConversion conversion) {
-        getTypeConversions(ctx).put(key, conversion);
+    private static boolean isBlank(String str) {
+        for (int idx = 0; idx < str.length(); idx++) {
+            if (str.charAt(idx) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * This method returns <code>true</code> if the built-in {@link TypeConversion} is registered for the given type.
+     * </p>
+     */
+    private static boolean isBuiltIn(FacesContext ctx, Class<?> type, TypeConversion conversion) {
+        return getTypeConversions(ctx).get(type) == conversion;
+    }
+
+    /**
+     * <p>
+     * This method returns a function which gives the same result as {@link #asInt(Object)}, without creating an
+     * <code>Integer</code> when the built-in conversion is used. The registered conversion is looked up once, when this
+     * method is called.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     */
+    public static ToIntFunction<Object> getIntConverter(FacesContext ctx) {
+        if (isBuiltIn(ctx, Integer.class, INTEGER_TYPE_CONVERSION)) {
+            return value -> toInt(value, 0);
+        }
+        return value -> asInt(value);
+    }
+
+    /**
+     * <p>
+     * This method returns a function which gives the same result as {@link #asLong(Object)}, see
+     * {@link #getIntConverter(FacesContext)}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     */
+    public static ToLongFunction<Object> getLongConverter(FacesContext ctx) {
+        if (isBuiltIn(ctx, Long.class, LONG_TYPE_CONVERSION)) {
+            return value -> toLong(value, 0L);
+        }
+        return value -> asLong(value);
+    }
+
+    /**
+     * <p>
+     * This method returns a function which gives the same result as {@link #asDouble(Object)}, see
+     * {@link #getIntConverter(FacesContext)}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     */
+    public static ToDoubleFunction<Object> getDoubleConverter(FacesContext ctx) {
+        if (isBuiltIn(ctx, Double.class, DOUBLE_TYPE_CONVERSION)) {
+            return value -> toDouble(value, 0D);
+        }
+        return value -> asDouble(value);
+    }
+
+    /**
+     * <p>
+     * This method returns a function which gives the same result as {@link #asBoolean(Object)}, see
+     * {@link #getIntConverter(FacesContext)}.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code> (may be null).
+     */
+    public static Predicate<Object> getBooleanConverter(FacesContext ctx) {
+        if (isBuiltIn(ctx, Boolean.class, BOOLEAN_TYPE_CONVERSION)) {
+            return value -> toBoolean(value, false);
+        }
+        return value -> asBoolean(value);
+    }
+
+    /**
+     * <p>
+     * The built-in conversion to an <code>int</code>.
+     * </p>
+     */
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Integer) {
+            return ((Integer) value).intValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        String str = value.toString();
+        return isBlank(str) ? defaultValue : Integer.parseInt(str);
+    }
+
+    /**
+     * <p>
+     * The built-in conversion to a <code>long</code>.
+     * </p>
+     */
+    private static long toLong(Object value, long defaultValue) {
+        if (value instanceof Long) {
+            return ((Long) value).longValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        String str = value.toString();
+        return isBlank(str) ? defaultValue : Long.parseLong(str);
+    }
+
+    /**
+     * <p>
+     * The built-in conversion to a <code>double</code>.
+     * </p>
+     */
+    private static double toDouble(Object value, double defaultValue) {
+        if (value instanceof Double) {
+            return ((Double) value).doubleValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        String str = value.toString();
+        return isBlank(str) ? defaultValue : Double.parseDouble(str);
+    }
+
+    /**
+     * <p>
+     * The built-in conversion to a <code>boolean</code>.
+     * </p>
+     */
+    private static boolean toBoolean(Object value, boolean defaultValue) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        }
+        if (value == null) {
+            return defaultValue;
+        }
+        String str = value.toString();
+        return isBlank(str) ? defaultValue : Boolean.parseBoolean(str);
     }
 
     /**
@@ -313,18 +539,19 @@ public class TypeConverter extends Object {
         }
 
         // Check if the provided value is already of the target type
+        Class<?> sourceType = value.getClass();
         if (typeKey instanceof Class && (Class) typeKey != Object.class) {
-            if (((Class) typeKey).isInstance(value)) {
+            if (typeKey == sourceType || ((Class) typeKey).isInstance(value)) {
                 return value;
             }
         }
 
-        // Find the type conversion object
-        TypeConversion conversion = getTypeConversions(null).get(typeKey);
+        // Find the converter for the type conversion object
+        Function<Object, Object> converter = getConverter(null, typeKey, sourceType);
 
         // Convert the value
-        if (conversion != null) {
-            return conversion.convertValue(value);
+        if (converter != null) {
+            return converter.apply(value);
         } else {
             throw new IllegalArgumentException("Could not find type conversion for " + "type \"" + typeKey + "\" (value = \"" + value + "\")");
         }
@@ -377,6 +604,13 @@ public class TypeConverter extends Object {
      *
      */
     public static int asInt(Object value, int defaultValue) {
+        if (value instanceof Integer) {
+            return ((Integer) value).intValue();
+        }
+        if (isBuiltIn(null, Integer.class, INTEGER_TYPE_CONVERSION)) {
+            // Don't create the Integer
+            return toInt(value, defaultValue);
+        }
         value = asType(Integer.class, value);
         if (value != null) {
             return ((Integer) value).intValue();
@@ -395,6 +629,13 @@ public class TypeConverter extends Object {
      *
      */
     public static long asLong(Object value, long defaultValue) {
+        if (value instanceof Long) {
+            return ((Long) value).longValue();
+        }
+        if (isBuiltIn(null, Long.class, LONG_TYPE_CONVERSION)) {
+            // Don't create the Long
+            return toLong(value, defaultValue);
+        }
         value = asType(Long.class, value);
         if (value != null) {
             return ((Long) value).longValue();
@@ -431,6 +672,13 @@ public class TypeConverter extends Object {
      *
      */
     public static double asDouble(Object value, double defaultValue) {
+        if (value instanceof Double) {
+            return ((Double) value).doubleValue();
+        }
+        if (isBuiltIn(null, Double.class, DOUBLE_TYPE_CONVERSION)) {
+            // Don't create the Double
+            return toDouble(value, defaultValue);
+        }
         value = asType(Double.class, value);
         if (value != null) {
             return ((Double) value).doubleValue();
@@ -467,6 +715,13 @@ public class TypeConverter extends Object {
      *
      */
     public static boolean asBoolean(Object value, boolean defaultValue) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        }
+        if (isBuiltIn(null, Boolean.class, BOOLEAN_TYPE_CONVERSION)) {
+            // Don't create the Boolean
+            return toBoolean(value, defaultValue);
+        }
         value = asType(Boolean.class, value);
         if (value != null) {
             return ((Boolean) value).booleanValue();
@@ -981,8 +1236,33 @@ public class TypeConverter extends Object {
      * </p>
      */
     private static final String CONVERSIONS = "__jsft_TypeConversions";
+
+    /**
+     * <p>
+     * The {@link TypeConversion}s of each application, stored under {@link #CONVERSIONS}.
+     * </p>
+     */
+    private static final ApplicationRegistry<Object, TypeConversion> TYPE_CONVERSIONS = new ApplicationRegistry<>(CONVERSIONS,
+            TypeConverter::addDefaultTypeConversions);
     private static final Charset UTF8 = Charset.forName("UTF-8");
 
+    /**
+     * <p>
+     * The functions returned by {@link #getConverter(FacesContext, Object, Class)} for each application, by type key
+     * and source type.
+     * </p>
+     */
+    private static final ApplicationRegistry<Object, Map<Class<?>, Function<Object, Object>>> CONVERTERS = new ApplicationRegistry<>(
+            "__jsft_type_converters", map -> {
+            });
+
+    /**
+     * <p>
+     * The function which returns the value itself.
+     * </p>
+     */
+    private static final Function<Object, Object> IDENTITY = value -> value;
+
     /** Logical type name "null" */
     public static final String TYPE_UNKNOWN = "null";
 
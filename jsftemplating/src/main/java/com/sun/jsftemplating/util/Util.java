@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.Function;
 
 import jakarta.faces.component.UIViewRoot;
 import jakarta.faces.context.FacesContext;
@@ -359,6 +360,45 @@ public class Util {
         }
     }
 
+    /**
+     * <p>
+     * This method returns the application-scoped attribute stored under the given key. The first time, it is created by
+     * the given <code>Function</code> while holding a lock, so it is created only once per application. If the
+     * <code>Function</code> returns <code>null</code> (e.g. a cache which is disabled), this is remembered and
+     * <code>null</code> is returned without calling the <code>Function</code> again.
+     * </p>
+     *
+     * @param ctx The <code>FacesContext</code>.
+     * @param key The application <code>Map</code> key.
+     * @param factory Creates the attribute.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getApplicationAttribute(FacesContext ctx, String key, Function<FacesContext, T> factory) {
+        Map<String, Object> appMap = ctx.getExternalContext().getApplicationMap();
+        Object value = appMap.get(key);
+        if (value == null) {
+            synchronized (APPLICATION_ATTRIBUTE_LOCK) {
+                value = appMap.get(key);
+                if (value == null) {
+                    value = factory.apply(ctx);
+                    if (value == null) {
+                        value = Boolean.FALSE;
+                    }
+                    appMap.put(key, value);
+                }
+            }
+        }
+        return value == Boolean.FALSE ? null : (T) value;
+    }
+
+    /**
+     * <p>
+     * The lock used to create application-scoped attributes (see
+     * {@link #getApplicationAttribute(FacesContext, String, Function)}).
+     * </p>
+     */
+    private static final Object APPLICATION_ATTRIBUTE_LOCK = new Object();
+
     /**
      * <p>
      * Application scope attribute name for storing custom <code>ClassLoaders</code>.
@@ -96,12 +96,12 @@ public class ContextMocker extends FacesContext {
 
   @Override
   public boolean getRenderResponse() {
-    throw new UnsupportedOperationException("Not supported.");
+    return false;
   }
 
   @Override
   public boolean getResponseComplete() {
-    throw new UnsupportedOperationException("Not supported.");
+    return false;
   }
 
   @Override
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+
+import jakarta.el.ELContext;
+import jakarta.el.ELResolver;
+import jakarta.el.FunctionMapper;
+import jakarta.el.VariableMapper;
+import jakarta.faces.component.UIViewRoot;
+import jakarta.faces.context.FacesContext;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestAttributeEvent;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ *  <p>	Tests for the {@link PageSessionResolver}.</p>
+ */
+public class PageSessionResolverTest {
+
+    @Before
+    public void init() {
+        _ctx = new ContextMocker();
+        _ctx._extCtx = new ContextMocker.ExternalContextMocker() {
+            @Override
+            public Map<String, Object> getSessionMap() {
+                return _sessionMap;
+            }
+        };
+        _ctx._viewRoot = new UIViewRoot() {
+            @Override
+            public Map<String, Object> getAttributes() {
+                return _viewAttributes;
+            }
+
+            @Override
+            public Map<String, Object> getViewMap(boolean create) {
+                return _viewMap;
+            }
+        };
+        _elCtx = new TestELContext(_ctx);
+
+        Map<String, Serializable> pageSession = PageSessionResolver.createPageSession(_ctx, null);
+        pageSession.put("foo", "pageFoo");
+        pageSession.put("bar", "pageBar");
+        pageSession.put("baz", "pageBaz");
+    }
+
+    @After
+    public void cleanUp() {
+        System.clearProperty(PageSessionResolver.RESOLUTION_MODE);
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> By default the other scopes take precedence.</p>
+     */
+    @Test
+    public void testScopes() {
+        shadow();
+        PageSessionResolver resolver = new PageSessionResolver();
+        Assert.assertEquals(PageSessionResolver.MODE_SCOPES, resolver.getMode(_ctx));
+        Assert.assertEquals("requestFoo", getValue(resolver, "foo"));
+        Assert.assertEquals("sessionBar", getValue(resolver, "bar"));
+        Assert.assertEquals("viewBaz", getValue(resolver, "baz"));
+        Assert.assertNull(getValue(resolver, "missing"));
+        Assert.assertFalse(_elCtx.isPropertyResolved());
+        Assert.assertSame(PageSessionResolver.getPageSession(_ctx, null), getValue(resolver, PageSessionResolver.PAGE_SESSION));
+    }
+
+    /**
+     *	<p> The index only skips the other scopes for attributes which have
+     *	    not been set in them.</p>
+     */
+    @Test
+    public void testIndexed() {
+        System.setProperty(PageSessionResolver.RESOLUTION_MODE, "Indexed");
+        PageSessionResolver resolver = new PageSessionResolver();
+        Assert.assertEquals(PageSessionResolver.MODE_INDEXED, resolver.getMode(_ctx));
+
+        // No index, same as "scopes"
+        shadow();
+        Assert.assertEquals("requestFoo", getValue(resolver, "foo"));
+        resolver = new PageSessionResolver();
+
+        // An index which has not seen "foo" or "bar"
+        ScopeAttributeIndex index = createIndex();
+        Assert.assertEquals("pageFoo", getValue(resolver, "foo"));
+        Assert.assertEquals("pageBar", getValue(resolver, "bar"));
+        Assert.assertEquals("viewBaz", getValue(resolver, "baz"));
+
+        index.attributeAdded(new ServletRequestAttributeEvent(Mockito.mock(ServletContext.class), Mockito.mock(ServletRequest.class),
+                "foo", "requestFoo"));
+        index.add("bar");
+        Assert.assertEquals("requestFoo", getValue(resolver, "foo"));
+        Assert.assertEquals("sessionBar", getValue(resolver, "bar"));
+        Assert.assertTrue(ScopeAttributeIndex.getIndex(_ctx.getExternalContext()).getNames().contains("existing"));
+
+        // Too many names, give up
+        for (int idx = 0; idx <= ScopeAttributeIndex.MAX_NAMES; idx++) {
+            index.add("name" + idx);
+        }
+        Assert.assertNull(index.getNames());
+        _ctx.getExternalContext().getRequestMap().put("baz", "requestBaz");
+        Assert.assertEquals("requestBaz", getValue(resolver, "baz"));
+    }
+
+    /**
+     *	<p> The {@link ScopeAttributeIndex} is only active in indexed
+     *	    mode, and only one is registered.</p>
+     */
+    @Test
+    public void testIndexRegistration() {
+        ScopeAttributeIndex index = createIndex();
+        Assert.assertNull(ScopeAttributeIndex.getIndex(_ctx.getExternalContext()));
+        index.add("foo");
+        Assert.assertTrue(index.getNames().isEmpty());
+
+        System.setProperty(PageSessionResolver.RESOLUTION_MODE, PageSessionResolver.MODE_INDEXED);
+        index = createIndex();
+        Assert.assertSame(index, ScopeAttributeIndex.getIndex(_ctx.getExternalContext()));
+        ScopeAttributeIndex other = createIndex();
+        Assert.assertSame(index, ScopeAttributeIndex.getIndex(_ctx.getExternalContext()));
+        other.add("foo");
+        Assert.assertFalse(index.getNames().contains("foo"));
+    }
+
+    /**
+     *	<p> In strict mode the page session value is always used.</p>
+     */
+    @Test
+    public void testStrict() {
+        System.setProperty(PageSessionResolver.RESOLUTION_MODE, PageSessionResolver.MODE_STRICT);
+        shadow();
+        PageSessionResolver resolver = new PageSessionResolver();
+        Assert.assertEquals("pageFoo", getValue(resolver, "foo"));
+        Assert.assertEquals("pageBar", getValue(resolver, "bar"));
+        Assert.assertEquals("pageBaz", getValue(resolver, "baz"));
+        Assert.assertNull(getValue(resolver, "missing"));
+        Assert.assertFalse(_elCtx.isPropertyResolved());
+    }
+
+    /**
+     *	<p> Compares the modes for a table which resolves page session
+     *	    attributes in each cell while the row variable changes.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        Map<String, Serializable> pageSession = PageSessionResolver.getPageSession(_ctx, null);
+        String[] columns = new String[10];
+        for (int idx = 0; idx < columns.length; idx++) {
+            columns[idx] = "column" + idx;
+            pageSession.put(columns[idx], idx);
+        }
+        System.setProperty(PageSessionResolver.RESOLUTION_MODE, PageSessionResolver.MODE_INDEXED);
+        ScopeAttributeIndex index = createIndex();
+        index.add("row");
+        Map<String, Object> requestMap = _ctx.getExternalContext().getRequestMap();
+        int rows = 50000;
+        long[] times = new long[3];
+        String[] modes = { PageSessionResolver.MODE_SCOPES, PageSessionResolver.MODE_INDEXED, PageSessionResolver.MODE_STRICT };
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            for (int mode = 0; mode < modes.length; mode++) {
+                System.setProperty(PageSessionResolver.RESOLUTION_MODE, modes[mode]);
+                PageSessionResolver resolver = new PageSessionResolver();
+                long start = System.currentTimeMillis();
+                for (int row = 0; row < rows; row++) {
+                    requestMap.put("row", row);
+                    for (String column : columns) {
+                        getValue(resolver, column);
+                    }
+                }
+                times[mode] = System.currentTimeMillis() - start;
+            }
+        }
+        requestMap.remove("row");
+System.out.println("PageSessionResolver performance (" + (rows * columns.length) + "), lower is better: scopes " + times[0] + ", indexed "
+        + times[1] + ", strict " + times[2]);
+    }
+
+    private Object getValue(PageSessionResolver resolver, String property) {
+        _elCtx.setPropertyResolved(false);
+        return resolver.getValue(_elCtx, null, property);
+    }
+
+    /**
+     *	<p> This method sets "foo" in request scope, "bar" in session scope,
+     *	    and "baz" in view scope.</p>
+     */
+    private void shadow() {
+        _ctx.getExternalContext().getRequestMap().put("foo", "requestFoo");
+        _sessionMap.put("bar", "sessionBar");
+        _viewMap.put("baz", "viewBaz");
+    }
+
+    private ScopeAttributeIndex createIndex() {
+        ScopeAttributeIndex index = new ScopeAttributeIndex();
+        Map<String, Object> appMap = _ctx.getExternalContext().getApplicationMap();
+        appMap.put("existing", "value");
+        ServletContext servletCtx = Mockito.mock(ServletContext.class);
+        Mockito.when(servletCtx.getAttributeNames()).thenReturn(Collections.enumeration(appMap.keySet()));
+        Mockito.doAnswer(invocation -> appMap.put(invocation.getArgument(0), invocation.getArgument(1))).when(servletCtx)
+                .setAttribute(Mockito.anyString(), Mockito.any());
+        Mockito.when(servletCtx.getAttribute(Mockito.anyString())).thenAnswer(invocation -> appMap.get(invocation.getArgument(0)));
+        index.contextInitialized(new ServletContextEvent(servletCtx));
+        return index;
+    }
+
+    /**
+     *	<p> A minimal <code>ELContext</code>.</p>
+     */
+    private static class TestELContext extends ELContext {
+        TestELContext(FacesContext ctx) {
+            putContext(FacesContext.class, ctx);
+        }
+
+        @Override
+        public ELResolver getELResolver() {
+            return null;
+        }
+
+        @Override
+        public FunctionMapper getFunctionMapper() {
+            return null;
+        }
+
+        @Override
+        public VariableMapper getVariableMapper() {
+            return null;
+        }
+    }
+
+    private ContextMocker _ctx;
+    private ELContext _elCtx;
+    private final Map<String, Object> _sessionMap = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, Object> _viewAttributes = new HashMap<>();
+    private final Map<String, Object> _viewMap = new HashMap<>();
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link PermissionChecker}.</p>
+ */
+public class PermissionCheckerTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+        VariableResolver.setDataSource(FacesContext.getCurrentInstance(), "test", _dataSource);
+    }
+
+    @After
+    public void cleanUp() {
+        VariableResolver.setDataSource(FacesContext.getCurrentInstance(), "test", null);
+        PermissionChecker.registerFunction("yes", null);
+    }
+
+    /**
+     *	<p> Compiled equations give the same result (or error) as a new
+     *	    <code>PermissionChecker</code>.</p>
+     */
+    @Test
+    public void testGolden() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        for (String equation : GOLDEN) {
+            // Twice, the 2nd time uses the compiled equation
+            for (int count = 0; count < 2; count++) {
+                Object expected;
+                try {
+                    expected = new PermissionChecker(null, null, equation).hasPermission();
+                } catch (RuntimeException ex) {
+                    expected = ex.getClass().getName();
+                }
+                Object actual;
+                try {
+                    actual = PermissionChecker.hasPermission(ctx, null, null, equation);
+                } catch (RuntimeException ex) {
+                    actual = ex.getClass().getName();
+                }
+                Assert.assertEquals("Result of: " + equation, expected, actual);
+            }
+        }
+    }
+
+    /**
+     *	<p> The right operand of '&amp;' and '|' is only evaluated when
+     *	    needed.</p>
+     */
+    @Test
+    public void testShortCircuit() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        _calls.clear();
+        Assert.assertTrue(PermissionChecker.hasPermission(ctx, null, null, "true|$test{t}"));
+        Assert.assertFalse(PermissionChecker.hasPermission(ctx, null, null, "false&$test{t}"));
+        Assert.assertFalse(PermissionChecker.hasPermission(ctx, null, null, "$test{f}&$test{t}"));
+        Assert.assertEquals("[f]", _calls.toString());
+
+        _calls.clear();
+        Assert.assertTrue(PermissionChecker.hasPermission(ctx, null, null, "$test{f}|$test{t}"));
+        Assert.assertEquals("[f, t]", _calls.toString());
+    }
+
+    /**
+     *	<p> Registered functions are used, even if the equation was
+     *	    compiled before the function was registered.</p>
+     */
+    @Test
+    public void testRegisterFunction() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Assert.assertTrue(PermissionChecker.hasPermission(ctx, null, null, "yes()"));
+        PermissionChecker.registerFunction("yes", NoFunction.class);
+        Assert.assertFalse(PermissionChecker.hasPermission(ctx, null, null, "yes()"));
+        Assert.assertTrue(PermissionChecker.hasPermission(ctx, null, null, "!yes()"));
+    }
+
+    /**
+     *	<p> The number of compiled equations is bounded, and equations are
+     *	    still compiled once it is full.</p>
+     */
+    @Test
+    public void testConditionsBounded() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        int maxSize = PermissionChecker.getConditions(ctx).getMaxSize();
+        for (int idx = 0; idx <= maxSize; idx++) {
+            Assert.assertTrue(PermissionChecker.hasPermission(ctx, null, null, "true | " + idx));
+        }
+        Assert.assertTrue(PermissionChecker.getConditions(ctx).size() <= maxSize);
+        Assert.assertFalse(PermissionChecker.hasPermission(ctx, null, null, "false & true"));
+        Assert.assertNotNull(PermissionChecker.getConditions(ctx).get("false & true"));
+    }
+
+    /**
+     *	<p> Compares the speed of compiled conditions to parsing them
+     *	    each time.  This only runs when the
+     *	    <code>jsftemplating.benchmark</code> system property is
+     *	    <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        String equation = "$test{f}|($test{a}=A.*)&(($test{n}<10)|$test{t})";
+        int iterations = 100000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                new PermissionChecker(null, null, equation).hasPermission();
+            }
+            long interpreted = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                PermissionChecker.hasPermission(ctx, null, null, equation);
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("PermissionChecker performance (" + iterations + "), lower is better: parsed " + interpreted + ", compiled " + compiled);
+            }
+        }
+    }
+
+    /**
+     *	<p> A registered function that is always false.</p>
+     */
+    public static class NoFunction implements PermissionChecker.Function {
+        @Override
+        public boolean evaluate() {
+            return false;
+        }
+
+        @Override
+        public List<String> getArguments() {
+            return null;
+        }
+
+        @Override
+        public void setArguments(List<String> args) {
+        }
+    }
+
+    private static final String[] GOLDEN = {
+        "false|false",
+        "true |false",
+        "true&(false|true)",
+        "true&false|true",
+        "true&true|false&true",
+        "!true|false&!(false|true)",
+        "!(!(true&!true)|!(false|false))|(true|false)&true",
+        "false =false",
+        " test= me ",
+        " this should work=thisshouldwork",
+        "false|ab=true",
+        "false|(ab=true)",
+        "false|(ab=ab)",
+        "!",
+        "",
+        "!$escape{}",
+        "$escape{}",
+        null,
+        "&",
+        "true&",
+        "true true",
+        "(true",
+        "true)",
+        "$test{t}",
+        "$test{f}",
+        "$test{e}",
+        "$test{null}",
+        "!$test{null}",
+        "$test{a}=A",
+        "$test{a}=a",
+        "$test{a}=[A-Z]",
+        "$test{a}=$test{a}",
+        "abc=$test{a}",
+        "$test{n}<10",
+        "$test{n}>10",
+        "10<$test{n}",
+        "$test{n}%2",
+        "$test{n}%2=1",
+        "$test{n}/2=2",
+        "$test{n}%0",
+        "$test{a}<1",
+        "$test{e}<1",
+        "$test{i}<10",
+        "$test{i}%4/2=1",
+        "10/3<4",
+        " 7 %2",
+        "1<2<3",
+        "($test{f}|$test{t})&!$test{f}",
+        "($test{a}=A.*)&(($test{n}<10)|$test{t})",
+        "!($test{a}=A.*)|($test{n}<10)",
+        "$test{a}=(",
+    };
+
+    private final List<String> _calls = new ArrayList<>();
+
+    private final Map<String, Object> _values = new HashMap<>();
+    {
+        _values.put("t", "true");
+        _values.put("f", "false");
+        _values.put("e", "");
+        _values.put("a", "A");
+        _values.put("n", "5");
+        _values.put("i", 7);
+    }
+
+    private final VariableResolver.DataSource _dataSource = new VariableResolver.DataSource() {
+        @Override
+        public Object getValue(FacesContext ctx, LayoutElement desc, UIComponent component, String key) {
+            _calls.add(key);
+            return _values.get(key);
+        }
+    };
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.component.ComponentUtil;
+
+import jakarta.el.ELContext;
+import jakarta.el.ELException;
+import jakarta.el.ExpressionFactory;
+import jakarta.el.ValueExpression;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ *  <p>	Tests for the {@link ValueExpressionCache}.</p>
+ */
+public class ValueExpressionCacheTest {
+
+    /**
+     *	<p> An expression is parsed once per expected type.</p>
+     */
+    @Test
+    public void testHitsAndMisses() {
+        ExpressionFactory factory = createFactory();
+        ValueExpressionCache cache = new ValueExpressionCache(10);
+
+        ValueExpression ve = cache.getValueExpression(factory, null, "#{a}", Object.class);
+        Assert.assertSame(ve, cache.getValueExpression(factory, null, "#{a}", Object.class));
+        Assert.assertNotSame(ve, cache.getValueExpression(factory, null, "#{a}", String.class));
+        Assert.assertNotSame(ve, cache.getValueExpression(factory, null, "#{b}", Object.class));
+
+        Mockito.verify(factory, Mockito.times(1)).createValueExpression(null, "#{a}", Object.class);
+        Mockito.verify(factory, Mockito.times(1)).createValueExpression(null, "#{a}", String.class);
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertTrue(cache.contains("#{a}", String.class));
+        Assert.assertFalse(cache.contains("#{a}", Integer.class));
+    }
+
+    /**
+     *	<p> The number of entries is bounded.</p>
+     */
+    @Test
+    public void testMaxSize() {
+        ExpressionFactory factory = createFactory();
+        ValueExpressionCache cache = new ValueExpressionCache(5);
+        for (int count = 0; count < 20; count++) {
+            cache.getValueExpression(factory, null, "#{v" + count + "}", Object.class);
+            Assert.assertTrue(cache.size() <= 5);
+        }
+        Assert.assertEquals(20 - cache.size(), cache.getEvictionCount());
+        // The least recently used entries are evicted first
+        Assert.assertTrue(cache.contains("#{v19}", Object.class));
+        Assert.assertFalse(cache.contains("#{v14}", Object.class));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     *	<p> Expressions that cannot be parsed are not remembered.</p>
+     */
+    @Test
+    public void testParseError() {
+        ExpressionFactory factory = createFactory();
+        ValueExpressionCache cache = new ValueExpressionCache(10);
+        for (int count = 0; count < 2; count++) {
+            try {
+                cache.getValueExpression(factory, null, "#{bad", Object.class);
+                Assert.fail("Expected an ELException.");
+            } catch (ELException ex) {
+                // Expected
+            }
+        }
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     *	<p> Expressions which are used are kept, the least recently used
+     *	    are evicted.</p>
+     */
+    @Test
+    public void testLeastRecentlyUsed() throws Exception {
+        ExpressionFactory factory = createFactory();
+        ValueExpressionCache cache = new ValueExpressionCache(5);
+        for (int count = 0; count < 5; count++) {
+            cache.getValueExpression(factory, null, "#{v" + count + "}", Object.class);
+            Thread.sleep(1);
+        }
+        cache.getValueExpression(factory, null, "#{v0}", Object.class);
+        cache.getValueExpression(factory, null, "#{v5}", Object.class);
+        Assert.assertTrue("used", cache.contains("#{v0}", Object.class));
+        Assert.assertFalse("evicted", cache.contains("#{v1}", Object.class));
+    }
+
+    /**
+     *	<p> The application's cache is only used when it is enabled.</p>
+     */
+    @Test
+    public void testOptIn() {
+        ContextMocker ctx = new ContextMocker();
+        Assert.assertNull("disabled", ComponentUtil.getValueExpressionCache(ctx));
+
+        ctx = new ContextMocker();
+        Map initParams = ((ContextMocker.ExternalContextMocker) ctx.getExternalContext())._initParamMap;
+        initParams.put(ComponentUtil.VALUE_EXPRESSION_CACHE_SIZE, "100");
+        Assert.assertNotNull("enabled", ComponentUtil.getValueExpressionCache(ctx));
+    }
+
+    private ExpressionFactory createFactory() {
+        ExpressionFactory factory = Mockito.mock(ExpressionFactory.class);
+        Mockito.when(factory.createValueExpression(Mockito.<ELContext>any(), Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    if (!((String) invocation.getArgument(1)).endsWith("}")) {
+                        throw new ELException("Unable to parse: " + invocation.getArgument(1));
+                    }
+                    return Mockito.mock(ValueExpression.class);
+                });
+        return factory;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.el;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.layout.descriptors.LayoutElement;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link VariableResolver}.</p>
+ */
+public class VariableResolverTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+        VariableResolver.setDataSource(FacesContext.getCurrentInstance(), "test", _dataSource);
+        FacesContext.getCurrentInstance().getExternalContext().getRequestMap().put("attr", "ATTR");
+    }
+
+    @After
+    public void cleanUp() {
+        VariableResolver.setDataSource(FacesContext.getCurrentInstance(), "test", null);
+        FacesContext.getCurrentInstance().getExternalContext().getRequestMap().remove("attr");
+    }
+
+    /**
+     *	<p> Compiled Strings resolve exactly as the original algorithm does,
+     *	    including the order in which values are obtained, escaping,
+     *	    nesting, and errors.</p>
+     */
+    @Test
+    public void testGolden() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        for (String string : GOLDEN) {
+            // Twice, the 2nd time uses the compiled String
+            for (int count = 0; count < 2; count++) {
+                _calls.clear();
+                Object expected = interpret(ctx, string);
+                List<String> expectedCalls = new ArrayList<>(_calls);
+
+                _calls.clear();
+                Object actual;
+                try {
+                    actual = VariableResolver.resolveVariables(ctx, null, null, (Object) string);
+                } catch (RuntimeException ex) {
+                    actual = ex.getClass().getName() + ": " + ex.getMessage();
+                }
+                Assert.assertEquals("Result of: " + string, expected, actual);
+                Assert.assertEquals("DataSource calls for: " + string, expectedCalls, _calls);
+            }
+        }
+    }
+
+    /**
+     *	<p> Values are returned as-is (not converted to a
+     *	    <code>String</code>) when the expression is the whole
+     *	    <code>String</code>.</p>
+     */
+    @Test
+    public void testWholeString() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Assert.assertEquals(Integer.valueOf(5), VariableResolver.resolveVariables(ctx, null, null, (Object) "$test{int}"));
+        Assert.assertEquals("5x", VariableResolver.resolveVariables(ctx, null, null, (Object) "$test{int}x"));
+        Assert.assertNull(VariableResolver.resolveVariables(ctx, null, null, (Object) "$test{null}"));
+        Assert.assertEquals("ATTR", VariableResolver.resolveVariables(ctx, null, null, (Object) "${attr}"));
+    }
+
+    /**
+     *	<p> Registering a {@link VariableResolver.DataSource} is seen by
+     *	    Strings that were already compiled.</p>
+     */
+    @Test
+    public void testSetDataSource() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Assert.assertEquals("[A]", VariableResolver.resolveVariables(ctx, null, null, (Object) "[$test{a}]"));
+        VariableResolver.setDataSource(ctx, "test", new VariableResolver.EscapeDataSource());
+        Assert.assertEquals("[a]", VariableResolver.resolveVariables(ctx, null, null, (Object) "[$test{a}]"));
+    }
+
+    /**
+     *	<p> The number of compiled Strings is bounded, and Strings are
+     *	    still compiled once it is full.</p>
+     */
+    @Test
+    public void testTemplateCacheBounded() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        int maxSize = VariableResolver.getVariableTemplateCache(ctx).getMaxSize();
+        for (int idx = 0; idx <= maxSize; idx++) {
+            VariableResolver.resolveVariables(ctx, null, null, (Object) ("[$test{k" + idx + "}]"));
+        }
+        Assert.assertTrue(VariableResolver.getVariableTemplateCache(ctx).size() <= maxSize);
+        Assert.assertEquals("[new!]", VariableResolver.resolveVariables(ctx, null, null, (Object) "[$test{new}]"));
+        Assert.assertNotNull(VariableResolver.getVariableTemplateCache(ctx).get("[$test{new}]"));
+    }
+
+    /**
+     *	<p> <code>$constant{...}</code> values are found once per class,
+     *	    including classes which do not exist.</p>
+     */
+    @Test
+    public void testConstants() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        VariableResolver.DataSource ds = VariableResolver.getDataSource(ctx, VariableResolver.CONSTANT);
+        Assert.assertEquals(Integer.MAX_VALUE, ds.getValue(ctx, null, null, "java.lang.Integer.MAX_VALUE"));
+        Assert.assertEquals(NUMBER, ds.getValue(ctx, null, null, VariableResolverTest.class.getName() + ".NUMBER"));
+        Assert.assertNull(ds.getValue(ctx, null, null, VariableResolverTest.class.getName() + ".NULL_CONSTANT"));
+        Assert.assertNull(ds.getValue(ctx, null, null, VariableResolverTest.class.getName() + ".MISSING"));
+        Assert.assertNull(ds.getValue(ctx, null, null, VariableResolverTest.class.getName() + "._calls"));
+        for (int count = 0; count < 2; count++) {
+            try {
+                ds.getValue(ctx, null, null, "no.such.Class.FIELD");
+                Assert.fail("Expected an IllegalArgumentException.");
+            } catch (IllegalArgumentException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("'no.such.Class' was not found!"));
+                Assert.assertTrue(ex.getCause() instanceof ClassNotFoundException);
+            }
+        }
+    }
+
+    /**
+     *	<p> A class which one application cannot find may still be found
+     *	    by another application, with its own <code>ClassLoader</code>.</p>
+     */
+    @Test
+    public void testConstantsPerApplication() throws Exception {
+        Path dir = Files.createTempDirectory("jsft");
+        Path src = dir.resolve("Constants.java");
+        Files.write(src, "package jsft.test; public class Constants { public static final String VALUE = \"found\"; }".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", dir.toString(), src.toString()));
+
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        VariableResolver.DataSource ds = VariableResolver.getDataSource(ctx, VariableResolver.CONSTANT);
+        try {
+            ds.getValue(ctx, null, null, "jsft.test.Constants.VALUE");
+            Assert.fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ClassNotFoundException);
+        }
+
+        FacesContext other = new ContextMocker();
+        Thread thread = Thread.currentThread();
+        ClassLoader loader = thread.getContextClassLoader();
+        try (URLClassLoader appLoader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, loader)) {
+            thread.setContextClassLoader(appLoader);
+            Assert.assertEquals("found", VariableResolver.getDataSource(other, VariableResolver.CONSTANT).getValue(other, null, null, "jsft.test.Constants.VALUE"));
+
+            // The application which did not find it does not search again
+            try {
+                ds.getValue(ctx, null, null, "jsft.test.Constants.VALUE");
+                Assert.fail("Expected an IllegalArgumentException.");
+            } catch (IllegalArgumentException ex) {
+                Assert.assertTrue(ex.getCause() instanceof ClassNotFoundException);
+            }
+        } finally {
+            thread.setContextClassLoader(loader);
+            for (File file : dir.resolve("jsft/test").toFile().listFiles()) {
+                file.delete();
+            }
+            Files.delete(dir.resolve("jsft/test"));
+            Files.delete(dir.resolve("jsft"));
+            Files.delete(src);
+            Files.delete(dir);
+        }
+    }
+
+    /**
+     *	<p> Compares the speed of compiled Strings to the original
+     *	    algorithm.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        String string = "<a href=\"$test{a}?x=$test{b}\" title='${attr}'>$escape{$}text</a> and some more text to skip";
+        int iterations = 100000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                VariableResolver.resolveVariables(ctx, null, null, string, "$", "{", "}");
+            }
+            long interpreted = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                VariableResolver.resolveVariables(ctx, null, null, (Object) string);
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("VariableResolver performance (" + iterations + "), lower is better: parsed " + interpreted + ", compiled " + compiled);
+            }
+        }
+    }
+
+    private Object interpret(FacesContext ctx, String string) {
+        try {
+            return VariableResolver.resolveVariables(ctx, null, null, string, "$", "{", "}");
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName() + ": " + ex.getMessage();
+        }
+    }
+
+    private static final String[] GOLDEN = {
+        "",
+        "plain text",
+        "$test{a}",
+        "x$test{a}y",
+        "$test{a}$test{b}",
+        "$test{a} and $test{b} and $test{c}",
+        "$test{brace}",
+        "$test{brace}$test{a}",
+        "$test{a}$test{brace}",
+        "x$test{a}$test{brace}",
+        "$test{a}$test{brace}x",
+        "$test{a}$test{brace}}",
+        "$test{open}$test{a}",
+        "$test{a} $test{close}} $test{b}",
+        "$test{$test{a}}",
+        "$test{x$test{a}y}",
+        "$test{a{b}c}",
+        "$test{a{b}c} $test{a}",
+        "$test{dollar}",
+        "x $test{dollar}",
+        "\\$test{a}",
+        "\\\\$test{a}",
+        "x\\$test{a} $test{b}",
+        "$test{a}\\$test{b}",
+        "$test{int}",
+        "$test{int}x",
+        "$test{null}",
+        "[$test{null}]",
+        "$ 5 $test{a}",
+        "$5 and $6",
+        "$test{a",
+        "$test}",
+        "$test{a}}",
+        "$test{a}$",
+        "$test{a}{",
+        "{$test{a}}",
+        "${attr}",
+        "[${attr}]",
+        "$foo{a}",
+        "x $test{a} $foo{a}",
+        "$foo{a} $test{a}",
+        "$f(o{a} $test{a}",
+        "$escape{$}test{a}",
+        "$escape{\\$}test{a}",
+        "#{foo.bar} $test{a}",
+        "#{foo[$test{a}]}",
+        "$test{\\}}",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.CONSTANT}",
+        "[$constant{com.sun.jsftemplating.el.VariableResolverTest.CONSTANT}] $test{a}",
+        "$test{a}$constant{com.sun.jsftemplating.el.VariableResolverTest.BRACE}$test{b}",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.DOLLAR} $test{a}",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.NUMBER}",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.NUMBER}x",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.NULL_CONSTANT}",
+        "[$constant{com.sun.jsftemplating.el.VariableResolverTest.NULL_CONSTANT}]",
+        "[$constant{com.sun.jsftemplating.el.VariableResolverTest.MISSING}]",
+        "$constant{com.sun.jsftemplating.el.VariableResolverTest.MISSING}",
+        "$constant{no.such.Class.FIELD}",
+        "x $constant{no.such.Class.FIELD} $test{a}",
+        "$constant{nodot}",
+        "$constant{$test{a}}",
+    };
+
+    public static final String CONSTANT = "constant";
+    public static final String BRACE = "x}y";
+    public static final String DOLLAR = "$test{b}";
+    public static final Integer NUMBER = 7;
+    public static final String NULL_CONSTANT = null;
+
+    private final List<String> _calls = new ArrayList<>();
+
+    private final Map<String, Object> _values = new HashMap<>();
+    {
+        _values.put("a", "A");
+        _values.put("b", "B");
+        _values.put("brace", "x}y");
+        _values.put("open", "{");
+        _values.put("close", "}");
+        _values.put("dollar", "$test{a}");
+        _values.put("null", null);
+        _values.put("int", Integer.valueOf(5));
+    }
+
+    private final VariableResolver.DataSource _dataSource = new VariableResolver.DataSource() {
+        @Override
+        public Object getValue(FacesContext ctx, LayoutElement desc, UIComponent component, String key) {
+            _calls.add(key);
+            return _values.containsKey(key) ? _values.get(key) : key + "!";
+        }
+    };
+}
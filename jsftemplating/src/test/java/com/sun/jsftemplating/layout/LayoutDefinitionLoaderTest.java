@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutDefinitionLoader}.</p>
+ */
+public class LayoutDefinitionLoaderTest {
+
+    /**
+     *	<p> Concurrent requests for the same key read it only once.</p>
+     */
+    @Test
+    public void testSingleFlight() throws Exception {
+        final LayoutDefinitionLoader loader = new LayoutDefinitionLoader();
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger reads = new AtomicInteger();
+        final LayoutDefinition def = new LayoutDefinition("/page.jsf");
+
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            Future<LayoutDefinition> leader = exec.submit(() -> loader.load(null, "/page.jsf", () -> {
+                reads.incrementAndGet();
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                return def;
+            }));
+            reading.await();
+            Future<LayoutDefinition> waiter1 = exec.submit(() -> loader.load(null, "/page.jsf", () -> {
+                reads.incrementAndGet();
+                return new LayoutDefinition("/page.jsf");
+            }));
+            Future<LayoutDefinition> waiter2 = exec.submit(() -> loader.load(null, "/page.jsf", () -> {
+                reads.incrementAndGet();
+                return new LayoutDefinition("/page.jsf");
+            }));
+            while (loader.getWaitCount() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            Assert.assertSame("leader", def, leader.get(5, TimeUnit.SECONDS));
+            Assert.assertSame("waiter1", def, waiter1.get(5, TimeUnit.SECONDS));
+            Assert.assertSame("waiter2", def, waiter2.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals("reads", 1, reads.get());
+            Assert.assertEquals("loads", 1, loader.getLoadCount());
+            Assert.assertEquals("inFlight", 0, loader.getInFlightCount());
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    /**
+     *	<p> Failures are reported to the waiting threads, and are not
+     *	    remembered.</p>
+     */
+    @Test
+    public void testFailure() {
+        LayoutDefinitionLoader loader = new LayoutDefinitionLoader();
+        try {
+            loader.load(null, "/bad.jsf", () -> {
+                throw new LayoutDefinitionException("bad");
+            });
+            Assert.fail("Expected LayoutDefinitionException");
+        } catch (LayoutDefinitionException ex) {
+            Assert.assertEquals("message", "bad", ex.getMessage());
+        }
+        LayoutDefinition def = new LayoutDefinition("/bad.jsf");
+        Assert.assertSame("retry", def, loader.load(null, "/bad.jsf", () -> def));
+    }
+}
@@ -19,7 +19,12 @@ package com.sun.jsftemplating.layout;
 import com.sun.jsftemplating.ContextMocker;
 import com.sun.jsftemplating.component.factory.basic.StaticTextFactory;
 import com.sun.jsftemplating.layout.descriptors.ComponentType;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
 import com.sun.jsftemplating.layout.descriptors.handler.HandlerDefinition;
+import com.sun.jsftemplating.layout.facelets.FaceletsLayoutDefinitionManager;
+import com.sun.jsftemplating.layout.template.TemplateLayoutDefinitionManager;
+import jakarta.faces.context.FacesContext;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -98,4 +103,87 @@ public class LayoutDefinitionManagerTest {
 	    Assert.fail(ex.getMessage());
 	}
     }
+
+    /**
+     *	<p> The {@link LayoutDefinitionManager} chosen for a key is
+     *	    remembered.</p>
+     */
+    @Test
+    public void testResolveLayoutDefinitionManager() {
+	FacesContext ctx = FacesContext.getCurrentInstance();
+	LayoutDefinitionManager ldm =
+	    LayoutDefinitionManager.findLayoutDefinitionManager(ctx, "/TemplateFormat.jsf");
+	Assert.assertTrue("template", ldm instanceof TemplateLayoutDefinitionManager);
+	Assert.assertSame("cached", ldm,
+	    LayoutDefinitionManager.getLayoutDefinitionManagerCache(ctx).get("/TemplateFormat.jsf"));
+	Assert.assertNull("notFound",
+	    LayoutDefinitionManager.findLayoutDefinitionManager(ctx, "/doesNotExist.jsf"));
+    }
+
+    /**
+     *	<p> The chosen {@link LayoutDefinitionManager} is forgotten when
+     *	    the {@link LayoutDefinition} is evicted from the cache.</p>
+     */
+    @Test
+    public void testResolvedEviction() {
+	ContextMocker ctx = new ContextMocker();
+	Map initParams = ((ContextMocker.ExternalContextMocker) ctx.getExternalContext())._initParamMap;
+	initParams.put(LayoutDefinitionManager.CACHE_MAX_ENTRIES, "2");
+	LayoutDefinitionManager.findLayoutDefinitionManager(ctx, "/TemplateFormat.jsf");
+	Assert.assertNotNull("resolved",
+	    LayoutDefinitionManager.getLayoutDefinitionManagerCache(ctx).get("/TemplateFormat.jsf"));
+	LayoutDefinitionCache cache = LayoutDefinitionManager.getLayoutDefinitionCache(ctx);
+	cache.put("/TemplateFormat.jsf", new LayoutDefinition("/TemplateFormat.jsf"));
+	cache.put("/a.jsf", new LayoutDefinition("/a.jsf"));
+	cache.put("/b.jsf", new LayoutDefinition("/b.jsf"));
+	Assert.assertNull("evicted", cache.get("/TemplateFormat.jsf"));
+	Assert.assertNull("forgotten",
+	    LayoutDefinitionManager.getLayoutDefinitionManagerCache(ctx).get("/TemplateFormat.jsf"));
+    }
+
+    /**
+     *	<p> Configured claims are honored without examining the files.</p>
+     */
+    @Test
+    public void testClaims() {
+	FacesContext ctx = FacesContext.getCurrentInstance();
+	Map initParams = ((ContextMocker.ExternalContextMocker) ctx.getExternalContext())._initParamMap;
+	initParams.put(LayoutDefinitionManager.LAYOUT_DEFINITION_MANAGER_CLAIMS,
+	    "*.jsf=" + FaceletsLayoutDefinitionManager.class.getName());
+	try {
+	    Assert.assertEquals("otherLdm", Boolean.FALSE,
+		TemplateLayoutDefinitionManager.getInstance(ctx).claims("/Template.jsf"));
+	    LayoutDefinitionManager ldm =
+		LayoutDefinitionManager.findLayoutDefinitionManager(ctx, "/Template.jsf");
+	    Assert.assertTrue("claimed", ldm instanceof FaceletsLayoutDefinitionManager);
+	    Assert.assertNull("claimedNotFound",
+		LayoutDefinitionManager.findLayoutDefinitionManager(ctx, "/doesNotExist.jsf"));
+	} finally {
+	    initParams.remove(LayoutDefinitionManager.LAYOUT_DEFINITION_MANAGER_CLAIMS);
+	    LayoutDefinitionManager.getLayoutDefinitionManagerCache(ctx).remove("/Template.jsf");
+	}
+    }
+
+    /**
+     *	<p> "initPage" handlers are dispatched for each request that gets
+     *	    a {@link LayoutDefinition}, but not while it is read.</p>
+     */
+    @Test
+    public void testInitPage() throws Exception {
+	FacesContext ctx = FacesContext.getCurrentInstance();
+	Map<String, Object> requestMap = ctx.getExternalContext().getRequestMap();
+	requestMap.clear();
+	LayoutDefinition ld = TemplateLayoutDefinitionManager.getInstance(ctx).getLayoutDefinition("/initPage.jsf");
+	Assert.assertNotNull("read", ld);
+	Assert.assertNull("notWhileReading", requestMap.get("initPage"));
+
+	ld = LayoutDefinitionManager.getLayoutDefinition(ctx, "/initPage.jsf");
+	Assert.assertEquals("firstRequest", "done", requestMap.get("initPage"));
+
+	// The next request uses the cached LayoutDefinition
+	requestMap.clear();
+	Assert.assertSame("cached", ld, LayoutDefinitionManager.getLayoutDefinition(ctx, "/initPage.jsf"));
+	Assert.assertEquals("nextRequest", "done", requestMap.get("initPage"));
+	requestMap.clear();
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutDefinitionNotFoundCache}.</p>
+ */
+public class LayoutDefinitionNotFoundCacheTest {
+
+    /**
+     *	<p> Keys are remembered until removed, and the size is bounded.</p>
+     */
+    @Test
+    public void testBounded() {
+        LayoutDefinitionNotFoundCache cache = new LayoutDefinitionNotFoundCache(2, -1);
+        cache.add("/a.jsp");
+        Assert.assertTrue("remembered", cache.contains("/a.jsp"));
+        Assert.assertFalse("unknown", cache.contains("/b.jsp"));
+        cache.add("/b.jsp");
+        cache.add("/c.jsp");
+        Assert.assertTrue("bounded", cache.size() <= 2);
+        Assert.assertTrue("newest", cache.contains("/c.jsp"));
+        cache.remove("/c.jsp");
+        Assert.assertFalse("removed", cache.contains("/c.jsp"));
+    }
+
+    /**
+     *	<p> Keys expire after the ttl.</p>
+     */
+    @Test
+    public void testExpires() throws Exception {
+        LayoutDefinitionNotFoundCache cache = new LayoutDefinitionNotFoundCache(10, 0);
+        cache.add("/a.jsp");
+        Thread.sleep(5);
+        Assert.assertFalse("expired", cache.contains("/a.jsp"));
+        Assert.assertEquals("purged", 0, cache.size());
+    }
+}
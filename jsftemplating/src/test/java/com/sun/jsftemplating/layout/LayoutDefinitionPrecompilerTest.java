@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.jsftemplating.ContextMocker;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutDefinitionPrecompiler}.</p>
+ */
+public class LayoutDefinitionPrecompilerTest {
+
+    /**
+     *	<p> The pages of the docroot are read into the cache, and those
+     *	    which cannot be read are reported.</p>
+     */
+    @Test
+    public void testPrecompile() {
+        ContextMocker ctx = createContext();
+        LayoutDefinitionPrecompiler precompiler = new LayoutDefinitionPrecompiler();
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("/TemplateFormat.jsf", "/initPage.jsf", "/precompileError.jsf")),
+                precompiler.findDocrootLayoutFiles(ctx));
+
+        Map<String, LayoutDefinitionPrecompiler.Result> results = new HashMap<>();
+        for (LayoutDefinitionPrecompiler.Result result : precompiler.precompile(ctx)) {
+            results.put(result.getKey(), result);
+        }
+        Assert.assertNull("TemplateFormat", results.get("/TemplateFormat.jsf").getException());
+        Assert.assertNull("initPage", results.get("/initPage.jsf").getException());
+        Assert.assertNotNull("precompileError", results.get("/precompileError.jsf").getException());
+
+        LayoutDefinitionCache cache = LayoutDefinitionManager.getLayoutDefinitionCache(ctx);
+        Assert.assertNotNull("cachedTemplateFormat", cache.get("/TemplateFormat.jsf"));
+        Assert.assertNotNull("cachedInitPage", cache.get("/initPage.jsf"));
+        Assert.assertNull("notCached", cache.get("/precompileError.jsf"));
+
+        // "initPage" handlers are not invoked
+        Assert.assertFalse(ctx.getExternalContext().getRequestMap().containsKey("initPage"));
+    }
+
+    /**
+     *	<p> Creates a <code>FacesContext</code> with its own application
+     *	    scope, whose docroot contains a few of the test pages.  Only
+     *	    <code>.jsf</code> files are precompiled.</p>
+     */
+    private static ContextMocker createContext() {
+        ContextMocker ctx = new ContextMocker();
+        ContextMocker.ExternalContextMocker extCtx = new ContextMocker.ExternalContextMocker() {
+            @Override
+            public Set<String> getResourcePaths(String path) {
+                List<String> paths = DOCROOT.get(path);
+                return paths == null ? null : new LinkedHashSet<>(paths);
+            }
+
+            @Override
+            public InputStream getResourceAsStream(String path) {
+                return getClass().getClassLoader().getResourceAsStream(path.substring(path.lastIndexOf('/') + 1));
+            }
+        };
+        // Skip the .xml files of the classpath
+        extCtx._initParamMap.put(LayoutDefinitionPrecompiler.PRECOMPILE_SUFFIXES, ".jsf");
+        ctx._extCtx = extCtx;
+        return ctx;
+    }
+
+    private static final Map<String, List<String>> DOCROOT = new HashMap<>();
+
+    static {
+        DOCROOT.put("/", Arrays.asList("/TemplateFormat.jsf", "/initPage.jsf", "/pages/", "/WEB-INF/", "/precompileError.jsf"));
+        DOCROOT.put("/pages/", Arrays.asList("/pages/style.css"));
+        DOCROOT.put("/WEB-INF/", Arrays.asList("/WEB-INF/web.xml"));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import java.io.File;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.layout.descriptors.LayoutComposition;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutDefinitionRevalidator}.</p>
+ */
+public class LayoutDefinitionRevalidatorTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> Changing a template evicts it and every page that uses it as a
+     *	    composition template, but nothing else.</p>
+     */
+    @Test
+    public void testEvictDependents() throws Exception {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        File templateFile = File.createTempFile("template", ".jsf");
+        File otherFile = File.createTempFile("other", ".jsf");
+        templateFile.deleteOnExit();
+        otherFile.deleteOnExit();
+        templateFile.setLastModified(100000L);
+        otherFile.setLastModified(100000L);
+
+        LayoutDefinitionCache cache = new LruLayoutDefinitionCache();
+        LayoutDefinitionRevalidator revalidator = new LayoutDefinitionRevalidator(cache, 0, false);
+
+        // The template
+        LayoutDefinition template = new LayoutDefinition("/template.jsf");
+        cache.put("/template.jsf", template);
+        LayoutDefinitionDependencies deps = new LayoutDefinitionDependencies();
+        deps.addSource(templateFile.toURI().toURL());
+        revalidator.register(ctx, "/template.jsf", template, deps);
+
+        // A page using the template
+        LayoutDefinition page = new LayoutDefinition("/page.jsf");
+        LayoutComposition comp = new LayoutComposition(page, "comp");
+        comp.setTemplate("/template.jsf");
+        page.addChildLayoutElement(comp);
+        cache.put("/page.jsf", page);
+        revalidator.register(ctx, "/page.jsf", page, new LayoutDefinitionDependencies());
+
+        // An unrelated page
+        LayoutDefinition other = new LayoutDefinition("/other.jsf");
+        cache.put("/other.jsf", other);
+        deps = new LayoutDefinitionDependencies();
+        deps.addSource(otherFile.toURI().toURL());
+        revalidator.register(ctx, "/other.jsf", other, deps);
+
+        Assert.assertTrue("unchanged", revalidator.validate("/page.jsf"));
+        Assert.assertEquals("nothingEvicted", 3, cache.size());
+
+        // Touch the template
+        templateFile.setLastModified(200000L);
+        Assert.assertFalse("pageStale", revalidator.validate("/page.jsf"));
+        Assert.assertNull("templateEvicted", cache.get("/template.jsf"));
+        Assert.assertNull("pageEvicted", cache.get("/page.jsf"));
+        Assert.assertNotNull("otherKept", cache.get("/other.jsf"));
+        Assert.assertTrue("otherValid", revalidator.validate("/other.jsf"));
+    }
+
+    /**
+     *	<p> The dependencies of {@link LayoutDefinition}s evicted by the
+     *	    cache are forgotten, unless a cached page still uses them as
+     *	    a template.</p>
+     */
+    @Test
+    public void testCacheEviction() throws Exception {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        File templateFile = File.createTempFile("template", ".jsf");
+        templateFile.deleteOnExit();
+        templateFile.setLastModified(100000L);
+
+        LayoutDefinitionCache cache = new LruLayoutDefinitionCache(3, 0);
+        LayoutDefinitionRevalidator revalidator = new LayoutDefinitionRevalidator(cache, 0, false);
+        LayoutDefinitionDependencies deps = new LayoutDefinitionDependencies();
+        deps.addSource(templateFile.toURI().toURL());
+        revalidator.register(ctx, "/template.jsf", new LayoutDefinition("/template.jsf"), deps);
+        cache.put("/template.jsf", new LayoutDefinition("/template.jsf"));
+        Thread.sleep(1);
+
+        LayoutDefinition page = new LayoutDefinition("/page.jsf");
+        LayoutComposition comp = new LayoutComposition(page, "comp");
+        comp.setTemplate("/template.jsf");
+        page.addChildLayoutElement(comp);
+        revalidator.register(ctx, "/page.jsf", page, new LayoutDefinitionDependencies());
+        cache.put("/page.jsf", page);
+        Thread.sleep(1);
+        revalidator.register(ctx, "/other.jsf", new LayoutDefinition("/other.jsf"), new LayoutDefinitionDependencies());
+        cache.put("/other.jsf", new LayoutDefinition("/other.jsf"));
+        Thread.sleep(1);
+        cache.get("/page.jsf");
+        Thread.sleep(1);
+
+        // Evicts the template and the other page
+        revalidator.register(ctx, "/new.jsf", new LayoutDefinition("/new.jsf"), new LayoutDefinitionDependencies());
+        cache.put("/new.jsf", new LayoutDefinition("/new.jsf"));
+        Assert.assertNull("templateEvicted", cache.get("/template.jsf"));
+        Assert.assertNull("otherEvicted", cache.get("/other.jsf"));
+        Assert.assertEquals("templateKept", 3, revalidator.size());
+
+        // The page still sees changes to the template
+        templateFile.setLastModified(200000L);
+        Assert.assertFalse("pageStale", revalidator.validate("/page.jsf"));
+        Assert.assertNull("pageEvicted", cache.get("/page.jsf"));
+        Assert.assertEquals("pruned", 1, revalidator.size());
+
+        revalidator.close();
+        Assert.assertEquals("closed", 0, revalidator.size());
+    }
+
+    /**
+     *	<p> Sources are only recorded while recording is active.</p>
+     */
+    @Test
+    public void testRecording() throws Exception {
+        File file = File.createTempFile("recorded", ".jsf");
+        file.deleteOnExit();
+
+        LayoutDefinitionDependencies.recordSource(file.toURI().toURL());
+        LayoutDefinitionDependencies outer = LayoutDefinitionDependencies.begin();
+        LayoutDefinitionDependencies inner = LayoutDefinitionDependencies.begin();
+        LayoutDefinitionDependencies.recordSource(file.toURI().toURL());
+        LayoutDefinitionDependencies.end(inner);
+        LayoutDefinitionDependencies.end(outer);
+
+        Assert.assertEquals("innerRecorded", 1, inner.getSources().size());
+        Assert.assertTrue("outerNotRecorded", outer.getSources().isEmpty());
+        Assert.assertFalse("notModified", inner.isModified());
+        file.delete();
+        Assert.assertTrue("deletedIsModified", inner.isModified());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout;
+
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.descriptors.LayoutStaticText;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LruLayoutDefinitionCache}.</p>
+ */
+public class LruLayoutDefinitionCacheTest {
+
+    /**
+     *	<p> The least recently used entries are evicted first.</p>
+     */
+    @Test
+    public void testMaxEntries() throws Exception {
+        LruLayoutDefinitionCache cache = new LruLayoutDefinitionCache(3, 0);
+        cache.put("/a.jsf", new LayoutDefinition("/a.jsf"));
+        Thread.sleep(1);
+        cache.put("/b.jsf", new LayoutDefinition("/b.jsf"));
+        Thread.sleep(1);
+        cache.put("/c.jsf", new LayoutDefinition("/c.jsf"));
+        Thread.sleep(1);
+        Assert.assertNotNull("a", cache.get("/a.jsf"));
+        Thread.sleep(1);
+        cache.put("/d.jsf", new LayoutDefinition("/d.jsf"));
+
+        Assert.assertNull("bEvicted", cache.get("/b.jsf"));
+        Assert.assertNotNull("aKept", cache.get("/a.jsf"));
+        Assert.assertNotNull("dKept", cache.get("/d.jsf"));
+        Assert.assertTrue("evictions", cache.getEvictionCount() > 0);
+        Assert.assertEquals("misses", 1, cache.getMissCount());
+        Assert.assertEquals("hitRate", 0.75, cache.getHitRate(), 0.001);
+    }
+
+    /**
+     *	<p> The estimated size is tracked and limited.</p>
+     */
+    @Test
+    public void testMaxBytes() {
+        LayoutDefinition big = new LayoutDefinition("/big.jsf");
+        StringBuilder buf = new StringBuilder();
+        for (int idx = 0; idx < 1000; idx++) {
+            buf.append("0123456789");
+        }
+        big.addChildLayoutElement(new LayoutStaticText(big, "text", buf.toString()));
+        long size = LayoutDefinitionSizeEstimator.estimate(big);
+        Assert.assertTrue("estimate", size > 10000);
+
+        LruLayoutDefinitionCache cache = new LruLayoutDefinitionCache(0, size + 100);
+        cache.put("/big.jsf", big);
+        Assert.assertEquals("bytes", size, cache.getEstimatedSize());
+        cache.put("/small.jsf", new LayoutDefinition("/small.jsf"));
+        Assert.assertNull("bigEvicted", cache.get("/big.jsf"));
+        Assert.assertTrue("under", cache.getEstimatedSize() <= size + 100);
+        cache.clear();
+        Assert.assertEquals("cleared", 0, cache.getEstimatedSize());
+    }
+}
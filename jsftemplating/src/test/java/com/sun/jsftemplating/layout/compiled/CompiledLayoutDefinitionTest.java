@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.compiled;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.layout.descriptors.ComponentType;
+import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.template.TemplateReader;
+import com.sun.jsftemplating.layout.template.TemplateWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jakarta.faces.context.FacesContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link CompiledLayoutDefinition}.</p>
+ */
+public class CompiledLayoutDefinitionTest {
+
+    private final ClassLoader cl = CompiledLayoutDefinitionTest.class.getClassLoader();
+
+    @Before
+    public void init() {
+	ContextMocker.init();
+    }
+
+    /**
+     *	<p> A compiled {@link LayoutDefinition} reads back with the same
+     *	    structure as the template it was compiled from.</p>
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+	roundTrip("./TemplateFormat.jsf");
+	roundTrip("./speed-l.jsf");
+    }
+
+    /**
+     *	<p> Files that aren't compiled {@link LayoutDefinition}s are
+     *	    rejected.</p>
+     */
+    @Test
+    public void testInvalid() throws Exception {
+	URL url = cl.getResource("./TemplateFormat.jsf");
+	Assert.assertEquals("invalid", -1, CompiledLayoutDefinition.readSourceLastModified(url));
+	try {
+	    CompiledLayoutDefinition.read(url);
+	    Assert.fail("Expected an IOException");
+	} catch (IOException ex) {
+	    // Expected
+	}
+    }
+
+    /**
+     *	<p> The timestamps of the files a {@link LayoutDefinition} was
+     *	    read from are stored with it, the source first.</p>
+     */
+    @Test
+    public void testSourceTimestamps() throws Exception {
+	Map<String, Long> deps = new LinkedHashMap<>();
+	deps.put("/include.inc", 5678L);
+	deps.put("/other.inc", 9L);
+	URL url = write(new LayoutDefinition("/foo.jsf"), deps);
+	try {
+	    Map<String, Long> expected = new LinkedHashMap<>();
+	    expected.put("/foo.jsf", 1234L);
+	    expected.putAll(deps);
+	    Assert.assertEquals("timestamps", expected, CompiledLayoutDefinition.readSourceTimestamps(url));
+	    Assert.assertEquals("lastModified", 1234L, CompiledLayoutDefinition.readSourceLastModified(url));
+	    Assert.assertNotNull("read", CompiledLayoutDefinition.read(url));
+	} finally {
+	    new File(url.toURI()).delete();
+	}
+    }
+
+    /**
+     *	<p> Classes which are not part of a {@link LayoutDefinition} are
+     *	    not deserialized.</p>
+     */
+    @Test
+    public void testFilter() throws Exception {
+	LayoutDefinition ld = new LayoutDefinition("/foo.jsf");
+	LayoutComponent comp = new LayoutComponent(ld, "comp", new ComponentType("type", "factory"));
+	comp.addOption("value", new URI("http://example.com"));
+	ld.addChildLayoutElement(comp);
+	URL url = write(ld, new LinkedHashMap<String, Long>());
+	try {
+	    CompiledLayoutDefinition.read(url);
+	    Assert.fail("Expected an InvalidClassException");
+	} catch (InvalidClassException ex) {
+	    // Expected
+	} finally {
+	    new File(url.toURI()).delete();
+	}
+    }
+
+    private URL write(LayoutDefinition ld, Map<String, Long> deps) throws IOException {
+	File file = File.createTempFile("jsft", CompiledLayoutDefinition.SUFFIX);
+	try (OutputStream out = new FileOutputStream(file)) {
+	    CompiledLayoutDefinition.write(FacesContext.getCurrentInstance(), "/foo.jsf", ld, 1234L, deps, out);
+	}
+	return file.toURI().toURL();
+    }
+
+    private void roundTrip(String fileName) throws Exception {
+	LayoutDefinition ld =
+	    new TemplateReader("foo", cl.getResource(fileName)).read();
+	File file = File.createTempFile("jsft", CompiledLayoutDefinition.SUFFIX);
+	try {
+	    try (OutputStream out = new FileOutputStream(file)) {
+		CompiledLayoutDefinition.write(FacesContext.getCurrentInstance(), "/foo.jsf", ld, 1234L, out);
+	    }
+	    URL url = file.toURI().toURL();
+	    Assert.assertEquals("lastModified", 1234L, CompiledLayoutDefinition.readSourceLastModified(url));
+	    LayoutDefinition compiled = CompiledLayoutDefinition.read(url);
+	    Assert.assertEquals(fileName, toTemplate(ld), toTemplate(compiled));
+	} finally {
+	    file.delete();
+	}
+    }
+
+    private String toTemplate(LayoutDefinition ld) throws IOException {
+	ByteArrayOutputStream stream = new ByteArrayOutputStream();
+	new TemplateWriter(stream).write(ld);
+	return stream.toString("UTF-8");
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors;
+
+import java.util.Map;
+import java.util.Stack;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.el.VariableResolver;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutComposition}.</p>
+ */
+public class LayoutCompositionTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    @After
+    public void cleanUp() {
+        Map<String, Object> requestMap = FacesContext.getCurrentInstance().getExternalContext().getRequestMap();
+        requestMap.remove("_composition");
+        requestMap.remove("_uiparamCacheMap");
+    }
+
+    /**
+     *	<p> The params found by the {@link LayoutComposition.CompositionStack}
+     *	    are the same as those found by searching the stack, while
+     *	    compositions are pushed and popped.</p>
+     */
+    @Test
+    public void testParamIndex() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        LayoutComposition outer = createComposition("outer", "title", "Outer", "a", "A");
+        LayoutComposition inner = createComposition("inner", "title", "Inner", "b", "B");
+        LayoutComposition empty = new LayoutComposition(null, "empty");
+        LayoutComposition innermost = createComposition("innermost", "c", "C", "b", "B2");
+
+        Stack<LayoutElement> stack = LayoutComposition.getCompositionStack(ctx);
+        Assert.assertTrue(stack instanceof LayoutComposition.CompositionStack);
+        assertParams(ctx);
+        LayoutComposition.push(ctx, outer);
+        assertParams(ctx);
+        LayoutComposition.push(ctx, inner);
+        LayoutComposition.push(ctx, empty);
+        LayoutComposition.push(ctx, innermost);
+        assertParams(ctx);
+        Assert.assertEquals("Outer", LayoutComposition.findTemplateParam(ctx, "title"));
+        Assert.assertEquals("B", LayoutComposition.findTemplateParam(ctx, "b"));
+        Assert.assertEquals("C", LayoutComposition.findTemplateParam(ctx, "c"));
+        LayoutComposition.pop(ctx);
+        assertParams(ctx);
+        Assert.assertNull(LayoutComposition.findTemplateParam(ctx, "c"));
+        LayoutComposition.pop(ctx);
+        LayoutComposition.pop(ctx);
+        assertParams(ctx);
+        Assert.assertNull(LayoutComposition.findTemplateParam(ctx, "b"));
+
+        // Changed w/o push / pop
+        stack.set(0, inner);
+        assertParams(ctx);
+        Assert.assertEquals("Inner", LayoutComposition.findTemplateParam(ctx, "title"));
+        stack.add(innermost);
+        assertParams(ctx);
+
+        // Replaced below the top
+        LayoutComposition.push(ctx, empty);
+        Assert.assertEquals("Inner", LayoutComposition.findTemplateParam(ctx, "title"));
+        stack.set(0, outer);
+        assertParams(ctx);
+        Assert.assertEquals("Outer", LayoutComposition.findTemplateParam(ctx, "title"));
+        stack.setElementAt(inner, 0);
+        Assert.assertEquals("Inner", LayoutComposition.findTemplateParam(ctx, "title"));
+        stack.clear();
+        assertParams(ctx);
+
+        // Not a CompositionStack
+        Stack<LayoutElement> plain = new Stack<>();
+        plain.push(inner);
+        LayoutComposition.setCompositionStack(ctx, plain);
+        Assert.assertEquals("Inner", LayoutComposition.findTemplateParam(ctx, "title"));
+    }
+
+    /**
+     *	<p> Composition params are substituted, and <code>String</code>s which
+     *	    do not reference any are left alone.</p>
+     */
+    @Test
+    public void testReplaceCompParams() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        LayoutComposition.push(ctx, createComposition("outer", "title", "Outer", "bean", "#{myBean}"));
+        Assert.assertEquals("Outer", VariableResolver.resolveVariables(ctx, null, null, "#{title}"));
+        Assert.assertEquals("#{myBean.value}", VariableResolver.resolveVariables(ctx, null, null, "#{bean.value}"));
+        Assert.assertEquals("#{other.value}", VariableResolver.resolveVariables(ctx, null, null, "#{other.value}"));
+        Assert.assertEquals("title", VariableResolver.resolveVariables(ctx, null, null, "title"));
+
+        Map<String, Object> globalParams = LayoutComposition.getGlobalParamMap(ctx);
+        Assert.assertEquals(0, VariableResolver.getCompParamTokens("title").length);
+        Assert.assertArrayEquals(new String[] { "bean", "other" }, VariableResolver.getCompParamTokens("#{bean.value} #{ other }"));
+        Assert.assertTrue(VariableResolver.mayReferenceCompParams(VariableResolver.getCompParamTokens("#{bean.value}"), globalParams));
+        Assert.assertFalse(VariableResolver.mayReferenceCompParams(VariableResolver.getCompParamTokens("#{other.value}"), globalParams));
+    }
+
+    /**
+     *	<p> The template is looked up in the cache each time, so it is
+     *	    read again once it has been evicted.</p>
+     */
+    @Test
+    public void testTemplateLayoutDefinition() throws Exception {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Map<String, Object> requestMap = ctx.getExternalContext().getRequestMap();
+        requestMap.clear();
+        LayoutComposition comp = new LayoutComposition(null, "comp");
+        comp.setTemplate("/initPage.jsf");
+        LayoutDefinition def = comp.getTemplateLayoutDefinition(ctx);
+        Assert.assertNotNull("read", def);
+
+        // The next request
+        requestMap.clear();
+        Assert.assertSame("cached", def, comp.getTemplateLayoutDefinition(ctx));
+        Assert.assertEquals("initPage", "done", requestMap.get("initPage"));
+
+        LayoutDefinitionManager.getLayoutDefinitionCache(ctx).remove("/initPage.jsf");
+        LayoutDefinition reread = comp.getTemplateLayoutDefinition(ctx);
+        Assert.assertNotNull("reread", reread);
+        Assert.assertNotSame("evicted", def, reread);
+        requestMap.clear();
+    }
+
+    /**
+     *	<p> Compares the speed of the index to searching the stack.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Stack<LayoutElement> stack = LayoutComposition.getCompositionStack(ctx);
+        for (int idx = 0; idx < 10; idx++) {
+            LayoutComposition.push(ctx, createComposition("comp" + idx, "param" + idx, "value" + idx));
+        }
+        int iterations = 500000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                LayoutComposition.findTemplateParam(stack, "param9");
+            }
+            long parsed = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                LayoutComposition.findTemplateParam(ctx, "param9");
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("Composition param performance (" + iterations + "), lower is better: parsed " + parsed + ", compiled " + compiled);
+            }
+        }
+    }
+
+    /**
+     *	<p> This method checks every param against a search of the stack.</p>
+     */
+    private static void assertParams(FacesContext ctx) {
+        Stack<LayoutElement> stack = LayoutComposition.getCompositionStack(ctx);
+        for (String name : new String[] { "title", "a", "b", "c", "d" }) {
+            Assert.assertEquals(name, LayoutComposition.findTemplateParam(stack, name), LayoutComposition.findTemplateParam(ctx, name));
+        }
+    }
+
+    private static LayoutComposition createComposition(String id, String... params) {
+        LayoutComposition comp = new LayoutComposition(null, id);
+        for (int idx = 0; idx < params.length; idx += 2) {
+            comp.setParameter(params[idx], params[idx + 1]);
+        }
+        return comp;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.jsftemplating.ContextMocker;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LayoutInsert}.</p>
+ */
+public class LayoutInsertTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> A <code>LayoutInsert</code> finds the same {@link LayoutDefine}
+     *	    as a search of the stack, and remembers it on the page.</p>
+     */
+    @Test
+    public void testGetLayoutDefine() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+
+        // The page: a composition w/ a nested define and an outer define
+        LayoutDefinition page = new LayoutDefinition("/page.jsf");
+        LayoutComposition comp = new LayoutComposition(page, "comp");
+        page.addChildLayoutElement(comp);
+        LayoutDefine header = new LayoutDefine(comp, "header");
+        comp.addChildLayoutElement(header);
+        LayoutElement wrapper = new LayoutComposition(comp, "wrapper");
+        comp.addChildLayoutElement(wrapper);
+        LayoutDefine body = new LayoutDefine(wrapper, "body");
+        wrapper.addChildLayoutElement(body);
+
+        // The template
+        LayoutDefinition template = new LayoutDefinition("/template.jsf");
+        LayoutInsert insertHeader = new LayoutInsert(template, "insertHeader");
+        insertHeader.setName("header");
+        LayoutInsert insertBody = new LayoutInsert(template, "insertBody");
+        insertBody.setName("body");
+        LayoutInsert insertMissing = new LayoutInsert(template, "insertMissing");
+        insertMissing.setName("missing");
+
+        List<LayoutElement> stack = new ArrayList<>();
+        stack.add(comp);
+        Assert.assertSame(header, insertHeader.getLayoutDefine(ctx, null, stack));
+        Assert.assertSame(body, insertBody.getLayoutDefine(ctx, null, stack));
+        Assert.assertNull(insertMissing.getLayoutDefine(ctx, null, stack));
+        Assert.assertEquals(3, page.getInsertLinks().size());
+
+        // Again, from the remembered links
+        Assert.assertSame(header, insertHeader.getLayoutDefine(ctx, null, stack));
+        Assert.assertSame(body, insertBody.getLayoutDefine(ctx, null, stack));
+        Assert.assertNull(insertMissing.getLayoutDefine(ctx, null, stack));
+        Assert.assertEquals(3, page.getInsertLinks().size());
+
+        // A different stack is searched separately
+        LayoutComposition other = new LayoutComposition(page, "other");
+        page.addChildLayoutElement(other);
+        List<LayoutElement> otherStack = new ArrayList<>();
+        otherStack.add(other);
+        Assert.assertNull(insertHeader.getLayoutDefine(ctx, null, otherStack));
+        Assert.assertEquals(4, page.getInsertLinks().size());
+
+        // No name, or no compositions
+        Assert.assertNull(new LayoutInsert(template, "noName").getLayoutDefine(ctx, null, stack));
+        Assert.assertNull(insertHeader.getLayoutDefine(ctx, null, new ArrayList<LayoutElement>()));
+    }
+}
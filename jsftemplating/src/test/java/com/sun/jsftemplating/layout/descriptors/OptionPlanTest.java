@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.el.VariableResolver;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link OptionPlan}.</p>
+ */
+public class OptionPlanTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> Options are classified, and constants are resolved.</p>
+     */
+    @Test
+    public void testKinds() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        LayoutComponent comp = new LayoutComponent(null, "comp", null);
+        comp.addOption("styleClass", "foo");
+        comp.addOption("none", null);
+        comp.addOption("value", "#{bean.value}");
+        comp.addOption("notEL", "#{bean.value");
+        comp.addOption("rows", "$int{5}");
+        comp.addOption("rendered", "$boolean{false}");
+        comp.addOption("constant", "$constant{" + OptionPlanTest.class.getName() + ".CONSTANT}");
+        comp.addOption("attr", "$attribute{foo}");
+        comp.addOption("mixed", "x$int{5}");
+        comp.addOption("nested", "$int{$attribute{foo}}");
+        comp.addOption("badInt", "$int{five}");
+        comp.addOption("list", new ArrayList<String>());
+
+        Map<String, Object> values = new HashMap<>();
+        Map<String, Integer> kinds = new HashMap<>();
+        OptionPlan plan = comp.getOptionPlan(ctx);
+        Assert.assertEquals(comp.getOptions().size(), plan.size());
+        for (int idx = 0; idx < plan.size(); idx++) {
+            values.put(plan.getName(idx), plan.getValue(idx));
+            kinds.put(plan.getName(idx), plan.getKind(idx));
+        }
+
+        Assert.assertEquals(OptionPlan.LITERAL, (int) kinds.get("styleClass"));
+        Assert.assertEquals("foo", values.get("styleClass"));
+        Assert.assertEquals(OptionPlan.LITERAL, (int) kinds.get("none"));
+        Assert.assertEquals(OptionPlan.DEFERRED, (int) kinds.get("value"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("notEL"));
+        Assert.assertEquals(OptionPlan.LITERAL, (int) kinds.get("rows"));
+        Assert.assertEquals(5, values.get("rows"));
+        Assert.assertEquals(OptionPlan.LITERAL, (int) kinds.get("rendered"));
+        Assert.assertEquals(Boolean.FALSE, values.get("rendered"));
+        Assert.assertEquals(OptionPlan.LITERAL, (int) kinds.get("constant"));
+        Assert.assertEquals(CONSTANT, values.get("constant"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("attr"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("mixed"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("nested"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("badInt"));
+        Assert.assertEquals("$int{five}", values.get("badInt"));
+        Assert.assertEquals(OptionPlan.DYNAMIC, (int) kinds.get("list"));
+
+        // The original options are unchanged
+        Assert.assertEquals("$int{5}", comp.getOption("rows"));
+    }
+
+    /**
+     *	<p> The plan is shared until the options change.</p>
+     */
+    @Test
+    public void testChanges() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        LayoutComponent comp = new LayoutComponent(null, "comp", null);
+        comp.addOption("a", "A");
+        OptionPlan plan = comp.getOptionPlan(ctx);
+        Assert.assertSame(plan, comp.getOptionPlan(ctx));
+
+        comp.addOption("a", "$attribute{a}");
+        Assert.assertNotSame(plan, comp.getOptionPlan(ctx));
+        Assert.assertEquals(OptionPlan.DYNAMIC, comp.getOptionPlan(ctx).getKind(0));
+
+        plan = comp.getOptionPlan(ctx);
+        comp.getOptions().put("b", "B");
+        Assert.assertNotSame(plan, comp.getOptionPlan(ctx));
+        Assert.assertEquals(2, comp.getOptionPlan(ctx).size());
+
+        // Replaced w/o changing the size
+        plan = comp.getOptionPlan(ctx);
+        comp.addOptions(Collections.singletonMap("b", "#{b}"));
+        Assert.assertNotSame(plan, comp.getOptionPlan(ctx));
+        Assert.assertEquals(OptionPlan.DEFERRED, comp.getOptionPlan(ctx).getKind(1));
+    }
+
+    /**
+     *	<p> Only the built-in <code>DataSource</code>s are constant.</p>
+     */
+    @Test
+    public void testCustomDataSource() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        VariableResolver.DataSource intDS = VariableResolver.getDataSource(ctx, VariableResolver.INT);
+        VariableResolver.setDataSource(ctx, VariableResolver.INT, (c, desc, comp, key) -> Integer.valueOf(key) + 1);
+        try {
+            LayoutComponent comp = new LayoutComponent(null, "comp", null);
+            comp.addOption("rows", "$int{5}");
+            Assert.assertEquals(OptionPlan.DYNAMIC, comp.getOptionPlan(ctx).getKind(0));
+        } finally {
+            VariableResolver.setDataSource(ctx, VariableResolver.INT, intDS);
+        }
+    }
+
+    /**
+     *	<p> {@link LayoutIf} conditions without expressions are only
+     *	    evaluated once.</p>
+     */
+    @Test
+    public void testConstantCondition() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Assert.assertEquals(Boolean.TRUE, new LayoutIf(null, "true").getConstantCondition(ctx));
+        Assert.assertEquals(Boolean.FALSE, new LayoutIf(null, "true&!(a=a)").getConstantCondition(ctx));
+        Assert.assertEquals(Boolean.TRUE, new LayoutIf(null, "abc").getConstantCondition(ctx));
+        Assert.assertEquals(Boolean.FALSE, new LayoutIf(null, "").getConstantCondition(ctx));
+        Assert.assertEquals(Boolean.FALSE, new LayoutIf(null, "$boolean{false}").getConstantCondition(ctx));
+        Assert.assertEquals(Boolean.TRUE, new LayoutIf(null, "$int{0}").getConstantCondition(ctx));
+        Assert.assertNull(new LayoutIf(null, "$attribute{a}").getConstantCondition(ctx));
+        Assert.assertNull(new LayoutIf(null, "#{a}").getConstantCondition(ctx));
+        Assert.assertNull(new LayoutIf(null, "$boolean{true}&$attribute{a}").getConstantCondition(ctx));
+        Assert.assertNull(new LayoutIf(null, "myFunction()").getConstantCondition(ctx));
+        Assert.assertNull(new LayoutIf(null, "$property{condition}").getConstantCondition(ctx));
+
+        // Changing the condition is noticed
+        LayoutIf layoutIf = new LayoutIf(null, "true");
+        Assert.assertEquals(Boolean.TRUE, layoutIf.getConstantCondition(ctx));
+        layoutIf.addOption("condition", "false");
+        Assert.assertEquals(Boolean.FALSE, layoutIf.getConstantCondition(ctx));
+        Assert.assertFalse(layoutIf.encodeThis(ctx, null));
+    }
+
+    public static final String CONSTANT = "constant value";
+}
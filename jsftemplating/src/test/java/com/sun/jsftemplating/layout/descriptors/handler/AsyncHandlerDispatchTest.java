@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EventObject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.event.InitPageEvent;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link AsyncHandlerDispatch}.</p>
+ */
+public class AsyncHandlerDispatchTest {
+
+    /**
+     *	<p> Records the thread which creates the handler instances.</p>
+     */
+    public AsyncHandlerDispatchTest() {
+        synchronized (_threads) {
+            _created.add(Thread.currentThread());
+        }
+    }
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+        FacesContext.getCurrentInstance().getExternalContext().getRequestMap().clear();
+        _barrier = new CyclicBarrier(3);
+        _interrupted = new CountDownLatch(1);
+        _threads.clear();
+        _instances.clear();
+        _created.clear();
+    }
+
+    @After
+    public void cleanUp() {
+        System.clearProperty(HandlerInvoker.INSTANCE_SCOPE);
+        AsyncHandlerDispatch.shutdown(FacesContext.getCurrentInstance());
+    }
+
+    /**
+     *	<p> Independent asynchronous handlers run at the same time, and
+     *	    their outputs are stored on the request thread before the
+     *	    event is done.</p>
+     */
+    @Test
+    public void testConcurrent() {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        List<Handler> handlers = new ArrayList<>();
+        for (String key : new String[] { "a", "b", "c" }) {
+            Handler handler = createHandler("meet", "meet", key, "$attribute{in}" + key);
+            handler.setAsync(true);
+            handlers.add(handler);
+        }
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, handlers);
+
+        Map<String, Object> requestMap = FacesContext.getCurrentInstance().getExternalContext().getRequestMap();
+        requestMap.put("in", "x");
+        dispatch(ld);
+        Assert.assertEquals("xa", requestMap.get("a"));
+        Assert.assertEquals("xb", requestMap.get("b"));
+        Assert.assertEquals("xc", requestMap.get("c"));
+        Assert.assertEquals(3, _threads.size());
+        Assert.assertFalse(_threads.contains(Thread.currentThread()));
+    }
+
+    /**
+     *	<p> Handlers which depend on asynchronous handlers see their
+     *	    outputs, and child handlers run after the outputs are
+     *	    stored.</p>
+     */
+    @Test
+    public void testDependsOn() {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        Handler first = createHandler("first", "copy", "a", "A");
+        first.setAsync(true);
+        first.addChildHandler(createHandler("child", "copy", "child", "$attribute{a}-child"));
+        Handler second = createHandler("second", "copy", "b", "$attribute{a}B");
+        second.setAsync(true);
+        second.setDependsOn("first");
+        Handler skipped = createHandler("skipped", "copy", "skipped", "never");
+        skipped.setAsync(true);
+        skipped.setCondition("false");
+        Handler last = createHandler("last", "copy", "c", "$attribute{b}C");
+        last.setDependsOn(" second, skipped ");
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(first, second, skipped, last));
+        Assert.assertEquals(Arrays.asList("second", "skipped"), last.getDependsOn());
+
+        Map<String, Object> requestMap = FacesContext.getCurrentInstance().getExternalContext().getRequestMap();
+        dispatch(ld);
+        Assert.assertEquals("A", requestMap.get("a"));
+        Assert.assertEquals("A-child", requestMap.get("child"));
+        Assert.assertEquals("AB", requestMap.get("b"));
+        Assert.assertEquals("ABC", requestMap.get("c"));
+        Assert.assertFalse(requestMap.containsKey("skipped"));
+
+        // The 1st declared depends on nothing before it
+        ld = new LayoutDefinition("page");
+        second.setDependsOn("first");
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(second, first));
+        requestMap.clear();
+        requestMap.put("a", "old");
+        dispatch(ld);
+        Assert.assertEquals("oldB", requestMap.get("b"));
+    }
+
+    /**
+     *	<p> Several handlers of the same definition are told apart by
+     *	    their asyncId.</p>
+     */
+    @Test
+    public void testAsyncId() {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        Handler first = createHandler("copy", "copy", "a", "A");
+        first.setAsync(true);
+        Assert.assertEquals("copy", first.getAsyncId());
+        first.setAsyncId(" one ");
+        Assert.assertEquals("one", first.getAsyncId());
+        Handler second = createHandler("copy", "copy", "b", "$attribute{a}B");
+        second.setAsync(true);
+        second.setAsyncId("two");
+        second.setDependsOn("one");
+        Handler last = createHandler("copy", "copy", "c", "$attribute{b}C");
+        last.setDependsOn("two");
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(first, second, last));
+
+        Map<String, Object> requestMap = FacesContext.getCurrentInstance().getExternalContext().getRequestMap();
+        dispatch(ld);
+        Assert.assertEquals("AB", requestMap.get("b"));
+        Assert.assertEquals("ABC", requestMap.get("c"));
+    }
+
+    /**
+     *	<p> Request scoped handler instances are obtained on the request
+     *	    thread, and shared with the synchronous handlers.</p>
+     */
+    @Test
+    public void testRequestScope() {
+        System.setProperty(HandlerInvoker.INSTANCE_SCOPE, HandlerInvoker.SCOPE_REQUEST);
+        LayoutDefinition ld = new LayoutDefinition("page");
+        Handler first = createHandler("first", "remember", "a", "A");
+        first.setAsync(true);
+        Handler second = createHandler("second", "remember", "b", "B");
+        second.setDependsOn("first");
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(first, second));
+
+        dispatch(ld);
+        Assert.assertEquals(2, _instances.size());
+        Assert.assertSame(_instances.get(0), _instances.get(1));
+        Assert.assertEquals(Arrays.asList(Thread.currentThread()), _created);
+        Assert.assertNotSame(Thread.currentThread(), _threads.get(0));
+        Assert.assertSame(Thread.currentThread(), _threads.get(1));
+    }
+
+    /**
+     *	<p> Handlers of other events than initPage run on the request
+     *	    thread, even if they are asynchronous.</p>
+     */
+    @Test
+    public void testOtherEvents() {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        Handler handler = createHandler("remember", "remember", "a", "A");
+        handler.setAsync(true);
+        ld.setHandlers("beforeEncode", Arrays.asList(handler));
+        ld.dispatchHandlers(FacesContext.getCurrentInstance(), "beforeEncode", new EventObject(ld));
+        Assert.assertEquals(Arrays.asList(Thread.currentThread()), _threads);
+        Assert.assertEquals("A", FacesContext.getCurrentInstance().getExternalContext().getRequestMap().get("a"));
+    }
+
+    /**
+     *	<p> The default executor is shut down when the application is
+     *	    destroyed.</p>
+     */
+    @Test
+    public void testShutdown() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Executor executor = AsyncHandlerDispatch.getExecutor(ctx);
+        Assert.assertSame(executor, AsyncHandlerDispatch.getExecutor(ctx));
+        LayoutDefinitionManager.destroy(ctx);
+        Assert.assertTrue(((ExecutorService) executor).isShutdown());
+        Assert.assertNotSame(executor, AsyncHandlerDispatch.getExecutor(ctx));
+
+        // Those of the application are left alone
+        ExecutorService custom = Executors.newSingleThreadExecutor();
+        try {
+            AsyncHandlerDispatch.setExecutor(ctx, custom);
+            Assert.assertSame(custom, AsyncHandlerDispatch.getExecutor(ctx));
+            LayoutDefinitionManager.destroy(ctx);
+            Assert.assertFalse(custom.isShutdown());
+        } finally {
+            AsyncHandlerDispatch.setExecutor(ctx, null);
+            custom.shutdown();
+        }
+    }
+
+    /**
+     *	<p> Handlers which do not complete within the page's timeout are
+     *	    cancelled.</p>
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        ld.setAsyncTimeout(100);
+        Handler handler = createHandler("hang", "hang", "a", "A");
+        handler.setAsync(true);
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(handler));
+        try {
+            dispatch(ld);
+            Assert.fail("Expected a timeout.");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getCause() instanceof TimeoutException);
+            Assert.assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().contains("[hang]"));
+        }
+        Assert.assertTrue("Not cancelled.", _interrupted.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(FacesContext.getCurrentInstance().getExternalContext().getRequestMap().containsKey("a"));
+    }
+
+    /**
+     *	<p> The failure of an asynchronous handler is reported the same way
+     *	    as that of a synchronous one.</p>
+     */
+    @Test
+    public void testFailure() {
+        LayoutDefinition ld = new LayoutDefinition("page");
+        Handler handler = createHandler("fail", "fail", "a", "A");
+        handler.setAsync(true);
+        ld.setHandlers(LayoutDefinition.INIT_PAGE, Arrays.asList(handler));
+        try {
+            dispatch(ld);
+            Assert.fail("Expected an exception.");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("'initPage' event"));
+            Throwable cause = ex;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Assert.assertEquals("Failed: A", cause.getMessage());
+        }
+    }
+
+    private static void dispatch(LayoutDefinition ld) {
+        ld.dispatchHandlers(FacesContext.getCurrentInstance(), LayoutDefinition.INIT_PAGE, new InitPageEvent(ld));
+    }
+
+    private static Handler createHandler(String id, String method, String key, String value) {
+        HandlerDefinition def = new HandlerDefinition(id);
+        def.setHandlerMethod(AsyncHandlerDispatchTest.class.getName(), method);
+        def.addInputDef(new IODescriptor("value", String.class));
+        def.addOutputDef(new IODescriptor("result", String.class));
+        Handler handler = new Handler(def);
+        handler.setInputValue("value", value);
+        handler.setOutputMapping("result", key, OutputTypeManager.REQUEST_ATTRIBUTE_TYPE);
+        return handler;
+    }
+
+    public static void meet(HandlerContext handlerCtx) throws Exception {
+        synchronized (_threads) {
+            _threads.add(Thread.currentThread());
+        }
+        // Only returns if all 3 are running at the same time
+        _barrier.await(5, TimeUnit.SECONDS);
+        handlerCtx.setOutputValue("result", handlerCtx.getInputValue("value"));
+    }
+
+    public void remember(HandlerContext handlerCtx) {
+        synchronized (_threads) {
+            _threads.add(Thread.currentThread());
+            _instances.add(this);
+        }
+        handlerCtx.setOutputValue("result", handlerCtx.getInputValue("value"));
+    }
+
+    public static void copy(HandlerContext handlerCtx) {
+        handlerCtx.setOutputValue("result", handlerCtx.getInputValue("value"));
+    }
+
+    public static void hang(HandlerContext handlerCtx) {
+        try {
+            Thread.sleep(60000);
+        } catch (InterruptedException ex) {
+            _interrupted.countDown();
+            return;
+        }
+        handlerCtx.setOutputValue("result", handlerCtx.getInputValue("value"));
+    }
+
+    public static void fail(HandlerContext handlerCtx) {
+        throw new IllegalStateException("Failed: " + handlerCtx.getInputValue("value"));
+    }
+
+    private static final List<Thread> _threads = new ArrayList<>();
+    private static final List<Object> _instances = new ArrayList<>();
+    private static final List<Thread> _created = new ArrayList<>();
+    private static CyclicBarrier _barrier = null;
+    private static CountDownLatch _interrupted = null;
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.handlers.ScopeHandlers;
+import com.sun.jsftemplating.layout.LayoutDefinitionManager;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link HandlerInvoker}.</p>
+ */
+public class HandlerInvokerTest {
+
+    @After
+    public void cleanUp() {
+        System.clearProperty(HandlerInvoker.INSTANCE_SCOPE);
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> Static, instance, <code>void</code> and non-<code>void</code>
+     *	    handler methods are bound and return the right value.</p>
+     */
+    @Test
+    public void testInvoke() throws Exception {
+        HandlerContext handlerCtx = createHandlerContext();
+        HandlerInvoker invoker = createInvoker("staticHandler");
+        Assert.assertEquals(HandlerInvoker.KIND_LAMBDA, invoker.getKind());
+        Assert.assertNull(invoker.invoke(handlerCtx));
+        Assert.assertSame(handlerCtx, _lastContext);
+
+        Assert.assertEquals(Boolean.FALSE, createInvoker("staticBooleanHandler").invoke(handlerCtx));
+        Assert.assertEquals("instance", createInvoker("instanceHandler").invoke(handlerCtx));
+        invoker = createInvoker("instanceVoidHandler");
+        Assert.assertEquals(HandlerInvoker.KIND_LAMBDA, invoker.getKind());
+        Assert.assertNull(invoker.invoke(handlerCtx));
+
+        HandlerDefinition def = new HandlerDefinition("test");
+        Assert.assertNull(def.getHandlerInvoker());
+        def.setHandlerMethod(HandlerInvokerTest.class.getName(), "staticHandler");
+        Assert.assertSame(def.getHandlerInvoker(), def.getHandlerInvoker());
+        Assert.assertEquals("staticHandler", def.getHandlerInvoker().getMethod().getName());
+    }
+
+    /**
+     *	<p> Exceptions thrown by the handler are wrapped the same way as
+     *	    <code>Method.invoke()</code> wraps them.</p>
+     */
+    @Test
+    public void testException() throws Exception {
+        try {
+            createInvoker("throwingHandler").invoke(createHandlerContext());
+            Assert.fail("Expected an InvocationTargetException.");
+        } catch (InvocationTargetException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IOException);
+            Assert.assertEquals("failed", ex.getCause().getMessage());
+        }
+    }
+
+    /**
+     *	<p> Instances are created for each call, each request, or once,
+     *	    depending on the {@link HandlerInvoker#INSTANCE_SCOPE}.</p>
+     */
+    @Test
+    public void testInstanceScope() throws Exception {
+        Assert.assertEquals(2, countInstances(null, false));
+        Assert.assertEquals(2, countInstances(HandlerInvoker.SCOPE_CALL, false));
+        Assert.assertEquals(1, countInstances(HandlerInvoker.SCOPE_REQUEST, false));
+        Assert.assertEquals(2, countInstances(HandlerInvoker.SCOPE_REQUEST, true));
+        Assert.assertEquals(1, countInstances("Singleton", true));
+    }
+
+    /**
+     *	<p> The global handlers are defined and called by the classes
+     *	    generated by the annotation processor, the same way the
+     *	    <code>Handler.map</code> defines them.</p>
+     */
+    @Test
+    public void testGenerated() throws Exception {
+        ContextMocker.init();
+        HandlerDefinition def = LayoutDefinitionManager.getGlobalHandlerDefinition("setAttribute");
+        Assert.assertEquals(HandlerInvoker.KIND_GENERATED, def.getHandlerInvoker().getKind());
+        Assert.assertTrue(def.isStatic());
+        Assert.assertEquals(ScopeHandlers.class.getName(), def.getHandlerClassName());
+        Assert.assertEquals(ScopeHandlers.class.getMethod("setAttribute", HandlerContext.class), def.getHandlerMethod());
+        Assert.assertEquals(String.class, def.getInputDef("key").getType());
+        Assert.assertTrue(def.getInputDef("value").isRequired());
+        Assert.assertEquals(Object.class, LayoutDefinitionManager.getGlobalHandlerDefinition("getAttribute").getOutputDef("value").getType());
+
+        HandlerContext handlerCtx = createHandlerContext();
+        Handler handler = new Handler(def);
+        handler.setInputValue("key", "generated");
+        handler.setInputValue("value", "called");
+        handlerCtx.setHandler(handler);
+        handler.invoke(handlerCtx);
+        Assert.assertEquals("called", handlerCtx.getFacesContext().getExternalContext().getRequestMap().get("generated"));
+    }
+
+    /**
+     *	<p> Compares the speed of the {@link HandlerInvoker} to
+     *	    <code>Method.invoke()</code>.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        HandlerContext handlerCtx = createHandlerContext();
+        Method staticMethod = HandlerInvokerTest.class.getMethod("staticHandler", HandlerContext.class);
+        Method instanceMethod = HandlerInvokerTest.class.getMethod("instanceHandler", HandlerContext.class);
+        HandlerInvoker staticInvoker = new HandlerInvoker(staticMethod);
+        HandlerInvoker instanceInvoker = new HandlerInvoker(instanceMethod);
+        int iterations = 1000000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                staticMethod.invoke(null, handlerCtx);
+                instanceMethod.invoke(instanceMethod.getDeclaringClass().getDeclaredConstructor().newInstance(), handlerCtx);
+            }
+            long parsed = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                staticInvoker.invoke(handlerCtx);
+                instanceInvoker.invoke(handlerCtx);
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("Handler dispatch performance (" + iterations + "), lower is better: reflection " + parsed + ", bound " + compiled);
+            }
+        }
+    }
+
+    /**
+     *	<p> This method invokes {@link #instanceHandler(HandlerContext)}
+     *	    twice in the given scope (in separate requests if
+     *	    <code>newRequest</code>) and returns the number of instances
+     *	    created.</p>
+     */
+    private static int countInstances(String scope, boolean newRequest) throws Exception {
+        if (scope != null) {
+            System.setProperty(HandlerInvoker.INSTANCE_SCOPE, scope);
+        }
+        HandlerContext handlerCtx = createHandlerContext();
+        Assert.assertEquals(scope == null ? HandlerInvoker.SCOPE_CALL : scope.toLowerCase(),
+                HandlerInvoker.getInstanceScope(handlerCtx.getFacesContext()));
+        HandlerInvoker invoker = createInvoker("instanceHandler");
+        int before = _instances;
+        invoker.invoke(handlerCtx);
+        if (newRequest) {
+            Map<String, Object> requestMap = handlerCtx.getFacesContext().getExternalContext().getRequestMap();
+            requestMap.clear();
+        }
+        invoker.invoke(handlerCtx);
+        return _instances - before;
+    }
+
+    private static HandlerInvoker createInvoker(String methodName) throws Exception {
+        return new HandlerInvoker(HandlerInvokerTest.class.getMethod(methodName, HandlerContext.class));
+    }
+
+    private static HandlerContext createHandlerContext() {
+        ContextMocker ctx = new ContextMocker();
+        return new HandlerContextImpl(ctx, null, null, "test");
+    }
+
+    public HandlerInvokerTest() {
+        _instances++;
+    }
+
+    public static void staticHandler(HandlerContext handlerCtx) {
+        _lastContext = handlerCtx;
+    }
+
+    public static boolean staticBooleanHandler(HandlerContext handlerCtx) {
+        return false;
+    }
+
+    public Object instanceHandler(HandlerContext handlerCtx) {
+        return "instance";
+    }
+
+    public void instanceVoidHandler(HandlerContext handlerCtx) {
+    }
+
+    public static void throwingHandler(HandlerContext handlerCtx) throws IOException {
+        throw new IOException("failed");
+    }
+
+    private static HandlerContext _lastContext;
+    private static int _instances;
+}
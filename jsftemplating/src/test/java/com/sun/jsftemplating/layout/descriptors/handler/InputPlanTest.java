@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+
+package com.sun.jsftemplating.layout.descriptors.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EventObject;
+import java.util.Map;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.component.ComponentUtil;
+import com.sun.jsftemplating.layout.descriptors.LayoutComponent;
+import com.sun.jsftemplating.util.TypeConverter;
+
+import jakarta.faces.component.UIComponent;
+import jakarta.faces.context.FacesContext;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link InputPlan}.</p>
+ */
+public class InputPlanTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+        _calls = 0;
+    }
+
+    /**
+     *	<p> Inputs are classified, and constants are resolved and
+     *	    converted.</p>
+     */
+    @Test
+    public void testKinds() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Handler handler = createHandler();
+        handler.setInputValue("text", "foo");
+        handler.setInputValue("count", "$int{5}");
+        handler.setInputValue("flag", "true");
+        handler.setInputValue("value", "#{bean.value}");
+        handler.setInputValue("attr", "$attribute{foo}");
+        handler.setInputValue("list", new ArrayList<String>());
+
+        InputPlan plan = handler.getInputPlan(ctx);
+        Assert.assertEquals(handler.getHandlerDefinition().getInputDefs().size(), plan.size());
+        Assert.assertEquals(-1, plan.indexOf("undeclared"));
+        assertSlot(plan, "text", InputPlan.LITERAL, "foo");
+        assertSlot(plan, "count", InputPlan.LITERAL, 5);
+        assertSlot(plan, "flag", InputPlan.LITERAL, Boolean.TRUE);
+        assertSlot(plan, "value", InputPlan.DEFERRED, "#{bean.value}");
+        assertSlot(plan, "attr", InputPlan.DYNAMIC, "$attribute{foo}");
+        assertSlot(plan, "list", InputPlan.DYNAMIC, new ArrayList<String>());
+        assertSlot(plan, "required", InputPlan.MISSING, null);
+        assertSlot(plan, "withDefault", InputPlan.LITERAL, 7);
+        assertSlot(plan, "none", InputPlan.LITERAL, null);
+
+        // The original inputs are unchanged
+        Assert.assertEquals("$int{5}", handler.getInputValue("count"));
+    }
+
+    /**
+     *	<p> The plan is shared until the inputs change.</p>
+     */
+    @Test
+    public void testChanges() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Handler handler = createHandler();
+        handler.setInputValue("text", "A");
+        InputPlan plan = handler.getInputPlan(ctx);
+        Assert.assertSame(plan, handler.getInputPlan(ctx));
+
+        handler.setInputValue("text", "$attribute{a}");
+        Assert.assertNotSame(plan, handler.getInputPlan(ctx));
+        plan = handler.getInputPlan(ctx);
+        Assert.assertEquals(InputPlan.DYNAMIC, plan.getKind(plan.indexOf("text")));
+
+        // Same number of inputs
+        handler.setInputValue("text", "B");
+        plan = handler.getInputPlan(ctx);
+        Assert.assertEquals("B", plan.getValue(plan.indexOf("text")));
+
+        handler.getHandlerDefinition().addInputDef(new IODescriptor("added", String.class));
+        Assert.assertNotSame(plan, handler.getInputPlan(ctx));
+        Assert.assertNotEquals(-1, handler.getInputPlan(ctx).indexOf("added"));
+    }
+
+    /**
+     *	<p> The values are the same as resolving and converting each input
+     *	    the way it was done before.</p>
+     */
+    @Test
+    public void testEvaluate() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        ctx.getExternalContext().getRequestMap().put("foo", "12");
+        Handler handler = createHandler();
+        handler.setInputValue("text", "x$attribute{foo}");
+        handler.setInputValue("count", "$attribute{foo}");
+        handler.setInputValue("flag", "$boolean{false}");
+        handler.setInputValue("list", Arrays.asList("$attribute{foo}", "b"));
+        HandlerContext handlerCtx = createHandlerContext(handler);
+        ComponentUtil compUtil = ComponentUtil.getInstance(ctx);
+        for (String name : new String[] { "text", "count", "flag", "list", "withDefault", "none" }) {
+            IODescriptor inDesc = handler.getHandlerDefinition().getInputDef(name);
+            Object value = handler.getInputValue(name);
+            if (value == null) {
+                value = inDesc.getDefault();
+            }
+            Object expected = TypeConverter.asType(inDesc.getType(), compUtil.resolveValue(ctx, handlerCtx.getLayoutElement(), null, value));
+            Assert.assertEquals(name, expected, handlerCtx.getInputValue(name));
+        }
+        Assert.assertEquals(Integer.valueOf(12), handlerCtx.getInputValue("count", Integer.class));
+        Assert.assertEquals("12", handlerCtx.getInputValue("count", String.class));
+
+        try {
+            handlerCtx.getInputValue("required");
+            Assert.fail("Expected a missing required input.");
+        } catch (RuntimeException ex) {
+            Assert.assertEquals("'required' is required for handler 'test'!", ex.getMessage());
+        }
+        try {
+            handlerCtx.getInputValue("undeclared");
+            Assert.fail("Expected an undeclared input.");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getMessage().startsWith("Attempted to get input value 'undeclared'"));
+        }
+    }
+
+    /**
+     *	<p> Each input is evaluated every time it is read.</p>
+     */
+    @Test
+    public void testEveryRead() throws Exception {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Map<String, Object> requestMap = ctx.getExternalContext().getRequestMap();
+        Handler handler = createHandler();
+        handler.getHandlerDefinition().setHandlerMethod(InputPlanTest.class.getName(), "readTwice");
+        handler.setInputValue("text", "$attribute{foo}");
+        HandlerContext handlerCtx = createHandlerContext(handler);
+
+        requestMap.put("foo", "first");
+        handler.invoke(handlerCtx);
+        Assert.assertEquals(1, _calls);
+        Assert.assertEquals("first", _lastValue);
+
+        requestMap.put("foo", "second");
+        handler.invoke(handlerCtx);
+        Assert.assertEquals(2, _calls);
+        Assert.assertEquals("second", _lastValue);
+
+        Assert.assertEquals("changed", handlerCtx.getInputValue("text"));
+        requestMap.put("foo", "third");
+        Assert.assertEquals("third", handlerCtx.getInputValue("text"));
+    }
+
+    /**
+     *	<p> Compares the speed of the {@link InputPlan} to resolving each
+     *	    input by name.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        ctx.getExternalContext().getRequestMap().put("foo", "12");
+        Handler handler = createHandler();
+        handler.setInputValue("text", "foo");
+        handler.setInputValue("count", "$int{5}");
+        handler.setInputValue("flag", "$attribute{foo}");
+        HandlerContext handlerCtx = createHandlerContext(handler);
+        String[] names = { "text", "count", "flag", "withDefault" };
+        int iterations = 500000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                for (String name : names) {
+                    // What Handler.getInputValue(HandlerContext, String) did
+                    IODescriptor inDesc = handler.getHandlerDefinition().getInputDef(name);
+                    Object value = handler.getInputValue(name);
+                    if (value == null) {
+                        value = inDesc.getDefault();
+                    }
+                    Object src = handlerCtx.getEventObject().getSource();
+                    UIComponent comp = src instanceof UIComponent ? (UIComponent) src : null;
+                    value = ComponentUtil.getInstance(ctx).resolveValue(ctx, handlerCtx.getLayoutElement(), comp, value);
+                    TypeConverter.asType(inDesc.getType(), value);
+                }
+            }
+            long parsed = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                handlerCtx.setHandler(handler);
+                for (String name : names) {
+                    handlerCtx.getInputValue(name);
+                }
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("Handler input performance (" + iterations + "), lower is better: by name " + parsed + ", planned " + compiled);
+            }
+        }
+    }
+
+    private static void assertSlot(InputPlan plan, String name, int kind, Object value) {
+        int idx = plan.indexOf(name);
+        Assert.assertEquals(name, plan.getName(idx));
+        Assert.assertEquals(name, kind, plan.getKind(idx));
+        Assert.assertEquals(name, value, plan.getValue(idx));
+    }
+
+    private static Handler createHandler() {
+        HandlerDefinition def = new HandlerDefinition("test");
+        def.addInputDef(new IODescriptor("text", String.class));
+        def.addInputDef(new IODescriptor("count", Integer.class));
+        def.addInputDef(new IODescriptor("flag", Boolean.class));
+        def.addInputDef(new IODescriptor("value", Object.class));
+        def.addInputDef(new IODescriptor("attr", Object.class));
+        def.addInputDef(new IODescriptor("list", Object.class));
+        IODescriptor required = new IODescriptor("required", String.class);
+        required.setRequired(true);
+        def.addInputDef(required);
+        IODescriptor withDefault = new IODescriptor("withDefault", Integer.class);
+        withDefault.setDefault("7");
+        def.addInputDef(withDefault);
+        def.addInputDef(new IODescriptor("none", String.class));
+        return new Handler(def);
+    }
+
+    private static HandlerContext createHandlerContext(Handler handler) {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        LayoutComponent elt = new LayoutComponent(null, "comp", null);
+        HandlerContext handlerCtx = new HandlerContextImpl(ctx, elt, new EventObject(elt), "test");
+        handlerCtx.setHandler(handler);
+        return handlerCtx;
+    }
+
+    public static void readTwice(HandlerContext handlerCtx) {
+        _calls++;
+        _lastValue = handlerCtx.getInputValue("text");
+        handlerCtx.getFacesContext().getExternalContext().getRequestMap().put("foo", "changed");
+        if (!"changed".equals(handlerCtx.getInputValue("text"))) {
+            throw new IllegalStateException("Not evaluated again.");
+        }
+    }
+
+    private static int _calls = 0;
+    private static Object _lastValue = null;
+}
@@ -19,9 +19,11 @@ package com.sun.jsftemplating.layout.template;
 
 import com.sun.jsftemplating.ContextMocker;
 import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
+import com.sun.jsftemplating.layout.descriptors.handler.AsyncHandlerDispatch;
 import com.sun.jsftemplating.layout.descriptors.handler.Handler;
 
 import java.io.ByteArrayInputStream;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -106,6 +108,37 @@ public class EventParserCommandTest {
         Assert.assertEquals("handler.valueInput1", "test", handlers.get(0).getInputValue("value"));
     }
 
+    /**
+     *    <p> The async, asyncId and dependsOn attributes of handlers, and the
+     *        timeout of the page.</p>
+     */
+    @Test
+    public void testAsyncParsing() throws Exception {
+        TemplateReader reader = new TemplateReader("async", new TemplateParser(new ByteArrayInputStream(ASYNC)));
+        LayoutDefinition ld = reader.read();
+        Assert.assertEquals(500, ld.getAsyncTimeout(null));
+
+        List<Handler> handlers = ld.getHandlers("initPage", null);
+        Assert.assertEquals("handler.size", 3, handlers.size());
+        Assert.assertTrue(handlers.get(0).isAsync());
+        Assert.assertEquals(0, handlers.get(0).getDependsOn().size());
+        Assert.assertEquals("setAttribute", handlers.get(0).getAsyncId());
+        Assert.assertEquals("b", handlers.get(0).getInputValue("value"));
+        Assert.assertTrue(handlers.get(1).isAsync());
+        Assert.assertEquals(Arrays.asList("setAttribute", "foo"), handlers.get(1).getDependsOn());
+        Assert.assertEquals("c", handlers.get(1).getAsyncId());
+        Assert.assertFalse(handlers.get(2).isAsync());
+        Assert.assertEquals(Arrays.asList("setAttribute"), handlers.get(2).getDependsOn());
+        Assert.assertEquals(AsyncHandlerDispatch.DEFAULT_ASYNC_TIMEOUT, new LayoutDefinition("other").getAsyncTimeout(null));
+    }
+
+    private static final byte[] ASYNC = (
+    "<!event type=\"initPage\" timeout=\"500\">\n"
+    + "setAttribute(key='a' value='b' async='true');\n"
+    + "setAttribute(key='c' value='$attribute{a}' async='true' asyncId='c' dependsOn='setAttribute, foo');\n"
+    + "println(value='$attribute{c}' dependsOn='setAttribute');\n"
+    + "</event>\n").getBytes();
+
     private static final byte[] HANDLERS1   = (
     "\nprintln(\"This is a test!\");\n"
     + "setAttribute(key='foo' value='bar');"
@@ -16,8 +16,12 @@
 
 package com.sun.jsftemplating.layout.template;
 
+import java.io.ByteArrayInputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 
@@ -260,6 +264,102 @@ public class TemplateParserTest {
 	}
     }
 
+    /**
+     *	<p> Templates are read as UTF-8 unless a byte order mark or an
+     *	    encoding says otherwise.</p>
+     */
+    @Test
+    public void testEncoding() throws Exception {
+	String text = "<sun:staticText text=\"\u00e9t\u00e9 \u65e5\u672c\" />";
+
+	// UTF-8 by default
+	TemplateParser parser = new TemplateParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	parser.open();
+	Assert.assertEquals(text, parser.readLine());
+	parser.close();
+
+	// UTF-8 w/ a byte order mark
+	byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+	byte[] withBom = new byte[bytes.length + 3];
+	withBom[0] = (byte) 0xEF;
+	withBom[1] = (byte) 0xBB;
+	withBom[2] = (byte) 0xBF;
+	System.arraycopy(bytes, 0, withBom, 3, bytes.length);
+	parser = new TemplateParser(new ByteArrayInputStream(withBom));
+	parser.open();
+	Assert.assertEquals('<', parser.nextChar());
+	parser.close();
+
+	// UTF-16 w/ a byte order mark
+	parser = new TemplateParser(new ByteArrayInputStream(("\ufeff" + text).getBytes(StandardCharsets.UTF_16LE)));
+	parser.open();
+	Assert.assertEquals(text, parser.readLine());
+	parser.close();
+
+	// An explicit encoding
+	text = "\u00e9t\u00e9";
+	parser = new TemplateParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.ISO_8859_1)));
+	parser.setEncoding("ISO-8859-1");
+	parser.open();
+	Assert.assertEquals(text, parser.readUntil('\n', false));
+	parser.close();
+    }
+
+    /**
+     *	<p> Tokens, Strings, and lines which span more than the parser's
+     *	    internal buffer are read completely.</p>
+     */
+    @Test
+    public void testLongValues() throws Exception {
+	char[] chars = new char[20000];
+	Arrays.fill(chars, 'a');
+	String longStr = new String(chars);
+	String text = longStr + " \"" + longStr + "\\\"" + longStr + "\"\n" + longStr + "\r\nnext";
+
+	TemplateParser parser = new TemplateParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+	parser.open();
+	Assert.assertEquals(longStr, parser.readToken());
+	parser.skipWhiteSpace(TemplateParser.SIMPLE_WHITE_SPACE);
+	Assert.assertEquals('"', parser.nextChar());
+	Assert.assertEquals(longStr + "\"" + longStr, parser.readUntil('"', false));
+	parser.readLine();
+	Assert.assertEquals(longStr, parser.readLine());
+	Assert.assertEquals("next", parser.readToken());
+	Assert.assertEquals(-1, parser.nextChar());
+	parser.close();
+    }
+
+    /**
+     *	<p> Reads a large template using only the parser, to measure the
+     *	    speed of reading characters, tokens, and Strings.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() throws Exception {
+	Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+	int iterations = 20;
+	long start = System.currentTimeMillis();
+	for (int x = 0; x < iterations; x++) {
+	    TemplateParser parser = new TemplateParser(cl.getResource("./speed-xl.jsf"));
+	    parser.open();
+	    int ch = parser.nextChar();
+	    while (ch != -1) {
+		if (ch == '<') {
+		    parser.readToken();
+		    parser.readUntil('>', false);
+		} else if (ch == '"') {
+		    parser.readUntil('"', false);
+		} else {
+		    parser.skipCommentsAndWhiteSpace(TemplateParser.SIMPLE_WHITE_SPACE);
+		}
+		ch = parser.nextChar();
+	    }
+	    parser.close();
+	}
+System.out.println("Template parser performance ./speed-xl.jsf (" + iterations + "), lower is better: " + (System.currentTimeMillis() - start));
+    }
+
 /*
     public void testAdd() {
 	assertTrue(5 == 6);
@@ -23,6 +23,7 @@ import com.sun.jsftemplating.layout.descriptors.LayoutDefinition;
 import com.sun.jsftemplating.layout.descriptors.LayoutElement;
 import java.util.List;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -78,6 +79,18 @@ System.out.println("Template performance " + fileName + " (" + iterations + "),
 //	timeTest(new URL("file:"),".speed-xl.jsf", 500);
     }
 
+    /**
+     *	<p> Times the large templates.  This takes a while, so it only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeedLarge() {
+	Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+	timeTest("./speed-l.jsf", 50);
+	timeTest("./speed-xl.jsf", 10);
+    }
+
     /**
      *	<p> This test reads <code>TemplateFormat2.jsf</code>.  This
      *	    file contains a bunch of {@link LayoutComposition} tags to
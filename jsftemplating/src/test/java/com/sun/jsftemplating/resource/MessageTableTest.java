@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.resource;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.el.VariableResolver;
+import com.sun.jsftemplating.util.MessageUtil;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link MessageTable}.</p>
+ */
+public class MessageTableTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    @After
+    public void cleanUp() {
+        ResourceBundleManager.getInstance(FacesContext.getCurrentInstance()).clear();
+        FacesContext.getCurrentInstance().getExternalContext().getRequestMap().remove("msgs");
+    }
+
+    /**
+     *	<p> The messages of the parent bundles are included, and
+     *	    <code>Locale</code>s which find the same bundle share its
+     *	    table.</p>
+     */
+    @Test
+    public void testFlatten() {
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance());
+        MessageTable table = mgr.getMessageTable(BUNDLE, Locale.FRENCH);
+        Assert.assertFalse(table.isMissing());
+        Assert.assertEquals(Locale.FRENCH, table.getLocale());
+        Assert.assertEquals("Bonjour {0}", table.getString("hello"));
+        Assert.assertEquals("Goodbye", table.getString("goodbye"));
+        Assert.assertNull(table.getString("missing"));
+        Assert.assertEquals(3, table.size());
+
+        Assert.assertSame(table, mgr.getMessageTable(BUNDLE, Locale.FRENCH));
+        Assert.assertSame(table, mgr.getMessageTable(BUNDLE, Locale.CANADA_FRENCH));
+        Assert.assertSame(table.getBundle(), mgr.getBundle(BUNDLE, Locale.FRENCH));
+        Assert.assertSame(table, mgr.getMessageTable(table.getBundle()));
+        Assert.assertNull(mgr.getMessageTable(ResourceBundle.getBundle(BUNDLE, Locale.FRENCH, new ClassLoader(getClass().getClassLoader()) {
+        })));
+    }
+
+    /**
+     *	<p> Messages are formatted the same way as
+     *	    {@link MessageUtil#getFormattedMessage(String, Object[])}.</p>
+     */
+    @Test
+    public void testFormat() {
+        Assert.assertEquals("Bonjour Bob", MessageUtil.getInstance().getMessage(Locale.FRENCH, BUNDLE, "hello", new Object[] { "Bob" }));
+        Assert.assertEquals("Bonjour Bob", MessageUtil.getInstance().getMessage(Locale.FRENCH, BUNDLE, "hello", new Object[] { "Bob" }));
+        Assert.assertEquals("Bonjour {0}", MessageUtil.getInstance().getMessage(Locale.FRENCH, BUNDLE, "hello", null));
+        Assert.assertEquals("missing", MessageUtil.getInstance().getMessage(Locale.FRENCH, BUNDLE, "missing", new Object[] { "Bob" }));
+
+        Object[] args = { 12345 };
+        MessageTable table = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance()).getMessageTable(BUNDLE, Locale.ROOT);
+        Assert.assertEquals(MessageUtil.getFormattedMessage(table.getString("count"), args), table.getMessage("count", args));
+
+        // Numbers are formatted for the requested Locale
+        table = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance()).getMessageTable(BUNDLE, Locale.FRENCH);
+        Assert.assertEquals(new MessageFormat(table.getString("count"), Locale.FRENCH).format(args), table.getMessage("count", args, Locale.FRENCH));
+    }
+
+    /**
+     *	<p> A <code>Locale</code> without a bundle of its own shares the
+     *	    table of the bundle it falls back to, but numbers are still
+     *	    formatted for the <code>Locale</code> which was requested.</p>
+     */
+    @Test
+    public void testFallbackFormat() {
+        Object[] args = { 12345 };
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance());
+        MessageTable table = mgr.getMessageTable(BUNDLE, Locale.GERMANY);
+        Assert.assertSame(table, mgr.getMessageTable(BUNDLE, Locale.ROOT));
+        Assert.assertEquals("There are 12.345 items", MessageUtil.getInstance().getMessage(Locale.GERMANY, BUNDLE, "count", args));
+        Assert.assertEquals("There are 12,345 items", MessageUtil.getInstance().getMessage(Locale.US, BUNDLE, "count", args));
+        Assert.assertEquals("There are 12.345 items", table.getMessage("count", args, Locale.GERMANY));
+    }
+
+    /**
+     *	<p> Bundles which are not found are only searched for once.</p>
+     */
+    @Test
+    public void testMissingBundle() {
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance());
+        MessageTable table = mgr.getMessageTable("no.such.Bundle", Locale.FRENCH);
+        Assert.assertTrue(table.isMissing());
+        Assert.assertEquals(0, table.size());
+        Assert.assertSame(table, mgr.getMessageTable("no.such.Bundle", Locale.FRENCH));
+        Assert.assertNull(mgr.getBundle("no.such.Bundle", Locale.FRENCH));
+        Assert.assertEquals("key", MessageUtil.getInstance().getMessage(Locale.FRENCH, "no.such.Bundle", "key", null));
+
+        mgr.clear();
+        Assert.assertNotSame(table, mgr.getMessageTable("no.such.Bundle", Locale.FRENCH));
+    }
+
+    /**
+     *	<p> <code>$resource{...}</code> uses the table of bundles from the
+     *	    {@link ResourceBundleManager}.</p>
+     */
+    @Test
+    public void testResourceDataSource() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        VariableResolver.DataSource ds = VariableResolver.getDataSource(ctx, VariableResolver.RESOURCE);
+        for (ResourceBundle bundle : new ResourceBundle[] { ResourceBundleManager.getInstance(ctx).getBundle(BUNDLE, Locale.FRENCH),
+                ResourceBundle.getBundle(BUNDLE, Locale.FRENCH) }) {
+            ctx.getExternalContext().getRequestMap().put("msgs", bundle);
+            Assert.assertEquals("Goodbye", ds.getValue(ctx, null, null, "msgs.goodbye"));
+            Assert.assertEquals("Bonjour Bob", ds.getValue(ctx, null, null, "msgs.hello, Bob"));
+            Assert.assertEquals("Bonjour {0}", ds.getValue(ctx, null, null, "msgs.hello,"));
+            Assert.assertEquals("msgs.missing", ds.getValue(ctx, null, null, "msgs.missing"));
+        }
+    }
+
+    /**
+     *	<p> Configured bundles may be loaded ahead of time.</p>
+     */
+    @Test
+    public void testPreload() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        int missing = new ResourceBundlePreloader().preload(ctx, Arrays.asList(BUNDLE, "no.such.Bundle"),
+                new LinkedHashSet<>(Arrays.asList(Locale.FRENCH, Locale.ROOT)));
+        Assert.assertEquals(2, missing);
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(ctx);
+        Assert.assertEquals(0, new ResourceBundlePreloader().preload(ctx, Collections.singletonList(BUNDLE), Collections.singleton(Locale.FRENCH)));
+        Assert.assertSame(mgr.getMessageTable(BUNDLE, Locale.FRENCH), mgr.getMessageTable(BUNDLE, Locale.CANADA_FRENCH));
+    }
+
+    /**
+     *	<p> Compares the speed of the table to looking up and formatting
+     *	    each message.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        ResourceBundleManager mgr = ResourceBundleManager.getInstance(FacesContext.getCurrentInstance());
+        Object[] args = { "Bob" };
+        int iterations = 200000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                ResourceBundle bundle = mgr.getBundle(BUNDLE, Locale.FRENCH);
+                new MessageFormat(bundle.getString("hello")).format(args);
+            }
+            long parsed = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                mgr.getMessageTable(BUNDLE, Locale.FRENCH).getMessage("hello", args);
+            }
+            long compiled = System.currentTimeMillis() - start;
+            if (warmUp == 1) {
+System.out.println("MessageTable performance (" + iterations + "), lower is better: parsed " + parsed + ", compiled " + compiled);
+            }
+        }
+    }
+
+    private static final String BUNDLE = "MessageTableTest";
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+
+import com.sun.jsftemplating.ContextMocker;
+import com.sun.jsftemplating.el.VariableResolver;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link ApplicationRegistry}.</p>
+ */
+public class ApplicationRegistryTest {
+
+    /**
+     *	<p> The <code>Map</code> is created once per application and is
+     *	    remembered.</p>
+     */
+    @Test
+    public void testMap() {
+        ApplicationRegistry<String, String> registry = new ApplicationRegistry<>("__jsft_test", map -> map.put("a", "A"));
+        FacesContext ctx1 = createContext();
+        FacesContext ctx2 = createContext();
+
+        Map<String, String> map1 = registry.getMap(ctx1);
+        Assert.assertEquals("A", map1.get("a"));
+        Assert.assertSame(map1, ctx1.getExternalContext().getApplicationMap().get("__jsft_test"));
+        Assert.assertSame(map1, registry.getMap(ctx1));
+
+        Map<String, String> map2 = registry.getMap(ctx2);
+        Assert.assertNotSame(map1, map2);
+        Assert.assertSame(map1, registry.getMap(ctx1));
+        map2.put("b", "B");
+        Assert.assertNull(map1.get("b"));
+
+        // Removed from the application, a new one is created
+        ctx1.getExternalContext().getApplicationMap().remove("__jsft_test");
+        Map<String, String> map3 = registry.getMap(ctx1);
+        Assert.assertNotSame(map1, map3);
+        Assert.assertSame(map3, ctx1.getExternalContext().getApplicationMap().get("__jsft_test"));
+        Assert.assertSame(map3, registry.getMap(ctx1));
+    }
+
+    /**
+     *	<p> {@link VariableResolver.DataSource}s and {@link TypeConversion}s
+     *	    registered by many threads while the registries are created (and
+     *	    read) are not lost.</p>
+     */
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            FacesContext ctx = createContext();
+            List<Throwable> errors = runThreads(ctx, (thread, count) -> {
+                String key = "t" + thread + "_" + count;
+                VariableResolver.setDataSource(ctx, key, (c, desc, comp, k) -> key);
+                TypeConverter.registerTypeConversion(ctx, key, TypeConverter.STRING_TYPE_CONVERSION);
+                if (VariableResolver.getDataSource(ctx, VariableResolver.INT) == null
+                        || TypeConverter.getTypeConversions(ctx).get(Integer.class) == null) {
+                    throw new AssertionError("Default entry missing.");
+                }
+            });
+            Assert.assertEquals(errors.toString(), 0, errors.size());
+            for (int thread = 0; thread < THREADS; thread++) {
+                for (int count = 0; count < COUNT; count++) {
+                    String key = "t" + thread + "_" + count;
+                    Assert.assertNotNull("Lost DataSource: " + key, VariableResolver.getDataSource(ctx, key));
+                    Assert.assertSame("Lost TypeConversion: " + key, TypeConverter.STRING_TYPE_CONVERSION,
+                            TypeConverter.getTypeConversions(ctx).get(key));
+                }
+            }
+        }
+    }
+
+    /**
+     *	<p> <code>$constant{...}</code> values resolved by many threads are
+     *	    all correct.</p>
+     */
+    @Test
+    public void testConcurrentConstants() throws Exception {
+        FacesContext ctx = createContext();
+        VariableResolver.DataSource ds = VariableResolver.getDataSource(ctx, VariableResolver.CONSTANT);
+        List<Throwable> errors = runThreads(ctx, (thread, count) -> {
+            Object value = ds.getValue(ctx, null, null, ApplicationRegistryTest.class.getName() + ".CONSTANT_" + (count % 4));
+            if (!("value" + (count % 4)).equals(value)) {
+                throw new AssertionError("Unexpected value: " + value);
+            }
+            if (ds.getValue(ctx, null, null, ApplicationRegistryTest.class.getName() + ".NULL_CONSTANT") != null) {
+                throw new AssertionError("Expected null.");
+            }
+        });
+        Assert.assertEquals(errors.toString(), 0, errors.size());
+    }
+
+    private static FacesContext createContext() {
+        ContextMocker ctx = new ContextMocker();
+        ((ContextMocker.ExternalContextMocker) ctx._extCtx)._appMap = new ConcurrentHashMap<>();
+        return ctx;
+    }
+
+    private static List<Throwable> runThreads(FacesContext ctx, Task task) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int idx = 0; idx < THREADS; idx++) {
+            int thread = idx;
+            threads.add(new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int count = 0; count < COUNT; count++) {
+                        task.run(thread, count);
+                    }
+                } catch (Throwable ex) {
+                    synchronized (errors) {
+                        errors.add(ex);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return errors;
+    }
+
+    private interface Task {
+        void run(int thread, int count) throws Exception;
+    }
+
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 8;
+    private static final int COUNT = 200;
+
+    public static final String CONSTANT_0 = "value0";
+    public static final String CONSTANT_1 = "value1";
+    public static final String CONSTANT_2 = "value2";
+    public static final String CONSTANT_3 = "value3";
+    public static final String NULL_CONSTANT = null;
+}
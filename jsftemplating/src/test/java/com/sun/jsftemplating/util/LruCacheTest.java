@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link LruCache}.</p>
+ */
+public class LruCacheTest {
+
+    /**
+     *	<p> The least recently used entries are evicted in a batch when the
+     *	    cache is full.</p>
+     */
+    @Test
+    public void testEviction() throws Exception {
+        LruCache<String, String> cache = new LruCache<>(10);
+        for (int idx = 0; idx < 10; idx++) {
+            cache.put("key" + idx, "value" + idx);
+            Thread.sleep(1);
+        }
+        // Use the oldest entry so it is kept
+        Assert.assertEquals("value0", cache.get("key0"));
+        cache.put("key10", "value10");
+        Assert.assertEquals("size", 9, cache.size());
+        Assert.assertEquals("evictions", 2, cache.getEvictionCount());
+        Assert.assertEquals("used", "value0", cache.get("key0"));
+        Assert.assertNull("evicted", cache.get("key1"));
+        Assert.assertNull("evicted", cache.get("key2"));
+        Assert.assertEquals("kept", "value3", cache.get("key3"));
+        Assert.assertEquals("new", "value10", cache.get("key10"));
+    }
+
+    /**
+     *	<p> A size of <code>0</code> disables the cache.</p>
+     */
+    @Test
+    public void testDisabled() {
+        LruCache<String, String> cache = new LruCache<>(0);
+        Assert.assertEquals("computed", "a", cache.computeIfAbsent("a", key -> key));
+        Assert.assertEquals("size", 0, cache.size());
+        Assert.assertNull("notCached", cache.get("a"));
+    }
+
+    /**
+     *	<p> Values are only computed when they are not cached, and
+     *	    <code>null</code> values are not cached.</p>
+     */
+    @Test
+    public void testComputeIfAbsent() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        Assert.assertEquals("computed", "a", cache.computeIfAbsent("a", key -> key));
+        Assert.assertEquals("cached", "a", cache.computeIfAbsent("a", key -> "b"));
+        Assert.assertNull("null", cache.computeIfAbsent("b", key -> null));
+        Assert.assertEquals("size", 1, cache.size());
+        cache.remove("a");
+        Assert.assertEquals("removed", 0, cache.size());
+    }
+}
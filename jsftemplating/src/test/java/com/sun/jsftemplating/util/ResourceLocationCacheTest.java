@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import com.sun.jsftemplating.ContextMocker;
+import java.io.File;
+import java.net.URL;
+import jakarta.faces.context.FacesContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link ResourceLocationCache}.</p>
+ */
+public class ResourceLocationCacheTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    /**
+     *	<p> Found and not found locations are remembered per suffix, and
+     *	    locations which were not found expire after the ttl.</p>
+     */
+    @Test
+    public void testLocations() throws Exception {
+        ResourceLocationCache cache = new ResourceLocationCache(10, -1, false);
+        URL url = new URL("file:/a.jsf");
+        cache.put("a.jsf", null, url);
+        cache.put("b.jsf", null, null);
+        Assert.assertEquals("found", url, cache.get("a.jsf", null).getURL());
+        Assert.assertNull("notFound", cache.get("b.jsf", null).getURL());
+        Assert.assertNull("unknownSuffix", cache.get("a.jsf", ".xhtml"));
+
+        cache = new ResourceLocationCache(10, 0, false);
+        cache.put("a.jsf", null, url);
+        cache.put("b.jsf", null, null);
+        Thread.sleep(5);
+        Assert.assertNotNull("foundNotExpired", cache.get("a.jsf", null));
+        Assert.assertNull("expired", cache.get("b.jsf", null));
+        Assert.assertEquals("purged", 1, cache.size());
+    }
+
+    /**
+     *	<p> Found locations are searched for again when the file is
+     *	    modified or removed.</p>
+     */
+    @Test
+    public void testValidate() throws Exception {
+        File file = File.createTempFile("jsft", ".jsf");
+        try {
+            URL url = file.toURI().toURL();
+            ResourceLocationCache cache = new ResourceLocationCache(10, -1, true);
+            cache.put("a.jsf", null, url);
+            Assert.assertEquals("valid", url, cache.get("a.jsf", null).getURL());
+            Assert.assertTrue(file.setLastModified(file.lastModified() - 10000));
+            Assert.assertNull("modified", cache.get("a.jsf", null));
+
+            cache.put("a.jsf", null, url);
+            Assert.assertTrue(file.delete());
+            Assert.assertNull("removed", cache.get("a.jsf", null));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     *	<p> {@link FileUtil#searchForFile(String, String)} remembers what it
+     *	    found for the application.</p>
+     */
+    @Test
+    public void testSearchForFile() throws Exception {
+        ResourceLocationCache cache =
+            FileUtil.getResourceLocationCache(FacesContext.getCurrentInstance());
+        URL url = FileUtil.searchForFile("/TemplateFormat.jsf", null);
+        Assert.assertNotNull("found", url);
+        Assert.assertEquals("cached", url, cache.get("TemplateFormat.jsf", null).getURL());
+        Assert.assertNull("notFound", FileUtil.searchForFile("/noSuchFile.jsf", ".jsf"));
+        Assert.assertNotNull("cachedNotFound", cache.get("noSuchFile.jsf", ".jsf"));
+    }
+}
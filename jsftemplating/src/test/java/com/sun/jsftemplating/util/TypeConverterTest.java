@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.jsftemplating.util;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import com.sun.jsftemplating.ContextMocker;
+
+import jakarta.faces.context.FacesContext;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *  <p>	Tests for the {@link TypeConverter}.</p>
+ */
+public class TypeConverterTest {
+
+    @Before
+    public void init() {
+        ContextMocker.init();
+    }
+
+    @After
+    public void cleanUp() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        TypeConverter.registerTypeConversion(ctx, Integer.class, TypeConverter.INTEGER_TYPE_CONVERSION);
+        TypeConverter.registerTypeConversion(ctx, "foo", null);
+    }
+
+    /**
+     *	<p> The converters give the same result (or error) as the
+     *	    registered {@link TypeConversion}s.</p>
+     */
+    @Test
+    public void testGolden() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        for (Object typeKey : TYPES) {
+            TypeConversion conversion = TypeConverter.getTypeConversions(ctx).get(typeKey);
+            for (Object value : VALUES) {
+                Object expected = convert(v -> conversion.convertValue(v), value);
+                Assert.assertEquals("asType(" + typeKey + ", " + value + ")", expected, convert(v -> TypeConverter.asType(typeKey, v), value));
+                if (value != null) {
+                    Function<Object, Object> converter = TypeConverter.getConverter(ctx, typeKey, value.getClass());
+                    Assert.assertEquals("Converter " + typeKey + ": " + value, expected, convert(converter, value));
+                    Assert.assertSame(converter, TypeConverter.getConverter(ctx, typeKey, value.getClass()));
+                }
+            }
+        }
+    }
+
+    /**
+     *	<p> The primitive conversions give the same result (or error) as
+     *	    the <code>asX</code> methods did before.</p>
+     */
+    @Test
+    public void testPrimitives() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        ToIntFunction<Object> toInt = TypeConverter.getIntConverter(ctx);
+        Predicate<Object> toBoolean = TypeConverter.getBooleanConverter(ctx);
+        for (Object value : VALUES) {
+            Object expected = convert(v -> {
+                Integer result = (Integer) TypeConverter.INTEGER_TYPE_CONVERSION.convertValue(v);
+                return result == null ? -1 : result;
+            }, value);
+            Assert.assertEquals("asInt(" + value + ")", expected, convert(v -> TypeConverter.asInt(v, -1), value));
+            if (!"-1".equals(String.valueOf(expected))) {
+                Assert.assertEquals("getIntConverter: " + value, expected, convert(v -> toInt.applyAsInt(v), value));
+            }
+
+            expected = convert(v -> {
+                Boolean result = (Boolean) TypeConverter.BOOLEAN_TYPE_CONVERSION.convertValue(v);
+                return result == null ? Boolean.TRUE : result;
+            }, value);
+            Assert.assertEquals("asBoolean(" + value + ")", expected, convert(v -> TypeConverter.asBoolean(v, true), value));
+            Assert.assertEquals("asLong(" + value + ")", convert(v -> {
+                Long result = (Long) TypeConverter.LONG_TYPE_CONVERSION.convertValue(v);
+                return result == null ? 0L : result;
+            }, value), convert(v -> TypeConverter.asLong(v), value));
+            Assert.assertEquals("asDouble(" + value + ")", convert(v -> {
+                Double result = (Double) TypeConverter.DOUBLE_TYPE_CONVERSION.convertValue(v);
+                return result == null ? 0D : result;
+            }, value), convert(v -> TypeConverter.asDouble(v), value));
+        }
+        Assert.assertFalse(toBoolean.test(null));
+        Assert.assertTrue(toBoolean.test("TRUE"));
+        Assert.assertEquals(0, toInt.applyAsInt(" "));
+    }
+
+    /**
+     *	<p> Registering a {@link TypeConversion} replaces the
+     *	    converters which use the old one.</p>
+     */
+    @Test
+    public void testRegister() {
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        Assert.assertNull(TypeConverter.getConverter(ctx, "foo", String.class));
+        TypeConverter.registerTypeConversion(ctx, "foo", value -> "foo:" + value);
+        Assert.assertEquals("foo:bar", TypeConverter.asType("foo", "bar"));
+        Assert.assertEquals("foo:bar", TypeConverter.getConverter(ctx, "foo", String.class).apply("bar"));
+
+        Assert.assertEquals(Integer.valueOf(5), TypeConverter.asType(Integer.class, "5"));
+        TypeConverter.registerTypeConversion(ctx, Integer.class, value -> 42);
+        Assert.assertEquals(42, TypeConverter.asType(Integer.class, "5"));
+        Assert.assertEquals(42, TypeConverter.asInt("5"));
+        Assert.assertEquals(42, TypeConverter.getIntConverter(ctx).applyAsInt("5"));
+
+        // Values of the requested type are never converted
+        Assert.assertEquals(Integer.valueOf(5), TypeConverter.asType(Integer.class, 5));
+        Assert.assertEquals(5, TypeConverter.getConverter(ctx, Integer.class, Integer.class).apply(5));
+    }
+
+    /**
+     *	<p> Compares the speed of the converters to the registered
+     *	    {@link TypeConversion}s for the common
+     *	    conversions.  This only
+     *	    runs when the <code>jsftemplating.benchmark</code> system
+     *	    property is <code>true</code>.</p>
+     */
+    @Test
+    public void testSpeed() {
+        Assume.assumeTrue(Boolean.getBoolean("jsftemplating.benchmark"));
+        FacesContext ctx = FacesContext.getCurrentInstance();
+        String[] values = { "12", "true", "1234567890123", "abc" };
+        Object[] typeKeys = { Integer.class, Boolean.class, Long.class, String.class };
+        int iterations = 500000;
+        for (int warmUp = 0; warmUp < 2; warmUp++) {
+            long start = System.currentTimeMillis();
+            int count = 0;
+            for (int x = 0; x < iterations; x++) {
+                for (int idx = 0; idx < values.length; idx++) {
+                    Object typeKey = typeKeys[idx];
+                    TypeConversion conversion = TypeConverter.getTypeConversions(null).get(typeKey);
+                    count += conversion.convertValue(values[idx]).hashCode();
+                }
+                count += ((Integer) TypeConverter.INTEGER_TYPE_CONVERSION.convertValue(values[0])).intValue();
+            }
+            long registered = System.currentTimeMillis() - start;
+            int sum = count;
+            start = System.currentTimeMillis();
+            for (int x = 0; x < iterations; x++) {
+                for (int idx = 0; idx < values.length; idx++) {
+                    count -= TypeConverter.asType(typeKeys[idx], values[idx]).hashCode();
+                }
+                count -= TypeConverter.asInt(values[0]);
+            }
+            long asType = System.currentTimeMillis() - start;
+            Assert.assertEquals(0, count);
+            start = System.currentTimeMillis();
+
+            // Resolved once, as handler inputs do
+            @SuppressWarnings("unchecked")
+            Function<Object, Object>[] converters = new Function[values.length];
+            for (int idx = 0; idx < values.length; idx++) {
+                converters[idx] = TypeConverter.getConverter(ctx, typeKeys[idx], String.class);
+            }
+            ToIntFunction<Object> toInt = TypeConverter.getIntConverter(ctx);
+            for (int x = 0; x < iterations; x++) {
+                for (int idx = 0; idx < values.length; idx++) {
+                    count += converters[idx].apply(values[idx]).hashCode();
+                }
+                count += toInt.applyAsInt(values[0]);
+            }
+            long bound = System.currentTimeMillis() - start;
+            Assert.assertEquals(sum, count);
+            if (warmUp == 1) {
+System.out.println("TypeConverter performance (" + iterations + "), lower is better: registered " + registered + ", asType " + asType + ", bound " + bound);
+            }
+        }
+    }
+
+    /**
+     *	<p> The result of the function, or the name of the exception it
+     *	    throws.</p>
+     */
+    private static Object convert(Function<Object, Object> function, Object value) {
+        try {
+            return function.apply(value);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+    }
+
+    private static final Object[] TYPES = {
+        Integer.class, TypeConverter.TYPE_INT, Long.class, Double.class, Float.class, Short.class, Byte.class,
+        Boolean.class, TypeConverter.TYPE_BOOLEAN, String.class, Object.class, TypeConverter.TYPE_UNKNOWN,
+    };
+
+    private static final Object[] VALUES = {
+        null, "", "  ", "12", " 12", "-7", "1.5", "true", "TRUE", "no", "abc", "1234567890123",
+        12, 12L, 1.5D, Boolean.TRUE, 'c', new StringBuilder("3"),
+    };
+}